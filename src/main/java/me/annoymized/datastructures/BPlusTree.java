@@ -0,0 +1,1111 @@
+package me.annoymized.datastructures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of an ordered set as an in-memory B+tree. Every node holds up to {@link #order()} keys in an
+ * array, so a lookup binary searches a handful of wide nodes instead of following a pointer per comparison, and
+ * all elements are kept in the leaves, which are linked in ascending order so range scans walk consecutive
+ * arrays. Inner nodes only hold separator keys: every key in the child left of a separator is less than it and
+ * every key in the child right of it is not. Nodes are split on the way down when adding and refilled from a
+ * sibling on the way down when removing, so neither operation walks back up the tree. A tree can be bulk loaded
+ * from sorted elements in linear time with {@link #ofSorted(Comparator, Object[])}.
+ * Elements are ordered by a {@link Comparator} or their natural ordering, two elements are considered equal if
+ * they compare as equal.
+ * This class is not thread safe and by no means performs any concurrent modification checks.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public class BPlusTree<T> implements Collection<T> {
+
+    private static final int DEFAULT_ORDER = 64;
+    private static final int MIN_ORDER = 4;
+    // Some VMs reserve header words in an array
+    private static final int MAXIMUM_CAPACITY = Integer.MAX_VALUE - 8;
+    // Bulk operations with inputs smaller than this fraction of the tree modify it in place instead of rebuilding it
+    private static final int REBUILD_RATIO = 8;
+
+    private final Comparator<? super T> comparator;
+    private final int order;
+    private Node root;
+    // The leftmost leaf, it is never merged into a sibling so it only changes when the tree is rebuilt
+    private Leaf head;
+    private int size;
+
+    /**
+     * Create a tree ordered by the natural ordering of its elements, which must implement {@link Comparable}
+     */
+    @SuppressWarnings("unchecked")
+    public BPlusTree() {
+        this((Comparator<? super T>) Comparator.naturalOrder());
+    }
+
+    /**
+     * @param comparator The comparator which orders the elements
+     */
+    public BPlusTree(final Comparator<? super T> comparator) {
+        this(comparator, DEFAULT_ORDER);
+    }
+
+    /**
+     * @param comparator The comparator which orders the elements
+     * @param order      The maximum number of keys of a leaf and of children of an inner node
+     * @throws IllegalArgumentException Thrown if the comparator is null or the order is less than 4
+     */
+    public BPlusTree(final Comparator<? super T> comparator, final int order) throws IllegalArgumentException {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        if (order < MIN_ORDER) {
+            throw new IllegalArgumentException("Invalid order: " + order);
+        }
+        this.comparator = comparator;
+        this.order = order;
+        this.head = new Leaf(order);
+        this.root = this.head;
+    }
+
+    /**
+     * Create a tree holding given elements which are sorted in ascending order of their natural ordering
+     * Worst-Case Time Complexity = O(n)
+     *
+     * @param sorted The elements in strictly ascending order
+     * @param <T>    A generic type, must implement {@link Comparable}.
+     * @return Returns the tree
+     * @throws IllegalArgumentException Thrown if the array contains null or is not strictly ascending
+     */
+    public static <T extends Comparable<? super T>> BPlusTree<T> ofSorted(final T[] sorted) {
+        return ofSorted(Comparator.naturalOrder(), sorted);
+    }
+
+    /**
+     * Create a tree holding given elements which are sorted in ascending order of a comparator. The leaves are
+     * filled from left to right and every level of inner nodes is built on top of the previous one, so no key is
+     * compared other than to check the order. Worst-Case Time Complexity = O(n)
+     *
+     * @param comparator The comparator which orders the elements
+     * @param sorted     The elements in strictly ascending order
+     * @param <T>        A generic type, can be anything.
+     * @return Returns the tree
+     * @throws IllegalArgumentException Thrown if the array contains null or is not strictly ascending
+     */
+    public static <T> BPlusTree<T> ofSorted(final Comparator<? super T> comparator, final T[] sorted) {
+        final BPlusTree<T> tree = new BPlusTree<>(comparator);
+        for (int i = 0; i < sorted.length; i++) {
+            checkNotNull(sorted[i]);
+            if (i != 0 && comparator.compare(sorted[i - 1], sorted[i]) >= 0) {
+                throw new IllegalArgumentException("Elements are not in strictly ascending order at index " + i);
+            }
+        }
+        tree.load(sorted, sorted.length);
+        return tree;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Full nodes on the path to the leaf are split on the way down. Worst-Case Time Complexity = O(log n)
+     *
+     * @throws IllegalArgumentException Thrown if the element is null
+     * @throws IllegalStateException    Thrown if the tree holds the maximum number of elements
+     */
+    @Override
+    public void add(final T t) {
+        checkNotNull(t);
+        if (isFull(this.root)) {
+            final Inner root = new Inner(this.order);
+            root.children[0] = this.root;
+            splitChild(root, 0);
+            this.root = root;
+        }
+        Node node = this.root;
+        while (node instanceof Inner) {
+            final Inner inner = (Inner) node;
+            int index = childIndex(inner, t);
+            if (isFull(inner.children[index])) {
+                splitChild(inner, index);
+                if (compare(t, inner.keys[index]) >= 0) {
+                    index++;
+                }
+            }
+            node = inner.children[index];
+        }
+        final Leaf leaf = (Leaf) node;
+        final int index = search(leaf.keys, leaf.count, t);
+        if (index >= 0) {
+            return;
+        }
+        if (this.size == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Tree cannot hold more than " + MAXIMUM_CAPACITY + " elements");
+        }
+        final int insertion = -index - 1;
+        System.arraycopy(leaf.keys, insertion, leaf.keys, insertion + 1, leaf.count - insertion);
+        leaf.keys[insertion] = t;
+        leaf.count++;
+        this.size++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * This is equivalent to {@link #remove(Object)} as the tree holds every element at most once.
+     */
+    @Override
+    public boolean removeFirst(final T t) {
+        return remove(t);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Small collections are added one by one, otherwise the tree is merged with the sorted elements and bulk loaded.
+     * Worst-Case Time Complexity = O(n + m log m), m = size of the collection
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null, no element is added in that case
+     */
+    @Override
+    public void addAll(final Collection<T> collection) {
+        final Object[] array = new Object[collection.size()];
+        int length = 0;
+        for (final T t : collection) {
+            array[length++] = t;
+        }
+        addAll(array, length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Small arrays are added one by one, otherwise the tree is merged with the sorted elements and bulk loaded.
+     * Worst-Case Time Complexity = O(n + m log m), m = length of the array
+     *
+     * @throws IllegalArgumentException Thrown if the array contains null, no element is added in that case
+     */
+    @Override
+    public void addAll(final T[] array) {
+        addAll(array, array.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Nodes on the path to the leaf which hold the minimum number of keys borrow a key from or are merged with a
+     * sibling on the way down. Worst-Case Time Complexity = O(log n)
+     */
+    @Override
+    public boolean remove(final T t) {
+        if (t == null || this.size == 0) {
+            return false;
+        }
+        Node node = this.root;
+        while (node instanceof Inner) {
+            final Inner inner = (Inner) node;
+            int index = childIndex(inner, t);
+            if (isLean(inner.children[index])) {
+                index = refill(inner, index);
+                if (inner == this.root && inner.count == 0) {
+                    // The only two children of the root were merged
+                    this.root = inner.children[0];
+                }
+            }
+            node = inner.children[index];
+        }
+        final Leaf leaf = (Leaf) node;
+        final int index = search(leaf.keys, leaf.count, t);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.count - index - 1);
+        leaf.keys[--leaf.count] = null;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Small collections are removed one by one, otherwise the sorted elements are merged with the leaves and the
+     * remaining elements are bulk loaded. Worst-Case Time Complexity = O(n + m log m), m = size of the collection
+     */
+    @Override
+    public void removeAll(final Collection<T> collection) {
+        if (collection.size() < this.size / REBUILD_RATIO) {
+            for (final T t : collection) {
+                remove(t);
+            }
+        } else {
+            assign(select(sorted(collection, false), false));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Small arrays are removed one by one, otherwise the sorted elements are merged with the leaves and the
+     * remaining elements are bulk loaded. Worst-Case Time Complexity = O(n + m log m), m = length of the array
+     */
+    @Override
+    public void removeAll(final T[] array) {
+        if (array.length < this.size / REBUILD_RATIO) {
+            for (final T t : array) {
+                remove(t);
+            }
+        } else {
+            assign(select(sorted(array, array.length, false), false));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The sorted elements are merged with the leaves and the remaining elements are bulk loaded.
+     * Worst-Case Time Complexity = O(n + m log m), m = size of the collection
+     */
+    @Override
+    public void retainAll(final Collection<T> collection) {
+        if (collection.size() == 0) {
+            clear();
+            return;
+        }
+        assign(select(sorted(collection, false), true));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m log m), m = size of the collection; O(n + m) if the collection is a
+     * {@link BPlusTree} with the same ordering
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null
+     */
+    @Override
+    public BPlusTree<T> union(final Collection<T> collection) {
+        final Buffer other = sorted(collection, true);
+        final BPlusTree<T> result = new BPlusTree<>(this.comparator, this.order);
+        final Object[] merged = merge(toArray(), other.elements, other.count);
+        result.load(merged, merged.length);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Elements are matched by the comparator of this tree. Worst-Case Time Complexity = O(n + m log m),
+     * m = size of the collection; O(n + m) if the collection is a {@link BPlusTree} with the same ordering
+     */
+    @Override
+    public BPlusTree<T> intersect(final Collection<T> collection) {
+        return copyOf(select(sorted(collection, false), true));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Elements are matched by the comparator of this tree. Worst-Case Time Complexity = O(n + m log m),
+     * m = size of the collection; O(n + m) if the collection is a {@link BPlusTree} with the same ordering
+     */
+    @Override
+    public BPlusTree<T> difference(final Collection<T> collection) {
+        return copyOf(select(sorted(collection, false), false));
+    }
+
+    /**
+     * Call an action with every element within a range in ascending order, without allocating. The leaf of the
+     * lowest element is found by a single descent, from there the linked leaves are walked.
+     * Worst-Case Time Complexity = O(log n + k), k = number of elements within the range
+     *
+     * @param from   The lowest element of the range (inclusive)
+     * @param to     The highest element of the range (exclusive)
+     * @param action The action
+     * @throws IllegalArgumentException Thrown if either bound is null or from is greater than to
+     */
+    public void forEachInRange(final T from, final T to, final Consumer<? super T> action) {
+        checkRange(from, to);
+        Leaf leaf = leafFor(from);
+        int index = lowerBound(leaf, from);
+        while (leaf != null) {
+            final Object[] keys = leaf.keys;
+            for (; index < leaf.count; index++) {
+                final T t = elementAt(keys, index);
+                if (compare(t, to) >= 0) {
+                    return;
+                }
+                action.accept(t);
+            }
+            leaf = leaf.next;
+            index = 0;
+        }
+    }
+
+    /**
+     * Obtain the elements within a range, in a new bulk loaded tree with the same ordering
+     * Worst-Case Time Complexity = O(log n + k), k = number of elements within the range
+     *
+     * @param from The lowest element of the range (inclusive)
+     * @param to   The highest element of the range (exclusive)
+     * @return Returns the tree of the elements within the range
+     * @throws IllegalArgumentException Thrown if either bound is null or from is greater than to
+     */
+    public BPlusTree<T> subSet(final T from, final T to) {
+        checkRange(from, to);
+        final Buffer buffer = new Buffer();
+        Leaf leaf = leafFor(from);
+        int index = lowerBound(leaf, from);
+        // Copy the runs of the leaves below the upper bound, which is found by a binary search within its leaf
+        while (leaf != null) {
+            final boolean last = leaf.count != 0 && compare(leaf.keys[leaf.count - 1], to) >= 0;
+            final int end = last ? lowerBound(leaf, to) : leaf.count;
+            if (index < end) {
+                buffer.append(leaf.keys, index, end - index);
+            }
+            if (last) {
+                break;
+            }
+            leaf = leaf.next;
+            index = 0;
+        }
+        final BPlusTree<T> result = new BPlusTree<>(this.comparator, this.order);
+        result.load(buffer.elements, buffer.count);
+        return result;
+    }
+
+    /**
+     * Obtain the lowest element | Worst-Case Time Complexity = O(1)
+     *
+     * @return Returns the lowest element
+     * @throws NoSuchElementException Thrown if the tree is empty
+     */
+    public T first() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elementAt(this.head.keys, 0);
+    }
+
+    /**
+     * Obtain the highest element | Worst-Case Time Complexity = O(log n)
+     *
+     * @return Returns the highest element
+     * @throws NoSuchElementException Thrown if the tree is empty
+     */
+    public T last() {
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        Node node = this.root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[node.count];
+        }
+        return elementAt(node.keys, node.count - 1);
+    }
+
+    @Override
+    public void clear() {
+        this.head = new Leaf(this.order);
+        this.root = this.head;
+        this.size = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(log n)
+     */
+    @Override
+    public boolean contains(final T t) {
+        if (t == null) {
+            return false;
+        }
+        final Leaf leaf = leafFor(t);
+        return search(leaf.keys, leaf.count, t) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Obtain the comparator which orders the elements
+     *
+     * @return Returns the comparator
+     */
+    public Comparator<? super T> comparator() {
+        return this.comparator;
+    }
+
+    /**
+     * @return Returns the maximum number of keys of a leaf and of children of an inner node
+     */
+    public int order() {
+        return this.order;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The elements are returned in ascending order.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new LeafIterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cursor walks the linked leaves in ascending order.
+     */
+    @Override
+    public Cursor<T> cursor() {
+        return new LeafCursor();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The remaining elements are bulk loaded. Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     */
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        return removeWhere(filter) != 0;
+    }
+
+    /**
+     * Call an action with every element of this tree in ascending order, without allocating an iterator.
+     * Worst-Case Time Complexity = O(n)
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        for (Leaf leaf = this.head; leaf != null; leaf = leaf.next) {
+            final Object[] keys = leaf.keys;
+            for (int i = 0; i < leaf.count; i++) {
+                action.accept(elementAt(keys, i));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BPlusTree{" + "elements=" + Arrays.toString(toArray()) + ", size=" + this.size + '}';
+    }
+
+    /**
+     * Remove all elements which match a predicate. The remaining elements are collected in order and bulk loaded,
+     * the tree is left as it is if no element matches. Worst-Case Time Complexity = O(n)
+     *
+     * @param filter The predicate
+     * @return Returns the number of removed elements
+     */
+    int removeWhere(final Predicate<? super T> filter) {
+        final Buffer kept = new Buffer();
+        forEach(t -> {
+            if (!filter.test(t)) {
+                kept.accept(t);
+            }
+        });
+        final int removed = this.size - kept.count;
+        if (removed != 0) {
+            load(kept.elements, kept.count);
+        }
+        return removed;
+    }
+
+    /**
+     * Collect the elements of this tree which are, or are not, equal by the comparator to an element of sorted
+     * elements, walking the leaves and the sorted elements side by side. Worst-Case Time Complexity = O(n + m)
+     *
+     * @param sorted   The elements in strictly ascending order
+     * @param matching True to collect the elements which are equal to one of the sorted elements, false to collect
+     *                 the others
+     * @return Returns the collected elements in ascending order
+     */
+    private Buffer select(final Buffer sorted, final boolean matching) {
+        final Buffer selected = new Buffer();
+        final Object[] other = sorted.elements;
+        final int m = sorted.count;
+        int j = 0;
+        for (Leaf leaf = this.head; leaf != null; leaf = leaf.next) {
+            final Object[] keys = leaf.keys;
+            for (int i = 0; i < leaf.count; i++) {
+                while (j < m && compare(other[j], keys[i]) < 0) {
+                    j++;
+                }
+                if ((j < m && compare(other[j], keys[i]) == 0) == matching) {
+                    selected.accept(keys[i]);
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Bulk load selected elements into this tree, the tree is left as it is if they are all of its elements
+     */
+    private void assign(final Buffer selected) {
+        if (selected.count != this.size) {
+            load(selected.elements, selected.count);
+        }
+    }
+
+    /**
+     * Bulk load selected elements into a new tree with the same ordering
+     */
+    private BPlusTree<T> copyOf(final Buffer selected) {
+        final BPlusTree<T> result = new BPlusTree<>(this.comparator, this.order);
+        result.load(selected.elements, selected.count);
+        return result;
+    }
+
+    /**
+     * Collect the elements of a collection in ascending order without duplicates. The elements of a tree with the
+     * same ordering are copied as they are. Worst-Case Time Complexity = O(m log m), m = size of the collection
+     *
+     * @param collection The collection
+     * @param rejectNull True to throw if the collection contains null, false to skip null
+     * @return Returns the sorted elements
+     * @throws IllegalArgumentException Thrown if the collection contains null and null is rejected
+     */
+    private Buffer sorted(final Collection<T> collection, final boolean rejectNull) {
+        if (collection instanceof BPlusTree && ((BPlusTree<T>) collection).comparator.equals(this.comparator)) {
+            final Object[] elements = ((BPlusTree<T>) collection).toArray();
+            return new Buffer(elements, elements.length);
+        }
+        final Object[] array = new Object[collection.size()];
+        int length = 0;
+        for (final T t : collection) {
+            array[length++] = t;
+        }
+        return sorted(array, length, rejectNull);
+    }
+
+    /**
+     * Collect the first elements of an array in ascending order without duplicates
+     * Worst-Case Time Complexity = O(m log m), m = number of elements
+     *
+     * @param array      The elements
+     * @param length     The number of elements at the start of the array
+     * @param rejectNull True to throw if the array contains null, false to skip null
+     * @return Returns the sorted elements
+     * @throws IllegalArgumentException Thrown if the array contains null and null is rejected
+     */
+    private Buffer sorted(final Object[] array, final int length, final boolean rejectNull) {
+        final Object[] copy = new Object[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (array[i] != null) {
+                copy[count++] = array[i];
+            } else if (rejectNull) {
+                throw new IllegalArgumentException("Does not support null types!");
+            }
+        }
+        return new Buffer(copy, sort(copy, count));
+    }
+
+    private void addAll(final Object[] array, final int length) {
+        for (int i = 0; i < length; i++) {
+            checkNotNull(array[i]);
+        }
+        if (length < this.size / REBUILD_RATIO) {
+            for (int i = 0; i < length; i++) {
+                add(elementAt(array, i));
+            }
+            return;
+        }
+        final Object[] sorted = Arrays.copyOf(array, length);
+        final Object[] merged = merge(toArray(), sorted, sort(sorted, length));
+        load(merged, merged.length);
+    }
+
+    /**
+     * Replace the contents of this tree by bulk loading sorted elements. Leaves are filled evenly, then every level
+     * of inner nodes is built from the nodes of the level below together with the lowest key of each of them.
+     * Worst-Case Time Complexity = O(n)
+     *
+     * @param sorted The elements in strictly ascending order
+     * @param count  The number of elements to load
+     */
+    private void load(final Object[] sorted, final int count) {
+        final int order = this.order;
+        if (count <= order) {
+            this.head = new Leaf(order);
+            System.arraycopy(sorted, 0, this.head.keys, 0, count);
+            this.head.count = count;
+            this.root = this.head;
+            this.size = count;
+            return;
+        }
+        int nodeCount = (count + order - 1) / order;
+        Node[] level = new Node[nodeCount];
+        Object[] lowest = new Object[nodeCount];
+        int offset = 0;
+        Leaf previous = null;
+        for (int i = 0; i < nodeCount; i++) {
+            // Spread the remainder evenly so the last leaf is not left nearly empty
+            final int length = (count - offset) / (nodeCount - i);
+            final Leaf leaf = new Leaf(order);
+            System.arraycopy(sorted, offset, leaf.keys, 0, length);
+            leaf.count = length;
+            lowest[i] = sorted[offset];
+            if (previous == null) {
+                this.head = leaf;
+            } else {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[i] = leaf;
+            offset += length;
+        }
+        while (nodeCount > 1) {
+            final int parentCount = (nodeCount + order - 1) / order;
+            final Node[] parents = new Node[parentCount];
+            final Object[] parentLowest = new Object[parentCount];
+            int child = 0;
+            for (int i = 0; i < parentCount; i++) {
+                final int length = (nodeCount - child) / (parentCount - i);
+                final Inner inner = new Inner(order);
+                System.arraycopy(level, child, inner.children, 0, length);
+                // The separator left of every child but the first is the lowest key of its subtree
+                System.arraycopy(lowest, child + 1, inner.keys, 0, length - 1);
+                inner.count = length - 1;
+                parents[i] = inner;
+                parentLowest[i] = lowest[child];
+                child += length;
+            }
+            level = parents;
+            lowest = parentLowest;
+            nodeCount = parentCount;
+        }
+        this.root = level[0];
+        this.size = count;
+    }
+
+    /**
+     * Split a full child into two halves and insert the new right half and its separator into the parent, which
+     * must not be full. A leaf keeps its lowest key of the right half as the separator, an inner node moves its
+     * middle key up.
+     *
+     * @param parent The parent
+     * @param index  The index of the child within the parent
+     */
+    private void splitChild(final Inner parent, final int index) {
+        final Node child = parent.children[index];
+        final Node right;
+        final Object separator;
+        if (child instanceof Leaf) {
+            final Leaf leaf = (Leaf) child;
+            final Leaf sibling = new Leaf(this.order);
+            final int half = leaf.count >>> 1;
+            sibling.count = leaf.count - half;
+            System.arraycopy(leaf.keys, half, sibling.keys, 0, sibling.count);
+            Arrays.fill(leaf.keys, half, leaf.count, null);
+            leaf.count = half;
+            sibling.next = leaf.next;
+            leaf.next = sibling;
+            separator = sibling.keys[0];
+            right = sibling;
+        } else {
+            final Inner inner = (Inner) child;
+            final Inner sibling = new Inner(this.order);
+            final int middle = inner.count >>> 1;
+            sibling.count = inner.count - middle - 1;
+            System.arraycopy(inner.keys, middle + 1, sibling.keys, 0, sibling.count);
+            System.arraycopy(inner.children, middle + 1, sibling.children, 0, sibling.count + 1);
+            separator = inner.keys[middle];
+            Arrays.fill(inner.keys, middle, inner.count, null);
+            Arrays.fill(inner.children, middle + 1, inner.count + 1, null);
+            inner.count = middle;
+            right = sibling;
+        }
+        System.arraycopy(parent.keys, index, parent.keys, index + 1, parent.count - index);
+        System.arraycopy(parent.children, index + 1, parent.children, index + 2, parent.count - index);
+        parent.keys[index] = separator;
+        parent.children[index + 1] = right;
+        parent.count++;
+    }
+
+    /**
+     * Make sure a child holds more than the minimum number of keys by borrowing a key from a sibling which can
+     * spare one, or else by merging the child with a sibling. Merged children always fit into one node, as
+     * neither holds more than half of the capacity.
+     *
+     * @param parent The parent
+     * @param index  The index of the child within the parent
+     * @return Returns the index of the node which now covers the range of the child
+     */
+    private int refill(final Inner parent, final int index) {
+        if (index > 0 && !isLean(parent.children[index - 1])) {
+            borrowFromLeft(parent, index);
+            return index;
+        }
+        if (index < parent.count && !isLean(parent.children[index + 1])) {
+            borrowFromRight(parent, index);
+            return index;
+        }
+        if (index > 0) {
+            merge(parent, index - 1);
+            return index - 1;
+        }
+        merge(parent, index);
+        return index;
+    }
+
+    private void borrowFromLeft(final Inner parent, final int index) {
+        final Node child = parent.children[index];
+        final Node left = parent.children[index - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.count);
+        if (child instanceof Leaf) {
+            child.keys[0] = left.keys[left.count - 1];
+            parent.keys[index - 1] = child.keys[0];
+        } else {
+            // Rotate through the parent: its separator moves down, the last key of the sibling moves up
+            final Inner inner = (Inner) child;
+            final Inner sibling = (Inner) left;
+            System.arraycopy(inner.children, 0, inner.children, 1, inner.count + 1);
+            inner.children[0] = sibling.children[sibling.count];
+            sibling.children[sibling.count] = null;
+            child.keys[0] = parent.keys[index - 1];
+            parent.keys[index - 1] = left.keys[left.count - 1];
+        }
+        left.keys[--left.count] = null;
+        child.count++;
+    }
+
+    private void borrowFromRight(final Inner parent, final int index) {
+        final Node child = parent.children[index];
+        final Node right = parent.children[index + 1];
+        if (child instanceof Leaf) {
+            child.keys[child.count] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            right.keys[--right.count] = null;
+            parent.keys[index] = right.keys[0];
+        } else {
+            // Rotate through the parent: its separator moves down, the first key of the sibling moves up
+            final Inner inner = (Inner) child;
+            final Inner sibling = (Inner) right;
+            child.keys[child.count] = parent.keys[index];
+            inner.children[inner.count + 1] = sibling.children[0];
+            parent.keys[index] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            System.arraycopy(sibling.children, 1, sibling.children, 0, sibling.count);
+            right.keys[right.count - 1] = null;
+            sibling.children[sibling.count] = null;
+            right.count--;
+        }
+        child.count++;
+    }
+
+    /**
+     * Merge the child right of a separator into the child left of it and remove the separator from the parent
+     *
+     * @param parent The parent
+     * @param index  The index of the left child within the parent
+     */
+    private void merge(final Inner parent, final int index) {
+        final Node left = parent.children[index];
+        final Node right = parent.children[index + 1];
+        if (left instanceof Leaf) {
+            System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+            left.count += right.count;
+            ((Leaf) left).next = ((Leaf) right).next;
+        } else {
+            // The separator moves down between the keys of both children
+            left.keys[left.count] = parent.keys[index];
+            System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+            System.arraycopy(((Inner) right).children, 0, ((Inner) left).children, left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+        System.arraycopy(parent.keys, index + 1, parent.keys, index, parent.count - index - 1);
+        System.arraycopy(parent.children, index + 2, parent.children, index + 1, parent.count - index - 1);
+        parent.keys[parent.count - 1] = null;
+        parent.children[parent.count] = null;
+        parent.count--;
+    }
+
+    private boolean isFull(final Node node) {
+        return node instanceof Leaf ? node.count == this.order : node.count == this.order - 1;
+    }
+
+    /**
+     * Check whether a node could not lose a key without falling below half of its capacity
+     */
+    private boolean isLean(final Node node) {
+        return node instanceof Leaf ? node.count <= this.order >>> 1 : node.count + 1 <= this.order >>> 1;
+    }
+
+    private Leaf leafFor(final T t) {
+        Node node = this.root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[childIndex((Inner) node, t)];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * Find the child whose range contains a key, keys equal to a separator belong to the child right of it
+     */
+    private int childIndex(final Inner inner, final T t) {
+        final int index = search(inner.keys, inner.count, t);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Find the index of the first key of a leaf which is not less than a key
+     */
+    private int lowerBound(final Leaf leaf, final T t) {
+        final int index = search(leaf.keys, leaf.count, t);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Sort elements by the ordering of this tree and remove duplicates
+     *
+     * @param array The elements, none of which is null
+     * @param count The number of elements at the start of the array
+     * @return Returns the number of distinct elements, which are moved to the start of the array
+     */
+    @SuppressWarnings("unchecked")
+    private int sort(final Object[] array, final int count) {
+        Arrays.sort((T[]) array, 0, count, this.comparator);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || compare(array[distinct - 1], array[i]) != 0) {
+                array[distinct++] = array[i];
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Merge two sorted arrays without duplicates, the instance of the first array is kept for equal elements
+     */
+    private Object[] merge(final Object[] a, final Object[] b, final int m) {
+        final int n = a.length;
+        if ((long) n + m > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Tree cannot hold " + ((long) n + m) + " elements");
+        }
+        final Object[] result = new Object[n + m];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < n && j < m) {
+            final int comparison = compare(a[i], b[j]);
+            if (comparison <= 0) {
+                result[count++] = a[i++];
+                if (comparison == 0) {
+                    j++;
+                }
+            } else {
+                result[count++] = b[j++];
+            }
+        }
+        System.arraycopy(a, i, result, count, n - i);
+        count += n - i;
+        System.arraycopy(b, j, result, count, m - j);
+        count += m - j;
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private Object[] toArray() {
+        final Object[] array = new Object[this.size];
+        int count = 0;
+        for (Leaf leaf = this.head; leaf != null; leaf = leaf.next) {
+            System.arraycopy(leaf.keys, 0, array, count, leaf.count);
+            count += leaf.count;
+        }
+        return array;
+    }
+
+    private void checkRange(final T from, final T to) {
+        checkNotNull(from);
+        checkNotNull(to);
+        if (this.comparator.compare(from, to) > 0) {
+            throw new IllegalArgumentException("Invalid range: from is greater than to");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private int search(final Object[] keys, final int count, final T key) {
+        return Arrays.binarySearch((T[]) keys, 0, count, key, this.comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(final Object a, final Object b) {
+        return this.comparator.compare((T) a, (T) b);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T elementAt(final Object[] array, final int index) {
+        return (T) array[index];
+    }
+
+    private static void checkNotNull(final Object element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+    }
+
+    /**
+     * A node of the tree, holding its keys in the first count slots of an array.
+     */
+    private abstract static class Node {
+
+        final Object[] keys;
+        int count;
+
+        Node(final int capacity) {
+            this.keys = new Object[capacity];
+        }
+    }
+
+    /**
+     * A leaf holds up to order elements and is linked to the next leaf in ascending order.
+     */
+    private static final class Leaf extends Node {
+
+        Leaf next;
+
+        Leaf(final int order) {
+            super(order);
+        }
+    }
+
+    /**
+     * An inner node holds up to order children and one separator key less than children.
+     */
+    private static final class Inner extends Node {
+
+        final Node[] children;
+
+        Inner(final int order) {
+            super(order - 1);
+            this.children = new Node[order];
+        }
+    }
+
+    /**
+     * Growable array which collects elements in the order they are accepted.
+     */
+    private static final class Buffer implements Consumer<Object> {
+
+        private Object[] elements;
+        private int count;
+
+        Buffer() {
+            this(new Object[16], 0);
+        }
+
+        Buffer(final Object[] elements, final int count) {
+            this.elements = elements;
+            this.count = count;
+        }
+
+        @Override
+        public void accept(final Object t) {
+            if (this.count == this.elements.length) {
+                grow(this.count + 1);
+            }
+            this.elements[this.count++] = t;
+        }
+
+        void append(final Object[] source, final int from, final int length) {
+            if (this.count + length > this.elements.length) {
+                grow(this.count + length);
+            }
+            System.arraycopy(source, from, this.elements, this.count, length);
+            this.count += length;
+        }
+
+        private void grow(final int required) {
+            final long grown = Math.max(required, this.elements.length * 2L);
+            this.elements = Arrays.copyOf(this.elements, (int) Math.min(MAXIMUM_CAPACITY, grown));
+        }
+    }
+
+    /**
+     * Iterator implementation which walks the linked leaves. Removing an element may rebalance the leaves, so the
+     * iterator finds its position again by searching for the removed element.
+     */
+    private final class LeafIterator implements Iterator<T> {
+
+        private Leaf leaf = BPlusTree.this.head;
+        private int index;
+        private T last;
+
+        @Override
+        public boolean hasNext() {
+            while (this.index >= this.leaf.count && this.leaf.next != null) {
+                this.leaf = this.leaf.next;
+                this.index = 0;
+            }
+            return this.index < this.leaf.count;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.last = elementAt(this.leaf.keys, this.index++);
+            return this.last;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException();
+            }
+            BPlusTree.this.remove(this.last);
+            this.leaf = leafFor(this.last);
+            this.index = lowerBound(this.leaf, this.last);
+            this.last = null;
+        }
+    }
+
+    /**
+     * Cursor implementation which walks the linked leaves. Like the iterator, it finds its position again by
+     * searching for the removed element.
+     */
+    private final class LeafCursor implements Cursor<T> {
+
+        // The leaf and index of the next element, null before the first call to advance
+        private Leaf leaf;
+        private int index;
+        private boolean positioned;
+
+        @Override
+        public boolean advance() {
+            if (this.leaf == null) {
+                this.leaf = BPlusTree.this.head;
+                this.index = 0;
+            } else if (this.positioned) {
+                this.index++;
+            }
+            while (this.index >= this.leaf.count && this.leaf.next != null) {
+                this.leaf = this.leaf.next;
+                this.index = 0;
+            }
+            this.positioned = this.index < this.leaf.count;
+            return this.positioned;
+        }
+
+        @Override
+        public T get() {
+            if (!this.positioned) {
+                throw new NoSuchElementException();
+            }
+            return elementAt(this.leaf.keys, this.index);
+        }
+
+        @Override
+        public void remove() {
+            if (!this.positioned) {
+                throw new IllegalStateException();
+            }
+            final T removed = elementAt(this.leaf.keys, this.index);
+            BPlusTree.this.remove(removed);
+            // The cursor stays on the index of the element which followed the removed one
+            this.leaf = leafFor(removed);
+            this.index = lowerBound(this.leaf, removed);
+            this.positioned = false;
+        }
+
+        @Override
+        public void reset() {
+            this.leaf = null;
+            this.positioned = false;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package me.annoymized.datastructures;
+
+import java.util.function.Function;
+
+/**
+ * Implementation of a key-value cache which holds at most a predetermined number of entries. Entries are
+ * indexed by a {@link FixedSizeHashSet} with one bucket per entry, the order in which they are evicted is
+ * decided by a pluggable {@link EvictionPolicy}. Null keys and values are not supported.
+ * This class is not thread safe and by no means performs any concurrent modification checks.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public class BoundedCache<K, V> {
+
+    private final int capacity;
+    private final FixedSizeHashSet<Entry<K, V>> index;
+    private final EvictionPolicy<K, V> policy;
+    // Reused to look up entries by key without allocating
+    private final Entry<K, V> probe = new Entry<>(null, null);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Create a cache with a least recently used eviction policy
+     *
+     * @param capacity The maximum number of entries
+     * @throws IllegalArgumentException Thrown if the capacity is less than 1.
+     */
+    public BoundedCache(final int capacity) throws IllegalArgumentException {
+        this(capacity, EvictionPolicy.lru(capacity));
+    }
+
+    /**
+     * @param capacity The maximum number of entries
+     * @param policy   The eviction policy, must not be shared with another cache
+     * @throws IllegalArgumentException Thrown if the capacity is less than 1.
+     */
+    public BoundedCache(final int capacity, final EvictionPolicy<K, V> policy) throws IllegalArgumentException {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Eviction policy cannot be null!");
+        }
+        this.capacity = capacity;
+        this.index = new FixedSizeHashSet<>(capacity);
+        this.policy = policy;
+    }
+
+    /**
+     * Get the value of a key, counting a hit or a miss.
+     * Worst-Case Time Complexity = O(n/m), n = number of entries, m = capacity; O(1) on average
+     *
+     * @param key The key
+     * @return Returns the value or null if the key is not cached
+     */
+    public V get(final K key) {
+        final Entry<K, V> entry = lookup(key);
+        if (entry == null) {
+            this.misses++;
+            return null;
+        }
+        this.hits++;
+        this.policy.onAccess(entry);
+        return entry.value;
+    }
+
+    /**
+     * Get the value of a key, loading and caching it on a miss.
+     *
+     * @param key    The key
+     * @param loader Function computing the value of a key which is not cached, must not return null
+     * @return Returns the cached or loaded value
+     */
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+        final V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        final V loaded = loader.apply(key);
+        put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Cache a value, replacing the previous value of the key and evicting entries if the capacity is exceeded.
+     * Worst-Case Time Complexity = O(n/m), n = number of entries, m = capacity; O(1) on average
+     *
+     * @param key   The key
+     * @param value The value
+     * @throws IllegalArgumentException Thrown if the key or the value is null
+     */
+    public void put(final K key, final V value) throws IllegalArgumentException {
+        if (value == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        final Entry<K, V> existing = lookup(key);
+        if (existing != null) {
+            existing.value = value;
+            this.policy.onAccess(existing);
+            return;
+        }
+        final Entry<K, V> entry = new Entry<>(key, value);
+        this.index.add(entry);
+        this.policy.onInsert(entry);
+        while (this.index.size() > this.capacity) {
+            this.index.remove(this.policy.evict());
+            this.evictions++;
+        }
+    }
+
+    /**
+     * Check whether a key is cached without counting a hit or a miss, or notifying the eviction policy.
+     *
+     * @param key The key
+     * @return Returns true if the key is cached, false otherwise
+     */
+    public boolean containsKey(final K key) {
+        return lookup(key) != null;
+    }
+
+    /**
+     * Remove a key from the cache, this does not count as an eviction.
+     *
+     * @param key The key
+     * @return Returns true if the key was cached, false otherwise
+     */
+    public boolean remove(final K key) {
+        final Entry<K, V> entry = lookup(key);
+        if (entry == null) {
+            return false;
+        }
+        this.index.remove(entry);
+        this.policy.onRemove(entry);
+        return true;
+    }
+
+    /**
+     * Remove all entries, the counters are not reset.
+     */
+    public void clear() {
+        this.index.clear();
+        this.policy.clear();
+    }
+
+    public int size() {
+        return this.index.size();
+    }
+
+    public int capacity() {
+        return this.capacity;
+    }
+
+    public long hitCount() {
+        return this.hits;
+    }
+
+    public long missCount() {
+        return this.misses;
+    }
+
+    public long evictionCount() {
+        return this.evictions;
+    }
+
+    /**
+     * @return Returns the ratio of hits to lookups through {@link #get(Object)}, 0 if there were none
+     */
+    public double hitRate() {
+        final long lookups = this.hits + this.misses;
+        return lookups == 0 ? 0 : (double) this.hits / lookups;
+    }
+
+    /**
+     * Reset the hit, miss and eviction counters.
+     */
+    public void resetCounters() {
+        this.hits = 0;
+        this.misses = 0;
+        this.evictions = 0;
+    }
+
+    private Entry<K, V> lookup(final K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        this.probe.setKey(key);
+        final Entry<K, V> entry = this.index.find(this.probe);
+        this.probe.setKey(null);
+        return entry;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundedCache{" + "capacity=" + capacity + ", size=" + size() + ", hits=" + hits + ", misses=" + misses
+                   + ", evictions=" + evictions + '}';
+    }
+
+    /**
+     * Represents a cached key-value pair. Entries are equal if their keys are equal, which allows them to be
+     * looked up by key in the index. The node and segment fields are reserved for the eviction policies
+     * of this package.
+     *
+     * @param <K> The type of the keys
+     * @param <V> The type of the values
+     */
+    public static final class Entry<K, V> {
+
+        private K key;
+        int hash;
+        private V value;
+        // The node holding this entry in an eviction policy's queue
+        LinkedList.Node<Entry<K, V>> node;
+        // The queue of the eviction policy holding the node
+        byte segment;
+
+        private Entry(final K key, final V value) {
+            setKey(key);
+            this.value = value;
+        }
+
+        private void setKey(final K key) {
+            this.key = key;
+            this.hash = key == null ? 0 : key.hashCode();
+        }
+
+        public K getKey() {
+            return this.key;
+        }
+
+        public V getValue() {
+            return this.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+            final Entry<?, ?> entry = (Entry<?, ?>) o;
+            return this.hash == entry.hash && this.key.equals(entry.key);
+        }
+
+        @Override
+        public String toString() {
+            return "Entry{" + "key=" + key + ", value=" + value + '}';
+        }
+    }
+}
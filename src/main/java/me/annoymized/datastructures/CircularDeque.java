@@ -0,0 +1,554 @@
+package me.annoymized.datastructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of a double-ended queue backed by a circular array. The capacity is always a power of two so
+ * positions wrap around with a mask, the array doubles in size once it is full. Adding and removing at either
+ * end is O(1) (amortized when growing) and allocates nothing, batches of elements are moved with
+ * {@link System#arraycopy(Object, int, Object, int, int)} by {@link #offerAll(Object[])} and
+ * {@link #drainTo(Object[], int)}. This class is not thread safe and by no means performs any concurrent
+ * modification checks.
+ *
+ * @param <E> A generic type, can be anything.
+ */
+public class CircularDeque<E> implements Collection<E> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private Object[] elements;
+    // Index of the first element
+    private int head;
+    private int size;
+
+    public CircularDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity The number of elements the deque can hold before it grows,
+     *                        rounded up to the next power of two
+     * @throws IllegalArgumentException Thrown if the capacity is less than 1 or greater than 2^30.
+     */
+    public CircularDeque(final int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 1 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("Invalid initial capacity: " + initialCapacity);
+        }
+        this.elements = new Object[Math.max(2, Integer.highestOneBit(initialCapacity - 1) << 1)];
+    }
+
+    /**
+     * Insert an element at the head of this deque | Worst-Case Time Complexity = O(1) amortized
+     *
+     * @param element The instance to prepend
+     */
+    public void addFirst(final E element) {
+        checkNotNull(element);
+        ensureCapacity(this.size + 1);
+        this.head = (this.head - 1) & (this.elements.length - 1);
+        this.elements[this.head] = element;
+        this.size++;
+    }
+
+    /**
+     * Append an element to the tail of this deque | Worst-Case Time Complexity = O(1) amortized
+     *
+     * @param element The instance to append
+     */
+    public void addLast(final E element) {
+        checkNotNull(element);
+        final int size = this.size;
+        if (size == this.elements.length) {
+            ensureCapacity(size + 1);
+        }
+        final Object[] elements = this.elements;
+        elements[(this.head + size) & (elements.length - 1)] = element;
+        this.size = size + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * This is equivalent to {@link #addLast(Object)}.
+     * Worst-Case Time Complexity = O(1) amortized
+     */
+    @Override
+    public void add(final E element) {
+        addLast(element);
+    }
+
+    /**
+     * Remove and obtain the element at the head of this deque | Worst-Case Time Complexity = O(1)
+     *
+     * @return Returns the first element or null if this deque is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E pollFirst() {
+        final Object[] elements = this.elements;
+        final int head = this.head;
+        // Unused slots are always null
+        final E element = (E) elements[head];
+        if (element == null) {
+            return null;
+        }
+        elements[head] = null;
+        this.head = (head + 1) & (elements.length - 1);
+        this.size--;
+        return element;
+    }
+
+    /**
+     * Remove and obtain the element at the tail of this deque | Worst-Case Time Complexity = O(1)
+     *
+     * @return Returns the last element or null if this deque is empty
+     */
+    public E pollLast() {
+        if (this.size == 0) {
+            return null;
+        }
+        final int index = (this.head + this.size - 1) & (this.elements.length - 1);
+        final E element = elementAt(index);
+        this.elements[index] = null;
+        this.size--;
+        return element;
+    }
+
+    /**
+     * Obtain the element at the head of this deque | Worst-Case Time Complexity = O(1)
+     *
+     * @return Returns the first element or null if this deque is empty
+     */
+    public E peekFirst() {
+        return this.size == 0 ? null : elementAt(this.head);
+    }
+
+    /**
+     * Obtain the element at the tail of this deque | Worst-Case Time Complexity = O(1)
+     *
+     * @return Returns the last element or null if this deque is empty
+     */
+    public E peekLast() {
+        return this.size == 0 ? null : elementAt((this.head + this.size - 1) & (this.elements.length - 1));
+    }
+
+    /**
+     * Obtain the element at a given index, counted from the head | Worst-Case Time Complexity = O(1)
+     *
+     * @param index The index, must be within 0 and 1 - {@link #size()}
+     * @return Returns the element at the index
+     * @throws IndexOutOfBoundsException Thrown if the index parameter is less than 0
+     *                                   or if it is greater than the size of the deque minus 1
+     */
+    public E get(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException();
+        }
+        return elementAt((this.head + index) & (this.elements.length - 1));
+    }
+
+    /**
+     * Append all elements of an array to the tail of this deque with at most two array copies
+     * Worst-Case Time Complexity = O(m), m = length of the array
+     *
+     * @param array The elements to append
+     * @throws IllegalArgumentException Thrown if the array contains null, no element is added in that case
+     */
+    public void offerAll(final E[] array) {
+        for (final E e : array) {
+            checkNotNull(e);
+        }
+        ensureCapacity(this.size + array.length);
+        final int tail = (this.head + this.size) & (this.elements.length - 1);
+        final int first = Math.min(array.length, this.elements.length - tail);
+        System.arraycopy(array, 0, this.elements, tail, first);
+        System.arraycopy(array, first, this.elements, 0, array.length - first);
+        this.size += array.length;
+    }
+
+    /**
+     * Remove up to a given number of elements from the head of this deque and store them at the start of
+     * an array, in order, with at most two array copies | Worst-Case Time Complexity = O(m), m = elements moved
+     *
+     * @param array The array to store the elements in
+     * @param max   The maximum number of elements to move, the length of the array also bounds the number of elements
+     * @return Returns the number of elements moved
+     */
+    public int drainTo(final E[] array, final int max) {
+        final int count = Math.min(Math.min(max, array.length), this.size);
+        if (count <= 0) {
+            return 0;
+        }
+        final int first = Math.min(count, this.elements.length - this.head);
+        System.arraycopy(this.elements, this.head, array, 0, first);
+        System.arraycopy(this.elements, 0, array, first, count - first);
+        // Release the references
+        Arrays.fill(this.elements, this.head, this.head + first, null);
+        Arrays.fill(this.elements, 0, count - first, null);
+        this.head = (this.head + count) & (this.elements.length - 1);
+        this.size -= count;
+        return count;
+    }
+
+    @Override
+    public void addAll(final Collection<E> collection) {
+        if (collection instanceof CircularDeque) {
+            // Copy the segments of the other deque directly
+            final CircularDeque<E> other = (CircularDeque<E>) collection;
+            ensureCapacity(this.size + other.size);
+            for (int i = 0; i < other.size; i++) {
+                this.elements[(this.head + this.size + i) & (this.elements.length - 1)] =
+                    other.elements[(other.head + i) & (other.elements.length - 1)];
+            }
+            this.size += other.size;
+            return;
+        }
+        for (final E e : collection) {
+            addLast(e);
+        }
+    }
+
+    @Override
+    public void addAll(final E[] array) {
+        offerAll(array);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n)
+     */
+    @Override
+    public boolean contains(final E element) {
+        return indexOf(element) != -1;
+    }
+
+    /**
+     * Obtain the index of the first occurrence of a given element, counted from the head
+     * Worst-Case Time Complexity = O(n)
+     *
+     * @param element The instance to find
+     * @return Returns the index or -1 if the element is not in this deque
+     */
+    public int indexOf(final E element) {
+        if (element == null) {
+            return -1;
+        }
+        final int mask = this.elements.length - 1;
+        for (int i = 0; i < this.size; i++) {
+            if (element.equals(this.elements[(this.head + i) & mask])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n)
+     */
+    @Override
+    public boolean removeFirst(final E e) {
+        final int index = indexOf(e);
+        if (index == -1) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n)
+     */
+    @Override
+    public boolean remove(final E e) {
+        return e != null && this.size != 0 && removeWhere(e::equals) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this deque, m = size of the collection
+     */
+    @Override
+    public void removeAll(final Collection<E> collection) {
+        if (this.size == 0 || collection.size() == 0) {
+            return;
+        }
+        removeWhere(MembershipIndex.of(collection));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this deque, m = length of the array
+     */
+    @Override
+    public void removeAll(final E[] array) {
+        if (this.size == 0 || array.length == 0) {
+            return;
+        }
+        removeWhere(MembershipIndex.of(array));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this deque, m = size of the collection
+     */
+    @Override
+    public void retainAll(final Collection<E> collection) {
+        if (this.size == 0) {
+            return;
+        }
+        if (collection.size() == 0) {
+            clear();
+            return;
+        }
+        removeWhere(MembershipIndex.of(collection).negate());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Duplicates are kept, every element of the given collection which is not in this deque is appended.
+     * Worst-Case Time Complexity = O(n + m), n = size of this deque, m = size of the collection
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null
+     */
+    @Override
+    public CircularDeque<E> union(final Collection<E> collection) {
+        final CircularDeque<E> result = new CircularDeque<>(Math.max(1, this.size));
+        result.addAll(this);
+        final MembershipIndex<E> index = MembershipIndex.of(this);
+        for (final E e : collection) {
+            if (!index.test(e)) {
+                result.addLast(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this deque, m = size of the collection
+     */
+    @Override
+    public CircularDeque<E> intersect(final Collection<E> collection) {
+        final CircularDeque<E> result = new CircularDeque<>();
+        if (this.size != 0 && collection.size() != 0) {
+            copyWhere(MembershipIndex.of(collection), result);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this deque, m = size of the collection
+     */
+    @Override
+    public CircularDeque<E> difference(final Collection<E> collection) {
+        final CircularDeque<E> result = new CircularDeque<>(Math.max(1, this.size));
+        if (collection.size() == 0) {
+            result.addAll(this);
+        } else if (this.size != 0) {
+            copyWhere(MembershipIndex.of(collection).negate(), result);
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        if (this.size == 0) {
+            return;
+        }
+        final int first = Math.min(this.size, this.elements.length - this.head);
+        Arrays.fill(this.elements, this.head, this.head + first, null);
+        Arrays.fill(this.elements, 0, this.size - first, null);
+        this.head = 0;
+        this.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Obtain the number of elements this deque can hold before it grows
+     *
+     * @return Returns the length of the backing array
+     */
+    public int capacity() {
+        return this.elements.length;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new DequeIterator();
+    }
+
+    @Override
+    public String toString() {
+        final Object[] arr = new Object[this.size];
+        for (int i = 0; i < this.size; i++) {
+            arr[i] = this.elements[(this.head + i) & (this.elements.length - 1)];
+        }
+        return "CircularDeque{" + "elements=" + Arrays.toString(arr) + ", size=" + this.size + '}';
+    }
+
+    @SuppressWarnings("unchecked")
+    private E elementAt(final int index) {
+        return (E) this.elements[index];
+    }
+
+    private static void checkNotNull(final Object element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+    }
+
+    /**
+     * Grow the backing array to the next power of two which holds a given number of elements, the elements
+     * are unwrapped so the head is at index 0 | Worst-Case Time Complexity = O(n)
+     *
+     * @param required The number of elements
+     * @throws IllegalStateException Thrown if the number of elements exceeds the maximum capacity
+     */
+    private void ensureCapacity(final int required) {
+        if (required <= this.elements.length) {
+            return;
+        }
+        if (required < 0 || required > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Deque cannot hold " + Integer.toUnsignedString(required) + " elements");
+        }
+        final Object[] grown = new Object[Integer.highestOneBit(required - 1) << 1];
+        final int first = Math.min(this.size, this.elements.length - this.head);
+        System.arraycopy(this.elements, this.head, grown, 0, first);
+        System.arraycopy(this.elements, 0, grown, first, this.size - first);
+        this.elements = grown;
+        this.head = 0;
+    }
+
+    /**
+     * Remove the element at a given index, shifting the shorter side of the deque to close the gap
+     * Worst-Case Time Complexity = O(min(i, n - i)), i = index
+     *
+     * @param index The index, counted from the head
+     */
+    private void removeAt(final int index) {
+        final int mask = this.elements.length - 1;
+        if (index < this.size >>> 1) {
+            // Shift the preceding elements one position towards the tail
+            for (int i = index; i > 0; i--) {
+                this.elements[(this.head + i) & mask] = this.elements[(this.head + i - 1) & mask];
+            }
+            this.elements[this.head] = null;
+            this.head = (this.head + 1) & mask;
+        } else {
+            // Shift the following elements one position towards the head
+            for (int i = index; i < this.size - 1; i++) {
+                this.elements[(this.head + i) & mask] = this.elements[(this.head + i + 1) & mask];
+            }
+            this.elements[(this.head + this.size - 1) & mask] = null;
+        }
+        this.size--;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     */
+    @Override
+    public boolean removeIf(final Predicate<? super E> filter) {
+        return removeWhere(filter) != 0;
+    }
+
+    /**
+     * Call an action with every element of this deque, from head to tail, without allocating an iterator
+     * Worst-Case Time Complexity = O(n)
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(final Consumer<? super E> action) {
+        final int mask = this.elements.length - 1;
+        for (int i = 0; i < this.size; i++) {
+            action.accept(elementAt((this.head + i) & mask));
+        }
+    }
+
+    /**
+     * Remove all elements matching a filter in a single compacting pass
+     * Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     *
+     * @param filter The filter, elements for which it returns true are removed
+     * @return Returns the number of elements removed
+     */
+    int removeWhere(final Predicate<? super E> filter) {
+        final int mask = this.elements.length - 1;
+        int kept = 0;
+        for (int i = 0; i < this.size; i++) {
+            final E element = elementAt((this.head + i) & mask);
+            if (!filter.test(element)) {
+                this.elements[(this.head + kept++) & mask] = element;
+            }
+        }
+        final int removed = this.size - kept;
+        for (int i = kept; i < this.size; i++) {
+            this.elements[(this.head + i) & mask] = null;
+        }
+        this.size = kept;
+        return removed;
+    }
+
+    /**
+     * Append all elements of this deque matching a filter to another deque
+     * Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     *
+     * @param filter The filter, elements for which it returns true are copied
+     * @param target The deque to append to
+     */
+    private void copyWhere(final Predicate<? super E> filter, final CircularDeque<E> target) {
+        final int mask = this.elements.length - 1;
+        for (int i = 0; i < this.size; i++) {
+            final E element = elementAt((this.head + i) & mask);
+            if (filter.test(element)) {
+                target.addLast(element);
+            }
+        }
+    }
+
+    /**
+     * Iterator implementation which traverses the deque from head to tail.
+     */
+    private final class DequeIterator implements Iterator<E> {
+
+        private int index;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.index < size;
+        }
+
+        @Override
+        public E next() {
+            if (this.index >= size) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.index++;
+            return elementAt((head + this.last) & (elements.length - 1));
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -1) {
+                throw new IllegalStateException();
+            }
+            removeAt(this.last);
+            // The next element moved into the removed position
+            this.index = this.last;
+            this.last = -1;
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package me.annoymized.datastructures;
 
+import java.util.Iterator;
+import java.util.function.Predicate;
+
 /**
  * Represents a data structure.
  *
  * @param <T> A generic type, can be any object.
  */
-public interface Collection<T> extends Iterable<T> {
+public interface Collection<T> extends ReadableCollection<T> {
 
     /**
      * Append an object to this collection.
@@ -14,14 +17,6 @@ public interface Collection<T> extends Iterable<T> {
      */
     void add(T t);
 
-    /**
-     * Check whether a given object exists in the collection.
-     *
-     * @param t The object instance of a generic type 'T'
-     * @return Returns true if this collection contains the object, false otherwise.
-     */
-    boolean contains(T t);
-
     /**
      * Remove the first occurrence of a given object from this collection.
      *
@@ -66,15 +61,70 @@ public interface Collection<T> extends Iterable<T> {
     void removeAll(T[] array);
 
     /**
-     * Clear all elements from this collection
+     * Remove all elements of this collection which are not in the given collection.
+     *
+     * @param collection The collection of elements to keep, also of generic type 'T'
      */
-    void clear();
+    void retainAll(Collection<T> collection);
+
+    /**
+     * Create a new collection of the same kind holding the elements of this collection followed by the
+     * elements of the given collection which are not in this collection. Neither collection is modified.
+     *
+     * @param collection The other collection, also of generic type 'T'
+     * @return Returns the union of both collections
+     */
+    Collection<T> union(Collection<T> collection);
+
+    /**
+     * Create a new collection of the same kind holding the elements of this collection which are also
+     * in the given collection. Neither collection is modified.
+     *
+     * @param collection The other collection, also of generic type 'T'
+     * @return Returns the intersection of both collections
+     */
+    Collection<T> intersect(Collection<T> collection);
+
+    /**
+     * Create a new collection of the same kind holding the elements of this collection which are not
+     * in the given collection. Neither collection is modified.
+     *
+     * @param collection The other collection, also of generic type 'T'
+     * @return Returns the difference of this collection and the given collection
+     */
+    Collection<T> difference(Collection<T> collection);
 
     /**
-     * Get the number of elements (size) of this collection.
+     * Remove all elements of this collection which match a given predicate. The default implementation removes
+     * them through the {@link #iterator()}, implementations override it with a single pass over their storage.
      *
-     * @return Returns an 32-bit integer representing the number of elements in this collection
+     * @param filter The predicate, elements for which it returns true are removed
+     * @return Returns true if the collection was modified, false otherwise
      */
-    int size();
+    default boolean removeIf(final Predicate<? super T> filter) {
+        boolean removed = false;
+        for (final Iterator<T> iterator = iterator(); iterator.hasNext(); ) {
+            if (filter.test(iterator.next())) {
+                iterator.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Obtain a reusable cursor over the elements of this collection. The default implementation creates an
+     * iterator on every traversal, implementations override it with a cursor which allocates nothing.
+     *
+     * @return Returns a new cursor, positioned before the first element
+     */
+    default Cursor<T> cursor() {
+        return new IteratorCursor<>(this);
+    }
+
+    /**
+     * Clear all elements from this collection
+     */
+    void clear();
 
 }
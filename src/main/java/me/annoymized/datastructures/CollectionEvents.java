@@ -0,0 +1,89 @@
+package me.annoymized.datastructures;
+
+/**
+ * Reports slow collection operations as Java Flight Recorder events: long walks of a hash set's bucket chain,
+ * deep traversals of a linked list and large bulk operations. The events carry the stack trace of the operation,
+ * so the callers of a slow collection can be found in a recording instead of anonymous CPU samples.
+ * <p>
+ * The JAR is a multi-release JAR: on JDK 11 and later this class is replaced by a version which commits the
+ * events, if the system property {@link #ENABLED_PROPERTY} is "true" and the jdk.jfr module is present. The
+ * thresholds above which an operation is reported are read from the system properties {@link #CHAIN_PROPERTY},
+ * {@link #TRAVERSAL_PROPERTY} and {@link #BULK_PROPERTY}. This (JDK 8) version reports nothing, its methods are
+ * empty and are removed entirely by the JIT compiler, as are the checks of the JDK 11 version while disabled.
+ */
+public final class CollectionEvents {
+
+    /**
+     * System property which enables the events if set to "true"
+     */
+    public static final String ENABLED_PROPERTY = "me.annoymized.datastructures.events";
+    /**
+     * System property for the minimum number of elements compared in a bucket's chain to report the walk,
+     * 8 by default
+     */
+    public static final String CHAIN_PROPERTY = ENABLED_PROPERTY + ".chain";
+    /**
+     * System property for the minimum number of nodes passed in a linked list to report the traversal,
+     * 1024 by default
+     */
+    public static final String TRAVERSAL_PROPERTY = ENABLED_PROPERTY + ".traversal";
+    /**
+     * System property for the minimum number of elements of a bulk operation to report it, 10000 by default
+     */
+    public static final String BULK_PROPERTY = ENABLED_PROPERTY + ".bulk";
+
+    private CollectionEvents() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Check whether the events are committed to running recordings
+     *
+     * @return Returns true if the events are enabled, false otherwise
+     */
+    public static boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * Report the walk of a bucket's chain if it compared at least the chain threshold of elements
+     *
+     * @param collection The class of the hash set
+     * @param length     The number of elements compared
+     * @param buckets    The number of buckets of the hash set
+     * @param found      Whether the element was found
+     */
+    static void chainWalk(final Class<?> collection, final int length, final int buckets, final boolean found) {
+    }
+
+    /**
+     * Report a traversal of a linked list if it passed at least the traversal threshold of nodes
+     *
+     * @param operation The name of the operation
+     * @param steps     The number of nodes passed
+     * @param size      The size of the list
+     */
+    static void traversal(final String operation, final int steps, final int size) {
+    }
+
+    /**
+     * Start timing a bulk operation
+     *
+     * @param elements The number of elements of the operation
+     * @return Returns the event to pass to {@link #bulk(Class, String, int, Object)}, null if it is not reported
+     */
+    static Object bulkStart(final int elements) {
+        return null;
+    }
+
+    /**
+     * Report a bulk operation if it has at least the bulk threshold of elements
+     *
+     * @param collection The class of the collection
+     * @param operation  The name of the operation
+     * @param elements   The number of elements of the operation
+     * @param event      The event returned by {@link #bulkStart(int)}
+     */
+    static void bulk(final Class<?> collection, final String operation, final int elements, final Object event) {
+    }
+}
@@ -0,0 +1,49 @@
+package me.annoymized.datastructures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A reusable position within a {@link Collection}. An {@link Iterator} is created for every traversal, whereas a
+ * cursor is created once and rewound with {@link #reset()}, so repeated traversals do not allocate. Modifying the
+ * collection other than through {@link #remove()} invalidates the position, the cursor must be reset afterwards.
+ * <pre>{@code
+ * cursor.reset();
+ * while (cursor.advance()) {
+ *     process(cursor.get());
+ * }
+ * }</pre>
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public interface Cursor<T> {
+
+    /**
+     * Move to the next element
+     *
+     * @return Returns true if the cursor is positioned on an element, false if there are no more elements
+     */
+    boolean advance();
+
+    /**
+     * Get the element the cursor is positioned on
+     *
+     * @return Returns the element
+     * @throws NoSuchElementException Thrown if the cursor is not positioned on an element, i.e. before the first
+     *                                call to {@link #advance()}, after the last element or after {@link #remove()}
+     */
+    T get();
+
+    /**
+     * Remove the element the cursor is positioned on from the collection, the next call to {@link #advance()}
+     * moves to the element which followed it
+     *
+     * @throws IllegalStateException Thrown if the cursor is not positioned on an element
+     */
+    void remove();
+
+    /**
+     * Rewind the cursor to before the first element
+     */
+    void reset();
+}
@@ -0,0 +1,77 @@
+package me.annoymized.datastructures;
+
+/**
+ * Decides which entry a {@link BoundedCache} evicts once it holds more entries than its capacity.
+ * The cache notifies its policy of every insertion, access and removal of an entry. Implementations are
+ * not required to be thread safe as they are only used by a single cache.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public interface EvictionPolicy<K, V> {
+
+    /**
+     * Least recently used: evicts the entry which has not been accessed for the longest time.
+     *
+     * @param capacity The capacity of the cache, unused by this policy
+     * @return Returns a new policy instance
+     */
+    static <K, V> EvictionPolicy<K, V> lru(final int capacity) {
+        return new LinkedEvictionPolicy<>(true);
+    }
+
+    /**
+     * First in, first out: evicts the entry which was inserted first, accesses are ignored.
+     *
+     * @param capacity The capacity of the cache, unused by this policy
+     * @return Returns a new policy instance
+     */
+    static <K, V> EvictionPolicy<K, V> fifo(final int capacity) {
+        return new LinkedEvictionPolicy<>(false);
+    }
+
+    /**
+     * Window TinyLFU: new entries enter a small LRU window and must then win against the main space's
+     * victim on (approximate) access frequency to be retained. Resistant to scans and well suited for skewed workloads.
+     *
+     * @param capacity The capacity of the cache, used to size the window and the frequency sketch
+     * @return Returns a new policy instance
+     */
+    static <K, V> EvictionPolicy<K, V> windowTinyLfu(final int capacity) {
+        return new WindowTinyLfuPolicy<>(capacity);
+    }
+
+    /**
+     * Called after a new entry is inserted into the cache.
+     *
+     * @param entry The inserted entry
+     */
+    void onInsert(BoundedCache.Entry<K, V> entry);
+
+    /**
+     * Called when an entry is read or its value is replaced.
+     *
+     * @param entry The accessed entry
+     */
+    void onAccess(BoundedCache.Entry<K, V> entry);
+
+    /**
+     * Called when an entry is explicitly removed from the cache.
+     *
+     * @param entry The removed entry
+     */
+    void onRemove(BoundedCache.Entry<K, V> entry);
+
+    /**
+     * Select an entry to evict and stop tracking it. Only called while the cache holds at least one entry.
+     *
+     * @return Returns the entry to evict
+     */
+    BoundedCache.Entry<K, V> evict();
+
+    /**
+     * Stop tracking all entries.
+     */
+    void clear();
+
+}
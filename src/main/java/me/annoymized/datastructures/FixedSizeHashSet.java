@@ -4,6 +4,8 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Implementation of a HashSet with a predetermined number of buckets on initialization.
@@ -37,11 +39,11 @@ public class FixedSizeHashSet<T> implements Collection<T> {
      * Hash an object
      *
      * @param o The object to hash
-     * @return Returns the absolute value of the object's {@link Object#hashCode()}
+     * @return Returns the object's {@link Object#hashCode()} with the sign bit cleared
      */
     private static int hash(final Object o) {
-        final int h = o.hashCode();
-        return h < 0 ? -h : h;
+        // Math.abs(Integer.MIN_VALUE) is still negative, clear the sign bit instead
+        return o.hashCode() & Integer.MAX_VALUE;
     }
 
     /**
@@ -75,7 +77,7 @@ public class FixedSizeHashSet<T> implements Collection<T> {
         final Bucket<T> bucket = getBucket(object);
         // Check if the chain contains the object
         // Worst-Case Time Complexity = O(n)
-        if (!bucket.chain.contains(object)) {
+        if (!chainContains(bucket.chain, object)) {
             // Add object to the chain
             // Worst-Case Time Complexity = O(1)
             bucket.chain.add(object);
@@ -94,7 +96,46 @@ public class FixedSizeHashSet<T> implements Collection<T> {
     public boolean contains(final T object) {
         // Check if the object isn't null, that the set is not empty and the theoretical bucket's chain
         // contains the object
-        return object != null && this.size != 0 && getBucket(object).chain.contains(object);
+        return object != null && this.size != 0 && chainContains(getBucket(object).chain, object);
+    }
+
+    /**
+     * Check whether a bucket's chain contains an object, long walks of the chain are reported as
+     * {@link CollectionEvents}. The chain is walked by its nodes rather than by {@link LinkedList#indexOf(Object)},
+     * which would report the walk a second time as a traversal of the list.
+     * Worst-Case Time Complexity = O(n/m), n = number of elements, m = number of buckets
+     *
+     * @param chain  The chain of the object's bucket
+     * @param object The object instance
+     * @return Returns true if the chain contains the object, false otherwise
+     */
+    private boolean chainContains(final LinkedList<T> chain, final T object) {
+        int length = 0;
+        for (LinkedList.Node<T> node = chain.firstNode(); node != null; node = node.successor()) {
+            length++;
+            if (object.equals(node.getValue())) {
+                CollectionEvents.chainWalk(getClass(), length, this.table.length, true);
+                return true;
+            }
+        }
+        CollectionEvents.chainWalk(getClass(), length, this.table.length, false);
+        return false;
+    }
+
+    /**
+     * Get the element of this set which is equal to a given object. This allows a set of
+     * elements which are compared by a key to be used as an index.
+     * Worst-Case Time Complexity = O(n/m), n = number of elements, m = number of buckets
+     *
+     * @param object The object to look up
+     * @return Returns the element equal to the object or null if there is none
+     */
+    T find(final T object) {
+        if (object == null || this.size == 0) {
+            return null;
+        }
+        final LinkedList.Node<T> node = getBucket(object).chain.findNode(object);
+        return node == null ? null : node.getValue();
     }
 
     @Override
@@ -104,12 +145,15 @@ public class FixedSizeHashSet<T> implements Collection<T> {
 
     @Override
     public void addAll(final Collection<T> objects) {
-        if (objects.size() == 0) {
+        final int elements = objects.size();
+        if (elements == 0) {
             return;
         }
+        final Object event = CollectionEvents.bulkStart(elements);
         for (final T t : objects) {
             add(t);
         }
+        CollectionEvents.bulk(getClass(), "addAll", elements, event);
     }
 
     @Override
@@ -117,9 +161,11 @@ public class FixedSizeHashSet<T> implements Collection<T> {
         if (array.length == 0) {
             return;
         }
+        final Object event = CollectionEvents.bulkStart(array.length);
         for (final T t : array) {
             add(t);
         }
+        CollectionEvents.bulk(getClass(), "addAll", array.length, event);
     }
 
     /**
@@ -144,14 +190,27 @@ public class FixedSizeHashSet<T> implements Collection<T> {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * Removes the elements of the given collection one by one unless it is a larger hash based collection,
+     * in which case this set is filtered instead.
+     * Worst-Case Time Complexity = O(min(n, m)) on average, n = size of this set, m = size of the collection
+     */
     @Override
     public void removeAll(final Collection<T> objects) {
-        if (objects.size() == 0 || this.size == 0) {
+        final int elements = objects.size();
+        if (elements == 0 || this.size == 0) {
             return;
         }
-        for (final T t : objects) {
-            remove(t);
+        final Object event = CollectionEvents.bulkStart(elements);
+        if (elements > this.size && MembershipIndex.isHashed(objects)) {
+            removeWhere(objects::contains);
+        } else {
+            for (final T t : objects) {
+                remove(t);
+            }
         }
+        CollectionEvents.bulk(getClass(), "removeAll", elements, event);
     }
 
     @Override
@@ -159,12 +218,165 @@ public class FixedSizeHashSet<T> implements Collection<T> {
         if (array.length == 0 || this.size == 0) {
             return;
         }
+        final Object event = CollectionEvents.bulkStart(array.length);
         for (final T t : array) {
             if (t == null) {
                 continue;
             }
             remove(t);
         }
+        CollectionEvents.bulk(getClass(), "removeAll", array.length, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m) on average, n = size of this set, m = size of the collection
+     */
+    @Override
+    public void retainAll(final Collection<T> objects) {
+        if (this.size == 0) {
+            return;
+        }
+        if (objects.size() == 0) {
+            clear();
+            return;
+        }
+        removeWhere(MembershipIndex.of(objects).negate());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The new set has enough buckets to hold both sets with at most one element per bucket on average.
+     * Worst-Case Time Complexity = O(n + m) on average, n = size of this set, m = size of the collection
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null
+     */
+    @Override
+    public FixedSizeHashSet<T> union(final Collection<T> objects) {
+        final int elements = (int) Math.min(Integer.MAX_VALUE, (long) this.size + objects.size());
+        final FixedSizeHashSet<T> result = new FixedSizeHashSet<>(Math.max(this.table.length, elements));
+        result.addAll(this);
+        result.addAll(objects);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The smaller side is iterated, if that is the given collection it is probed against this set
+     * and no temporary index is built. The new set has as many buckets as this set.
+     * Worst-Case Time Complexity = O(min(n, m)) on average, n = size of this set, m = size of the collection
+     */
+    @Override
+    public FixedSizeHashSet<T> intersect(final Collection<T> objects) {
+        final FixedSizeHashSet<T> result = new FixedSizeHashSet<>(this.table.length);
+        if (this.size == 0 || objects.size() == 0) {
+            return result;
+        }
+        if (objects.size() < this.size) {
+            for (final T t : objects) {
+                // Keep the instance held by this set
+                final T element = find(t);
+                if (element != null) {
+                    result.add(element);
+                }
+            }
+        } else {
+            final Predicate<T> index = MembershipIndex.of(objects);
+            for (final T t : this) {
+                if (index.test(t)) {
+                    result.add(t);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The new set has as many buckets as this set.
+     * Worst-Case Time Complexity = O(n + m) on average, n = size of this set, m = size of the collection
+     */
+    @Override
+    public FixedSizeHashSet<T> difference(final Collection<T> objects) {
+        final FixedSizeHashSet<T> result = new FixedSizeHashSet<>(this.table.length);
+        if (this.size == 0) {
+            return result;
+        }
+        final Predicate<T> index = objects.size() == 0 ? t -> false : MembershipIndex.of(objects);
+        for (final T t : this) {
+            if (!index.test(t)) {
+                result.add(t);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove all elements matching a filter in a single pass over the buckets
+     * Worst-Case Time Complexity = O(n + m), n = number of elements, m = number of buckets, excluding the cost of the filter
+     *
+     * @param filter The filter, elements for which it returns true are removed
+     * @return Returns the number of elements removed
+     */
+    int removeWhere(final Predicate<? super T> filter) {
+        final int oldSize = this.size;
+        for (final Bucket<T> bucket : this.table) {
+            if (bucket.chain.size() != 0) {
+                this.size -= bucket.chain.removeWhere(filter);
+            }
+        }
+        return oldSize - this.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = number of elements, m = number of buckets, excluding the cost of the filter
+     */
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        return removeWhere(filter) != 0;
+    }
+
+    /**
+     * Call an action with every element of this set, bucket by bucket, without allocating an iterator
+     * Worst-Case Time Complexity = O(n + m), n = number of elements, m = number of buckets
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        if (this.size == 0) {
+            return;
+        }
+        for (final Bucket<T> bucket : this.table) {
+            if (bucket.chain.size() != 0) {
+                bucket.chain.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The cursor walks the buckets' chains node by node and allocates nothing.
+     */
+    @Override
+    public Cursor<T> cursor() {
+        return new BucketCursor();
+    }
+
+    /**
+     * Find the first bucket holding an element, starting at a given bucket
+     * Worst-Case Time Complexity = O(m), m = number of buckets
+     *
+     * @param from The index of the bucket to start at
+     * @return Returns the index of the bucket or the number of buckets if there is none
+     */
+    private int nextBucket(final int from) {
+        int index = from;
+        while (index < this.table.length && this.table[index].chain.size() == 0) {
+            index++;
+        }
+        return index;
     }
 
     @Override
@@ -230,55 +442,107 @@ public class FixedSizeHashSet<T> implements Collection<T> {
      * Iterator implementation which traverse the {@link #table}. The elements returned
      * by this iterator are non-deterministic by nature and the order of elements are not
      * guaranteed to be the same once the set has been modified; However, the order is guaranteed
-     * to be the same provided the set is not modified.
+     * to be the same provided the set is not modified. The iterator holds the next node of a chain,
+     * so every element is reached in O(1) amortized.
      */
     private class BucketIterator implements Iterator<T> {
 
-        private int index = 0;
-        private int bucketIndex = 0;
-        private boolean removed;
+        // The bucket holding the next node
+        private int index;
+        private LinkedList.Node<T> next;
+        private LinkedList.Node<T> last;
+        private int lastIndex;
+
+        private BucketIterator() {
+            this.index = nextBucket(0);
+            this.next = this.index == table.length ? null : table[this.index].chain.firstNode();
+        }
 
         @Override
         public boolean hasNext() {
-            return getNextBucket() != null;
+            return this.next != null;
         }
 
         @Override
         public T next() {
-            final Bucket<T> bucket = getNextBucket();
-            if (bucket == null) {
+            if (this.next == null) {
                 throw new NoSuchElementException();
             }
-            this.removed = false;
-            return bucket.chain.get(bucketIndex++);
+            this.last = this.next;
+            this.lastIndex = this.index;
+            this.next = this.next.successor();
+            if (this.next == null) {
+                // Move to the first node of the next bucket holding an element
+                this.index = nextBucket(this.index + 1);
+                this.next = this.index == table.length ? null : table[this.index].chain.firstNode();
+            }
+            return this.last.getValue();
         }
 
         @Override
         public void remove() {
-            if (this.removed) {
-                throw new NoSuchElementException();
+            if (this.last == null) {
+                throw new IllegalStateException();
             }
-            FixedSizeHashSet.this.table[index].chain.remove(bucketIndex);
+            table[this.lastIndex].chain.removeNode(this.last);
             FixedSizeHashSet.this.size--;
-            this.removed = true;
+            this.last = null;
         }
+    }
+
+    /**
+     * Implementation of a {@link Cursor} which holds the bucket and the node it is positioned on.
+     */
+    private final class BucketCursor implements Cursor<T> {
+
+        // The bucket of the node, -1 before the first element and the number of buckets after the last
+        private int index = -1;
+        // The node the cursor is positioned on, or the successor of the node removed through it
+        private LinkedList.Node<T> node;
+        private boolean positioned;
+        private boolean removed;
 
-        /**
-         * Traverse to the next bucket
-         *
-         * @return Returns the next bucket or null
-         */
-        private Bucket<T> getNextBucket() {
-            if (this.index == FixedSizeHashSet.this.table.length - 1) {
-                return null;
+        @Override
+        public boolean advance() {
+            LinkedList.Node<T> next = this.removed || this.node == null ? this.node : this.node.successor();
+            this.removed = false;
+            if (next == null && this.index < table.length) {
+                this.index = nextBucket(this.index + 1);
+                next = this.index == table.length ? null : table[this.index].chain.firstNode();
+            }
+            this.node = next;
+            this.positioned = next != null;
+            return this.positioned;
+        }
+
+        @Override
+        public T get() {
+            if (!this.positioned) {
+                throw new NoSuchElementException();
             }
-            final Bucket<T> node = FixedSizeHashSet.this.table[index];
-            if (node.chain.size() == 0 || this.bucketIndex > node.chain.size()) {
-                this.index++;
-                this.bucketIndex = 0;
-                return getNextBucket();
+            return this.node.getValue();
+        }
+
+        @Override
+        public void remove() {
+            if (!this.positioned) {
+                throw new IllegalStateException();
             }
-            return node;
+            // Removing clears the links of the node, so the cursor advances from its successor in the chain
+            final LinkedList.Node<T> next = this.node.successor();
+            table[this.index].chain.removeNode(this.node);
+            FixedSizeHashSet.this.size--;
+            this.node = next;
+            this.removed = true;
+            this.positioned = false;
+        }
+
+        @Override
+        public void reset() {
+            this.index = -1;
+            this.node = null;
+            this.positioned = false;
+            this.removed = false;
         }
     }
 
@@ -0,0 +1,93 @@
+package me.annoymized.datastructures;
+
+import java.util.Arrays;
+
+/**
+ * Approximate access frequency of keys (a Count-Min sketch with 4-bit counters) used by TinyLFU admission.
+ * Every key maps to one counter in each of four rows, its frequency is the minimum of those counters.
+ * Once the number of increments reaches ten times the capacity all counters are halved, so that the
+ * sketch favours recent popularity. Each long of the table holds 16 counters.
+ */
+class FrequencySketch {
+
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = {0x97CB3127, 0xB2E4A5C1, 0x5B3E1FD7, 0xC5D3F4A9};
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int increments;
+
+    /**
+     * @param capacity The number of keys expected to be tracked
+     */
+    FrequencySketch(final int capacity) {
+        // Round up to a power of two so the table index is a mask, at least 16 counters per key
+        final int length = Integer.highestOneBit(Math.min(Math.max(capacity, 8), 1 << 30) - 1) << 1;
+        this.table = new long[length];
+        this.tableMask = length - 1;
+        this.sampleSize = (int) Math.min(10L * Math.max(capacity, 1), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the estimated frequency of a key | Worst-Case Time Complexity = O(1)
+     *
+     * @param hashCode The hash code of the key
+     * @return Returns the estimated frequency, between 0 and 15
+     */
+    int frequency(final int hashCode) {
+        final int hash = Hashing.mix(hashCode);
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < SEEDS.length; row++) {
+            final int rowHash = Hashing.mix(hash + SEEDS[row]);
+            final int offset = counterOffset(rowHash);
+            frequency = Math.min(frequency, (int) (this.table[rowHash & this.tableMask] >>> offset & 0xF));
+        }
+        return frequency;
+    }
+
+    /**
+     * Increment the counters of a key, unless they are saturated | Worst-Case Time Complexity = O(1),
+     * O(m) when the counters are reset, m = table length
+     *
+     * @param hashCode The hash code of the key
+     */
+    void increment(final int hashCode) {
+        final int hash = Hashing.mix(hashCode);
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            final int rowHash = Hashing.mix(hash + SEEDS[row]);
+            final int index = rowHash & this.tableMask;
+            final int offset = counterOffset(rowHash);
+            if ((this.table[index] >>> offset & 0xF) != 0xF) {
+                this.table[index] += 1L << offset;
+                added = true;
+            }
+        }
+        if (added && ++this.increments == this.sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Halve all counters to age the frequencies
+     */
+    private void reset() {
+        for (int i = 0; i < this.table.length; i++) {
+            this.table[i] = this.table[i] >>> 1 & RESET_MASK;
+        }
+        this.increments /= 2;
+    }
+
+    /**
+     * Select one of the 16 counters of a long using the high bits of the hash, the low bits select the long
+     */
+    private static int counterOffset(final int rowHash) {
+        return (rowHash >>> 28) << 2;
+    }
+
+    void clear() {
+        Arrays.fill(this.table, 0L);
+        this.increments = 0;
+    }
+}
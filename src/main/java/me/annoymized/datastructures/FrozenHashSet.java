@@ -0,0 +1,499 @@
+package me.annoymized.datastructures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Implementation of an immutable HashSet for sets which are built once and then only queried. The elements are
+ * stored in a flat array without empty slots, their positions are assigned by a minimal perfect hash function in
+ * the style of BBHash: a cascade of bit arrays, one per level. An element is placed by the first level at which
+ * its position's bit is set, its index is the number of bits set before it (the rank). A lookup therefore compares
+ * exactly one element, after reading about 1.6 bits on average. The hash function takes about 3.7 bits and the
+ * ranks of its words 1.9 bits per element, the element array 4 bytes per element with compressed references.
+ * <p>
+ * The levels are built in parallel: the elements of a level are split into chunks which mark their positions in
+ * shared atomic bit arrays, elements colliding at a position are passed on to the next level. Elements whose hash
+ * codes are equal collide at every level, they are stored after the others and compared one by one.
+ * <p>
+ * Since the set can never change, it may be published to any number of reader threads without synchronization.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public final class FrozenHashSet<T> implements ReadableCollection<T> {
+
+    /**
+     * The maximum number of elements, so that the bits of all levels can be indexed with an int
+     */
+    public static final int MAX_SIZE = 1 << 28;
+
+    // Bits per element of a level, higher values take more space and resolve more collisions per level
+    private static final int GAMMA = 2;
+    // Levels after which the remaining elements are stored unhashed
+    private static final int MAX_LEVELS = 32;
+    // Number of elements per task of a parallel build
+    private static final int CHUNK = 1 << 14;
+
+    private static final FrozenHashSet<?> EMPTY =
+            new FrozenHashSet<>(new Object[0], 0, new long[0], new int[1], new int[0]);
+
+    // The elements, the first "hashed" of them in the order of their index
+    private final Object[] elements;
+    private final int hashed;
+    // The bits of all levels, level i covers the bits from offsets[i] (inclusive) to offsets[i + 1] (exclusive)
+    private final long[] bits;
+    private final int[] offsets;
+    // ranks[i] is the number of bits set in the words before word i
+    private final int[] ranks;
+
+    private FrozenHashSet(final Object[] elements, final int hashed, final long[] bits, final int[] offsets,
+                          final int[] ranks) {
+        this.elements = elements;
+        this.hashed = hashed;
+        this.bits = bits;
+        this.offsets = offsets;
+        this.ranks = ranks;
+    }
+
+    /**
+     * Get the empty set
+     *
+     * @param <T> A generic type, can be anything.
+     * @return Returns the shared empty set instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> FrozenHashSet<T> empty() {
+        return (FrozenHashSet<T>) EMPTY;
+    }
+
+    /**
+     * Create a set holding all given elements, built in parallel on the common {@link ForkJoinPool}.
+     * Worst-Case Time Complexity = O(n / k) on average, n = number of elements, k = number of threads of the pool
+     *
+     * @param elements The elements of the set, duplicates are dropped
+     * @param <T>      A generic type, can be anything.
+     * @return Returns a new set, or the given one if it is a frozen set
+     * @throws IllegalArgumentException Thrown if any element is null or if there are more than {@link #MAX_SIZE}
+     */
+    public static <T> FrozenHashSet<T> of(final Iterable<T> elements) throws IllegalArgumentException {
+        return of(elements, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a set holding all given elements, built in parallel on an executor. The elements of collections which
+     * are not known to be sets are deduplicated first, in a single thread.
+     * Worst-Case Time Complexity = O(n / k) on average, n = number of elements, k = number of threads of the
+     * executor
+     *
+     * @param elements The elements of the set, duplicates are dropped
+     * @param executor The executor which runs the tasks of the build
+     * @param <T>      A generic type, can be anything.
+     * @return Returns a new set, or the given one if it is a frozen set
+     * @throws IllegalArgumentException Thrown if any element is null, if there are more than {@link #MAX_SIZE} or
+     *                                  if the executor is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> FrozenHashSet<T> of(final Iterable<T> elements, final ExecutorService executor)
+            throws IllegalArgumentException {
+        if (executor == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        if (elements instanceof FrozenHashSet) {
+            return (FrozenHashSet<T>) elements;
+        }
+        Object[] keys = new Object[elements instanceof ReadableCollection
+                                   ? ((ReadableCollection<T>) elements).size() : 16];
+        int count = 0;
+        for (final T t : elements) {
+            if (t == null) {
+                throw new IllegalArgumentException("Does not support null types!");
+            }
+            if (count == MAX_SIZE) {
+                throw new IllegalArgumentException("Too many elements, the maximum is " + MAX_SIZE);
+            }
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, (int) Math.min(MAX_SIZE, Math.max(16L, count * 2L)));
+            }
+            keys[count++] = t;
+        }
+        if (count == 0) {
+            return empty();
+        }
+        final int[] hashes = new int[count];
+        final Object[] source = keys;
+        final int size = count;
+        run(executor, chunks(size), chunk -> {
+            for (int i = chunk * CHUNK, end = Math.min(size, i + CHUNK); i < end; i++) {
+                hashes[i] = source[i].hashCode();
+            }
+        });
+        if (!isDistinct(elements)) {
+            count = distinct(keys, hashes, count);
+        }
+        return build(keys, hashes, count, executor);
+    }
+
+    /**
+     * Check whether the elements of a source are known to be distinct
+     */
+    private static boolean isDistinct(final Iterable<?> elements) {
+        return elements instanceof FixedSizeHashSet || elements instanceof IncrementalHashSet
+               || elements instanceof PersistentHashSet;
+    }
+
+    /**
+     * Drop the duplicates of the first elements of an array by indexing them in a linear probing table
+     * Worst-Case Time Complexity = O(n) on average, n = number of elements
+     *
+     * @return Returns the number of distinct elements, which were moved to the front of the arrays
+     */
+    private static int distinct(final Object[] keys, final int[] hashes, final int count) {
+        // Slots hold the index of an element + 1, 0 for empty slots. The table is at most half full
+        final int[] table = new int[Integer.highestOneBit(count) << 2];
+        final int mask = table.length - 1;
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            final Object key = keys[i];
+            final int hash = hashes[i];
+            int slot = Hashing.mix(hash) & mask;
+            while (table[slot] != 0 && (hashes[table[slot] - 1] != hash || !keys[table[slot] - 1].equals(key))) {
+                slot = slot + 1 & mask;
+            }
+            if (table[slot] == 0) {
+                keys[distinct] = key;
+                hashes[distinct] = hash;
+                table[slot] = ++distinct;
+            }
+        }
+        Arrays.fill(keys, distinct, count, null);
+        return distinct;
+    }
+
+    /**
+     * Build the levels for distinct elements and place the elements at their index
+     */
+    private static <T> FrozenHashSet<T> build(final Object[] keys, final int[] hashes, final int count,
+                                              final ExecutorService executor) {
+        // The elements which are not placed yet, compacted in place after each level
+        Object[] pendingKeys = Arrays.copyOf(keys, count);
+        int[] pendingHashes = Arrays.copyOf(hashes, count);
+        int pending = count;
+        final List<long[]> levels = new ArrayList<>();
+        final int[] offsets = new int[MAX_LEVELS + 1];
+        while (pending != 0 && levels.size() < MAX_LEVELS) {
+            final int level = levels.size();
+            final int words = (int) ((Math.max(64L, (long) GAMMA * pending) + 63) >>> 6);
+            final long[] placed = buildLevel(pendingKeys, pendingHashes, pending, level, words, executor);
+            final int remaining = compact(pendingKeys, pendingHashes, pending, level, placed, executor);
+            if (remaining == pending) {
+                // Nothing was placed, the remaining elements share their hash codes
+                break;
+            }
+            levels.add(placed);
+            offsets[level + 1] = offsets[level] + (words << 6);
+            pending = remaining;
+        }
+        final long[] bits = new long[offsets[levels.size()] >>> 6];
+        for (int level = 0; level < levels.size(); level++) {
+            final long[] words = levels.get(level);
+            System.arraycopy(words, 0, bits, offsets[level] >>> 6, words.length);
+        }
+        final int[] ranks = new int[bits.length];
+        for (int i = 1; i < bits.length; i++) {
+            ranks[i] = ranks[i - 1] + Long.bitCount(bits[i - 1]);
+        }
+        final Object[] elements = new Object[count];
+        final int hashed = count - pending;
+        // The set is complete except for its elements, use it to compute their index
+        final FrozenHashSet<T> set = new FrozenHashSet<>(elements, hashed, bits,
+                                                         Arrays.copyOf(offsets, levels.size() + 1), ranks);
+        run(executor, chunks(count), chunk -> {
+            for (int i = chunk * CHUNK, end = Math.min(count, i + CHUNK); i < end; i++) {
+                final int index = set.index(hashes[i]);
+                if (index != -1) {
+                    elements[index] = keys[i];
+                }
+            }
+        });
+        System.arraycopy(pendingKeys, 0, elements, hashed, pending);
+        return set;
+    }
+
+    /**
+     * Mark the positions of the pending elements at a level in parallel
+     * Worst-Case Time Complexity = O(n / k), n = number of pending elements, k = number of threads of the executor
+     *
+     * @return Returns the bits of the level: the positions of exactly one element
+     */
+    private static long[] buildLevel(final Object[] keys, final int[] hashes, final int count, final int level,
+                                     final int words, final ExecutorService executor) {
+        final AtomicLongArray seen = new AtomicLongArray(words);
+        final AtomicLongArray collided = new AtomicLongArray(words);
+        final int size = words << 6;
+        run(executor, chunks(count), chunk -> {
+            for (int i = chunk * CHUNK, end = Math.min(count, i + CHUNK); i < end; i++) {
+                final int position = position(hashes[i], level, size);
+                final int word = position >>> 6;
+                final long bit = 1L << position;
+                long old;
+                do {
+                    old = seen.get(word);
+                    if ((old & bit) != 0) {
+                        if ((collided.get(word) & bit) == 0) {
+                            collided.getAndAccumulate(word, bit, (a, b) -> a | b);
+                        }
+                        break;
+                    }
+                } while (!seen.compareAndSet(word, old, old | bit));
+            }
+        });
+        final long[] placed = new long[words];
+        for (int i = 0; i < words; i++) {
+            placed[i] = seen.get(i) & ~collided.get(i);
+        }
+        return placed;
+    }
+
+    /**
+     * Move the elements which were not placed at a level to the front of the arrays. Every chunk is compacted in
+     * parallel, the chunks are then moved together.
+     *
+     * @return Returns the number of elements which were not placed
+     */
+    private static int compact(final Object[] keys, final int[] hashes, final int count, final int level,
+                               final long[] placed, final ExecutorService executor) {
+        final int chunks = chunks(count);
+        final int[] remaining = new int[chunks];
+        final int size = placed.length << 6;
+        run(executor, chunks, chunk -> {
+            int target = chunk * CHUNK;
+            for (int i = target, end = Math.min(count, i + CHUNK); i < end; i++) {
+                final int position = position(hashes[i], level, size);
+                if ((placed[position >>> 6] & 1L << position) == 0) {
+                    keys[target] = keys[i];
+                    hashes[target++] = hashes[i];
+                }
+            }
+            remaining[chunk] = target - chunk * CHUNK;
+        });
+        int total = remaining[0];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            System.arraycopy(keys, chunk * CHUNK, keys, total, remaining[chunk]);
+            System.arraycopy(hashes, chunk * CHUNK, hashes, total, remaining[chunk]);
+            total += remaining[chunk];
+        }
+        Arrays.fill(keys, total, count, null);
+        return total;
+    }
+
+    /**
+     * Get the position of a hash code within the bits of a level
+     *
+     * @param hash  The hash code
+     * @param level The level
+     * @param size  The number of bits of the level
+     * @return Returns the position, within 0 (inclusive) and the size (exclusive)
+     */
+    private static int position(final int hash, final int level, final int size) {
+        // Every level hashes a different value, the finalizer is a bijection so equal hash codes stay equal only
+        final long mixed = Hashing.mix64((long) level << 32 | hash & 0xFFFFFFFFL);
+        return (int) ((mixed >>> 32) * size >>> 32);
+    }
+
+    /**
+     * Get the number of tasks to split a number of elements into
+     */
+    private static int chunks(final int count) {
+        return (count + CHUNK - 1) / CHUNK;
+    }
+
+    /**
+     * Run a task for every index on the executor and wait for all of them, a single task runs on the caller
+     */
+    private static void run(final ExecutorService executor, final int count, final IntConsumer task) {
+        if (count <= 1) {
+            for (int i = 0; i < count; i++) {
+                task.accept(i);
+            }
+            return;
+        }
+        final List<Callable<Void>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            tasks.add(() -> {
+                task.accept(index);
+                return null;
+            });
+        }
+        try {
+            for (final Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building", ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Get the index assigned to a hash code by the levels
+     * Worst-Case Time Complexity = O(l), l = number of levels; O(1) on average
+     *
+     * @param hash The hash code
+     * @return Returns the index or -1 if the hash code is not placed at any level
+     */
+    private int index(final int hash) {
+        final int[] offsets = this.offsets;
+        for (int level = 0; level < offsets.length - 1; level++) {
+            final int position = offsets[level] + position(hash, level, offsets[level + 1] - offsets[level]);
+            final int word = position >>> 6;
+            final long bit = 1L << position;
+            if ((this.bits[word] & bit) != 0) {
+                return this.ranks[word] + Long.bitCount(this.bits[word] & bit - 1);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the index of an element, which is unique within 0 (inclusive) and the size of this set (exclusive).
+     * The index can be used to associate values with the elements in an array.
+     * Worst-Case Time Complexity = O(1) on average
+     *
+     * @param object The object instance
+     * @return Returns the index of the element or -1 if this set does not contain it
+     */
+    public int indexOf(final T object) {
+        if (object == null) {
+            return -1;
+        }
+        final int hash = object.hashCode();
+        final int index = index(hash);
+        if (index != -1) {
+            return object.equals(this.elements[index]) ? index : -1;
+        }
+        // The element may share its hash code with other elements
+        for (int i = this.hashed; i < this.elements.length; i++) {
+            if (object.equals(this.elements[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Compares a single element.
+     * Worst-Case Time Complexity = O(1) on average
+     */
+    @Override
+    public boolean contains(final T object) {
+        return indexOf(object) != -1;
+    }
+
+    /**
+     * Get the element at an index
+     * Worst-Case Time Complexity = O(1)
+     *
+     * @param index The index, must be within 0 and {@link #size()} - 1
+     * @return Returns the element at the index
+     * @throws IndexOutOfBoundsException Thrown if the index parameter is less than 0
+     *                                   or if it is greater than the size of the set minus 1
+     */
+    @SuppressWarnings("unchecked")
+    public T get(final int index) {
+        if (index < 0 || index >= this.elements.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        return (T) this.elements[index];
+    }
+
+    @Override
+    public int size() {
+        return this.elements.length;
+    }
+
+    /**
+     * This set is already frozen
+     *
+     * @return Returns this set
+     */
+    @Override
+    public FrozenHashSet<T> freeze() {
+        return this;
+    }
+
+    /**
+     * Call an action with every element of this set in the order of their index
+     * Worst-Case Time Complexity = O(n), n = number of elements
+     *
+     * @param action The action
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final Consumer<? super T> action) {
+        for (final Object element : this.elements) {
+            action.accept((T) element);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Iterates the elements in the order of their index, the iterator does not support removal.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < elements.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (this.index == elements.length) {
+                    throw new NoSuchElementException();
+                }
+                return (T) elements[this.index++];
+            }
+        };
+    }
+
+    /**
+     * Get an estimate of the memory held by this set in bytes, excluding the elements themselves and assuming
+     * compressed references and 16 byte object headers
+     *
+     * @return Returns the estimated size in bytes
+     */
+    public long sizeInBytes() {
+        return 32 + 16 + this.elements.length * 4L + 16 + this.bits.length * 8L + 16 + this.offsets.length * 4L
+               + 16 + this.ranks.length * 4L;
+    }
+
+    @Override
+    public String toString() {
+        return "FrozenHashSet{" + "elements=" + Arrays.toString(this.elements) + ", size=" + size() + '}';
+    }
+}
@@ -0,0 +1,665 @@
+package me.annoymized.datastructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of a multiset (bag) which counts the occurrences of its elements in a hash table. Every distinct
+ * element takes one slot of an open addressing table with linear probing, its count is stored as a primitive int
+ * next to its hash in a single long, so updating a count neither boxes nor allocates and a probe touches one array
+ * until the hashes match. Removed slots are closed by shifting the following slots of the probe sequence back,
+ * the table needs no tombstones.
+ * <p>
+ * As a {@link Collection} the multiset holds every occurrence: {@link #add(Object)} adds one occurrence,
+ * {@link #removeFirst(Object)} removes one, {@link #remove(Object)} removes all occurrences of an element,
+ * {@link #size()} is the total number of occurrences and the iterator returns each element as often as it occurs.
+ * {@link #forEachEntry(ObjIntConsumer)} visits every distinct element once with its count.
+ * This class is not thread safe and by no means performs any concurrent modification checks.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public class HashMultiset<T> implements Collection<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private Object[] keys;
+    // The hash of the key in the upper and its count in the lower 32 bits, a count of 0 marks an empty slot
+    private long[] slots;
+    private int mask;
+    private int threshold;
+    private int distinct;
+    private long size;
+
+    public HashMultiset() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity The number of distinct elements the multiset can hold before it grows
+     * @throws IllegalArgumentException Thrown if the capacity is less than 1.
+     */
+    public HashMultiset(final int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Invalid initial capacity: " + initialCapacity);
+        }
+        final int length = (int) Math.min(MAXIMUM_CAPACITY, (long) Math.ceil(initialCapacity / LOAD_FACTOR));
+        allocate(Math.max(2, Integer.highestOneBit(length - 1) << 1));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Adds one occurrence. Worst-Case Time Complexity = O(1) on average
+     *
+     * @throws IllegalArgumentException Thrown if the object is null or its count would overflow
+     */
+    @Override
+    public void add(final T t) {
+        add(t, 1);
+    }
+
+    /**
+     * Add a number of occurrences of an element
+     * Worst-Case Time Complexity = O(1) on average
+     *
+     * @param t           The element
+     * @param occurrences The number of occurrences to add
+     * @return Returns the count of the element before the operation
+     * @throws IllegalArgumentException Thrown if the element is null, the number of occurrences is negative or the
+     *                                  count would exceed {@link Integer#MAX_VALUE}
+     */
+    public int add(final T t, final int occurrences) {
+        if (t == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        if (occurrences < 0) {
+            throw new IllegalArgumentException("Invalid occurrences: " + occurrences);
+        }
+        final int hash = Hashing.hash(t);
+        int index = hash & this.mask;
+        for (long slot; (slot = this.slots[index]) != 0; index = index + 1 & this.mask) {
+            if ((int) (slot >>> 32) == hash && t.equals(this.keys[index])) {
+                final int count = (int) slot;
+                if (occurrences > Integer.MAX_VALUE - count) {
+                    throw new IllegalArgumentException("Count overflow: " + count + " + " + occurrences);
+                }
+                this.slots[index] = slot + occurrences;
+                this.size += occurrences;
+                return count;
+            }
+        }
+        if (occurrences == 0) {
+            return 0;
+        }
+        if (this.distinct == this.threshold) {
+            if (this.slots.length == MAXIMUM_CAPACITY) {
+                throw new IllegalStateException("Multiset is full");
+            }
+            grow();
+            index = probe(hash);
+        }
+        this.keys[index] = t;
+        this.slots[index] = (long) hash << 32 | occurrences;
+        this.distinct++;
+        this.size += occurrences;
+        return 0;
+    }
+
+    /**
+     * Get the number of occurrences of an element
+     * Worst-Case Time Complexity = O(1) on average
+     *
+     * @param t The element
+     * @return Returns the count, 0 if the element is not in this multiset or null
+     */
+    public int count(final T t) {
+        final int index = indexOf(t);
+        return index < 0 ? 0 : (int) this.slots[index];
+    }
+
+    /**
+     * Remove a number of occurrences of an element, the element is removed once its count reaches 0
+     * Worst-Case Time Complexity = O(1) on average
+     *
+     * @param t           The element
+     * @param occurrences The maximum number of occurrences to remove
+     * @return Returns the count of the element before the operation
+     * @throws IllegalArgumentException Thrown if the number of occurrences is negative
+     */
+    public int remove(final T t, final int occurrences) {
+        if (occurrences < 0) {
+            throw new IllegalArgumentException("Invalid occurrences: " + occurrences);
+        }
+        final int index = indexOf(t);
+        if (index < 0) {
+            return 0;
+        }
+        final int count = (int) this.slots[index];
+        if (occurrences >= count) {
+            this.size -= count;
+            delete(index);
+        } else {
+            this.slots[index] -= occurrences;
+            this.size -= occurrences;
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(1) on average
+     */
+    @Override
+    public boolean contains(final T t) {
+        return indexOf(t) >= 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Removes one occurrence. Worst-Case Time Complexity = O(1) on average
+     */
+    @Override
+    public boolean removeFirst(final T t) {
+        return remove(t, 1) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Removes all occurrences. Worst-Case Time Complexity = O(1) on average
+     */
+    @Override
+    public boolean remove(final T t) {
+        return remove(t, Integer.MAX_VALUE) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The counts of another multiset are added without iterating its occurrences.
+     * Worst-Case Time Complexity = O(m) on average, m = number of occurrences (distinct elements of a multiset)
+     */
+    @Override
+    public void addAll(final Collection<T> collection) {
+        if (collection instanceof HashMultiset) {
+            ((HashMultiset<T>) collection).forEachEntry(this::add);
+            return;
+        }
+        for (final T t : collection) {
+            add(t, 1);
+        }
+    }
+
+    @Override
+    public void addAll(final T[] array) {
+        for (final T t : array) {
+            add(t, 1);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Removes all occurrences of the elements. Worst-Case Time Complexity = O(n + m) on average, n = number of
+     * distinct elements, m = size of the collection
+     */
+    @Override
+    public void removeAll(final Collection<T> collection) {
+        if (collection.size() == 0 || this.size == 0) {
+            return;
+        }
+        if (collection.size() > this.distinct && MembershipIndex.isHashed(collection)) {
+            removeWhere(collection::contains);
+            return;
+        }
+        for (final T t : collection) {
+            remove(t);
+        }
+    }
+
+    @Override
+    public void removeAll(final T[] array) {
+        if (array.length == 0 || this.size == 0) {
+            return;
+        }
+        for (final T t : array) {
+            remove(t);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Keeps all occurrences of the retained elements. Worst-Case Time Complexity = O(n + m) on average, n = number
+     * of distinct elements, m = size of the collection
+     */
+    @Override
+    public void retainAll(final Collection<T> collection) {
+        if (this.size == 0) {
+            return;
+        }
+        if (collection.size() == 0) {
+            clear();
+            return;
+        }
+        removeWhere(MembershipIndex.of(collection).negate());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The result holds the occurrences of this multiset and all occurrences of the other elements.
+     * Worst-Case Time Complexity = O(n + m) on average, n = number of distinct elements, m = size of the collection
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null
+     */
+    @Override
+    public HashMultiset<T> union(final Collection<T> collection) {
+        final HashMultiset<T> result = copy((long) this.distinct + collection.size());
+        if (collection instanceof HashMultiset) {
+            ((HashMultiset<T>) collection).forEachEntry((t, count) -> {
+                if (!contains(t)) {
+                    result.add(t, count);
+                }
+            });
+            return result;
+        }
+        for (final T t : collection) {
+            if (!contains(t)) {
+                result.add(t, 1);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The result holds all occurrences of the elements of this multiset which are in the collection.
+     * Worst-Case Time Complexity = O(n + m) on average, n = number of distinct elements, m = size of the collection
+     */
+    @Override
+    public HashMultiset<T> intersect(final Collection<T> collection) {
+        final HashMultiset<T> result = new HashMultiset<>(Math.max(1, Math.min(this.distinct, collection.size())));
+        if (this.size == 0 || collection.size() == 0) {
+            return result;
+        }
+        final Predicate<T> index = MembershipIndex.of(collection);
+        forEachEntry((t, count) -> {
+            if (index.test(t)) {
+                result.add(t, count);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The result holds all occurrences of the elements of this multiset which are not in the collection.
+     * Worst-Case Time Complexity = O(n + m) on average, n = number of distinct elements, m = size of the collection
+     */
+    @Override
+    public HashMultiset<T> difference(final Collection<T> collection) {
+        if (collection.size() == 0) {
+            return copy(this.distinct);
+        }
+        final HashMultiset<T> result = new HashMultiset<>(Math.max(1, this.distinct));
+        final Predicate<T> index = MembershipIndex.of(collection);
+        forEachEntry((t, count) -> {
+            if (!index.test(t)) {
+                result.add(t, count);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Obtain the elements with the highest counts, found with a heap of k slots in a single pass over the table
+     * Worst-Case Time Complexity = O(m + n log k), m = capacity, n = number of distinct elements
+     *
+     * @param k         The maximum number of elements
+     * @param generator Creates an array of a given length, i.e. {@code String[]::new}
+     * @return Returns at most k elements ordered by descending count, elements of equal count in no particular order
+     * @throws IllegalArgumentException Thrown if k is negative
+     */
+    @SuppressWarnings("unchecked")
+    public T[] topK(final int k, final IntFunction<T[]> generator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Invalid k: " + k);
+        }
+        // A min-heap of slot indices ordered by count, its root is the smallest count kept so far
+        final int[] heap = new int[Math.min(k, this.distinct)];
+        int length = 0;
+        for (int index = 0; index < this.slots.length && heap.length != 0; index++) {
+            final int count = (int) this.slots[index];
+            if (count == 0) {
+                continue;
+            }
+            if (length < heap.length) {
+                heap[length] = index;
+                siftUp(heap, length++);
+            } else if (count > (int) this.slots[heap[0]]) {
+                heap[0] = index;
+                siftDown(heap, 0, length);
+            }
+        }
+        final T[] result = generator.apply(length);
+        // Removing the root repeatedly yields ascending counts, fill the result from the end
+        while (length > 0) {
+            result[length - 1] = (T) this.keys[heap[0]];
+            heap[0] = heap[--length];
+            siftDown(heap, 0, length);
+        }
+        return result;
+    }
+
+    private void siftUp(final int[] heap, int child) {
+        final int index = heap[child];
+        final int count = (int) this.slots[index];
+        while (child > 0) {
+            final int parent = (child - 1) >>> 1;
+            if ((int) this.slots[heap[parent]] <= count) {
+                break;
+            }
+            heap[child] = heap[parent];
+            child = parent;
+        }
+        heap[child] = index;
+    }
+
+    private void siftDown(final int[] heap, int parent, final int length) {
+        final int index = heap[parent];
+        final int count = (int) this.slots[index];
+        int child;
+        while ((child = 2 * parent + 1) < length) {
+            if (child + 1 < length && (int) this.slots[heap[child + 1]] < (int) this.slots[heap[child]]) {
+                child++;
+            }
+            if (count <= (int) this.slots[heap[child]]) {
+                break;
+            }
+            heap[parent] = heap[child];
+            parent = child;
+        }
+        heap[parent] = index;
+    }
+
+    /**
+     * Call an action with every distinct element of this multiset and its count, without allocating
+     * Worst-Case Time Complexity = O(m), m = capacity
+     *
+     * @param action The action, called with the element and its count
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachEntry(final ObjIntConsumer<? super T> action) {
+        for (int index = 0; index < this.slots.length; index++) {
+            final int count = (int) this.slots[index];
+            if (count != 0) {
+                action.accept((T) this.keys[index], count);
+            }
+        }
+    }
+
+    /**
+     * Call an action with every occurrence of every element of this multiset, without allocating an iterator
+     * Worst-Case Time Complexity = O(m + s), m = capacity, s = size
+     *
+     * @param action The action
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(final Consumer<? super T> action) {
+        for (int index = 0; index < this.slots.length; index++) {
+            final T t = (T) this.keys[index];
+            for (int count = (int) this.slots[index]; count > 0; count--) {
+                action.accept(t);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Removes all occurrences of the matching elements, the filter is called once per distinct element.
+     * Worst-Case Time Complexity = O(m), m = capacity, excluding the cost of the filter
+     */
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        return removeWhere(filter) != 0;
+    }
+
+    /**
+     * Remove all elements matching a filter in a single pass over the table. The pass starts behind an empty slot,
+     * so no probe sequence wraps around it and the slots shifted back by a removal are visited later.
+     * Worst-Case Time Complexity = O(m), m = capacity, excluding the cost of the filter
+     *
+     * @param filter The filter, elements for which it returns true are removed
+     * @return Returns the number of distinct elements removed
+     */
+    @SuppressWarnings("unchecked")
+    int removeWhere(final Predicate<? super T> filter) {
+        final int oldDistinct = this.distinct;
+        final int start = emptySlot();
+        for (int step = 1; step <= this.slots.length; step++) {
+            final int index = start + step & this.mask;
+            // A removal may shift another element into this slot, test it again
+            while (this.slots[index] != 0 && filter.test((T) this.keys[index])) {
+                this.size -= (int) this.slots[index];
+                delete(index);
+            }
+        }
+        return oldDistinct - this.distinct;
+    }
+
+    @Override
+    public void clear() {
+        if (this.distinct == 0) {
+            return;
+        }
+        Arrays.fill(this.keys, null);
+        Arrays.fill(this.slots, 0);
+        this.distinct = 0;
+        this.size = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The total number of occurrences, capped at {@link Integer#MAX_VALUE}. See {@link #distinctSize()}.
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, this.size);
+    }
+
+    /**
+     * @return Returns the number of distinct elements
+     */
+    public int distinctSize() {
+        return this.distinct;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every element is returned as often as it occurs, removing through the iterator removes one occurrence.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new OccurrenceIterator();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("HashMultiset{elements=[");
+        forEachEntry((t, count) -> builder.append(t).append('=').append(count).append(", "));
+        if (this.distinct != 0) {
+            builder.setLength(builder.length() - 2);
+        }
+        return builder.append("], size=").append(this.size).append('}').toString();
+    }
+
+    /**
+     * Find the slot of an element
+     * Worst-Case Time Complexity = O(1) on average
+     *
+     * @param t The element, may be null
+     * @return Returns the index of the slot or -1 if the element is not in this multiset
+     */
+    private int indexOf(final T t) {
+        if (t == null || this.distinct == 0) {
+            return -1;
+        }
+        final int hash = Hashing.hash(t);
+        for (int index = hash & this.mask; ; index = index + 1 & this.mask) {
+            final long slot = this.slots[index];
+            if (slot == 0) {
+                return -1;
+            }
+            if ((int) (slot >>> 32) == hash && t.equals(this.keys[index])) {
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Find the first empty slot of the probe sequence of a hash
+     */
+    private int probe(final int hash) {
+        int index = hash & this.mask;
+        while (this.slots[index] != 0) {
+            index = index + 1 & this.mask;
+        }
+        return index;
+    }
+
+    /**
+     * Find any empty slot, the table is never full
+     */
+    private int emptySlot() {
+        int index = 0;
+        while (this.slots[index] != 0) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Empty a slot and shift back the following slots of its probe sequence whose home slot is not between the
+     * emptied slot and themselves, so that every element stays reachable from its home slot.
+     * Worst-Case Time Complexity = O(1) on average
+     *
+     * @param index The index of the slot to empty
+     */
+    private void delete(int index) {
+        for (int next = index + 1 & this.mask; ; next = next + 1 & this.mask) {
+            final long slot = this.slots[next];
+            if (slot == 0) {
+                break;
+            }
+            final int home = (int) (slot >>> 32) & this.mask;
+            // Move the slot unless its home lies cyclically within (index, next]
+            if ((next - home & this.mask) >= (next - index & this.mask)) {
+                this.keys[index] = this.keys[next];
+                this.slots[index] = slot;
+                index = next;
+            }
+        }
+        this.keys[index] = null;
+        this.slots[index] = 0;
+        this.distinct--;
+    }
+
+    private void allocate(final int length) {
+        this.keys = new Object[length];
+        this.slots = new long[length];
+        this.mask = length - 1;
+        this.threshold = length == MAXIMUM_CAPACITY ? length - 1 : (int) (length * LOAD_FACTOR);
+    }
+
+    /**
+     * Move all slots to a table of twice the size
+     * Worst-Case Time Complexity = O(m), m = capacity
+     */
+    private void grow() {
+        final Object[] oldKeys = this.keys;
+        final long[] oldSlots = this.slots;
+        allocate(oldSlots.length << 1);
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                final int index = probe((int) (oldSlots[i] >>> 32));
+                this.keys[index] = oldKeys[i];
+                this.slots[index] = oldSlots[i];
+            }
+        }
+    }
+
+    /**
+     * Copy this multiset into a new multiset with room for a number of distinct elements
+     */
+    private HashMultiset<T> copy(final long capacity) {
+        final HashMultiset<T> result =
+            new HashMultiset<>((int) Math.min(Integer.MAX_VALUE, Math.max(1L, Math.max(capacity, this.distinct))));
+        forEachEntry(result::add);
+        return result;
+    }
+
+    /**
+     * Iterator implementation which returns the element of a slot as often as it occurs. The traversal starts behind
+     * an empty slot, like {@link #removeWhere(Predicate)}, so that removing through the iterator neither skips nor
+     * repeats elements. Only {@link #remove()} may be used to modify the multiset during iteration.
+     */
+    private final class OccurrenceIterator implements Iterator<T> {
+
+        private final int start = emptySlot();
+        // The number of slots passed, the current slot is start + step
+        private int step;
+        // The number of occurrences of the current slot returned so far
+        private int returned;
+        private boolean removable;
+
+        @Override
+        public boolean hasNext() {
+            while (this.returned == count()) {
+                if (this.step == slots.length) {
+                    return false;
+                }
+                this.step++;
+                this.returned = 0;
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.returned++;
+            this.removable = true;
+            return (T) keys[index()];
+        }
+
+        @Override
+        public void remove() {
+            if (!this.removable) {
+                throw new IllegalStateException();
+            }
+            this.removable = false;
+            final int index = index();
+            size--;
+            this.returned--;
+            if ((int) --slots[index] == 0) {
+                // The count reached 0, another element may be shifted into this slot
+                delete(index);
+                this.returned = 0;
+            }
+        }
+
+        private int index() {
+            return start + this.step & mask;
+        }
+
+        private int count() {
+            return this.step == 0 ? 0 : (int) slots[index()];
+        }
+    }
+}
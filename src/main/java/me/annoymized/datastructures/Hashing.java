@@ -0,0 +1,53 @@
+package me.annoymized.datastructures;
+
+/**
+ * Hash functions shared by the hash based data structures.
+ */
+public final class Hashing {
+
+    private Hashing() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Hash an object
+     *
+     * @param o The object to hash, cannot be null
+     * @return Returns the object's {@link Object#hashCode()} with its bits spread by {@link #mix(int)}
+     */
+    public static int hash(final Object o) {
+        return mix(o.hashCode());
+    }
+
+    /**
+     * Spread the bits of a hash code using the MurmurHash3 finalizer, so that hash codes which only
+     * differ in a few bits (i.e. sequential integers) are distributed evenly across all 32 bits.
+     *
+     * @param h The hash code
+     * @return Returns the mixed hash code
+     */
+    public static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Spread the bits of a 64-bit value using the MurmurHash3 64-bit finalizer, for structures which need more than
+     * 32 bits of hash, i.e. to derive several independent hashes from one.
+     *
+     * @param h The value
+     * @return Returns the mixed value
+     */
+    public static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
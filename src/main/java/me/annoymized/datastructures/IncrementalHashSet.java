@@ -0,0 +1,555 @@
+package me.annoymized.datastructures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of a growable HashSet which rehashes incrementally. Once the load factor is exceeded a table
+ * of twice the size is allocated, but instead of moving all elements at once every subsequent
+ * {@link #add(Object)} and {@link #remove(Object)} moves the next {@link #MIGRATION_STEP} buckets of the old
+ * table to the new one. No single operation pays for a full rehash; the remaining cost of a resize is
+ * allocating the new (zeroed) table.
+ * <p>
+ * While a migration is in progress an element resides either in the not yet migrated part of the old table
+ * or in the new table, lookups and removals check both. A migration always completes before the set grows
+ * again. This class is not thread safe and by no means performs any concurrent modification checks.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public class IncrementalHashSet<T> implements Collection<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.75F;
+    // Number of old buckets moved per mutation. A resize leaves three quarters of the old length in additions until
+    // the next one, so two would finish in time, four halves how long lookups have to check both tables
+    static final int MIGRATION_STEP = 4;
+
+    private Entry<T>[] table;
+    // The table being migrated or null if no migration is in progress
+    private Entry<T>[] oldTable;
+    // Buckets of the old table below this index have been migrated
+    private int migrated;
+    private int threshold;
+    private int size;
+
+    public IncrementalHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity The number of elements the set can hold before it grows
+     * @throws IllegalArgumentException Thrown if the capacity is less than 1.
+     */
+    public IncrementalHashSet(final int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Invalid initial capacity: " + initialCapacity);
+        }
+        final int buckets = (int) Math.min(MAXIMUM_CAPACITY, (long) Math.ceil(initialCapacity / LOAD_FACTOR));
+        this.table = newTable(Math.max(2, Integer.highestOneBit(buckets - 1) << 1));
+        this.threshold = threshold(this.table.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T>[] newTable(final int length) {
+        return (Entry<T>[]) new Entry<?>[length];
+    }
+
+    private static int threshold(final int length) {
+        return length == MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (length * LOAD_FACTOR);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(1) on average, plus the migration of {@link #MIGRATION_STEP} buckets
+     */
+    @Override
+    public void add(final T object) {
+        if (object == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        migrate();
+        final int hash = Hashing.hash(object);
+        if (find(object, hash) != null) {
+            return;
+        }
+        final int index = hash & (this.table.length - 1);
+        this.table[index] = new Entry<>(object, hash, this.table[index]);
+        if (++this.size > this.threshold) {
+            grow();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(1) on average
+     */
+    @Override
+    public boolean contains(final T object) {
+        return object != null && this.size != 0 && find(object, Hashing.hash(object)) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(1) on average, plus the migration of {@link #MIGRATION_STEP} buckets
+     */
+    @Override
+    public boolean remove(final T object) {
+        if (object == null || this.size == 0) {
+            return false;
+        }
+        migrate();
+        return delete(object);
+    }
+
+    @Override
+    public boolean removeFirst(final T t) {
+        return remove(t);
+    }
+
+    @Override
+    public void addAll(final Collection<T> objects) {
+        for (final T t : objects) {
+            add(t);
+        }
+    }
+
+    @Override
+    public void addAll(final T[] array) {
+        for (final T t : array) {
+            add(t);
+        }
+    }
+
+    @Override
+    public void removeAll(final Collection<T> objects) {
+        if (objects.size() == 0 || this.size == 0) {
+            return;
+        }
+        if (objects.size() > this.size && MembershipIndex.isHashed(objects)) {
+            removeWhere(objects::contains);
+            return;
+        }
+        for (final T t : objects) {
+            remove(t);
+        }
+    }
+
+    @Override
+    public void removeAll(final T[] array) {
+        if (array.length == 0 || this.size == 0) {
+            return;
+        }
+        for (final T t : array) {
+            remove(t);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m) on average, n = size of this set, m = size of the collection
+     */
+    @Override
+    public void retainAll(final Collection<T> objects) {
+        if (this.size == 0) {
+            return;
+        }
+        if (objects.size() == 0) {
+            clear();
+            return;
+        }
+        removeWhere(MembershipIndex.of(objects).negate());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m) on average, n = size of this set, m = size of the collection
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null
+     */
+    @Override
+    public IncrementalHashSet<T> union(final Collection<T> objects) {
+        final IncrementalHashSet<T> result =
+            new IncrementalHashSet<>((int) Math.min(Integer.MAX_VALUE, Math.max(1L, (long) this.size + objects.size())));
+        result.addAll(this);
+        result.addAll(objects);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The smaller side is iterated, if that is the given collection it is probed against this set.
+     * Worst-Case Time Complexity = O(min(n, m)) on average, n = size of this set, m = size of the collection
+     */
+    @Override
+    public IncrementalHashSet<T> intersect(final Collection<T> objects) {
+        final IncrementalHashSet<T> result = new IncrementalHashSet<>(Math.max(1, Math.min(this.size, objects.size())));
+        if (this.size == 0 || objects.size() == 0) {
+            return result;
+        }
+        if (objects.size() < this.size) {
+            for (final T t : objects) {
+                // Keep the instance held by this set
+                final Entry<T> entry = t == null ? null : find(t, Hashing.hash(t));
+                if (entry != null) {
+                    result.add(entry.value);
+                }
+            }
+        } else {
+            final Predicate<T> index = MembershipIndex.of(objects);
+            for (final T t : this) {
+                if (index.test(t)) {
+                    result.add(t);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m) on average, n = size of this set, m = size of the collection
+     */
+    @Override
+    public IncrementalHashSet<T> difference(final Collection<T> objects) {
+        final IncrementalHashSet<T> result = new IncrementalHashSet<>(Math.max(1, this.size));
+        if (this.size == 0) {
+            return result;
+        }
+        final Predicate<T> index = objects.size() == 0 ? t -> false : MembershipIndex.of(objects);
+        for (final T t : this) {
+            if (!index.test(t)) {
+                result.add(t);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        if (this.size == 0) {
+            return;
+        }
+        // Drop an unfinished migration along with the elements
+        if (this.oldTable != null) {
+            this.oldTable = null;
+            this.migrated = 0;
+        }
+        for (int i = 0; i < this.table.length; i++) {
+            this.table[i] = null;
+        }
+        this.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Check whether a migration of the buckets to a larger table is in progress
+     *
+     * @return Returns true if a migration is in progress, false otherwise
+     */
+    public boolean isMigrating() {
+        return this.oldTable != null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new EntryIterator();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("IncrementalHashSet{elements=[");
+        final Iterator<T> iterator = iterator();
+        while (iterator.hasNext()) {
+            builder.append(iterator.next());
+            if (iterator.hasNext()) {
+                builder.append(", ");
+            }
+        }
+        return builder.append("], size=").append(this.size).append('}').toString();
+    }
+
+    /**
+     * Find the entry holding a given object
+     * Worst-Case Time Complexity = O(n/m), n = number of elements, m = number of buckets
+     *
+     * @param object The object, cannot be null
+     * @param hash   The object's {@link Hashing#hash(Object)}
+     * @return Returns the entry or null if there is none
+     */
+    private Entry<T> find(final T object, final int hash) {
+        if (this.oldTable != null) {
+            final int index = hash & (this.oldTable.length - 1);
+            // Buckets below the migration index are empty
+            if (index >= this.migrated) {
+                for (Entry<T> entry = this.oldTable[index]; entry != null; entry = entry.next) {
+                    if (entry.hash == hash && object.equals(entry.value)) {
+                        return entry;
+                    }
+                }
+            }
+        }
+        for (Entry<T> entry = this.table[hash & (this.table.length - 1)]; entry != null; entry = entry.next) {
+            if (entry.hash == hash && object.equals(entry.value)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove a given object without advancing the migration
+     * Worst-Case Time Complexity = O(n/m), n = number of elements, m = number of buckets
+     *
+     * @param object The object, cannot be null
+     * @return Returns true if the object was removed, false otherwise
+     */
+    private boolean delete(final T object) {
+        final int hash = Hashing.hash(object);
+        if (this.oldTable != null) {
+            final int index = hash & (this.oldTable.length - 1);
+            if (index >= this.migrated && unlink(this.oldTable, index, object, hash)) {
+                return true;
+            }
+        }
+        return unlink(this.table, hash & (this.table.length - 1), object, hash);
+    }
+
+    /**
+     * Unlink an object from the chain of a bucket
+     *
+     * @return Returns true if the object was found, false otherwise
+     */
+    private boolean unlink(final Entry<T>[] table, final int index, final T object, final int hash) {
+        Entry<T> previous = null;
+        for (Entry<T> entry = table[index]; entry != null; previous = entry, entry = entry.next) {
+            if (entry.hash == hash && object.equals(entry.value)) {
+                if (previous == null) {
+                    table[index] = entry.next;
+                } else {
+                    previous.next = entry.next;
+                }
+                this.size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The migration is not advanced. Worst-Case Time Complexity = O(n + m), n = number of elements,
+     * m = number of buckets, excluding the cost of the filter
+     */
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        return removeWhere(filter) != 0;
+    }
+
+    /**
+     * Call an action with every element of this set, without allocating an iterator
+     * Worst-Case Time Complexity = O(n + m), n = number of elements, m = number of buckets
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        if (this.oldTable != null) {
+            forEach(this.oldTable, this.migrated, action);
+        }
+        forEach(this.table, 0, action);
+    }
+
+    private static <T> void forEach(final Entry<T>[] table, final int from, final Consumer<? super T> action) {
+        for (int i = from; i < table.length; i++) {
+            for (Entry<T> entry = table[i]; entry != null; entry = entry.next) {
+                action.accept(entry.value);
+            }
+        }
+    }
+
+    /**
+     * Remove all elements matching a filter in a single pass over both tables
+     * Worst-Case Time Complexity = O(n + m), n = number of elements, m = number of buckets, excluding the cost of the filter
+     *
+     * @param filter The filter, elements for which it returns true are removed
+     * @return Returns the number of elements removed
+     */
+    int removeWhere(final Predicate<? super T> filter) {
+        final int oldSize = this.size;
+        if (this.oldTable != null) {
+            removeWhere(this.oldTable, this.migrated, filter);
+        }
+        removeWhere(this.table, 0, filter);
+        return oldSize - this.size;
+    }
+
+    private void removeWhere(final Entry<T>[] table, final int from, final Predicate<? super T> filter) {
+        for (int i = from; i < table.length; i++) {
+            Entry<T> previous = null;
+            for (Entry<T> entry = table[i]; entry != null; entry = entry.next) {
+                if (filter.test(entry.value)) {
+                    if (previous == null) {
+                        table[i] = entry.next;
+                    } else {
+                        previous.next = entry.next;
+                    }
+                    this.size--;
+                } else {
+                    previous = entry;
+                }
+            }
+        }
+    }
+
+    /**
+     * Start migrating the buckets to a table of twice the size
+     * Worst-Case Time Complexity = O(m), m = number of buckets, to allocate the new table
+     */
+    private void grow() {
+        if (this.table.length == MAXIMUM_CAPACITY) {
+            return;
+        }
+        if (this.oldTable != null) {
+            // Only possible if the set grew faster than it migrated, finish the previous migration first
+            migrate(this.oldTable.length);
+        }
+        this.oldTable = this.table;
+        this.migrated = 0;
+        this.table = newTable(this.oldTable.length << 1);
+        this.threshold = threshold(this.table.length);
+    }
+
+    /**
+     * Move the next {@link #MIGRATION_STEP} buckets of the old table to the new table, if a migration is in progress
+     * Worst-Case Time Complexity = O(1) on average
+     */
+    private void migrate() {
+        if (this.oldTable != null) {
+            migrate(MIGRATION_STEP);
+        }
+    }
+
+    /**
+     * Move the next buckets of the old table to the new table. Every old bucket i is split into the buckets i
+     * and i + old length of the new table.
+     *
+     * @param buckets The maximum number of buckets to move
+     */
+    private void migrate(final int buckets) {
+        final Entry<T>[] old = this.oldTable;
+        final int mask = this.table.length - 1;
+        final int end = Math.min(old.length, this.migrated + buckets);
+        for (int i = this.migrated; i < end; i++) {
+            Entry<T> entry = old[i];
+            old[i] = null;
+            while (entry != null) {
+                final Entry<T> next = entry.next;
+                final int index = entry.hash & mask;
+                entry.next = this.table[index];
+                this.table[index] = entry;
+                entry = next;
+            }
+        }
+        this.migrated = end;
+        if (end == old.length) {
+            this.oldTable = null;
+            this.migrated = 0;
+        }
+    }
+
+    /**
+     * Represents an element in the chain of a bucket.
+     *
+     * @param <E> A generic type, can be anything.
+     */
+    private static final class Entry<E> {
+
+        private final E value;
+        private final int hash;
+        private Entry<E> next;
+
+        private Entry(final E value, final int hash, final Entry<E> next) {
+            this.value = value;
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Iterator implementation which traverses the not yet migrated buckets of the old table followed by the new
+     * table. The order of elements is not guaranteed to be the same once the set has been modified, only
+     * {@link #remove()} may be used to modify the set during iteration.
+     */
+    private final class EntryIterator implements Iterator<T> {
+
+        private Entry<T>[] current;
+        private int index;
+        private Entry<T> next;
+        private Entry<T> last;
+
+        private EntryIterator() {
+            if (oldTable != null) {
+                this.current = oldTable;
+                this.index = migrated;
+            } else {
+                this.current = table;
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public T next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next;
+            this.next = this.next.next;
+            if (this.next == null) {
+                advance();
+            }
+            return this.last.value;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException();
+            }
+            // Deleting does not advance the migration, so the remaining buckets are not moved under the iterator
+            delete(this.last.value);
+            this.last = null;
+        }
+
+        /**
+         * Move to the first entry of the next non-empty bucket
+         */
+        private void advance() {
+            while (true) {
+                while (this.index < this.current.length) {
+                    final Entry<T> entry = this.current[this.index++];
+                    if (entry != null) {
+                        this.next = entry;
+                        return;
+                    }
+                }
+                if (this.current == table) {
+                    return;
+                }
+                this.current = table;
+                this.index = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,388 @@
+package me.annoymized.datastructures;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Implementation of a list of primitive integers backed by an int array which grows by half of its capacity once
+ * it is full. Unlike an Integer array, comparing an element does not dereference a pointer nor call
+ * {@link Object#equals(Object)}, and the elements are stored consecutively in memory. Searches are performed by
+ * {@link ArraySearch}, so they compare several elements per instruction on JDK 17+.
+ * This class is not thread safe and by no means performs any concurrent modification checks.
+ */
+public final class IntArrayList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    // Some VMs reserve header words in an array
+    private static final int MAXIMUM_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] elements;
+    private int size;
+
+    public IntArrayList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity The number of elements the list can hold before it grows
+     * @throws IllegalArgumentException Thrown if the capacity is negative or greater than 2^31 - 9.
+     */
+    public IntArrayList(final int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 0 || initialCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("Invalid initial capacity: " + initialCapacity);
+        }
+        this.elements = new int[initialCapacity];
+    }
+
+    /**
+     * Create a list holding given integers
+     *
+     * @param values The integers
+     * @return Returns the list
+     */
+    public static IntArrayList of(final int... values) {
+        final IntArrayList list = new IntArrayList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    /**
+     * Append an integer to this list | Worst-Case Time Complexity = O(1) amortized
+     *
+     * @param value The integer
+     */
+    public void add(final int value) {
+        final int size = this.size;
+        if (size == this.elements.length) {
+            ensureCapacity(size + 1);
+        }
+        this.elements[size] = value;
+        this.size = size + 1;
+    }
+
+    /**
+     * Insert an integer at a given index, shifting the following elements | Worst-Case Time Complexity = O(n)
+     *
+     * @param index The index
+     * @param value The integer
+     * @throws IndexOutOfBoundsException Thrown if the index is less than 0 or greater than the size
+     */
+    public void add(final int index, final int value) {
+        if (index < 0 || index > this.size) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(this.size + 1);
+        System.arraycopy(this.elements, index, this.elements, index + 1, this.size - index);
+        this.elements[index] = value;
+        this.size++;
+    }
+
+    /**
+     * Append all integers of an array to this list, the list grows at most once
+     * Worst-Case Time Complexity = O(m), m = length of the array
+     *
+     * @param values The integers
+     */
+    public void addAll(final int... values) {
+        ensureCapacity(this.size + values.length);
+        System.arraycopy(values, 0, this.elements, this.size, values.length);
+        this.size += values.length;
+    }
+
+    /**
+     * Get the integer at a given index | Worst-Case Time Complexity = O(1)
+     *
+     * @param index The index
+     * @return Returns the integer
+     * @throws IndexOutOfBoundsException Thrown if the index is less than 0 or not less than the size
+     */
+    public int get(final int index) {
+        checkIndex(index);
+        return this.elements[index];
+    }
+
+    /**
+     * Replace the integer at a given index | Worst-Case Time Complexity = O(1)
+     *
+     * @param index The index
+     * @param value The new integer
+     * @return Returns the replaced integer
+     * @throws IndexOutOfBoundsException Thrown if the index is less than 0 or not less than the size
+     */
+    public int set(final int index, final int value) {
+        checkIndex(index);
+        final int previous = this.elements[index];
+        this.elements[index] = value;
+        return previous;
+    }
+
+    /**
+     * Remove the integer at a given index, shifting the following elements | Worst-Case Time Complexity = O(n)
+     *
+     * @param index The index
+     * @return Returns the removed integer
+     * @throws IndexOutOfBoundsException Thrown if the index is less than 0 or not less than the size
+     */
+    public int removeAt(final int index) {
+        checkIndex(index);
+        final int removed = this.elements[index];
+        System.arraycopy(this.elements, index + 1, this.elements, index, this.size - index - 1);
+        this.size--;
+        return removed;
+    }
+
+    /**
+     * Remove all integers which match a predicate. The predicate is tested on every integer first, marking the
+     * matches in a bit set, then the remaining integers are moved forward in a single pass. The list is therefore
+     * unchanged if the predicate throws. Worst-Case Time Complexity = O(n)
+     *
+     * @param filter The predicate
+     * @return Returns true if any integer was removed, false otherwise
+     */
+    public boolean removeIf(final IntPredicate filter) {
+        final int[] elements = this.elements;
+        final int size = this.size;
+        // Allocated at the first match, so nothing is allocated if no integer is removed
+        long[] removed = null;
+        for (int i = 0; i < size; i++) {
+            if (filter.test(elements[i])) {
+                if (removed == null) {
+                    removed = new long[(size + 63) >>> 6];
+                }
+                removed[i >>> 6] |= 1L << i;
+            }
+        }
+        if (removed == null) {
+            return false;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if ((removed[i >>> 6] & 1L << i) == 0) {
+                elements[kept++] = elements[i];
+            }
+        }
+        this.size = kept;
+        return true;
+    }
+
+    /**
+     * Find the first index of an integer | Worst-Case Time Complexity = O(n)
+     *
+     * @param value The integer
+     * @return Returns the index or -1 if this list does not contain the integer
+     */
+    public int indexOf(final int value) {
+        return ArraySearch.indexOf(this.elements, 0, this.size, value);
+    }
+
+    /**
+     * Find the last index of an integer | Worst-Case Time Complexity = O(n)
+     *
+     * @param value The integer
+     * @return Returns the index or -1 if this list does not contain the integer
+     */
+    public int lastIndexOf(final int value) {
+        final int[] elements = this.elements;
+        for (int i = this.size - 1; i >= 0; i--) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Check whether this list contains an integer | Worst-Case Time Complexity = O(n)
+     *
+     * @param value The integer
+     * @return Returns true if this list contains the integer, false otherwise
+     */
+    public boolean contains(final int value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Sort the integers of this list in ascending order, in place | Worst-Case Time Complexity = O(n log n)
+     */
+    public void sort() {
+        Arrays.sort(this.elements, 0, this.size);
+    }
+
+    /**
+     * Search an integer with binary search. The list must be sorted in ascending order, otherwise the result is
+     * undefined. If the list contains the integer multiple times any of their indices may be returned.
+     * Worst-Case Time Complexity = O(log n)
+     *
+     * @param value The integer
+     * @return Returns the index of the integer if this list contains it, otherwise (-(insertion point) - 1) where
+     * the insertion point is the index of the first greater integer or the size if there is none
+     */
+    public int binarySearch(final int value) {
+        return Arrays.binarySearch(this.elements, 0, this.size, value);
+    }
+
+    /**
+     * Call a consumer with every integer of this list, in order | Worst-Case Time Complexity = O(n)
+     *
+     * @param consumer The consumer
+     */
+    public void forEach(final IntConsumer consumer) {
+        final int[] elements = this.elements;
+        final int size = this.size;
+        for (int i = 0; i < size; i++) {
+            consumer.accept(elements[i]);
+        }
+    }
+
+    /**
+     * Iterate the integers of this list in order. The iterator supports {@link java.util.Iterator#remove()}.
+     *
+     * @return Returns the iterator
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new ListIterator();
+    }
+
+    /**
+     * Copy the integers of this list into a new array | Worst-Case Time Complexity = O(n)
+     *
+     * @return Returns the array
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(this.elements, this.size);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Remove all integers of this list, the capacity is kept | Worst-Case Time Complexity = O(1)
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * @return Returns the number of integers this list can hold before it grows
+     */
+    public int capacity() {
+        return this.elements.length;
+    }
+
+    /**
+     * Grow the array to hold at least a given number of integers
+     *
+     * @param required The number of integers
+     * @throws IllegalStateException Thrown if the number of integers exceeds the maximum capacity
+     */
+    public void ensureCapacity(final int required) {
+        // A negative number of integers is the result of an overflow
+        if (required < 0 || required > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("List cannot hold " + Integer.toUnsignedString(required) + " elements");
+        }
+        final int capacity = this.elements.length;
+        if (required <= capacity) {
+            return;
+        }
+        // Grow by half, computed in long so large capacities do not overflow
+        final long grown = Math.max(DEFAULT_CAPACITY, capacity + (long) (capacity >> 1));
+        this.elements = Arrays.copyOf(this.elements, (int) Math.min(MAXIMUM_CAPACITY, Math.max(required, grown)));
+    }
+
+    /**
+     * Shrink the array to the size of this list | Worst-Case Time Complexity = O(n)
+     */
+    public void trimToSize() {
+        if (this.size < this.elements.length) {
+            this.elements = Arrays.copyOf(this.elements, this.size);
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IntArrayList)) {
+            return false;
+        }
+        final IntArrayList other = (IntArrayList) o;
+        if (this.size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < this.size; i++) {
+            if (this.elements[i] != other.elements[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < this.size; i++) {
+            hash = 31 * hash + this.elements[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("IntArrayList{elements=[");
+        for (int i = 0; i < this.size; i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            builder.append(this.elements[i]);
+        }
+        return builder.append("], size=").append(this.size).append('}').toString();
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Iterator implementation which moves its cursor back when the last returned integer is removed.
+     */
+    private final class ListIterator implements PrimitiveIterator.OfInt {
+
+        private int cursor;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.cursor < IntArrayList.this.size;
+        }
+
+        @Override
+        public int nextInt() {
+            if (this.cursor >= IntArrayList.this.size) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.cursor++;
+            return IntArrayList.this.elements[this.last];
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -1) {
+                throw new IllegalStateException();
+            }
+            removeAt(this.last);
+            this.cursor = this.last;
+            this.last = -1;
+        }
+    }
+}
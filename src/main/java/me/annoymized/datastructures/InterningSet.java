@@ -0,0 +1,357 @@
+package me.annoymized.datastructures;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of a weak HashSet which canonicalizes equal objects. {@link #intern(Object)} returns the instance
+ * held by the set if it contains an equal object, otherwise the given object becomes the canonical instance.
+ * Replacing duplicates by their canonical instance lets the garbage collector reclaim the duplicates.
+ * <p>
+ * The set references its elements weakly, so it never keeps an element alive: once no other reference to an
+ * element remains, the garbage collector clears it and enqueues its entry on a {@link ReferenceQueue}. The queue is
+ * drained at the start of every operation and the cleared entries are unlinked from their buckets, so their memory
+ * is reclaimed without a full scan of the table. Every element must have a consistent
+ * {@link Object#hashCode()} and {@link Object#equals(Object)}, as it is only ever compared by them.
+ * This class is not thread safe and by no means performs any concurrent modification checks.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public class InterningSet<T> implements ReadableCollection<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.75F;
+
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+    private Entry<T>[] table;
+    private int threshold;
+    // The number of entries, including those which were cleared but are not yet expunged
+    private int size;
+
+    public InterningSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity The number of elements the set can hold before it grows
+     * @throws IllegalArgumentException Thrown if the capacity is less than 1.
+     */
+    public InterningSet(final int initialCapacity) throws IllegalArgumentException {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("Invalid initial capacity: " + initialCapacity);
+        }
+        final int buckets = (int) Math.min(MAXIMUM_CAPACITY, (long) Math.ceil(initialCapacity / LOAD_FACTOR));
+        this.table = newTable(Math.max(2, Integer.highestOneBit(buckets - 1) << 1));
+        this.threshold = threshold(this.table.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T>[] newTable(final int length) {
+        return (Entry<T>[]) new Entry<?>[length];
+    }
+
+    private static int threshold(final int length) {
+        return length == MAXIMUM_CAPACITY ? Integer.MAX_VALUE : (int) (length * LOAD_FACTOR);
+    }
+
+    /**
+     * Obtain the canonical instance of an object. If the set contains an equal object, that instance is returned,
+     * otherwise the object is added and returned itself.
+     * Worst-Case Time Complexity = O(1) on average, plus the entries cleared since the last operation
+     *
+     * @param object The object
+     * @return Returns the canonical instance equal to the object
+     * @throws IllegalArgumentException Thrown if the object is null
+     */
+    public T intern(final T object) {
+        if (object == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        expunge();
+        final int hash = Hashing.hash(object);
+        final int index = hash & (this.table.length - 1);
+        for (Entry<T> entry = this.table[index]; entry != null; entry = entry.next) {
+            if (entry.hash == hash) {
+                final T canonical = entry.get();
+                if (object.equals(canonical)) {
+                    return canonical;
+                }
+            }
+        }
+        this.table[index] = new Entry<>(object, hash, this.table[index], this.queue);
+        if (++this.size > this.threshold) {
+            grow();
+        }
+        return object;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(1) on average, plus the entries cleared since the last operation
+     */
+    @Override
+    public boolean contains(final T object) {
+        if (object == null) {
+            return false;
+        }
+        expunge();
+        return find(object, Hashing.hash(object)) != null;
+    }
+
+    /**
+     * Remove the canonical instance equal to an object, the next equal object interned becomes the canonical
+     * instance. Worst-Case Time Complexity = O(1) on average, plus the entries cleared since the last operation
+     *
+     * @param object The object
+     * @return Returns true if the set contained an equal object, false otherwise
+     */
+    public boolean remove(final T object) {
+        if (object == null) {
+            return false;
+        }
+        expunge();
+        final Entry<T> entry = find(object, Hashing.hash(object));
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        // Clearing the entry keeps the garbage collector from enqueuing it
+        entry.clear();
+        return true;
+    }
+
+    /**
+     * Remove all elements | Worst-Case Time Complexity = O(m), m = number of buckets
+     */
+    public void clear() {
+        expunge();
+        for (int i = 0; i < this.table.length; i++) {
+            for (Entry<T> entry = this.table[i]; entry != null; entry = entry.next) {
+                entry.clear();
+            }
+            this.table[i] = null;
+        }
+        this.size = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The count includes elements which the garbage collector cleared after the queue was drained, it is an upper
+     * bound of the number of elements which can still be returned.
+     */
+    @Override
+    public int size() {
+        expunge();
+        return this.size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator holds a strong reference to the element it returns next, so that element is not cleared while
+     * it is returned. Elements are returned in no particular order, elements cleared while iterating are skipped.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        expunge();
+        return new EntryIterator();
+    }
+
+    /**
+     * Call an action with every element of this set, without allocating an iterator
+     * Worst-Case Time Complexity = O(n + m), n = number of elements, m = number of buckets
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        expunge();
+        for (final Entry<T> bucket : this.table) {
+            for (Entry<T> entry = bucket; entry != null; entry = entry.next) {
+                final T element = entry.get();
+                if (element != null) {
+                    action.accept(element);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("InterningSet{elements=[");
+        final Iterator<T> iterator = iterator();
+        while (iterator.hasNext()) {
+            builder.append(iterator.next());
+            if (iterator.hasNext()) {
+                builder.append(", ");
+            }
+        }
+        return builder.append("], size=").append(this.size).append('}').toString();
+    }
+
+    /**
+     * Unlink all entries the garbage collector has cleared since the last call
+     * Worst-Case Time Complexity = O(k * n/m), k = number of cleared entries, n = number of elements,
+     * m = number of buckets
+     */
+    @SuppressWarnings("unchecked")
+    private void expunge() {
+        Entry<T> entry;
+        while ((entry = (Entry<T>) this.queue.poll()) != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Find the entry holding an object which was not cleared
+     *
+     * @param object The object, cannot be null
+     * @param hash   The object's {@link Hashing#hash(Object)}
+     * @return Returns the entry or null if there is none
+     */
+    private Entry<T> find(final T object, final int hash) {
+        for (Entry<T> entry = this.table[hash & (this.table.length - 1)]; entry != null; entry = entry.next) {
+            if (entry.hash == hash && object.equals(entry.get())) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Unlink an entry from the chain of its bucket by identity, nothing happens if it is not linked anymore
+     *
+     * @param target The entry
+     */
+    private void unlink(final Entry<T> target) {
+        final int index = target.hash & (this.table.length - 1);
+        Entry<T> previous = null;
+        for (Entry<T> entry = this.table[index]; entry != null; previous = entry, entry = entry.next) {
+            if (entry == target) {
+                if (previous == null) {
+                    this.table[index] = entry.next;
+                } else {
+                    previous.next = entry.next;
+                }
+                // Helps the garbage collector if the entry is still referenced by the queue or an iterator
+                entry.next = null;
+                this.size--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Double the number of buckets, entries which were cleared meanwhile are dropped on the way
+     * Worst-Case Time Complexity = O(n + m), n = number of elements, m = number of buckets
+     */
+    private void grow() {
+        if (this.table.length == MAXIMUM_CAPACITY) {
+            return;
+        }
+        final Entry<T>[] old = this.table;
+        final Entry<T>[] table = newTable(old.length << 1);
+        final int mask = table.length - 1;
+        int size = 0;
+        for (int i = 0; i < old.length; i++) {
+            Entry<T> entry = old[i];
+            old[i] = null;
+            while (entry != null) {
+                final Entry<T> next = entry.next;
+                if (entry.get() == null) {
+                    // Its enqueued reference is no longer linked, so unlinking it later does nothing
+                    entry.next = null;
+                } else {
+                    final int index = entry.hash & mask;
+                    entry.next = table[index];
+                    table[index] = entry;
+                    size++;
+                }
+                entry = next;
+            }
+        }
+        this.table = table;
+        this.threshold = threshold(table.length);
+        this.size = size;
+    }
+
+    /**
+     * Represents an element in the chain of a bucket, which references the element weakly. The hash is kept, so
+     * the entry can be found in its bucket after the element has been cleared.
+     *
+     * @param <E> A generic type, can be anything.
+     */
+    private static final class Entry<E> extends WeakReference<E> {
+
+        private final int hash;
+        private Entry<E> next;
+
+        private Entry(final E value, final int hash, final Entry<E> next, final ReferenceQueue<E> queue) {
+            super(value, queue);
+            this.hash = hash;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Iterator implementation which traverses the buckets in order, skipping cleared entries. Only
+     * {@link #remove()} may be used to modify the set during iteration.
+     */
+    private final class EntryIterator implements Iterator<T> {
+
+        private int index;
+        private Entry<T> entry;
+        // Strong references to the next element and the one returned last
+        private T next;
+        private T last;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public T next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next;
+            advance();
+            return this.last;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException();
+            }
+            InterningSet.this.remove(this.last);
+            this.last = null;
+        }
+
+        /**
+         * Move to the next entry which was not cleared and hold on to its element
+         */
+        private void advance() {
+            this.next = null;
+            final Entry<T>[] table = InterningSet.this.table;
+            while (this.next == null) {
+                this.entry = this.entry == null ? null : this.entry.next;
+                while (this.entry == null) {
+                    if (this.index == table.length) {
+                        return;
+                    }
+                    this.entry = table[this.index++];
+                }
+                this.next = this.entry.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package me.annoymized.datastructures;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Cursor} on top of the iterators of a collection, a new iterator is created on every traversal.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+final class IteratorCursor<T> implements Cursor<T> {
+
+    private final Iterable<T> iterable;
+    private Iterator<T> iterator;
+    private T current;
+    private boolean positioned;
+
+    IteratorCursor(final Iterable<T> iterable) {
+        this.iterable = iterable;
+    }
+
+    @Override
+    public boolean advance() {
+        if (this.iterator == null) {
+            this.iterator = this.iterable.iterator();
+        }
+        this.positioned = this.iterator.hasNext();
+        this.current = this.positioned ? this.iterator.next() : null;
+        return this.positioned;
+    }
+
+    @Override
+    public T get() {
+        if (!this.positioned) {
+            throw new NoSuchElementException();
+        }
+        return this.current;
+    }
+
+    @Override
+    public void remove() {
+        if (!this.positioned) {
+            throw new IllegalStateException();
+        }
+        this.iterator.remove();
+        this.current = null;
+        this.positioned = false;
+    }
+
+    @Override
+    public void reset() {
+        this.iterator = null;
+        this.current = null;
+        this.positioned = false;
+    }
+}
@@ -0,0 +1,49 @@
+package me.annoymized.datastructures;
+
+/**
+ * LRU and FIFO eviction: entries are kept in a {@link LinkedList} ordered from the next one to evict (head)
+ * to the most recently inserted or accessed one (tail).
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+class LinkedEvictionPolicy<K, V> implements EvictionPolicy<K, V> {
+
+    private final LinkedList<BoundedCache.Entry<K, V>> queue = new LinkedList<>();
+    // Whether an access moves the entry to the tail, true for LRU and false for FIFO
+    private final boolean accessOrder;
+
+    LinkedEvictionPolicy(final boolean accessOrder) {
+        this.accessOrder = accessOrder;
+    }
+
+    @Override
+    public void onInsert(final BoundedCache.Entry<K, V> entry) {
+        entry.node = this.queue.addNode(entry);
+    }
+
+    @Override
+    public void onAccess(final BoundedCache.Entry<K, V> entry) {
+        if (this.accessOrder) {
+            this.queue.moveToTail(entry.node);
+        }
+    }
+
+    @Override
+    public void onRemove(final BoundedCache.Entry<K, V> entry) {
+        this.queue.removeNode(entry.node);
+        entry.node = null;
+    }
+
+    @Override
+    public BoundedCache.Entry<K, V> evict() {
+        final BoundedCache.Entry<K, V> victim = this.queue.firstNode().getValue();
+        onRemove(victim);
+        return victim;
+    }
+
+    @Override
+    public void clear() {
+        this.queue.clear();
+    }
+}
@@ -3,18 +3,38 @@ package me.annoymized.datastructures;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Implementation of a doubly-linked list
+ * <p>
+ * Positional access ({@link #get(int)}, {@link #add(int, Object)} and {@link #remove(int)}) starts walking from
+ * the closest of the head, the tail, the previously accessed position (the cursor) or a "finger". Fingers are
+ * references to every k-th node, k ~ sqrt(n), which are built lazily once the list is large enough and are kept
+ * up to date by positional mutations. Random positional access is therefore O(sqrt n) and access near the
+ * previously accessed position is O(1). Mutations through nodes or iterators discard the fingers.
  *
  * @param <E> A generic type, can be anything
  */
 public class LinkedList<E> implements Collection<E> {
 
+    // Lists smaller than this are only walked from the head, the tail or the cursor
+    private static final int FINGER_THRESHOLD = 128;
+
     private Node<E> head;
     private Node<E> tail;
     private int size = 0;
 
+    // The node at fingerIndices[i] is fingers[i], sorted by index. Empty (fingerCount == 0) when not built
+    private Node<E>[] fingers;
+    private int[] fingerIndices;
+    private int fingerCount;
+    private int fingerSpacing;
+    // The previously accessed position, cursorIndex is -1 when there is none
+    private Node<E> cursor;
+    private int cursorIndex = -1;
+
     public LinkedList() {
     }
 
@@ -22,23 +42,18 @@ public class LinkedList<E> implements Collection<E> {
      * Add an element to the tail of this list | Worst-Case Time Complexity = O(1)
      *
      * @param element The instance to append
+     * @return Returns the instantiated {@link Node} instance
      */
-    private void tailAdd(final E element) {
+    private Node<E> tailAdd(final E element) {
+        final Node<E> node = new Node<>(element);
         switch (size) {
             case 0:
-                head = new Node<>(element);
+                head = node;
                 tail = new Node<>();
                 head.next = tail;
                 tail.previous = head;
                 break;
-            case 1:
-                final Node<E> newNode = new Node<>(element);
-                head.next = newNode;
-                newNode.previous = head;
-                tail.previous = newNode;
-                break;
             default:
-                final Node<E> node = new Node<>(element);
                 tail.previous.next = node;
                 node.previous = tail.previous;
                 tail.previous = node;
@@ -46,6 +61,24 @@ public class LinkedList<E> implements Collection<E> {
                 break;
         }
         size++;
+        return node;
+    }
+
+    /**
+     * Add an element to the head of this list | Worst-Case Time Complexity = O(1)
+     *
+     * @param element The instance to prepend
+     */
+    private void headAdd(final E element) {
+        if (this.size == 0) {
+            tailAdd(element);
+            return;
+        }
+        final Node<E> node = new Node<>(element);
+        node.next = this.head;
+        this.head.previous = node;
+        this.head = node;
+        this.size++;
     }
 
     /**
@@ -83,11 +116,56 @@ public class LinkedList<E> implements Collection<E> {
     }
 
     /**
-     * Remove a given node | Time complexity = O(1)
+     * Remove a given node whose index is unknown, this discards the positional index | Time complexity = O(1)
+     * The node must belong to this list and must not have been removed already.
+     *
+     * @param node The node instance to remove
+     */
+    void removeNode(final Node<E> node) {
+        invalidatePositions();
+        unlink(node);
+    }
+
+    /**
+     * Remove a given node at a known index, keeping the positional index up to date
+     * Time complexity = O(sqrt n) to update the fingers
+     *
+     * @param node  The node instance to remove
+     * @param index The index of the node
+     */
+    private void removeNode(final Node<E> node, final int index) {
+        if (this.fingerCount != 0) {
+            // Fingers on the removed node move to its successor (or predecessor if it is the last element),
+            // fingers after it shift one position towards the head
+            for (int i = firstFingerFrom(index); i < this.fingerCount; i++) {
+                if (this.fingerIndices[i] == index) {
+                    if (index == this.size - 1) {
+                        this.fingers[i] = node.previous;
+                        this.fingerIndices[i] = index - 1;
+                    } else {
+                        this.fingers[i] = node.next;
+                    }
+                } else {
+                    this.fingerIndices[i]--;
+                }
+            }
+        }
+        if (this.cursor == node) {
+            this.cursor = null;
+            this.cursorIndex = -1;
+        } else if (this.cursorIndex > index) {
+            this.cursorIndex--;
+        }
+        unlink(node);
+    }
+
+    /**
+     * Unlink a given node from the chain and clear its links, so that the list holds no reference to it and it
+     * holds none to the list | Time complexity = O(1)
      *
      * @param node The node instance to remove
      */
-    private void removeNode(final Node<E> node) {
+    private void unlink(final Node<E> node) {
         if (this.size == 0) {
             // List is empty, don't need to remove anything.
             return;
@@ -100,6 +178,7 @@ public class LinkedList<E> implements Collection<E> {
                 tail = head;
             } else {
                 head = next;
+                next.previous = null;
             }
             this.size--;
         } else {
@@ -113,20 +192,102 @@ public class LinkedList<E> implements Collection<E> {
                 this.size--;
             }
         }
+        node.previous = null;
+        node.next = null;
+    }
+
+    /**
+     * Append an element and obtain the node holding it, the node can later be passed to
+     * {@link #removeNode(Node)} or {@link #moveToTail(Node)} | Worst-Case Time Complexity = O(1)
+     *
+     * @param element The instance to append
+     * @return Returns the {@link Node} holding the element
+     */
+    Node<E> addNode(final E element) {
+        return tailAdd(element);
+    }
+
+    /**
+     * Move a node of this list to the tail without allocating | Worst-Case Time Complexity = O(1)
+     *
+     * @param node The node instance to move, must belong to this list
+     */
+    void moveToTail(final Node<E> node) {
+        if (node.next == this.tail) {
+            // Already the last element
+            return;
+        }
+        invalidatePositions();
+        // Unlink the node
+        if (node == this.head) {
+            this.head = node.next;
+            this.head.previous = null;
+        } else {
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+        }
+        // Re-link it in front of the tail sentinel
+        final Node<E> last = this.tail.previous;
+        last.next = node;
+        node.previous = last;
+        node.next = this.tail;
+        this.tail.previous = node;
+    }
+
+    /**
+     * Get the node holding the first element
+     *
+     * @return Returns the first node or null if the list is empty
+     */
+    Node<E> firstNode() {
+        return this.size == 0 ? null : this.head;
+    }
+
+    /**
+     * Get the node holding the last element
+     *
+     * @return Returns the last node or null if the list is empty
+     */
+    Node<E> lastNode() {
+        return this.size == 0 ? null : this.tail.previous;
+    }
+
+    /**
+     * Get the node holding the first occurrence of an element | Worst-Case Time Complexity = O(n)
+     *
+     * @param element The instance of the element, cannot be null
+     * @return Returns the node or null if the element is not in this list
+     */
+    Node<E> findNode(final E element) {
+        if (this.size == 0) {
+            return null;
+        }
+        // Stop at the tail sentinel
+        for (Node<E> node = this.head; node.next != null; node = node.next) {
+            if (element.equals(node.val)) {
+                return node;
+            }
+        }
+        return null;
     }
 
     @Override
     public void addAll(final Collection<E> collection) {
+        final int elements = collection.size();
+        final Object event = CollectionEvents.bulkStart(elements);
         for (final E e : collection) {
             add(e);
         }
+        CollectionEvents.bulk(getClass(), "addAll", elements, event);
     }
 
     @Override
     public void addAll(final E[] array) {
+        final Object event = CollectionEvents.bulkStart(array.length);
         for (final E e : array) {
             add(e);
         }
+        CollectionEvents.bulk(getClass(), "addAll", array.length, event);
     }
 
     @Override
@@ -134,9 +295,35 @@ public class LinkedList<E> implements Collection<E> {
         tailAdd(element);
     }
 
+    /**
+     * Insert an element at a given index, shifting the element at that index and all subsequent elements
+     * towards the tail | Time Complexity = O(sqrt n), see {@link #getNode(int)}
+     *
+     * @param index   The index, must be within 0 and {@link #size()}
+     * @param element The instance to insert
+     * @throws IndexOutOfBoundsException Thrown if the index parameter is less than 0
+     *                                   or if it is greater than the size of the list
+     */
     public void add(final int index, final E element) {
-        final Node<E> node = getNode(index);
-        insertElement(node, element);
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (index == size) {
+            tailAdd(element);
+            return;
+        }
+        if (index == 0) {
+            headAdd(element);
+        } else {
+            insertElement(getNode(index - 1), element);
+        }
+        // The fingers and the cursor at or after the index now refer to one position further
+        for (int i = firstFingerFrom(index); i < this.fingerCount; i++) {
+            this.fingerIndices[i]++;
+        }
+        if (this.cursorIndex >= index) {
+            this.cursorIndex++;
+        }
     }
 
     @Override
@@ -145,81 +332,214 @@ public class LinkedList<E> implements Collection<E> {
             return false;
         }
         int oldSize = this.size;
-        if (e == null) {
-            for (Node<E> current = head; current != null; current = current.next) {
-                if (current.val == null) {
-                    removeNode(current);
-                }
-            }
-        } else {
-            for (Node<E> current = head; current != null; current = current.next) {
-                if (e.equals(current.val)) {
-                    removeNode(current);
-                }
+        int index = 0;
+        // Stop at the tail sentinel, the next node is read before the current one is unlinked
+        for (Node<E> current = head, next; current.next != null; current = next) {
+            next = current.next;
+            if (e == null ? current.val == null : e.equals(current.val)) {
+                removeNode(current, index);
+            } else {
+                index++;
             }
         }
         return this.size != oldSize;
     }
-    
+
+    /**
+     * Remove the element at a given index | Time Complexity = O(sqrt n), see {@link #getNode(int)}
+     *
+     * @param index The index, must be within 0 and 1 - {@link #size()}
+     * @throws IndexOutOfBoundsException Thrown if the index parameter is less than 0
+     *                                   or if it is greater than the size of the list minus 1
+     */
     public void remove(final int index) {
-        if (index < 0 || index > size - 1) {
-            throw new IndexOutOfBoundsException();
+        removeNode(getNode(index), index);
+    }
+
+    @Override
+    public boolean removeFirst(final E e) {
+        if (this.size == 0) {
+            return false;
+        }
+        int index = 0;
+        // Stop at the tail sentinel
+        for (Node<E> node = head; node.next != null; node = node.next, index++) {
+            if (e == null ? node.val == null : e.equals(node.val)) {
+                removeNode(node, index);
+                return true;
+            }
         }
-        if (index == size - 1) {
-            removeNode(tail);
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this list, m = size of the collection
+     */
+    @Override public void removeAll(final Collection<E> collection) {
+        final int elements = collection.size();
+        if (this.size == 0 || elements == 0) {
             return;
-        } else if (index == 0) {
-            removeNode(head);
+        }
+        final Object event = CollectionEvents.bulkStart(elements);
+        removeWhere(MembershipIndex.of(collection));
+        CollectionEvents.bulk(getClass(), "removeAll", elements, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this list, m = length of the array
+     */
+    @Override public void removeAll(final E[] array) {
+        if (this.size == 0 || array.length == 0) {
             return;
         }
-        Node<E> node = head;
-        for (int i = 0; i < index; i++) {
-            node = node.next;
+        final Object event = CollectionEvents.bulkStart(array.length);
+        removeWhere(MembershipIndex.of(array));
+        CollectionEvents.bulk(getClass(), "removeAll", array.length, event);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this list, m = size of the collection
+     */
+    @Override public void retainAll(final Collection<E> collection) {
+        if (this.size == 0) {
+            return;
+        }
+        if (collection.size() == 0) {
+            clear();
+            return;
         }
-        removeNode(node);
+        removeWhere(MembershipIndex.of(collection).negate());
     }
 
-    @Override
-    public boolean removeFirst(final E e) {
-        if (e == null) {
-            for (Node<E> node = head; node != null; node = node.next) {
-                if (node.val == null) {
-                    removeNode(node);
-                    return true;
-                }
+    /**
+     * {@inheritDoc}
+     * Duplicates are kept, every element of the given collection which is not in this list is appended.
+     * Worst-Case Time Complexity = O(n + m), n = size of this list, m = size of the collection
+     */
+    @Override public LinkedList<E> union(final Collection<E> collection) {
+        final LinkedList<E> result = new LinkedList<>();
+        result.addAll(this);
+        final MembershipIndex<E> index = MembershipIndex.of(this);
+        for (final E e : collection) {
+            if (!index.test(e)) {
+                result.tailAdd(e);
             }
-        } else {
-            for (Node<E> node = head; node != null; node = node.next) {
-                if (e.equals(node.val)) {
-                    removeNode(node);
-                    return true;
-                }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this list, m = size of the collection
+     */
+    @Override public LinkedList<E> intersect(final Collection<E> collection) {
+        final LinkedList<E> result = new LinkedList<>();
+        if (this.size != 0 && collection.size() != 0) {
+            copyWhere(MembershipIndex.of(collection), result);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m), n = size of this list, m = size of the collection
+     */
+    @Override public LinkedList<E> difference(final Collection<E> collection) {
+        final LinkedList<E> result = new LinkedList<>();
+        if (collection.size() == 0) {
+            result.addAll(this);
+        } else if (this.size != 0) {
+            copyWhere(MembershipIndex.of(collection).negate(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Remove all elements matching a filter in a single pass, this discards the positional index
+     * if any element is removed | Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     *
+     * @param filter The filter, elements for which it returns true are removed
+     * @return Returns the number of elements removed
+     */
+    int removeWhere(final Predicate<? super E> filter) {
+        if (this.size == 0) {
+            return 0;
+        }
+        final int oldSize = this.size;
+        // Stop at the tail sentinel
+        for (Node<E> node = this.head, next; node.next != null; node = next) {
+            next = node.next;
+            if (filter.test(node.val)) {
+                unlink(node);
             }
         }
-        return false;
+        if (this.size != oldSize) {
+            invalidatePositions();
+        }
+        return oldSize - this.size;
     }
 
-    @Override public void removeAll(final Collection<E> collection) {
-        for (final E e : collection) {
-            remove(e);
+    /**
+     * {@inheritDoc}
+     * This discards the positional index if any element is removed.
+     * Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     */
+    @Override
+    public boolean removeIf(final Predicate<? super E> filter) {
+        return removeWhere(filter) != 0;
+    }
+
+    /**
+     * Call an action with every element of this list, from head to tail, without allocating an iterator
+     * Worst-Case Time Complexity = O(n)
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(final Consumer<? super E> action) {
+        if (this.size == 0) {
+            return;
+        }
+        // Stop at the tail sentinel
+        for (Node<E> node = this.head; node.next != null; node = node.next) {
+            action.accept(node.val);
         }
     }
 
-    @Override public void removeAll(final E[] array) {
-        for (final E e : array) {
-            remove(e);
+    /**
+     * {@inheritDoc}
+     * The cursor walks the nodes and allocates nothing, removing through it discards the positional index.
+     */
+    @Override
+    public Cursor<E> cursor() {
+        return new NodeCursor();
+    }
+
+    /**
+     * Append all elements of this list matching a filter to another list
+     * Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     *
+     * @param filter The filter, elements for which it returns true are copied
+     * @param target The list to append to
+     */
+    private void copyWhere(final Predicate<? super E> filter, final LinkedList<E> target) {
+        for (Node<E> node = this.head; node.next != null; node = node.next) {
+            if (filter.test(node.val)) {
+                target.tailAdd(node.val);
+            }
         }
     }
 
     @Override public void clear() {
-        switch (this.size) {
-            case 0:
-                return;
-            case 1:
-                this.head = null;
-            default:
-                this.tail = null;
+        if (this.size == 0) {
+            return;
         }
+        invalidatePositions();
+        this.head = null;
+        this.tail = null;
         size = 0;
     }
 
@@ -257,6 +577,14 @@ public class LinkedList<E> implements Collection<E> {
         return Arrays.toString(arr);
     }
 
+    /**
+     * Get the element at a given index | Time Complexity = O(sqrt n), see {@link #getNode(int)}
+     *
+     * @param index The index, must be within 0 and 1 - {@link #size()}
+     * @return Returns the element at the index
+     * @throws IndexOutOfBoundsException Thrown if the index parameter is less than 0
+     *                                   or if it is greater than the size of the list minus 1
+     */
     public E get(final int index) {
         return getNode(index).val;
     }
@@ -273,26 +601,33 @@ public class LinkedList<E> implements Collection<E> {
             return -1;
         }
         Node<E> current = head;
+        // Stop at the tail sentinel, its value is always null
         if (element == null) {
-            for (int i = 0; current != null; i++) {
+            for (int i = 0; current.next != null; i++) {
                 if (current.val == null) {
+                    CollectionEvents.traversal("indexOf", i, this.size);
                     return i;
                 }
                 current = current.next;
             }
         } else {
-            for (int i = 0; current != null; i++) {
+            for (int i = 0; current.next != null; i++) {
                 if (element.equals(current.val)) {
+                    CollectionEvents.traversal("indexOf", i, this.size);
                     return i;
                 }
                 current = current.next;
             }
         }
+        CollectionEvents.traversal("indexOf", this.size, this.size);
         return -1;
     }
 
     /**
-     * Get a node at a specific index | Worst-Case Time Complexity = O(n), n being the index
+     * Get a node at a specific index. The walk starts from the closest known position: the head, the last element,
+     * the cursor or a finger. The cursor is moved to the returned node.
+     * Time Complexity = O(sqrt n) amortized; O(d) with d being the distance to the previously accessed index.
+     * Building the fingers costs O(n) once they were discarded by a mutation through a node or an iterator.
      *
      * @param index The index, must be within 0 and 1 - {@link #size()}
      * @return Returns the {@link Node} reference at a specific index.
@@ -300,29 +635,124 @@ public class LinkedList<E> implements Collection<E> {
      *                                   or if it is greater than the size of the list minus 1
      */
     private Node<E> getNode(final int index) {
-        if (index == 0) {
+        if (index < 0 || index + 1 > size) {
+            throw new IndexOutOfBoundsException();
+        } else if (index == 0) {
             return head;
         } else if (index + 1 == size) {
-            return tail;
-        } else if (index + 1 > size) {
-            throw new IndexOutOfBoundsException();
+            // The tail node is a sentinel, the last element is the one before it
+            return tail.previous;
+        }
+        if (this.fingerCount == 0 && this.size >= FINGER_THRESHOLD) {
+            buildFingers();
+        }
+        // Start from the head or the last element, whichever is closer
+        Node<E> node = head;
+        int position = 0;
+        if (size - 1 - index < index) {
+            node = tail.previous;
+            position = size - 1;
+        }
+        if (this.cursorIndex != -1 && Math.abs(this.cursorIndex - index) < Math.abs(position - index)) {
+            node = this.cursor;
+            position = this.cursorIndex;
         }
-        Node<E> node;
-        if (index > size / 2) {
-            node = tail;
-            // Traverse through the list
-            for (int i = size - 1; i > 0; i--) {
-                node = node.previous;
+        if (this.fingerCount != 0) {
+            // The fingers on either side of the index
+            final int after = firstFingerFrom(index);
+            if (after < this.fingerCount && this.fingerIndices[after] - index < Math.abs(position - index)) {
+                node = this.fingers[after];
+                position = this.fingerIndices[after];
             }
-        } else {
-            node = head;
-            for (int i = 0; i < index; i++) {
-                node = node.next;
+            if (after > 0 && index - this.fingerIndices[after - 1] < Math.abs(position - index)) {
+                node = this.fingers[after - 1];
+                position = this.fingerIndices[after - 1];
             }
         }
+        final int steps = Math.abs(position - index);
+        // Traverse through the list
+        for (; position < index; position++) {
+            node = node.next;
+        }
+        for (; position > index; position--) {
+            node = node.previous;
+        }
+        CollectionEvents.traversal("getNode", steps, this.size);
+        if (this.fingerCount != 0 && steps > this.fingerSpacing * 2) {
+            // Positional inserts have piled up between two fingers, rebuild them on the next access
+            discardFingers();
+        }
+        this.cursor = node;
+        this.cursorIndex = index;
         return node;
     }
 
+    /**
+     * Place a finger on every k-th node, k ~ sqrt(n) | Worst-Case Time Complexity = O(n)
+     */
+    @SuppressWarnings("unchecked")
+    private void buildFingers() {
+        final int spacing = Math.max(8, (int) Math.sqrt(this.size));
+        final int count = (this.size - 1) / spacing;
+        if (this.fingers == null || this.fingers.length < count) {
+            // Leave room for the list to grow before the arrays must be reallocated
+            this.fingers = (Node<E>[]) new Node<?>[count * 2];
+            this.fingerIndices = new int[count * 2];
+        }
+        Node<E> node = this.head;
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            for (final int target = (i + 1) * spacing; index < target; index++) {
+                node = node.next;
+            }
+            this.fingers[i] = node;
+            this.fingerIndices[i] = index;
+        }
+        // Clear stale references of a previous, larger index
+        Arrays.fill(this.fingers, count, this.fingers.length, null);
+        this.fingerCount = count;
+        this.fingerSpacing = spacing;
+    }
+
+    /**
+     * Get the position of the first finger at or after an index | Worst-Case Time Complexity = O(log n)
+     *
+     * @param index The index
+     * @return Returns the position within {@link #fingers}, {@link #fingerCount} if there is none
+     */
+    private int firstFingerFrom(final int index) {
+        int low = 0;
+        int high = this.fingerCount;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (this.fingerIndices[mid] < index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Discard the fingers and the cursor, called when the index of a mutation is unknown
+     */
+    private void invalidatePositions() {
+        discardFingers();
+        this.cursor = null;
+        this.cursorIndex = -1;
+    }
+
+    /**
+     * Discard the fingers, releasing the node references
+     */
+    private void discardFingers() {
+        if (this.fingerCount != 0) {
+            Arrays.fill(this.fingers, 0, this.fingerCount, null);
+            this.fingerCount = 0;
+        }
+    }
+
     /**
      * Represents an object which can be chained together (through object references). This class
      * holds a "next" and "previous" node references alongside the value of this "node". This class is
@@ -330,7 +760,7 @@ public class LinkedList<E> implements Collection<E> {
      *
      * @param <E> A generic type, can be anything.
      */
-    private static class Node<E> {
+    static class Node<E> {
 
         private Node<E> next;
         private Node<E> previous;
@@ -343,6 +773,24 @@ public class LinkedList<E> implements Collection<E> {
         public Node() {
         }
 
+        /**
+         * @return Returns the element held by this node
+         */
+        E getValue() {
+            return this.val;
+        }
+
+        /**
+         * Get the node holding the next element. Removing a node clears its links, the successor must therefore
+         * be read before the node is removed.
+         *
+         * @return Returns the next node or null if this node holds the last element or was removed
+         */
+        Node<E> successor() {
+            // The tail sentinel is the only node without a next node
+            return this.next == null || this.next.next == null ? null : this.next;
+        }
+
         @Override
         public String toString() {
             return "Node{" + "next=" + (next == null ? "null" : next.val) + ", previous=" + (previous == null ?
@@ -358,43 +806,92 @@ public class LinkedList<E> implements Collection<E> {
      */
     private class NodeIterator implements Iterator<E> {
 
-        private Node<E> current;
+        private Node<E> next;
+        private Node<E> last;
 
         public NodeIterator() {
-            this.current = head;
+            this.next = firstNode();
         }
 
         @Override
         public boolean hasNext() {
-            // Check whether the current node is null or the 'tail' node
-            return this.current != null && this.current.next != null;
+            return this.next != null;
         }
 
         @Override
         public E next() {
-            if (!hasNext()) {
+            if (this.next == null) {
                 // Cannot traverse to the next node
                 throw new NoSuchElementException();
             }
-            // Save the current value to return
-            final E val = current.val;
-            // Move to the next node
-            current = current.next;
-            return val;
+            this.last = this.next;
+            this.next = this.next.successor();
+            return this.last.val;
         }
 
         @Override public void remove() {
-            if (current == null) {
-                // If the current node is a null reference, throw and error.
-                // At this point, the iterator should be considered invalid.
+            if (this.last == null) {
+                // Nothing returned yet or the last returned element was removed already
+                throw new IllegalStateException();
+            }
+            removeNode(this.last);
+            this.last = null;
+        }
+    }
+
+    /**
+     * Implementation of a {@link Cursor} which holds the node it is positioned on. This class is NOT thread-safe,
+     * however, it will not attempt to check for concurrent modification by any means.
+     */
+    private final class NodeCursor implements Cursor<E> {
+
+        // The node the cursor is positioned on, or the successor of the node removed through it
+        private Node<E> node;
+        private boolean started;
+        private boolean positioned;
+        private boolean removed;
+
+        @Override
+        public boolean advance() {
+            if (!this.started) {
+                this.started = true;
+                this.node = firstNode();
+            } else if (this.removed) {
+                this.removed = false;
+            } else if (this.node != null) {
+                this.node = this.node.successor();
+            }
+            this.positioned = this.node != null;
+            return this.positioned;
+        }
+
+        @Override
+        public E get() {
+            if (!this.positioned) {
                 throw new NoSuchElementException();
             }
-            // Get the reference of the "next" node
-            final Node<E> next = current.next;
-            // Remove the current node
-            removeNode(current);
-            // Re-assign the object reference to the next node (which may be null)
-            current = next;
+            return this.node.val;
+        }
+
+        @Override
+        public void remove() {
+            if (!this.positioned) {
+                throw new IllegalStateException();
+            }
+            // Removing clears the links of the node, so the cursor advances from its successor
+            final Node<E> next = this.node.successor();
+            removeNode(this.node);
+            this.node = next;
+            this.removed = true;
+            this.positioned = false;
+        }
+
+        @Override
+        public void reset() {
+            this.node = null;
+            this.started = false;
+            this.positioned = false;
+            this.removed = false;
         }
     }
 }
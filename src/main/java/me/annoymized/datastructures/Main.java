@@ -2,7 +2,33 @@ package me.annoymized.datastructures;
 
 import me.annoymized.datastructures.benchmark.ArrayBenchmark;
 import me.annoymized.datastructures.benchmark.BaseBenchmark;
+import me.annoymized.datastructures.benchmark.CacheBenchmark;
+import me.annoymized.datastructures.benchmark.CodecBenchmark;
+import me.annoymized.datastructures.benchmark.ConcurrentSetBenchmark;
+import me.annoymized.datastructures.benchmark.EventBenchmark;
+import me.annoymized.datastructures.benchmark.FrozenBenchmark;
+import me.annoymized.datastructures.benchmark.GrowthBenchmark;
+import me.annoymized.datastructures.benchmark.IntListBenchmark;
+import me.annoymized.datastructures.benchmark.InternBenchmark;
 import me.annoymized.datastructures.benchmark.JavaBenchmark;
+import me.annoymized.datastructures.benchmark.LoaderBenchmark;
+import me.annoymized.datastructures.benchmark.MultisetBenchmark;
+import me.annoymized.datastructures.benchmark.OptimisticBenchmark;
+import me.annoymized.datastructures.benchmark.PartitionedBenchmark;
+import me.annoymized.datastructures.benchmark.PersistentBenchmark;
+import me.annoymized.datastructures.benchmark.PositionalBenchmark;
+import me.annoymized.datastructures.benchmark.ProbabilisticBenchmark;
+import me.annoymized.datastructures.benchmark.QueueBenchmark;
+import me.annoymized.datastructures.benchmark.RingBufferBenchmark;
+import me.annoymized.datastructures.benchmark.RoaringBenchmark;
+import me.annoymized.datastructures.benchmark.SearchBenchmark;
+import me.annoymized.datastructures.benchmark.SetAlgebraBenchmark;
+import me.annoymized.datastructures.benchmark.ShardedSetBenchmark;
+import me.annoymized.datastructures.benchmark.SortedSetBenchmark;
+import me.annoymized.datastructures.benchmark.ViewBenchmark;
+import me.annoymized.datastructures.io.ElementCodec;
+import me.annoymized.datastructures.io.KeyFileLoader;
+import me.annoymized.datastructures.probabilistic.CountMinSketch;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
@@ -14,7 +40,11 @@ import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
 import org.openjdk.jmh.runner.options.WarmupMode;
 
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 
 /**
  * Main class of the program, change values here to alter the test parameters.
@@ -22,6 +52,15 @@ import java.util.concurrent.TimeUnit;
 public class Main {
 
     public static void main(final String[] args) {
+        if (args.length != 0) {
+            // Run the benchmarks matching the given names with the options declared on the benchmark classes
+            final OptionsBuilder builder = new OptionsBuilder();
+            for (final String arg : args) {
+                builder.include(arg);
+            }
+            run(builder.resultFormat(ResultFormatType.CSV).build());
+            return;
+        }
         final OptionsBuilder builder = new OptionsBuilder();
         final Options options = builder
                                        // Output everything in Milliseconds | Single Shot as we are testing the time for one invocation
@@ -36,20 +75,29 @@ public class Main {
                                        .jvmArgs("-Xint")
                                        // Don't invoke GC between measurements
                                        .shouldDoGC(false)
-                                       // Include both the base and array benchmarks
+                                       // Include the base, array, java and positional benchmarks
                                        .include(ArrayBenchmark.class.getSimpleName())
                                        .include(BaseBenchmark.class.getSimpleName())
                                        .include(JavaBenchmark.class.getSimpleName())
+                                       .include(PositionalBenchmark.class.getSimpleName())
                                        // Output results in CSV format
                                        .resultFormat(ResultFormatType.CSV)
                                        .build();
+        run(options);
+    }
+
+    /**
+     * Run the benchmarks selected by the given options
+     *
+     * @param options The JMH options
+     */
+    private static void run(final Options options) {
         // Run the test!
         try {
             new Runner(options).run();
         } catch (final RunnerException ex) {
             ex.printStackTrace();
         }
-
     }
 
 
@@ -111,6 +159,24 @@ public class Main {
         }
     }
 
+    /**
+     * State which hold benchmark parameters for the positional access benchmark of the {@link LinkedList}.
+     * @see PositionalBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class PositionalValues {
+
+        // Test values from 10 to 100k. These represent the initial size of the list
+        // Before any of the tests are performed.
+        @Param({"10", "100", "1000", "10000", "100000"})
+        public int collectionSize;
+
+        // Represents how many indices should be tested. I.e how many elements to get, insert or remove.
+        @Param("1000")
+        public int sampleSize;
+
+    }
+
     /**
      * State which hold benchmark parameters + convenience method to instantiate collections.
      * @see JavaBenchmark
@@ -152,4 +218,656 @@ public class Main {
             }
         }
     }
+
+    /**
+     * State which hold benchmark parameters + convenience method to instantiate collections.
+     * @see CodecBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class CodecValues {
+
+        // The number of elements in the collection which is written or read.
+        @Param({"1000", "100000", "1000000"})
+        public int collectionSize;
+
+        // Parameter for the name of the collection. Accepted values are "LinkedList" and "FixedSizeHashSet"
+        @Param({"LinkedList", "FixedSizeHashSet"})
+        public String collection;
+
+        // The element type, accepted values are "Integer", "Long" and "String"
+        @Param({"Integer", "Long", "String"})
+        public String element;
+
+        // The size of the codec's buffer in bytes
+        @Param({"4096", "65536"})
+        public int bufferSize;
+
+        /**
+         * Obtain a new instance of a collection specified by {@link #collection}.
+         *
+         * @param <T> A generic type, can be anything.
+         * @return Returns a new instance of an {@link Collection}
+         * @throws IllegalArgumentException Thrown if {@link #collection} is invalid.
+         */
+        public <T> Collection<T> newCollection() throws IllegalArgumentException {
+            switch (collection) {
+                case "LinkedList":
+                    return new LinkedList<>();
+                case "FixedSizeHashSet":
+                    return new FixedSizeHashSet<>(collectionSize);
+                default:
+                    throw new IllegalArgumentException("Unknown Collection: " + collection);
+            }
+        }
+
+        /**
+         * Obtain the codec for the type specified by {@link #element}.
+         *
+         * @return Returns the {@link ElementCodec} of the element type
+         * @throws IllegalArgumentException Thrown if {@link #element} is invalid.
+         */
+        public ElementCodec<?> elementCodec() throws IllegalArgumentException {
+            switch (element) {
+                case "Integer":
+                    return ElementCodec.INTEGER;
+                case "Long":
+                    return ElementCodec.LONG;
+                case "String":
+                    return ElementCodec.STRING;
+                default:
+                    throw new IllegalArgumentException("Unknown element type: " + element);
+            }
+        }
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of the persistent set.
+     * @see PersistentBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class PersistentValues {
+
+        // The number of elements in the set before a new version (snapshot) is published.
+        @Param({"1000", "10000", "100000"})
+        public int collectionSize;
+
+        // Represents how many versions are published, one element is added for each version.
+        @Param("100")
+        public int sampleSize;
+
+    }
+
+    /**
+     * State which hold benchmark parameters + convenience method to instantiate caches.
+     * @see CacheBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class CacheValues {
+
+        // The maximum number of entries of the cache.
+        @Param({"1000", "10000"})
+        public int capacity;
+
+        // The number of distinct keys in the trace.
+        @Param("1000000")
+        public int keySpace;
+
+        // The skew of the Zipfian distribution of the trace.
+        @Param({"0.8", "0.99", "1.2"})
+        public double skew;
+
+        // The number of keys replayed per invocation.
+        @Param("1000000")
+        public int traceLength;
+
+        // Parameter for the name of the eviction policy. Accepted values are "LRU", "FIFO" and "TinyLFU"
+        @Param({"LRU", "FIFO", "TinyLFU"})
+        public String policy;
+
+        /**
+         * Obtain a new cache with the eviction policy specified by {@link #policy}.
+         *
+         * @param <K> The type of the keys
+         * @param <V> The type of the values
+         * @return Returns a new instance of an {@link BoundedCache}
+         * @throws IllegalArgumentException Thrown if {@link #policy} is invalid.
+         */
+        public <K, V> BoundedCache<K, V> newCache() throws IllegalArgumentException {
+            switch (policy) {
+                case "LRU":
+                    return new BoundedCache<>(capacity, EvictionPolicy.lru(capacity));
+                case "FIFO":
+                    return new BoundedCache<>(capacity, EvictionPolicy.fifo(capacity));
+                case "TinyLFU":
+                    return new BoundedCache<>(capacity, EvictionPolicy.windowTinyLfu(capacity));
+                default:
+                    throw new IllegalArgumentException("Unknown eviction policy: " + policy);
+            }
+        }
+    }
+
+    /**
+     * State which hold benchmark parameters + convenience method to instantiate collections.
+     * @see SetAlgebraBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class SetAlgebraValues {
+
+        // The size of both collections.
+        @Param({"1000", "10000", "100000"})
+        public int collectionSize;
+
+        // The fraction of elements which are in both collections.
+        @Param("0.5")
+        public double overlap;
+
+        // Parameter for the name of the collection. Accepted values are "LinkedList" and "FixedSizeHashSet"
+        @Param({"LinkedList", "FixedSizeHashSet"})
+        public String collection;
+
+        /**
+         * Obtain a new instance of a collection specified by {@link #collection}.
+         *
+         * @param <T> A generic type, can be anything.
+         * @return Returns a new instance of an {@link Collection}
+         * @throws IllegalArgumentException Thrown if {@link #collection} is invalid.
+         */
+        public <T> Collection<T> newCollection() throws IllegalArgumentException {
+            switch (collection) {
+                case "LinkedList":
+                    return new LinkedList<>();
+                case "FixedSizeHashSet":
+                    return new FixedSizeHashSet<>(collectionSize);
+                default:
+                    throw new IllegalArgumentException("Unknown Collection: " + collection);
+            }
+        }
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of growing hash sets.
+     * @see GrowthBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class GrowthValues {
+
+        // The set is discarded and grown from scratch once it holds this many elements.
+        @Param("10000000")
+        public int maxSize;
+
+        // Parameter for the name of the set. Accepted values are "IncrementalHashSet" and "HashSet" (java.util)
+        @Param({"IncrementalHashSet", "HashSet"})
+        public String collection;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the queue benchmark.
+     * @see QueueBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class QueueValues {
+
+        // The number of elements in the queue while the elements pass through it.
+        @Param({"16", "1024", "65536"})
+        public int queueSize;
+
+        // The number of elements which pass through the queue per invocation.
+        @Param("65536")
+        public int sampleSize;
+
+        // The number of elements offered and drained at once by the batch tests.
+        @Param({"1", "64"})
+        public int batchSize;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the ring buffer benchmark.
+     * @see RingBufferBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class RingBufferValues {
+
+        // The capacity of the ring buffers, also bounds the size of the locked list.
+        @Param({"1024", "65536"})
+        public int capacity;
+
+        // The number of elements offered or drained at once.
+        @Param({"1", "32"})
+        public int batchSize;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the compressed integer set benchmark.
+     * @see RoaringBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class RoaringValues {
+
+        // The number of integers in the sets before any of the tests are performed.
+        @Param({"100000", "1000000"})
+        public int collectionSize;
+
+        // Represents how many values should be tested. I.e how many integers to add, remove or search.
+        @Param("1000")
+        public int sampleSize;
+
+        // The distribution of the integers. Accepted values are "dense" (a range of consecutive integers
+        // with 10% missing) and "sparse" (uniformly random integers)
+        @Param({"dense", "sparse"})
+        public String distribution;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the primitive array search benchmark.
+     * @see SearchBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class SearchValues {
+
+        // The number of elements in the searched arrays, also the number of slots of the hash table.
+        @Param({"16", "1024", "65536"})
+        public int arraySize;
+
+        // The share of the hash table's slots which hold a key, determines the length of the probe sequences.
+        @Param("0.75")
+        public double loadFactor;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the primitive integer list benchmark.
+     * @see IntListBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class IntListValues {
+
+        // The number of integers in the lists before any of the tests are performed.
+        @Param({"1000", "100000", "1000000"})
+        public int collectionSize;
+
+        // Represents how many values should be tested. I.e how many integers to search.
+        @Param("100")
+        public int sampleSize;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of read-mostly sets.
+     * @see SortedSetBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class SortedSetValues {
+
+        // The number of elements in the set before any of the tests are performed.
+        @Param({"100000", "1000000", "10000000"})
+        public int collectionSize;
+
+        // Represents how many operations should be performed per invocation of the mix test.
+        @Param("10000")
+        public int sampleSize;
+
+        // The share of the operations of the mix test which add or remove an element, the others are lookups.
+        @Param({"0.01", "0.1"})
+        public double writeRatio;
+
+        // Parameter for the name of the set. Accepted values are "SortedArraySet", "BPlusTree" and "FixedSizeHashSet"
+        @Param({"SortedArraySet", "BPlusTree", "FixedSizeHashSet"})
+        public String collection;
+
+        /**
+         * Obtain a new instance of a set specified by {@link #collection}.
+         *
+         * @param <T> A generic type, can be anything.
+         * @return Returns a new instance of an {@link Collection}
+         * @throws IllegalArgumentException Thrown if {@link #collection} is invalid.
+         */
+        public <T extends Comparable<? super T>> Collection<T> newCollection() throws IllegalArgumentException {
+            switch (collection) {
+                case "SortedArraySet":
+                    return new SortedArraySet<>();
+                case "BPlusTree":
+                    return new BPlusTree<>();
+                case "FixedSizeHashSet":
+                    return new FixedSizeHashSet<>(collectionSize);
+                default:
+                    throw new IllegalArgumentException("Unknown Collection: " + collection);
+            }
+        }
+    }
+
+    /**
+     * State which hold benchmark parameters for the concurrent ordered set benchmark.
+     * @see ConcurrentSetBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class ConcurrentSetValues {
+
+        // The number of keys in the set before any of the tests are performed, drawn from twice as many keys.
+        @Param({"10000", "1000000"})
+        public int collectionSize;
+
+        // The share of the operations which look up a key, the others add or remove one.
+        @Param({"0.9", "0.5"})
+        public double readRatio;
+
+        // Parameter for the name of the set. Accepted values are "SkipListSet", "LongSkipListSet",
+        // "ConcurrentSkipListSet" and "LockedBPlusTree"
+        @Param({"SkipListSet", "LongSkipListSet", "ConcurrentSkipListSet", "LockedBPlusTree"})
+        public String collection;
+
+    }
+
+    /**
+     * State which hold benchmark parameters + convenience method to instantiate interners.
+     * @see InternBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class InternValues {
+
+        // The number of records parsed per batch.
+        @Param("1000000")
+        public int collectionSize;
+
+        // The number of strings interned per invocation of the lookup test.
+        @Param("10000")
+        public int sampleSize;
+
+        // The share of the strings of a batch which are distinct.
+        @Param({"0.01", "0.1"})
+        public double distinctRatio;
+
+        // Parameter for the name of the interner. Accepted values are "InterningSet", "WeakHashMap" and "None"
+        @Param({"InterningSet", "WeakHashMap", "None"})
+        public String collection;
+
+        /**
+         * Obtain a new interner specified by {@link #collection}, which maps an object to its canonical instance.
+         *
+         * @param <T> A generic type, can be anything.
+         * @return Returns a new interner
+         * @throws IllegalArgumentException Thrown if {@link #collection} is invalid.
+         */
+        public <T> UnaryOperator<T> newInterner() throws IllegalArgumentException {
+            switch (collection) {
+                case "InterningSet":
+                    return new InterningSet<T>()::intern;
+                case "WeakHashMap":
+                    // The value must not reference the key strongly, or the key could never be collected
+                    final Map<T, WeakReference<T>> map = new WeakHashMap<>();
+                    return t -> {
+                        final WeakReference<T> reference = map.get(t);
+                        final T canonical = reference == null ? null : reference.get();
+                        if (canonical != null) {
+                            return canonical;
+                        }
+                        map.put(t, new WeakReference<>(t));
+                        return t;
+                    };
+                case "None":
+                    return UnaryOperator.identity();
+                default:
+                    throw new IllegalArgumentException("Unknown interner: " + collection);
+            }
+        }
+    }
+
+    /**
+     * State which hold benchmark parameters + convenience method to instantiate Count-Min sketches.
+     * @see ProbabilisticBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class ProbabilisticValues {
+
+        // The number of distinct keys the stream is drawn from.
+        @Param({"100000", "1000000"})
+        public int keySpace;
+
+        // The skew of the Zipfian distribution of the stream.
+        @Param("0.99")
+        public double skew;
+
+        // The number of keys in the stream.
+        @Param("1000000")
+        public int streamLength;
+
+        // The precision of the HyperLogLog, it has 2^precision registers.
+        @Param({"12", "14"})
+        public int precision;
+
+        // The error of the Count-Min sketch relative to the length of the stream.
+        @Param("0.0001")
+        public double epsilon;
+
+        // The probability that an estimate of the Count-Min sketch is within the error.
+        @Param("0.99")
+        public double confidence;
+
+        /**
+         * Obtain a new Count-Min sketch with the error specified by {@link #epsilon} and {@link #confidence}.
+         *
+         * @param <T> A generic type, can be anything.
+         * @return Returns a new instance of a {@link CountMinSketch}
+         */
+        public <T> CountMinSketch<T> newCountMinSketch() {
+            return CountMinSketch.withError(epsilon, confidence);
+        }
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of loading collections from files.
+     * @see LoaderBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class LoaderValues {
+
+        // The number of keys in the generated file.
+        @Param({"1000000", "10000000"})
+        public int rows;
+
+        // The format of the file, accepted values are "TEXT" (a decimal key per line) and "INT32" (binary)
+        @Param({"TEXT", "INT32"})
+        public KeyFileLoader.Format format;
+
+        // The number of threads parsing the file.
+        @Param({"1", "4"})
+        public int parallelism;
+
+        // Parameter for the name of the collection. Accepted values are "FixedSizeHashSet", "LinkedList",
+        // "RoaringIntSet" and "IntArrayList"
+        @Param({"FixedSizeHashSet", "LinkedList", "RoaringIntSet", "IntArrayList"})
+        public String collection;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of lazy views compared to eager copies.
+     * @see ViewBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class ViewValues {
+
+        // The number of elements in the source collection of the pipeline.
+        @Param({"1000", "100000"})
+        public int collectionSize;
+
+        // The number of elements consumed by the limit tests.
+        @Param("10")
+        public int limit;
+
+        // Parameter for the name of the collection. Accepted values are "LinkedList" and "FixedSizeHashSet"
+        @Param({"LinkedList", "FixedSizeHashSet"})
+        public String collection;
+
+        /**
+         * Obtain a new instance of a collection specified by {@link #collection}
+         *
+         * @param <T> A generic type, can be anything.
+         * @return Returns a new instance of an {@link Collection}
+         * @throws IllegalArgumentException Thrown if {@link #collection} is invalid.
+         */
+        public <T> Collection<T> newCollection() throws IllegalArgumentException {
+            switch (collection) {
+                case "LinkedList":
+                    return new LinkedList<>();
+                case "FixedSizeHashSet":
+                    return new FixedSizeHashSet<>(collectionSize);
+                default:
+                    throw new IllegalArgumentException("Unknown Collection: " + collection);
+            }
+        }
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of counting occurrences with the {@link HashMultiset}.
+     * @see MultisetBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class MultisetValues {
+
+        // The number of keys in the stream.
+        @Param("100000")
+        public int streamLength;
+
+        // The number of distinct keys the stream is drawn from.
+        @Param({"1000", "100000"})
+        public int keySpace;
+
+        // The skew of the Zipfian distribution of the stream.
+        @Param("0.99")
+        public double skew;
+
+        // The number of keys counted by the count tests.
+        @Param("100")
+        public int sampleSize;
+
+        // The number of keys extracted by the top-k tests.
+        @Param("10")
+        public int k;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of multi-threaded ingestion into sets.
+     * @see ShardedSetBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class ShardedSetValues {
+
+        // The number of distinct keys the keys of every thread are drawn from.
+        @Param({"100000", "1000000"})
+        public int keySpace;
+
+        // The skew of the Zipfian distribution of the keys.
+        @Param("0.99")
+        public double skew;
+
+        // Parameter for the name of the set. Accepted values are "ShardedSet", "StripedHashSet" and
+        // "ConcurrentHashSet"
+        @Param({"ShardedSet", "StripedHashSet", "ConcurrentHashSet"})
+        public String collection;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of read-dominated shared collections.
+     * @see OptimisticBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class OptimisticValues {
+
+        // The number of elements in the collection at the start, the keys are drawn from twice as many.
+        @Param({"100", "10000"})
+        public int collectionSize;
+
+        // The probability of an operation being a lookup, the other operations add or remove a key.
+        @Param({"0.99", "0.9"})
+        public double readRatio;
+
+        // Parameter for the name of the collection. Accepted values are "FixedSizeHashSet" and "LinkedList"
+        @Param({"FixedSizeHashSet", "LinkedList"})
+        public String collection;
+
+        // Parameter for the name of the guard. Accepted values are "StampedLock", "Synchronized" and "ReadWriteLock"
+        @Param({"StampedLock", "Synchronized", "ReadWriteLock"})
+        public String guard;
+
+        /**
+         * Obtain a new instance of a collection specified by {@link #collection}. The {@link #collectionSize} parameter
+         * will be utilized for collections which support it.
+         *
+         * @param <T> A generic type, can be anything.
+         * @return Returns a new instance of an {@link Collection}
+         * @throws IllegalArgumentException Thrown if {@link #collection} is invalid.
+         */
+        public <T> Collection<T> newCollection() throws IllegalArgumentException {
+            switch (collection) {
+                case "FixedSizeHashSet":
+                    return new FixedSizeHashSet<>(collectionSize);
+                case "LinkedList":
+                    return new LinkedList<>();
+                default:
+                    throw new IllegalArgumentException("Unknown Collection: " + collection);
+            }
+        }
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of the flight recorder events.
+     * @see EventBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class EventValues {
+
+        // The number of elements in the set and in the list.
+        @Param({"1000", "100000"})
+        public int collectionSize;
+
+        // The average length of the set's bucket chains, below and above the default threshold of the events.
+        @Param({"4", "16"})
+        public int chainLength;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the frozen set benchmark.
+     * @see FrozenBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class FrozenValues {
+
+        // The number of integers in the sets before any of the tests are performed.
+        @Param({"1000", "100000", "1000000"})
+        public int collectionSize;
+
+        // Represents how many values should be tested. I.e how many integers to search.
+        @Param("1000")
+        public int sampleSize;
+
+    }
+
+    /**
+     * State which hold benchmark parameters for the benchmark of the set partitioned across worker threads.
+     * @see PartitionedBenchmark
+     */
+    @State(Scope.Benchmark)
+    public static class PartitionedValues {
+
+        // The number of partitions, each owned by a worker thread of its own.
+        @Param({"1", "2", "4"})
+        public int partitions;
+
+        // The number of operations a session sends to a worker at once.
+        @Param({"1", "16", "256"})
+        public int batchSize;
+
+        // The number of distinct keys, half of them are in the set at the start.
+        @Param("1000000")
+        public int keySpace;
+
+    }
 }
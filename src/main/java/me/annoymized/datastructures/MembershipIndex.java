@@ -0,0 +1,111 @@
+package me.annoymized.datastructures;
+
+import java.util.function.Predicate;
+
+/**
+ * Membership test over the elements of a collection or an array, used by the bulk operations to
+ * run in a single pass. Hash based collections are probed directly, small inputs are scanned and
+ * everything else is copied into a temporary {@link FixedSizeHashSet}. The index does not reflect
+ * modifications made to the source after it was created.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+final class MembershipIndex<T> implements Predicate<T> {
+
+    // Inputs up to this size are scanned instead of being indexed
+    static final int SCAN_THRESHOLD = 8;
+
+    private final ReadableCollection<T> lookup;
+    private final T[] array;
+    // Hash sets do not support null, therefore a null element of the source is tracked separately
+    private final boolean containsNull;
+
+    private MembershipIndex(final ReadableCollection<T> lookup, final T[] array, final boolean containsNull) {
+        this.lookup = lookup;
+        this.array = array;
+        this.containsNull = containsNull;
+    }
+
+    /**
+     * Create a membership test over the elements of a collection.
+     * Worst-Case Time Complexity = O(n), n = size of the collection; O(1) if it is hash based or small
+     *
+     * @param collection The collection
+     * @param <T>        A generic type, can be anything.
+     * @return Returns the membership test
+     */
+    static <T> MembershipIndex<T> of(final ReadableCollection<T> collection) {
+        if (isHashed(collection) || collection.size() <= SCAN_THRESHOLD) {
+            return new MembershipIndex<>(collection, null, false);
+        }
+        final FixedSizeHashSet<T> index = new FixedSizeHashSet<>(collection.size());
+        boolean containsNull = false;
+        for (final T t : collection) {
+            if (t == null) {
+                containsNull = true;
+            } else {
+                index.add(t);
+            }
+        }
+        return new MembershipIndex<>(index, null, containsNull);
+    }
+
+    /**
+     * Create a membership test over the elements of an array.
+     * Worst-Case Time Complexity = O(n), n = length of the array; O(1) if it is small
+     *
+     * @param array The array
+     * @param <T>   A generic type, can be anything.
+     * @return Returns the membership test
+     */
+    static <T> MembershipIndex<T> of(final T[] array) {
+        if (array.length <= SCAN_THRESHOLD) {
+            return new MembershipIndex<>(null, array, false);
+        }
+        final FixedSizeHashSet<T> index = new FixedSizeHashSet<>(array.length);
+        boolean containsNull = false;
+        for (final T t : array) {
+            if (t == null) {
+                containsNull = true;
+            } else {
+                index.add(t);
+            }
+        }
+        return new MembershipIndex<>(index, null, containsNull);
+    }
+
+    /**
+     * Check whether a collection supports (expected) constant time lookups
+     *
+     * @param collection The collection
+     * @return Returns true if the collection is hash based, false otherwise
+     */
+    static boolean isHashed(final ReadableCollection<?> collection) {
+        return collection instanceof FixedSizeHashSet || collection instanceof IncrementalHashSet
+               || collection instanceof HashMultiset || collection instanceof PersistentHashSet
+               || collection instanceof RoaringIntSet.CollectionView || collection instanceof FrozenHashSet;
+    }
+
+    /**
+     * Check whether the source contains an element
+     * Worst-Case Time Complexity = O(1) on average
+     *
+     * @param t The element, may be null
+     * @return Returns true if the source contains the element, false otherwise
+     */
+    @Override
+    public boolean test(final T t) {
+        if (this.array != null) {
+            for (final T element : this.array) {
+                if (t == null ? element == null : t.equals(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (t == null && this.lookup instanceof FixedSizeHashSet) {
+            return this.containsNull;
+        }
+        return this.lookup.contains(t);
+    }
+}
@@ -0,0 +1,652 @@
+package me.annoymized.datastructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of an immutable (persistent) HashSet based on a compressed hash array mapped trie (CHAMP).
+ * Every modification returns a new version of the set which shares all unchanged nodes with the previous
+ * version; only the O(log32 n) nodes on the path to the modified element are copied. Since a version can never
+ * change, versions may be published to any number of reader threads without synchronization.
+ * <p>
+ * Use a {@link Builder} for bulk construction, it edits the nodes it created in place instead of copying them.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public final class PersistentHashSet<T> implements ReadableCollection<T> {
+
+    // Number of hash bits consumed per level of the trie
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    // Shift of the last level, after which all 32 bits of the hash are consumed and collisions are chained
+    private static final int MAX_SHIFT = 30;
+    // 7 bitmap levels plus one collision level
+    private static final int MAX_DEPTH = MAX_SHIFT / BITS + 2;
+
+    private static final PersistentHashSet<?> EMPTY = new PersistentHashSet<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashSet(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Get the empty set
+     *
+     * @param <T> A generic type, can be anything.
+     * @return Returns the shared empty set instance
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentHashSet<T> empty() {
+        return (PersistentHashSet<T>) EMPTY;
+    }
+
+    /**
+     * Create a set holding all given elements.
+     * Worst-Case Time Complexity = O(n), n = number of elements
+     *
+     * @param elements The elements of the set
+     * @param <T>      A generic type, can be anything.
+     * @return Returns a new set
+     * @throws IllegalArgumentException Thrown if any element is null
+     */
+    public static <T> PersistentHashSet<T> of(final Iterable<T> elements) throws IllegalArgumentException {
+        final Builder<T> builder = new Builder<>(BitmapNode.EMPTY, 0);
+        builder.addAll(elements);
+        return builder.build();
+    }
+
+    /**
+     * Get a version of this set which contains the given object.
+     * Worst-Case Time Complexity = O(log32 n)
+     *
+     * @param object The object to add
+     * @return Returns a new set with the object added, or this set if the object is already present
+     * @throws IllegalArgumentException Thrown if the object is null
+     */
+    public PersistentHashSet<T> with(final T object) throws IllegalArgumentException {
+        if (object == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        final Change change = new Change();
+        final Node newRoot = this.root.insert(object, Hashing.hash(object), 0, null, change);
+        return change.modified ? new PersistentHashSet<>(newRoot, this.size + 1) : this;
+    }
+
+    /**
+     * Get a version of this set which does not contain the given object.
+     * Worst-Case Time Complexity = O(log32 n)
+     *
+     * @param object The object to remove
+     * @return Returns a new set with the object removed, or this set if the object is not present
+     */
+    public PersistentHashSet<T> without(final T object) {
+        if (object == null || this.size == 0) {
+            return this;
+        }
+        final Change change = new Change();
+        final Node newRoot = this.root.remove(object, Hashing.hash(object), 0, null, change);
+        if (!change.modified) {
+            return this;
+        }
+        return this.size == 1 ? empty() : new PersistentHashSet<>(newRoot, this.size - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(log32 n)
+     */
+    @Override
+    public boolean contains(final T object) {
+        return object != null && this.size != 0 && this.root.contains(object, Hashing.hash(object), 0);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Obtain a builder which starts out with the elements of this set. This set is not affected
+     * by any modification made through the builder.
+     *
+     * @return Returns a new builder
+     */
+    public Builder<T> toBuilder() {
+        return new Builder<>(this.root, this.size);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new NodeIterator<>(this.root);
+    }
+
+    @Override
+    public String toString() {
+        final Object[] arr = new Object[this.size];
+        int index = 0;
+        for (final T t : this) {
+            arr[index++] = t;
+        }
+        return "PersistentHashSet{" + "elements=" + Arrays.toString(arr) + ", size=" + size + '}';
+    }
+
+    /**
+     * Get the bit representing the hash at a given level
+     */
+    private static int bitpos(final int hash, final int shift) {
+        return 1 << (hash >>> shift & MASK);
+    }
+
+    /**
+     * Get the index of a bit within a bitmap, i.e. the number of lower bits set
+     */
+    private static int index(final int bitmap, final int bit) {
+        return Integer.bitCount(bitmap & bit - 1);
+    }
+
+    /**
+     * Create the node holding two elements which share the hash bits up to a given shift.
+     */
+    private static Node merge(final Object first, final int firstHash, final Object second, final int secondHash,
+                              final int shift, final Object owner) {
+        if (shift > MAX_SHIFT) {
+            return new CollisionNode(owner, firstHash, new Object[] {first, second});
+        }
+        final int firstMask = firstHash >>> shift & MASK;
+        final int secondMask = secondHash >>> shift & MASK;
+        if (firstMask != secondMask) {
+            final Object[] content = firstMask < secondMask ? new Object[] {first, second} : new Object[] {second, first};
+            return new BitmapNode(owner, 1 << firstMask | 1 << secondMask, 0, content);
+        }
+        return new BitmapNode(owner, 0, 1 << firstMask,
+                              new Object[] {merge(first, firstHash, second, secondHash, shift + BITS, owner)});
+    }
+
+    /**
+     * Builder (transient version) of a {@link PersistentHashSet}. Nodes created by a builder are owned by it and
+     * are modified in place, nodes shared with a set are copied on the first write. This class is not thread safe.
+     *
+     * @param <T> A generic type, can be anything.
+     */
+    public static final class Builder<T> {
+
+        private final Change change = new Change();
+        // Identity token of the nodes this builder may modify in place
+        private Object owner = new Object();
+        private Node root;
+        private int size;
+
+        private Builder(final Node root, final int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        /**
+         * Create an empty builder
+         */
+        public Builder() {
+            this(BitmapNode.EMPTY, 0);
+        }
+
+        /**
+         * Add an object to the set being built.
+         * Worst-Case Time Complexity = O(log32 n)
+         *
+         * @param object The object to add
+         * @return Returns true if the object was added, false if it was already present
+         * @throws IllegalArgumentException Thrown if the object is null
+         */
+        public boolean add(final T object) throws IllegalArgumentException {
+            if (object == null) {
+                throw new IllegalArgumentException("Does not support null types!");
+            }
+            this.change.modified = false;
+            this.root = this.root.insert(object, Hashing.hash(object), 0, this.owner, this.change);
+            if (this.change.modified) {
+                this.size++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Add all elements to the set being built.
+         *
+         * @param elements The elements to add
+         * @return Returns this builder
+         * @throws IllegalArgumentException Thrown if any element is null
+         */
+        public Builder<T> addAll(final Iterable<T> elements) throws IllegalArgumentException {
+            for (final T t : elements) {
+                add(t);
+            }
+            return this;
+        }
+
+        /**
+         * Remove an object from the set being built.
+         * Worst-Case Time Complexity = O(log32 n)
+         *
+         * @param object The object to remove
+         * @return Returns true if the object was removed, false if it was not present
+         */
+        public boolean remove(final T object) {
+            if (object == null || this.size == 0) {
+                return false;
+            }
+            this.change.modified = false;
+            this.root = this.root.remove(object, Hashing.hash(object), 0, this.owner, this.change);
+            if (this.change.modified) {
+                this.size--;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Check whether the set being built contains an object.
+         * Worst-Case Time Complexity = O(log32 n)
+         *
+         * @param object The object to look for
+         * @return Returns true if the object is present, false otherwise
+         */
+        public boolean contains(final T object) {
+            return object != null && this.size != 0 && this.root.contains(object, Hashing.hash(object), 0);
+        }
+
+        /**
+         * Worst-Case Time Complexity = O(1)
+         *
+         * @return Returns the number of elements of the set being built
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Create a set of the current elements. The builder may still be used afterwards, the returned set
+         * is not affected by any further modification.
+         *
+         * @return Returns the built set
+         */
+        public PersistentHashSet<T> build() {
+            // Give up ownership of all nodes created so far, they are now shared with the returned set
+            this.owner = new Object();
+            return this.size == 0 ? empty() : new PersistentHashSet<>(this.root, this.size);
+        }
+    }
+
+    /**
+     * Records whether an insert or remove modified the set.
+     */
+    private static final class Change {
+
+        private boolean modified;
+    }
+
+    /**
+     * Represents a node in the trie.
+     */
+    private abstract static class Node {
+
+        abstract boolean contains(Object object, int hash, int shift);
+
+        /**
+         * @param owner  The owner of the edit, null if the nodes must not be modified in place
+         * @param change Set to modified if the object was inserted
+         * @return Returns the updated node, which is this node if nothing changed or it was modified in place
+         */
+        abstract Node insert(Object object, int hash, int shift, Object owner, Change change);
+
+        /**
+         * @param owner  The owner of the edit, null if the nodes must not be modified in place
+         * @param change Set to modified if the object was removed
+         * @return Returns the updated node, which is this node if nothing changed or it was modified in place
+         */
+        abstract Node remove(Object object, int hash, int shift, Object owner, Change change);
+
+        abstract int dataArity();
+
+        abstract Object getData(int index);
+
+        abstract int nodeArity();
+
+        abstract Node getNode(int index);
+    }
+
+    /**
+     * Node which holds up to 32 elements or sub-nodes, indexed by 5 bits of the hash. Elements are stored
+     * at the front of {@link #content} in {@link #dataMap} order, sub-nodes at the back in reverse {@link #nodeMap} order.
+     * A node other than the root always holds at least two elements in total.
+     */
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(null, 0, 0, new Object[0]);
+
+        private final Object owner;
+        private int dataMap;
+        private int nodeMap;
+        private Object[] content;
+
+        private BitmapNode(final Object owner, final int dataMap, final int nodeMap, final Object[] content) {
+            this.owner = owner;
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        @Override
+        boolean contains(final Object object, final int hash, final int shift) {
+            final int bit = bitpos(hash, shift);
+            if ((this.dataMap & bit) != 0) {
+                return object.equals(this.content[index(this.dataMap, bit)]);
+            }
+            if ((this.nodeMap & bit) != 0) {
+                return nodeAt(bit).contains(object, hash, shift + BITS);
+            }
+            return false;
+        }
+
+        @Override
+        Node insert(final Object object, final int hash, final int shift, final Object owner, final Change change) {
+            final int bit = bitpos(hash, shift);
+            if ((this.dataMap & bit) != 0) {
+                final int dataIndex = index(this.dataMap, bit);
+                final Object current = this.content[dataIndex];
+                if (object.equals(current)) {
+                    return this;
+                }
+                // Push both elements down into a new sub-node
+                change.modified = true;
+                final Node node = merge(current, Hashing.hash(current), object, hash, shift + BITS, owner);
+                return migrateDataToNode(bit, dataIndex, node, owner);
+            }
+            if ((this.nodeMap & bit) != 0) {
+                final Node node = nodeAt(bit);
+                final Node updated = node.insert(object, hash, shift + BITS, owner, change);
+                return updated == node ? this : setNode(bit, updated, owner);
+            }
+            change.modified = true;
+            return insertData(bit, object, owner);
+        }
+
+        @Override
+        Node remove(final Object object, final int hash, final int shift, final Object owner, final Change change) {
+            final int bit = bitpos(hash, shift);
+            if ((this.dataMap & bit) != 0) {
+                final int dataIndex = index(this.dataMap, bit);
+                if (!object.equals(this.content[dataIndex])) {
+                    return this;
+                }
+                change.modified = true;
+                if (this.nodeMap == 0 && this.content.length == 2) {
+                    // Create a single element node which either becomes the new root or is inlined by the parent,
+                    // it is therefore positioned at the root level
+                    final Object remaining = this.content[dataIndex ^ 1];
+                    final int dataMap = shift == 0 ? this.dataMap ^ bit : bitpos(Hashing.hash(remaining), 0);
+                    return new BitmapNode(owner, dataMap, 0, new Object[] {remaining});
+                }
+                return removeData(bit, dataIndex, owner);
+            }
+            if ((this.nodeMap & bit) != 0) {
+                final Node node = nodeAt(bit);
+                final Node updated = node.remove(object, hash, shift + BITS, owner, change);
+                if (updated == node) {
+                    return this;
+                }
+                if (updated.nodeArity() == 0 && updated.dataArity() == 1) {
+                    if (this.dataMap == 0 && this.nodeMap == bit) {
+                        // This node would only hold a single element, pass it up to the parent
+                        return updated;
+                    }
+                    return migrateNodeToData(bit, updated.getData(0), owner);
+                }
+                return setNode(bit, updated, owner);
+            }
+            return this;
+        }
+
+        @Override
+        int dataArity() {
+            return Integer.bitCount(this.dataMap);
+        }
+
+        @Override
+        Object getData(final int index) {
+            return this.content[index];
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(this.nodeMap);
+        }
+
+        @Override
+        Node getNode(final int index) {
+            return (Node) this.content[this.content.length - 1 - index];
+        }
+
+        private Node nodeAt(final int bit) {
+            return getNode(index(this.nodeMap, bit));
+        }
+
+        /**
+         * Check whether this node can be modified in place by the owner of an edit
+         */
+        private boolean isEditable(final Object owner) {
+            return owner != null && this.owner == owner;
+        }
+
+        /**
+         * Apply new content to this node if it is editable, otherwise create a copy with the new content
+         */
+        private BitmapNode update(final Object owner, final int dataMap, final int nodeMap, final Object[] content) {
+            if (isEditable(owner)) {
+                this.dataMap = dataMap;
+                this.nodeMap = nodeMap;
+                this.content = content;
+                return this;
+            }
+            return new BitmapNode(owner, dataMap, nodeMap, content);
+        }
+
+        private BitmapNode setNode(final int bit, final Node node, final Object owner) {
+            final int index = this.content.length - 1 - index(this.nodeMap, bit);
+            if (isEditable(owner)) {
+                this.content[index] = node;
+                return this;
+            }
+            final Object[] dst = this.content.clone();
+            dst[index] = node;
+            return new BitmapNode(owner, this.dataMap, this.nodeMap, dst);
+        }
+
+        private BitmapNode insertData(final int bit, final Object object, final Object owner) {
+            final Object[] src = this.content;
+            final int index = index(this.dataMap, bit);
+            final Object[] dst = new Object[src.length + 1];
+            System.arraycopy(src, 0, dst, 0, index);
+            dst[index] = object;
+            System.arraycopy(src, index, dst, index + 1, src.length - index);
+            return update(owner, this.dataMap | bit, this.nodeMap, dst);
+        }
+
+        private BitmapNode removeData(final int bit, final int index, final Object owner) {
+            final Object[] src = this.content;
+            final Object[] dst = new Object[src.length - 1];
+            System.arraycopy(src, 0, dst, 0, index);
+            System.arraycopy(src, index + 1, dst, index, src.length - index - 1);
+            return update(owner, this.dataMap ^ bit, this.nodeMap, dst);
+        }
+
+        private BitmapNode migrateDataToNode(final int bit, final int dataIndex, final Node node, final Object owner) {
+            final Object[] src = this.content;
+            final int length = src.length;
+            final int dataArity = dataArity();
+            final int nodeMap = this.nodeMap | bit;
+            final int nodeIndex = index(nodeMap, bit);
+            final Object[] dst = new Object[length];
+            // Elements before and after the removed element
+            System.arraycopy(src, 0, dst, 0, dataIndex);
+            System.arraycopy(src, dataIndex + 1, dst, dataIndex, dataArity - dataIndex - 1);
+            // Nodes stored in reverse order, the ones after the new node move one slot towards the front
+            System.arraycopy(src, dataArity, dst, dataArity - 1, length - nodeIndex - dataArity);
+            dst[length - 1 - nodeIndex] = node;
+            System.arraycopy(src, length - nodeIndex, dst, length - nodeIndex, nodeIndex);
+            return update(owner, this.dataMap ^ bit, nodeMap, dst);
+        }
+
+        private BitmapNode migrateNodeToData(final int bit, final Object object, final Object owner) {
+            final Object[] src = this.content;
+            final int length = src.length;
+            final int dataArity = dataArity();
+            final int dataIndex = index(this.dataMap, bit);
+            final int nodeIndex = index(this.nodeMap, bit);
+            final Object[] dst = new Object[length];
+            System.arraycopy(src, 0, dst, 0, dataIndex);
+            dst[dataIndex] = object;
+            System.arraycopy(src, dataIndex, dst, dataIndex + 1, dataArity - dataIndex);
+            // Nodes stored in reverse order, the ones after the removed node move one slot towards the back
+            System.arraycopy(src, dataArity, dst, dataArity + 1, length - 1 - nodeIndex - dataArity);
+            System.arraycopy(src, length - nodeIndex, dst, length - nodeIndex, nodeIndex);
+            return update(owner, this.dataMap | bit, this.nodeMap ^ bit, dst);
+        }
+    }
+
+    /**
+     * Node which holds elements whose hashes are equal in all 32 bits.
+     */
+    private static final class CollisionNode extends Node {
+
+        private final Object owner;
+        private final int hash;
+        private Object[] elements;
+
+        private CollisionNode(final Object owner, final int hash, final Object[] elements) {
+            this.owner = owner;
+            this.hash = hash;
+            this.elements = elements;
+        }
+
+        @Override
+        boolean contains(final Object object, final int hash, final int shift) {
+            for (final Object element : this.elements) {
+                if (object.equals(element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Node insert(final Object object, final int hash, final int shift, final Object owner, final Change change) {
+            if (contains(object, hash, shift)) {
+                return this;
+            }
+            change.modified = true;
+            final Object[] dst = Arrays.copyOf(this.elements, this.elements.length + 1);
+            dst[this.elements.length] = object;
+            return update(owner, dst);
+        }
+
+        @Override
+        Node remove(final Object object, final int hash, final int shift, final Object owner, final Change change) {
+            final Object[] src = this.elements;
+            for (int index = 0; index < src.length; index++) {
+                if (!object.equals(src[index])) {
+                    continue;
+                }
+                change.modified = true;
+                if (src.length == 2) {
+                    // Positioned at the root level, see BitmapNode#remove
+                    return new BitmapNode(owner, bitpos(this.hash, 0), 0, new Object[] {src[index ^ 1]});
+                }
+                final Object[] dst = new Object[src.length - 1];
+                System.arraycopy(src, 0, dst, 0, index);
+                System.arraycopy(src, index + 1, dst, index, src.length - index - 1);
+                return update(owner, dst);
+            }
+            return this;
+        }
+
+        private CollisionNode update(final Object owner, final Object[] elements) {
+            if (owner != null && this.owner == owner) {
+                this.elements = elements;
+                return this;
+            }
+            return new CollisionNode(owner, this.hash, elements);
+        }
+
+        @Override
+        int dataArity() {
+            return this.elements.length;
+        }
+
+        @Override
+        Object getData(final int index) {
+            return this.elements[index];
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        Node getNode(final int index) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    /**
+     * Iterator implementation which traverses the trie depth first, returning the elements of a node
+     * before those of its sub-nodes. The iterator is bound to a single version of the set and does not support removal.
+     */
+    private static final class NodeIterator<T> implements Iterator<T> {
+
+        private final Node[] nodes = new Node[MAX_DEPTH];
+        private final int[] dataCursor = new int[MAX_DEPTH];
+        private final int[] nodeCursor = new int[MAX_DEPTH];
+        private int depth;
+
+        private NodeIterator(final Node root) {
+            this.nodes[0] = root;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.depth >= 0) {
+                final Node node = this.nodes[this.depth];
+                if (this.dataCursor[this.depth] < node.dataArity()) {
+                    return true;
+                }
+                if (this.nodeCursor[this.depth] < node.nodeArity()) {
+                    // Descend into the next sub-node
+                    final Node child = node.getNode(this.nodeCursor[this.depth]++);
+                    this.depth++;
+                    this.nodes[this.depth] = child;
+                    this.dataCursor[this.depth] = 0;
+                    this.nodeCursor[this.depth] = 0;
+                } else {
+                    // Node exhausted, return to the parent
+                    this.nodes[this.depth--] = null;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (T) this.nodes[this.depth].getData(this.dataCursor[this.depth]++);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package me.annoymized.datastructures;
+
+/**
+ * Represents the read side of a data structure. Implemented by all {@link Collection}s and
+ * by data structures which cannot be modified in place.
+ *
+ * @param <T> A generic type, can be any object.
+ */
+public interface ReadableCollection<T> extends Iterable<T> {
+
+    /**
+     * Check whether a given object exists in the collection.
+     *
+     * @param t The object instance of a generic type 'T'
+     * @return Returns true if this collection contains the object, false otherwise.
+     */
+    boolean contains(T t);
+
+    /**
+     * Get the number of elements (size) of this collection.
+     *
+     * @return Returns an 32-bit integer representing the number of elements in this collection
+     */
+    int size();
+
+    /**
+     * Obtain a lazy view over the elements of this collection, which filters, maps, concatenates and limits them
+     * on traversal instead of copying them into intermediate collections.
+     * Worst-Case Time Complexity = O(1)
+     *
+     * @return Returns a new view, reflecting later changes to this collection
+     * @see View
+     */
+    default View<T> view() {
+        return View.of(this);
+    }
+
+    /**
+     * Copy the elements of this collection into an immutable set with a minimal perfect hash function, for
+     * collections which are built once and then only queried.
+     * Worst-Case Time Complexity = O(n), n = number of elements
+     *
+     * @return Returns a new set, not reflecting later changes to this collection
+     * @throws IllegalArgumentException Thrown if this collection contains null
+     * @see FrozenHashSet
+     */
+    default FrozenHashSet<T> freeze() throws IllegalArgumentException {
+        return FrozenHashSet.of(this);
+    }
+
+}
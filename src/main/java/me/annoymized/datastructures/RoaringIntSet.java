@@ -0,0 +1,1187 @@
+package me.annoymized.datastructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of 32-bit integers in the style of Roaring bitmaps. An integer is split into its high and its
+ * low 16 bits, all integers sharing the high bits are stored in one container which holds their low bits in the
+ * most compact of three representations:
+ * <ul>
+ *     <li>array: a sorted array of up to {@link #ARRAY_MAX} values, 2 bytes per value</li>
+ *     <li>bitmap: 2^16 bits (8 KiB), used once a container holds more values than an array may</li>
+ *     <li>run: sorted pairs of start and length, used for ranges of consecutive values after {@link #runOptimize()}</li>
+ * </ul>
+ * The containers are kept in an array sorted by their high bits. Integers are treated as unsigned, i.e. iteration
+ * returns 0 first and -1 last. Union, intersection and difference of two sets combine the containers of equal high
+ * bits, bitmaps 64 bits at a time. {@link #asCollection()} exposes the set as a {@link Collection} of Integers.
+ * This class is not thread safe and by no means performs any concurrent modification checks.
+ */
+public final class RoaringIntSet {
+
+    // Maximum number of values of an array container, an array of this size takes as many bytes as a bitmap
+    static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private char[] keys;
+    private Container[] containers;
+    private int count;
+    private long cardinality;
+
+    public RoaringIntSet() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+    }
+
+    /**
+     * Create a set holding given integers
+     *
+     * @param values The integers
+     * @return Returns the set
+     */
+    public static RoaringIntSet of(final int... values) {
+        final RoaringIntSet set = new RoaringIntSet();
+        for (final int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    /**
+     * Add an integer to this set
+     * Worst-Case Time Complexity = O(log c + 4096), c = number of containers; O(log c + log 4096) for bitmaps
+     *
+     * @param value The integer
+     * @return Returns true if the set did not contain the integer, false otherwise
+     */
+    public boolean add(final int value) {
+        final char high = (char) (value >>> 16);
+        int index = Arrays.binarySearch(this.keys, 0, this.count, high);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, high, new ArrayContainer());
+        }
+        final Container container = this.containers[index];
+        final int before = container.cardinality();
+        this.containers[index] = container.add((char) value);
+        if (this.containers[index].cardinality() == before) {
+            return false;
+        }
+        this.cardinality++;
+        return true;
+    }
+
+    /**
+     * Remove an integer from this set
+     * Worst-Case Time Complexity = O(log c + 4096), c = number of containers
+     *
+     * @param value The integer
+     * @return Returns true if the set contained the integer, false otherwise
+     */
+    public boolean remove(final int value) {
+        final int index = Arrays.binarySearch(this.keys, 0, this.count, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        final Container container = this.containers[index];
+        final int before = container.cardinality();
+        final Container result = container.remove((char) value);
+        if (result.cardinality() == before) {
+            return false;
+        }
+        this.cardinality--;
+        if (result.cardinality() == 0) {
+            removeContainer(index);
+        } else {
+            this.containers[index] = result;
+        }
+        return true;
+    }
+
+    /**
+     * Check whether an integer is in this set
+     * Worst-Case Time Complexity = O(log c + log 4096), c = number of containers
+     *
+     * @param value The integer
+     * @return Returns true if the set contains the integer, false otherwise
+     */
+    public boolean contains(final int value) {
+        final int index = Arrays.binarySearch(this.keys, 0, this.count, (char) (value >>> 16));
+        return index >= 0 && this.containers[index].contains((char) value);
+    }
+
+    /**
+     * Get the number of integers in this set | Time Complexity = O(1)
+     *
+     * @return Returns the number of integers, up to 2^32
+     */
+    public long cardinality() {
+        return this.cardinality;
+    }
+
+    public boolean isEmpty() {
+        return this.cardinality == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(this.containers, 0, this.count, null);
+        this.count = 0;
+        this.cardinality = 0;
+    }
+
+    /**
+     * Convert every container to its most compact representation, ranges of consecutive integers are converted to
+     * run containers | Worst-Case Time Complexity = O(n)
+     */
+    public void runOptimize() {
+        for (int i = 0; i < this.count; i++) {
+            this.containers[i] = this.containers[i].optimize();
+        }
+    }
+
+    /**
+     * Create a new set holding the integers of this set and of another set
+     * Worst-Case Time Complexity = O(c1 + c2) containers, each combined in O(4096) or less
+     *
+     * @param other The other set
+     * @return Returns the union
+     */
+    public RoaringIntSet union(final RoaringIntSet other) {
+        final RoaringIntSet result = new RoaringIntSet(this.count + other.count);
+        int i = 0;
+        int j = 0;
+        while (i < this.count && j < other.count) {
+            final char a = this.keys[i];
+            final char b = other.keys[j];
+            if (a < b) {
+                result.append(a, this.containers[i++].copy());
+            } else if (a > b) {
+                result.append(b, other.containers[j++].copy());
+            } else {
+                result.append(a, Container.or(this.containers[i++], other.containers[j++]));
+            }
+        }
+        for (; i < this.count; i++) {
+            result.append(this.keys[i], this.containers[i].copy());
+        }
+        for (; j < other.count; j++) {
+            result.append(other.keys[j], other.containers[j].copy());
+        }
+        return result;
+    }
+
+    /**
+     * Create a new set holding the integers which are in this set and in another set
+     * Worst-Case Time Complexity = O(c1 + c2) containers, each combined in O(4096) or less
+     *
+     * @param other The other set
+     * @return Returns the intersection
+     */
+    public RoaringIntSet intersect(final RoaringIntSet other) {
+        final RoaringIntSet result = new RoaringIntSet(Math.min(this.count, other.count));
+        int i = 0;
+        int j = 0;
+        while (i < this.count && j < other.count) {
+            final char a = this.keys[i];
+            final char b = other.keys[j];
+            if (a < b) {
+                i++;
+            } else if (a > b) {
+                j++;
+            } else {
+                result.append(a, Container.and(this.containers[i++], other.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Create a new set holding the integers of this set which are not in another set
+     * Worst-Case Time Complexity = O(c1 + c2) containers, each combined in O(4096) or less
+     *
+     * @param other The other set
+     * @return Returns the difference
+     */
+    public RoaringIntSet difference(final RoaringIntSet other) {
+        final RoaringIntSet result = new RoaringIntSet(this.count);
+        int j = 0;
+        for (int i = 0; i < this.count; i++) {
+            final char a = this.keys[i];
+            while (j < other.count && other.keys[j] < a) {
+                j++;
+            }
+            if (j < other.count && other.keys[j] == a) {
+                result.append(a, Container.andNot(this.containers[i], other.containers[j]));
+            } else {
+                result.append(a, this.containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Call a consumer with every integer of this set, in unsigned order | Worst-Case Time Complexity = O(n)
+     *
+     * @param consumer The consumer
+     */
+    public void forEach(final IntConsumer consumer) {
+        for (int i = 0; i < this.count; i++) {
+            this.containers[i].forEach(this.keys[i] << 16, consumer);
+        }
+    }
+
+    /**
+     * Iterate the integers of this set in unsigned order. The iterator supports {@link Iterator#remove()}.
+     *
+     * @return Returns the iterator
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new SetIterator();
+    }
+
+    /**
+     * Get an estimate of the memory held by this set in bytes, assuming compressed references and 16 byte
+     * object headers
+     *
+     * @return Returns the estimated size in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = 40 + 16 + this.keys.length * 2L + 16 + this.containers.length * 4L;
+        for (int i = 0; i < this.count; i++) {
+            bytes += this.containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Obtain a view of this set as a {@link Collection} of Integers. Changes to the view are written to this set
+     * and vice versa. Bulk operations with another view of a {@link RoaringIntSet} combine the containers directly.
+     *
+     * @return Returns the view
+     */
+    public Collection<Integer> asCollection() {
+        return new CollectionView(this);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RoaringIntSet)) {
+            return false;
+        }
+        final RoaringIntSet other = (RoaringIntSet) o;
+        if (this.cardinality != other.cardinality || this.count != other.count) {
+            return false;
+        }
+        final PrimitiveIterator.OfInt a = iterator();
+        final PrimitiveIterator.OfInt b = other.iterator();
+        while (a.hasNext()) {
+            if (a.nextInt() != b.nextInt()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        final int[] hash = {1};
+        forEach(value -> hash[0] = 31 * hash[0] + value);
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("RoaringIntSet{elements=[");
+        final PrimitiveIterator.OfInt iterator = iterator();
+        while (iterator.hasNext()) {
+            builder.append(Integer.toUnsignedString(iterator.nextInt()));
+            if (iterator.hasNext()) {
+                builder.append(", ");
+            }
+        }
+        return builder.append("], cardinality=").append(this.cardinality).append('}').toString();
+    }
+
+    private RoaringIntSet(final int capacity) {
+        this.keys = new char[Math.max(4, capacity)];
+        this.containers = new Container[Math.max(4, capacity)];
+    }
+
+    /**
+     * Append a container with a key greater than all keys, empty containers are dropped
+     */
+    private void append(final char key, final Container container) {
+        if (container.cardinality() == 0) {
+            return;
+        }
+        insertContainer(this.count, key, container);
+        this.cardinality += container.cardinality();
+    }
+
+    private void insertContainer(final int index, final char key, final Container container) {
+        if (this.count == this.keys.length) {
+            final int length = Math.min(1 << 16, this.keys.length * 2);
+            this.keys = Arrays.copyOf(this.keys, length);
+            this.containers = Arrays.copyOf(this.containers, length);
+        }
+        System.arraycopy(this.keys, index, this.keys, index + 1, this.count - index);
+        System.arraycopy(this.containers, index, this.containers, index + 1, this.count - index);
+        this.keys[index] = key;
+        this.containers[index] = container;
+        this.count++;
+    }
+
+    private void removeContainer(final int index) {
+        System.arraycopy(this.keys, index + 1, this.keys, index, this.count - index - 1);
+        System.arraycopy(this.containers, index + 1, this.containers, index, this.count - index - 1);
+        this.containers[--this.count] = null;
+    }
+
+    /**
+     * Replace the contents of this set with the contents of another set
+     */
+    private void assign(final RoaringIntSet other) {
+        this.keys = other.keys;
+        this.containers = other.containers;
+        this.count = other.count;
+        this.cardinality = other.cardinality;
+    }
+
+    /**
+     * Find the smallest integer of this set which is greater than or equal to a given unsigned integer
+     *
+     * @param from The unsigned integer, within 0 and 2^32 - 1
+     * @return Returns the integer as an unsigned value or -1 if there is none
+     */
+    private long ceiling(final long from) {
+        int index = Arrays.binarySearch(this.keys, 0, this.count, (char) (from >>> 16));
+        if (index >= 0) {
+            final int low = this.containers[index].ceiling((char) from);
+            if (low != -1) {
+                return (long) this.keys[index] << 16 | low;
+            }
+            index++;
+        } else {
+            index = -index - 1;
+        }
+        // Containers are never empty, the next one starts with its smallest value
+        return index < this.count ? (long) this.keys[index] << 16 | this.containers[index].ceiling((char) 0) : -1;
+    }
+
+    /**
+     * Iterator implementation which looks up the next integer after the one returned, so integers may be
+     * removed during iteration.
+     */
+    private final class SetIterator implements PrimitiveIterator.OfInt {
+
+        private long next = ceiling(0);
+        private long last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.next != -1;
+        }
+
+        @Override
+        public int nextInt() {
+            if (this.next == -1) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next;
+            this.next = this.last == 0xFFFFFFFFL ? -1 : ceiling(this.last + 1);
+            return (int) this.last;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -1) {
+                throw new IllegalStateException();
+            }
+            RoaringIntSet.this.remove((int) this.last);
+            this.last = -1;
+        }
+    }
+
+    /**
+     * Holds the low 16 bits of the integers sharing the same high 16 bits. Mutations return the container which
+     * holds the result, which is either the same container or a container of a different representation.
+     */
+    abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        /**
+         * @return Returns the smallest value greater than or equal to a given value or -1 if there is none
+         */
+        abstract int ceiling(char value);
+
+        abstract void forEach(int high, IntConsumer consumer);
+
+        abstract Container copy();
+
+        abstract long sizeInBytes();
+
+        /**
+         * @return Returns the container in its most compact representation
+         */
+        abstract Container optimize();
+
+        /**
+         * @return Returns the number of runs of consecutive values
+         */
+        abstract int runs();
+
+        /**
+         * @return Returns the values in an array or a bitmap container, depending on the cardinality
+         */
+        abstract Container toArrayOrBitmap();
+
+        /**
+         * Choose the most compact representation for a given cardinality and number of runs, comparing the
+         * serialized sizes as the Roaring format does
+         */
+        static Container compact(final Container container, final int runs) {
+            final int cardinality = container.cardinality();
+            final int runBytes = 2 + 4 * runs;
+            final int otherBytes = cardinality <= ARRAY_MAX ? 2 + 2 * cardinality : BITMAP_WORDS * 8;
+            if (runBytes < otherBytes) {
+                return container instanceof RunContainer ? container : RunContainer.from(container, runs);
+            }
+            return container.toArrayOrBitmap();
+        }
+
+        static Container or(final Container a, final Container b) {
+            final Container x = a.toArrayOrBitmap();
+            final Container y = b.toArrayOrBitmap();
+            if (x instanceof BitmapContainer) {
+                return ((BitmapContainer) x.copy()).or(y);
+            }
+            if (y instanceof BitmapContainer) {
+                return ((BitmapContainer) y.copy()).or(x);
+            }
+            return ArrayContainer.union((ArrayContainer) x, (ArrayContainer) y);
+        }
+
+        static Container and(final Container a, final Container b) {
+            final Container x = a.toArrayOrBitmap();
+            final Container y = b.toArrayOrBitmap();
+            if (x instanceof ArrayContainer) {
+                return ((ArrayContainer) x).filter(y, true);
+            }
+            if (y instanceof ArrayContainer) {
+                return ((ArrayContainer) y).filter(x, true);
+            }
+            return ((BitmapContainer) x).and((BitmapContainer) y);
+        }
+
+        static Container andNot(final Container a, final Container b) {
+            final Container x = a.toArrayOrBitmap();
+            final Container y = b.toArrayOrBitmap();
+            if (x instanceof ArrayContainer) {
+                return ((ArrayContainer) x).filter(y, false);
+            }
+            return ((BitmapContainer) x.copy()).andNot(y);
+        }
+    }
+
+    /**
+     * Container holding the values in a sorted array.
+     */
+    static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this.values = new char[4];
+        }
+
+        ArrayContainer(final char[] values, final int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(final char value) {
+            int index = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (this.cardinality == ARRAY_MAX) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (this.cardinality == this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.min(ARRAY_MAX, this.values.length * 2));
+            }
+            System.arraycopy(this.values, index, this.values, index + 1, this.cardinality - index);
+            this.values[index] = value;
+            this.cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(final char value) {
+            final int index = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(this.values, index + 1, this.values, index, this.cardinality - index - 1);
+                this.cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return Arrays.binarySearch(this.values, 0, this.cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        int ceiling(final char value) {
+            int index = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < this.cardinality ? this.values[index] : -1;
+        }
+
+        @Override
+        void forEach(final int high, final IntConsumer consumer) {
+            for (int i = 0; i < this.cardinality; i++) {
+                consumer.accept(high | this.values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(this.values, Math.max(4, this.cardinality)), this.cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 24 + 16 + this.values.length * 2L;
+        }
+
+        @Override
+        Container optimize() {
+            return compact(this, runs());
+        }
+
+        @Override
+        int runs() {
+            int runs = 0;
+            for (int i = 0; i < this.cardinality; i++) {
+                if (i == 0 || this.values[i] != this.values[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            return runs;
+        }
+
+        @Override
+        Container toArrayOrBitmap() {
+            return this;
+        }
+
+        BitmapContainer toBitmap() {
+            final BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < this.cardinality; i++) {
+                bitmap.set(this.values[i]);
+            }
+            return bitmap;
+        }
+
+        /**
+         * @return Returns a new container with the values which are (or are not) in another container
+         */
+        ArrayContainer filter(final Container other, final boolean keep) {
+            final char[] result = new char[Math.max(4, this.cardinality)];
+            int size = 0;
+            if (other instanceof ArrayContainer) {
+                // Merge both sorted arrays
+                final ArrayContainer array = (ArrayContainer) other;
+                int j = 0;
+                for (int i = 0; i < this.cardinality; i++) {
+                    final char value = this.values[i];
+                    while (j < array.cardinality && array.values[j] < value) {
+                        j++;
+                    }
+                    if ((j < array.cardinality && array.values[j] == value) == keep) {
+                        result[size++] = value;
+                    }
+                }
+            } else {
+                for (int i = 0; i < this.cardinality; i++) {
+                    if (other.contains(this.values[i]) == keep) {
+                        result[size++] = this.values[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, size);
+        }
+
+        static Container union(final ArrayContainer a, final ArrayContainer b) {
+            if (a.cardinality + b.cardinality > ARRAY_MAX) {
+                return a.toBitmap().or(b);
+            }
+            final char[] result = new char[Math.max(4, a.cardinality + b.cardinality)];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < a.cardinality && j < b.cardinality) {
+                final char x = a.values[i];
+                final char y = b.values[j];
+                if (x < y) {
+                    result[size++] = x;
+                    i++;
+                } else if (x > y) {
+                    result[size++] = y;
+                    j++;
+                } else {
+                    result[size++] = x;
+                    i++;
+                    j++;
+                }
+            }
+            System.arraycopy(a.values, i, result, size, a.cardinality - i);
+            size += a.cardinality - i;
+            System.arraycopy(b.values, j, result, size, b.cardinality - j);
+            size += b.cardinality - j;
+            return new ArrayContainer(result, size);
+        }
+    }
+
+    /**
+     * Container holding the values as the bits of a 2^16 bit bitmap.
+     */
+    static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this.words = new long[BITMAP_WORDS];
+        }
+
+        private BitmapContainer(final long[] words, final int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        void set(final char value) {
+            final long before = this.words[value >>> 6];
+            final long after = before | 1L << value;
+            this.words[value >>> 6] = after;
+            // Branch free increment, 1 if the bit was not set
+            this.cardinality += (int) ((before ^ after) >>> (value & 63));
+        }
+
+        @Override
+        Container add(final char value) {
+            set(value);
+            return this;
+        }
+
+        @Override
+        Container remove(final char value) {
+            final long word = this.words[value >>> 6];
+            final long bit = 1L << value;
+            if ((word & bit) == 0) {
+                return this;
+            }
+            this.words[value >>> 6] = word & ~bit;
+            this.cardinality--;
+            return this.cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return (this.words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        int ceiling(final char value) {
+            int index = value >>> 6;
+            long word = this.words[index] & -1L << value;
+            while (word == 0) {
+                if (++index == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = this.words[index];
+            }
+            return index << 6 | Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        void forEach(final int high, final IntConsumer consumer) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                for (long word = this.words[i]; word != 0; word &= word - 1) {
+                    consumer.accept(high | i << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(this.words.clone(), this.cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 24 + 16 + BITMAP_WORDS * 8L;
+        }
+
+        @Override
+        Container optimize() {
+            return compact(this, runs());
+        }
+
+        @Override
+        int runs() {
+            int runs = 0;
+            long previous = 0;
+            for (final long word : this.words) {
+                // A run starts at every set bit whose preceding bit is not set
+                runs += Long.bitCount(word & ~(word << 1 | previous >>> 63));
+                previous = word;
+            }
+            return runs;
+        }
+
+        @Override
+        Container toArrayOrBitmap() {
+            return this.cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        ArrayContainer toArray() {
+            final char[] values = new char[Math.max(4, this.cardinality)];
+            int size = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                for (long word = this.words[i]; word != 0; word &= word - 1) {
+                    values[size++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values, size);
+        }
+
+        /**
+         * Add all values of another container to this container (in place)
+         */
+        BitmapContainer or(final Container other) {
+            if (other instanceof BitmapContainer) {
+                final long[] words = ((BitmapContainer) other).words;
+                int cardinality = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    this.words[i] |= words[i];
+                    cardinality += Long.bitCount(this.words[i]);
+                }
+                this.cardinality = cardinality;
+            } else {
+                final ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    set(array.values[i]);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * @return Returns a new container with the values in both bitmaps
+         */
+        Container and(final BitmapContainer other) {
+            final long[] result = new long[BITMAP_WORDS];
+            int cardinality = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = this.words[i] & other.words[i];
+                cardinality += Long.bitCount(result[i]);
+            }
+            return new BitmapContainer(result, cardinality).toArrayOrBitmap();
+        }
+
+        /**
+         * Remove all values of another container from this container (in place)
+         */
+        Container andNot(final Container other) {
+            if (other instanceof BitmapContainer) {
+                final long[] words = ((BitmapContainer) other).words;
+                int cardinality = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    this.words[i] &= ~words[i];
+                    cardinality += Long.bitCount(this.words[i]);
+                }
+                this.cardinality = cardinality;
+            } else {
+                final ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    final char value = array.values[i];
+                    final long word = this.words[value >>> 6];
+                    this.words[value >>> 6] = word & ~(1L << value);
+                    this.cardinality -= (int) ((word >>> (value & 63)) & 1);
+                }
+            }
+            return toArrayOrBitmap();
+        }
+    }
+
+    /**
+     * Container holding the values as runs of consecutive values. Each run is stored as a pair of its start and
+     * its length minus one, sorted by the start.
+     */
+    static final class RunContainer extends Container {
+
+        private char[] runs;
+        private int runCount;
+        private int cardinality;
+
+        private RunContainer(final char[] runs, final int runCount, final int cardinality) {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.cardinality = cardinality;
+        }
+
+        static RunContainer from(final Container container, final int runs) {
+            final char[] pairs = new char[Math.max(2, runs * 2)];
+            final int[] state = {0, -2};
+            // state[0] = number of runs, state[1] = previous value
+            container.forEach(0, value -> {
+                if (value == state[1] + 1) {
+                    pairs[state[0] * 2 - 1]++;
+                } else {
+                    pairs[state[0] * 2] = (char) value;
+                    state[0]++;
+                }
+                state[1] = value;
+            });
+            return new RunContainer(pairs, state[0], container.cardinality());
+        }
+
+        private int start(final int run) {
+            return this.runs[run * 2];
+        }
+
+        private int end(final int run) {
+            return this.runs[run * 2] + this.runs[run * 2 + 1];
+        }
+
+        /**
+         * @return Returns the index of the last run starting at or before a value or -1 if there is none
+         */
+        private int floorRun(final char value) {
+            int low = 0;
+            int high = this.runCount - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                if (start(mid) <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+
+        private void setRun(final int run, final int start, final int end) {
+            this.runs[run * 2] = (char) start;
+            this.runs[run * 2 + 1] = (char) (end - start);
+        }
+
+        private void insertRun(final int run, final int start, final int end) {
+            if (this.runCount * 2 == this.runs.length) {
+                this.runs = Arrays.copyOf(this.runs, this.runs.length * 2);
+            }
+            System.arraycopy(this.runs, run * 2, this.runs, run * 2 + 2, (this.runCount - run) * 2);
+            this.runCount++;
+            setRun(run, start, end);
+        }
+
+        private void deleteRun(final int run) {
+            System.arraycopy(this.runs, run * 2 + 2, this.runs, run * 2, (this.runCount - run - 1) * 2);
+            this.runCount--;
+        }
+
+        @Override
+        Container add(final char value) {
+            final int run = floorRun(value);
+            if (run >= 0 && value <= end(run)) {
+                return this;
+            }
+            final boolean extendsPrevious = run >= 0 && end(run) + 1 == value;
+            final boolean extendsNext = run + 1 < this.runCount && start(run + 1) == value + 1;
+            if (extendsPrevious && extendsNext) {
+                // The value joins two runs
+                setRun(run, start(run), end(run + 1));
+                deleteRun(run + 1);
+            } else if (extendsPrevious) {
+                setRun(run, start(run), value);
+            } else if (extendsNext) {
+                setRun(run + 1, value, end(run + 1));
+            } else {
+                insertRun(run + 1, value, value);
+            }
+            this.cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(final char value) {
+            final int run = floorRun(value);
+            if (run < 0 || value > end(run)) {
+                return this;
+            }
+            final int start = start(run);
+            final int end = end(run);
+            if (start == end) {
+                deleteRun(run);
+            } else if (value == start) {
+                setRun(run, start + 1, end);
+            } else if (value == end) {
+                setRun(run, start, end - 1);
+            } else {
+                // Split the run
+                setRun(run, start, value - 1);
+                insertRun(run + 1, value + 1, end);
+            }
+            this.cardinality--;
+            return this;
+        }
+
+        @Override
+        boolean contains(final char value) {
+            final int run = floorRun(value);
+            return run >= 0 && value <= end(run);
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        int ceiling(final char value) {
+            final int run = floorRun(value);
+            if (run >= 0 && value <= end(run)) {
+                return value;
+            }
+            return run + 1 < this.runCount ? start(run + 1) : -1;
+        }
+
+        @Override
+        void forEach(final int high, final IntConsumer consumer) {
+            for (int run = 0; run < this.runCount; run++) {
+                for (int value = start(run), end = end(run); value <= end; value++) {
+                    consumer.accept(high | value);
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(this.runs, Math.max(2, this.runCount * 2)), this.runCount,
+                                    this.cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 24 + 16 + this.runs.length * 2L;
+        }
+
+        @Override
+        Container optimize() {
+            return compact(this, this.runCount);
+        }
+
+        @Override
+        int runs() {
+            return this.runCount;
+        }
+
+        @Override
+        Container toArrayOrBitmap() {
+            if (this.cardinality <= ARRAY_MAX) {
+                final char[] values = new char[Math.max(4, this.cardinality)];
+                final int[] size = {0};
+                forEach(0, value -> values[size[0]++] = (char) value);
+                return new ArrayContainer(values, this.cardinality);
+            }
+            final BitmapContainer bitmap = new BitmapContainer();
+            for (int run = 0; run < this.runCount; run++) {
+                setRange(bitmap.words, start(run), end(run) + 1);
+            }
+            bitmap.cardinality = this.cardinality;
+            return bitmap;
+        }
+
+        /**
+         * Set the bits within start (inclusive) and end (exclusive), a word at a time
+         */
+        private static void setRange(final long[] words, final int start, final int end) {
+            final int first = start >>> 6;
+            final int last = (end - 1) >>> 6;
+            final long firstMask = -1L << start;
+            final long lastMask = -1L >>> -end;
+            if (first == last) {
+                words[first] |= firstMask & lastMask;
+                return;
+            }
+            words[first] |= firstMask;
+            for (int i = first + 1; i < last; i++) {
+                words[i] = -1L;
+            }
+            words[last] |= lastMask;
+        }
+    }
+
+    /**
+     * View of a {@link RoaringIntSet} as a {@link Collection} of Integers. Null is never contained and cannot be
+     * added. Bulk operations with another view combine the containers of both sets, other collections are
+     * converted to a {@link RoaringIntSet} first. Collections returned by the set algebra are views of new sets.
+     */
+    static final class CollectionView implements Collection<Integer> {
+
+        private final RoaringIntSet set;
+
+        CollectionView(final RoaringIntSet set) {
+            this.set = set;
+        }
+
+        /**
+         * Obtain the set of a collection of Integers, converting it if it is not a view
+         */
+        private static RoaringIntSet setOf(final Collection<Integer> collection) {
+            if (collection instanceof CollectionView) {
+                return ((CollectionView) collection).set;
+            }
+            final RoaringIntSet set = new RoaringIntSet();
+            for (final Integer value : collection) {
+                if (value != null) {
+                    set.add(value);
+                }
+            }
+            return set;
+        }
+
+        @Override
+        public void add(final Integer value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Does not support null types!");
+            }
+            this.set.add(value);
+        }
+
+        @Override
+        public boolean removeFirst(final Integer value) {
+            return remove(value);
+        }
+
+        @Override
+        public void addAll(final Collection<Integer> collection) {
+            if (collection instanceof CollectionView) {
+                this.set.assign(this.set.union(((CollectionView) collection).set));
+                return;
+            }
+            for (final Integer value : collection) {
+                add(value);
+            }
+        }
+
+        @Override
+        public void addAll(final Integer[] array) {
+            for (final Integer value : array) {
+                add(value);
+            }
+        }
+
+        @Override
+        public boolean remove(final Integer value) {
+            return value != null && this.set.remove(value);
+        }
+
+        @Override
+        public void removeAll(final Collection<Integer> collection) {
+            if (collection instanceof CollectionView) {
+                this.set.assign(this.set.difference(((CollectionView) collection).set));
+                return;
+            }
+            for (final Integer value : collection) {
+                remove(value);
+            }
+        }
+
+        @Override
+        public void removeAll(final Integer[] array) {
+            for (final Integer value : array) {
+                remove(value);
+            }
+        }
+
+        @Override
+        public void retainAll(final Collection<Integer> collection) {
+            this.set.assign(this.set.intersect(setOf(collection)));
+        }
+
+        @Override
+        public Collection<Integer> union(final Collection<Integer> collection) {
+            return new CollectionView(this.set.union(setOf(collection)));
+        }
+
+        @Override
+        public Collection<Integer> intersect(final Collection<Integer> collection) {
+            return new CollectionView(this.set.intersect(setOf(collection)));
+        }
+
+        @Override
+        public Collection<Integer> difference(final Collection<Integer> collection) {
+            return new CollectionView(this.set.difference(setOf(collection)));
+        }
+
+        @Override
+        public void clear() {
+            this.set.clear();
+        }
+
+        @Override
+        public boolean contains(final Integer value) {
+            return value != null && this.set.contains(value);
+        }
+
+        /**
+         * {@inheritDoc}
+         * Sets of more than {@link Integer#MAX_VALUE} integers report {@link Integer#MAX_VALUE}.
+         */
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, this.set.cardinality());
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return this.set.iterator();
+        }
+
+        @Override
+        public String toString() {
+            return this.set.toString();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package me.annoymized.datastructures;
+
+/**
+ * Portable scalar implementations of the {@link ArraySearch} scans, used on JDK 8 and as the fallback of the
+ * vectorized versions. The loops compare primitives only, the JIT compiler unrolls them.
+ */
+final class ScalarSearch {
+
+    private ScalarSearch() {
+        throw new UnsupportedOperationException();
+    }
+
+    static int indexOf(final int[] array, final int from, final int to, final int key) {
+        for (int i = from; i < to; i++) {
+            if (array[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int indexOf(final long[] array, final int from, final int to, final long key) {
+        for (int i = from; i < to; i++) {
+            if (array[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int indexOfEither(final int[] array, final int from, final int to, final int first, final int second) {
+        for (int i = from; i < to; i++) {
+            final int value = array[i];
+            if (value == first || value == second) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
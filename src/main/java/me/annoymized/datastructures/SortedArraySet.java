@@ -0,0 +1,691 @@
+package me.annoymized.datastructures;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Implementation of a set backed by a sorted array, for elements which are read far more often than they change.
+ * Lookups are binary searches over consecutive references instead of walks along nodes or bucket chains, and the
+ * set takes a single reference per element. Added and removed elements are first recorded in two small sorted
+ * write buffers, which hold about the square root of the size of the set, and merged into the array in bulk once
+ * either is full, so a write does not shift the whole array. Union, intersection and difference with another
+ * sorted set gallop over runs of elements instead of comparing them one by one, so they take O(m log(n / m))
+ * comparisons for inputs of very different sizes. Elements are ordered by a {@link Comparator} or their natural
+ * ordering, two elements are considered equal if they compare as equal.
+ * This class is not thread safe and by no means performs any concurrent modification checks.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public class SortedArraySet<T> implements Collection<T> {
+
+    private static final int MIN_BUFFER_CAPACITY = 16;
+    // Some VMs reserve header words in an array
+    private static final int MAXIMUM_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final Comparator<? super T> comparator;
+    private Object[] elements;
+    private int size;
+    // Sorted insertions which have not been merged yet, none of them is in the elements
+    private Object[] added;
+    private int addedCount;
+    // Sorted removals which have not been merged yet, all of them are in the elements
+    private Object[] removed;
+    private int removedCount;
+
+    /**
+     * Create a set ordered by the natural ordering of its elements, which must implement {@link Comparable}
+     */
+    @SuppressWarnings("unchecked")
+    public SortedArraySet() {
+        this((Comparator<? super T>) Comparator.naturalOrder());
+    }
+
+    /**
+     * @param comparator The comparator which orders the elements
+     */
+    public SortedArraySet(final Comparator<? super T> comparator) {
+        this(comparator, new Object[0], 0);
+    }
+
+    private SortedArraySet(final Comparator<? super T> comparator, final Object[] elements, final int size) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        this.comparator = comparator;
+        // Results of the set operations are sized for the worst case
+        this.elements = size < elements.length >> 1 ? Arrays.copyOf(elements, size) : elements;
+        this.size = size;
+        resizeBuffers();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The element is inserted into the write buffer, the buffers are merged into the array once one is full.
+     * Worst-Case Time Complexity = O(log n + sqrt(n)) amortized
+     *
+     * @throws IllegalArgumentException Thrown if the element is null
+     */
+    @Override
+    public void add(final T t) {
+        checkNotNull(t);
+        if (search(this.elements, 0, this.size, t) >= 0) {
+            // Revert a pending removal
+            final int index = search(this.removed, 0, this.removedCount, t);
+            if (index >= 0) {
+                System.arraycopy(this.removed, index + 1, this.removed, index, this.removedCount - index - 1);
+                this.removed[--this.removedCount] = null;
+            }
+            return;
+        }
+        if (insert(this.added, this.addedCount, t) && ++this.addedCount == this.added.length) {
+            flush();
+        }
+    }
+
+    /**
+     * Merge the write buffers into the array. Removed elements are cut out by copying the runs between them,
+     * added elements are inserted from the back so every element is moved at most once.
+     * Worst-Case Time Complexity = O(n + b log n), b = number of buffered writes
+     *
+     * @throws IllegalStateException Thrown if the number of elements exceeds the maximum capacity
+     */
+    public void flush() {
+        if (this.removedCount != 0) {
+            final Object[] elements = this.elements;
+            int read = 0;
+            int write = 0;
+            for (int r = 0; r < this.removedCount; r++) {
+                final int index = gallop(elements, read, this.size, this.removed[r]);
+                System.arraycopy(elements, read, elements, write, index - read);
+                write += index - read;
+                read = index + 1;
+            }
+            System.arraycopy(elements, read, elements, write, this.size - read);
+            write += this.size - read;
+            Arrays.fill(elements, write, this.size, null);
+            Arrays.fill(this.removed, 0, this.removedCount, null);
+            this.size = write;
+            this.removedCount = 0;
+        }
+        if (this.addedCount != 0) {
+            final int size = this.size + this.addedCount;
+            if (size > MAXIMUM_CAPACITY) {
+                throw new IllegalStateException("Set cannot hold " + Integer.toUnsignedString(size) + " elements");
+            }
+            if (size > this.elements.length) {
+                final long grown = Math.max(size, this.elements.length * 3L / 2);
+                this.elements = Arrays.copyOf(this.elements, (int) Math.min(MAXIMUM_CAPACITY, grown));
+            }
+            final Object[] elements = this.elements;
+            int end = this.size;
+            int write = size;
+            for (int a = this.addedCount - 1; a >= 0; a--) {
+                // Shift the run of elements greater than the added element, then place it in front of the run
+                final int insertion = -search(elements, 0, end, elementAt(this.added, a)) - 1;
+                write -= end - insertion;
+                System.arraycopy(elements, insertion, elements, write, end - insertion);
+                elements[--write] = this.added[a];
+                end = insertion;
+            }
+            Arrays.fill(this.added, 0, this.addedCount, null);
+            this.size = size;
+            this.addedCount = 0;
+        }
+        resizeBuffers();
+    }
+
+    /**
+     * {@inheritDoc}
+     * This is equivalent to {@link #remove(Object)} as the set holds every element at most once.
+     */
+    @Override
+    public boolean removeFirst(final T t) {
+        return remove(t);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The set grows at most once. Worst-Case Time Complexity = O(n + m log m), m = size of the collection
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null, no element is added in that case
+     */
+    @Override
+    public void addAll(final Collection<T> collection) {
+        flush();
+        final Sorted other = sorted(collection, true);
+        assign(union(this.elements, this.size, other.elements, other.size));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The set grows at most once. Worst-Case Time Complexity = O(n + m log m), m = length of the array
+     *
+     * @throws IllegalArgumentException Thrown if the array contains null, no element is added in that case
+     */
+    @Override
+    public void addAll(final T[] array) {
+        flush();
+        final Sorted other = sorted(array, array.length, true);
+        assign(union(this.elements, this.size, other.elements, other.size));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The removal is recorded in the write buffer, the buffers are merged into the array once one is full.
+     * Worst-Case Time Complexity = O(log n + sqrt(n)) amortized
+     */
+    @Override
+    public boolean remove(final T t) {
+        if (t == null) {
+            return false;
+        }
+        final int index = search(this.added, 0, this.addedCount, t);
+        if (index >= 0) {
+            System.arraycopy(this.added, index + 1, this.added, index, this.addedCount - index - 1);
+            this.added[--this.addedCount] = null;
+            return true;
+        }
+        if (search(this.elements, 0, this.size, t) < 0 || !insert(this.removed, this.removedCount, t)) {
+            return false;
+        }
+        if (++this.removedCount == this.removed.length) {
+            flush();
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m log m), m = size of the collection
+     */
+    @Override
+    public void removeAll(final Collection<T> collection) {
+        flush();
+        final Sorted other = sorted(collection, false);
+        assign(difference(this.elements, this.size, other.elements, other.size));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m log m), m = length of the array
+     */
+    @Override
+    public void removeAll(final T[] array) {
+        flush();
+        final Sorted other = sorted(array, array.length, false);
+        assign(difference(this.elements, this.size, other.elements, other.size));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m log m), m = size of the collection
+     */
+    @Override
+    public void retainAll(final Collection<T> collection) {
+        if (collection.size() == 0) {
+            clear();
+            return;
+        }
+        flush();
+        final Sorted other = sorted(collection, false);
+        assign(intersect(this.elements, this.size, other.elements, other.size));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m log m), m = size of the collection; O(n + m) if the collection is a
+     * {@link SortedArraySet} with the same ordering
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null
+     */
+    @Override
+    public SortedArraySet<T> union(final Collection<T> collection) {
+        flush();
+        final Sorted other = sorted(collection, true);
+        return union(this.elements, this.size, other.elements, other.size);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(m log(n / m)), m = size of the smaller set, if the collection is a
+     * {@link SortedArraySet} with the same ordering; otherwise O(m log m + m log(n / m)), m = size of the collection
+     */
+    @Override
+    public SortedArraySet<T> intersect(final Collection<T> collection) {
+        flush();
+        final Sorted other = sorted(collection, false);
+        return intersect(this.elements, this.size, other.elements, other.size);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n + m log m), m = size of the collection; O(n + m) if the collection is a
+     * {@link SortedArraySet} with the same ordering
+     */
+    @Override
+    public SortedArraySet<T> difference(final Collection<T> collection) {
+        flush();
+        final Sorted other = sorted(collection, false);
+        return difference(this.elements, this.size, other.elements, other.size);
+    }
+
+    /**
+     * Obtain the elements within a range, in a new set with the same ordering
+     * Worst-Case Time Complexity = O(log n + k), k = number of elements within the range
+     *
+     * @param from The lowest element of the range (inclusive)
+     * @param to   The highest element of the range (exclusive)
+     * @return Returns the set of the elements within the range
+     * @throws IllegalArgumentException Thrown if either bound is null or from is greater than to
+     */
+    public SortedArraySet<T> subSet(final T from, final T to) {
+        checkNotNull(from);
+        checkNotNull(to);
+        if (this.comparator.compare(from, to) > 0) {
+            throw new IllegalArgumentException("Invalid range: from is greater than to");
+        }
+        flush();
+        final int low = gallop(this.elements, 0, this.size, from);
+        final int high = gallop(this.elements, low, this.size, to);
+        return new SortedArraySet<>(this.comparator, Arrays.copyOfRange(this.elements, low, high), high - low);
+    }
+
+    /**
+     * Obtain the lowest element | Worst-Case Time Complexity = O(1) if no writes are buffered
+     *
+     * @return Returns the lowest element
+     * @throws NoSuchElementException Thrown if the set is empty
+     */
+    public T first() {
+        flush();
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elementAt(this.elements, 0);
+    }
+
+    /**
+     * Obtain the highest element | Worst-Case Time Complexity = O(1) if no writes are buffered
+     *
+     * @return Returns the highest element
+     * @throws NoSuchElementException Thrown if the set is empty
+     */
+    public T last() {
+        flush();
+        if (this.size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elementAt(this.elements, this.size - 1);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.elements, 0, this.size, null);
+        Arrays.fill(this.added, 0, this.addedCount, null);
+        Arrays.fill(this.removed, 0, this.removedCount, null);
+        this.size = 0;
+        this.addedCount = 0;
+        this.removedCount = 0;
+        resizeBuffers();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(log n)
+     */
+    @Override
+    public boolean contains(final T t) {
+        if (t == null) {
+            return false;
+        }
+        if (search(this.elements, 0, this.size, t) >= 0) {
+            return this.removedCount == 0 || search(this.removed, 0, this.removedCount, t) < 0;
+        }
+        return this.addedCount != 0 && search(this.added, 0, this.addedCount, t) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size + this.addedCount - this.removedCount;
+    }
+
+    /**
+     * Obtain the comparator which orders the elements
+     *
+     * @return Returns the comparator
+     */
+    public Comparator<? super T> comparator() {
+        return this.comparator;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The elements are returned in ascending order, the write buffers are merged first.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        flush();
+        return new ArrayIterator();
+    }
+
+    @Override
+    public String toString() {
+        flush();
+        return "SortedArraySet{" + "elements=" + Arrays.toString(Arrays.copyOf(this.elements, this.size))
+               + ", size=" + this.size + '}';
+    }
+
+    /**
+     * {@inheritDoc}
+     * The write buffers are merged first. Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     */
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        return removeWhere(filter) != 0;
+    }
+
+    /**
+     * Call an action with every element of this set in ascending order, without allocating an iterator. The
+     * write buffers are merged first. Worst-Case Time Complexity = O(n)
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        flush();
+        for (int i = 0; i < this.size; i++) {
+            action.accept(elementAt(this.elements, i));
+        }
+    }
+
+    /**
+     * Remove all elements which match a predicate. The remaining elements are moved forward in a single pass.
+     * Worst-Case Time Complexity = O(n)
+     *
+     * @param filter The predicate
+     * @return Returns the number of removed elements
+     */
+    int removeWhere(final Predicate<? super T> filter) {
+        flush();
+        final Object[] elements = this.elements;
+        int kept = 0;
+        for (int i = 0; i < this.size; i++) {
+            final T t = elementAt(elements, i);
+            if (!filter.test(t)) {
+                elements[kept++] = t;
+            }
+        }
+        final int removed = this.size - kept;
+        Arrays.fill(elements, kept, this.size, null);
+        this.size = kept;
+        return removed;
+    }
+
+    private SortedArraySet<T> union(final Object[] a, final int n, final Object[] b, final int m) {
+        if ((long) n + m > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Set cannot hold " + ((long) n + m) + " elements");
+        }
+        final Object[] result = new Object[n + m];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < n && j < m) {
+            // Copy the run of b below a[i], skip the element of b equal to a[i] so the instance of a is kept
+            int run = gallop(b, j, m, a[i]);
+            System.arraycopy(b, j, result, count, run - j);
+            count += run - j;
+            j = run;
+            if (j < m && compare(b[j], a[i]) == 0) {
+                j++;
+            }
+            // Copy the run of a below b[j], which includes a[i]
+            run = j < m ? gallop(a, i, n, b[j]) : n;
+            System.arraycopy(a, i, result, count, run - i);
+            count += run - i;
+            i = run;
+        }
+        System.arraycopy(a, i, result, count, n - i);
+        count += n - i;
+        System.arraycopy(b, j, result, count, m - j);
+        count += m - j;
+        return new SortedArraySet<>(this.comparator, result, count);
+    }
+
+    private SortedArraySet<T> intersect(final Object[] a, final int n, final Object[] b, final int m) {
+        final Object[] result = new Object[Math.min(n, m)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < n && j < m) {
+            j = gallop(b, j, m, a[i]);
+            if (j == m) {
+                break;
+            }
+            if (compare(a[i], b[j]) == 0) {
+                result[count++] = a[i++];
+                j++;
+            } else {
+                i = gallop(a, i + 1, n, b[j]);
+            }
+        }
+        return new SortedArraySet<>(this.comparator, result, count);
+    }
+
+    private SortedArraySet<T> difference(final Object[] a, final int n, final Object[] b, final int m) {
+        final Object[] result = new Object[n];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < n && j < m) {
+            j = gallop(b, j, m, a[i]);
+            if (j == m) {
+                break;
+            }
+            if (compare(a[i], b[j]) == 0) {
+                i++;
+                j++;
+            } else {
+                // Copy the run of a below b[j], none of which is in b
+                final int run = gallop(a, i + 1, n, b[j]);
+                System.arraycopy(a, i, result, count, run - i);
+                count += run - i;
+                i = run;
+            }
+        }
+        System.arraycopy(a, i, result, count, n - i);
+        count += n - i;
+        return new SortedArraySet<>(this.comparator, result, count);
+    }
+
+    /**
+     * Find the first index within a sorted range whose element is not less than a key. The search probes
+     * exponentially growing distances from the start of the range before it binary searches the last step,
+     * so it takes O(log d) comparisons, d = distance from the start to the result.
+     *
+     * @param array The sorted array
+     * @param from  The first index of the range (inclusive)
+     * @param to    The last index of the range (exclusive)
+     * @param key   The key
+     * @return Returns the index, or to if all elements of the range are less than the key
+     */
+    private int gallop(final Object[] array, final int from, final int to, final Object key) {
+        if (from >= to || compare(array[from], key) >= 0) {
+            return from;
+        }
+        // Invariant: array[low] < key
+        int low = from;
+        int step = 1;
+        while (step < to - low && compare(array[low + step], key) < 0) {
+            low += step;
+            step <<= 1;
+        }
+        int high = low + Math.min(step, to - low);
+        // Invariant: array[high] >= key or high == to
+        while (high - low > 1) {
+            final int middle = (low + high) >>> 1;
+            if (compare(array[middle], key) < 0) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int search(final Object[] array, final int from, final int to, final T key) {
+        return Arrays.binarySearch((T[]) array, from, to, key, this.comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(final Object a, final Object b) {
+        return this.comparator.compare((T) a, (T) b);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T elementAt(final Object[] array, final int index) {
+        return (T) array[index];
+    }
+
+    private void assign(final SortedArraySet<T> result) {
+        this.elements = result.elements;
+        this.size = result.size;
+        resizeBuffers();
+    }
+
+    /**
+     * Insert an element into a sorted buffer unless it holds the element already
+     *
+     * @param buffer The buffer, must have room for another element
+     * @param count  The number of elements in the buffer
+     * @param t      The element
+     * @return Returns true if the element was inserted, false otherwise
+     */
+    private boolean insert(final Object[] buffer, final int count, final T t) {
+        final int index = search(buffer, 0, count, t);
+        if (index >= 0) {
+            return false;
+        }
+        final int insertion = -index - 1;
+        System.arraycopy(buffer, insertion, buffer, insertion + 1, count - insertion);
+        buffer[insertion] = t;
+        return true;
+    }
+
+    /**
+     * Size the empty write buffers to the square root of the size, which balances shifting a buffer on every
+     * write against merging into the array every few writes
+     */
+    private void resizeBuffers() {
+        final int capacity = Math.max(MIN_BUFFER_CAPACITY, (int) Math.sqrt(this.size));
+        if (this.added == null || this.added.length != capacity) {
+            this.added = new Object[capacity];
+            this.removed = new Object[capacity];
+        }
+    }
+
+    /**
+     * Obtain the elements of a collection sorted by the ordering of this set, without duplicates. The elements
+     * of a {@link SortedArraySet} with the same ordering are used as they are.
+     *
+     * @param collection The collection
+     * @param rejectNull True to throw if the collection contains null, false to skip null
+     * @return Returns the sorted elements
+     */
+    private Sorted sorted(final Collection<T> collection, final boolean rejectNull) {
+        if (collection instanceof SortedArraySet) {
+            final SortedArraySet<T> other = (SortedArraySet<T>) collection;
+            if (other.comparator.equals(this.comparator)) {
+                other.flush();
+                return new Sorted(other.elements, other.size);
+            }
+        }
+        final Object[] array = new Object[collection.size()];
+        int length = 0;
+        for (final T t : collection) {
+            array[length++] = t;
+        }
+        return sorted(array, length, rejectNull);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Sorted sorted(final Object[] array, final int length, final boolean rejectNull) {
+        final Object[] copy = new Object[length];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (array[i] != null) {
+                copy[count++] = array[i];
+            } else if (rejectNull) {
+                throw new IllegalArgumentException("Does not support null types!");
+            }
+        }
+        Arrays.sort((T[]) copy, 0, count, this.comparator);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || compare(copy[distinct - 1], copy[i]) != 0) {
+                copy[distinct++] = copy[i];
+            }
+        }
+        return new Sorted(copy, distinct);
+    }
+
+    private static void checkNotNull(final Object element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+    }
+
+    /**
+     * Sorted elements without duplicates, in the first size slots of an array.
+     */
+    private static final class Sorted {
+
+        private final Object[] elements;
+        private final int size;
+
+        private Sorted(final Object[] elements, final int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Iterator implementation over the merged array which moves its cursor back when the last returned element
+     * is removed.
+     */
+    private final class ArrayIterator implements Iterator<T> {
+
+        private int cursor;
+        private int last = -1;
+
+        @Override
+        public boolean hasNext() {
+            return this.cursor < SortedArraySet.this.size;
+        }
+
+        @Override
+        public T next() {
+            if (this.cursor >= SortedArraySet.this.size) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.cursor++;
+            return elementAt(SortedArraySet.this.elements, this.last);
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == -1) {
+                throw new IllegalStateException();
+            }
+            final Object[] elements = SortedArraySet.this.elements;
+            System.arraycopy(elements, this.last + 1, elements, this.last, SortedArraySet.this.size - this.last - 1);
+            elements[--SortedArraySet.this.size] = null;
+            this.cursor = this.last;
+            this.last = -1;
+        }
+    }
+}
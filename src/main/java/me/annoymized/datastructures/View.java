@@ -0,0 +1,597 @@
+package me.annoymized.datastructures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * A lazy view over the elements of an {@link Iterable}, obtained with {@link ReadableCollection#view()} or
+ * {@link #of(Iterable)}. Filtering, mapping, concatenating or limiting a view returns a new view and copies nothing,
+ * the stages run when the view is traversed, so every traversal sees the current elements of the source. Elements
+ * are only copied by an explicit {@link #into(Collection)} or {@link #toArray(IntFunction)}.
+ * <pre>{@code
+ * final LinkedList<String> names = users.view()
+ *         .filter(User::isActive)
+ *         .map(User::getName)
+ *         .limit(10)
+ *         .into(new LinkedList<>());
+ * }</pre>
+ * Adjacent stages of the same kind are fused into one stage: two filters test one combined predicate, two mappings
+ * apply one composed function and two limits keep the smaller one. {@link #forEach(Consumer)} pushes the elements
+ * through the stages with the allocation free traversal of the source and allocates per traversal, not per element,
+ * the {@link #iterator()} pulls them through one iterator per stage. A limited view stops traversing its source once
+ * the limit is reached. A view has no methods which modify its source. This class is not thread safe.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public abstract class View<T> implements ReadableCollection<T> {
+
+    View() {
+    }
+
+    /**
+     * Obtain a view over the elements of an iterable
+     *
+     * @param source The iterable, i.e. a {@link Collection}
+     * @param <T>    A generic type, can be anything.
+     * @return Returns the iterable if it is a view, a new view otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> View<T> of(final Iterable<? extends T> source) {
+        // A view never passes elements into its source, so a view of a subtype is a view of T
+        if (source instanceof View) {
+            return (View<T>) source;
+        }
+        return new Source<>((Iterable<T>) source);
+    }
+
+    /**
+     * Obtain a view of the elements of this view which match a predicate. {@link #contains(Object)} of the filtered
+     * view asks this view and tests the predicate on the argument, so a filtered view of a set answers with the
+     * set's lookup. The predicate should therefore only depend on state which equals compares, otherwise contains
+     * may disagree with a traversal of the view. Worst-Case Time Complexity = O(1)
+     *
+     * @param predicate The predicate, elements for which it returns true are kept
+     * @return Returns the filtered view
+     */
+    public View<T> filter(final Predicate<? super T> predicate) {
+        return new Filter<>(this, predicate);
+    }
+
+    /**
+     * Obtain a view of the results of applying a function to the elements of this view, the function is applied
+     * on every traversal. Worst-Case Time Complexity = O(1)
+     *
+     * @param mapper The function
+     * @param <R>    The type of the results
+     * @return Returns the mapped view
+     */
+    public <R> View<R> map(final Function<? super T, ? extends R> mapper) {
+        return new Mapped<>(this, mapper);
+    }
+
+    /**
+     * Obtain a view of the elements of this view followed by the elements of an iterable
+     * Worst-Case Time Complexity = O(k), k = number of concatenated views
+     *
+     * @param other The iterable, i.e. a {@link Collection} or another view
+     * @return Returns the concatenated view
+     */
+    public View<T> concat(final Iterable<? extends T> other) {
+        return new Concat<>(this, of(other));
+    }
+
+    /**
+     * Obtain a view of the first elements of this view
+     * Worst-Case Time Complexity = O(1)
+     *
+     * @param maxSize The maximum number of elements
+     * @return Returns the limited view
+     * @throws IllegalArgumentException Thrown if the maximum is negative
+     */
+    public View<T> limit(final int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Invalid limit: " + maxSize);
+        }
+        return new Limit<>(this, maxSize);
+    }
+
+    /**
+     * Add the elements of this view to a collection, this is the only way a view copies its elements
+     * Worst-Case Time Complexity = O(n), excluding the cost of the stages and of adding
+     *
+     * @param target The collection to add to
+     * @param <C>    The type of the collection
+     * @return Returns the collection
+     */
+    public <C extends Collection<? super T>> C into(final C target) {
+        forEach(target::add);
+        return target;
+    }
+
+    /**
+     * Copy the elements of this view to a new array, traversing the view once
+     * Worst-Case Time Complexity = O(n), excluding the cost of the stages
+     *
+     * @param generator Creates an array of a given length, i.e. {@code Integer[]::new}
+     * @return Returns the array
+     */
+    public T[] toArray(final IntFunction<T[]> generator) {
+        final Buffer<T> buffer = new Buffer<>();
+        forEach(buffer);
+        final T[] array = generator.apply(buffer.size);
+        System.arraycopy(buffer.elements, 0, array, 0, buffer.size);
+        return array;
+    }
+
+    /**
+     * Call an action with every element of this view, traversing the source without an iterator where it supports it
+     * Worst-Case Time Complexity = O(n), excluding the cost of the stages
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        forEachWhile(t -> {
+            action.accept(t);
+            return true;
+        });
+    }
+
+    /**
+     * Call an action with the elements of this view until it returns false
+     *
+     * @param action The action, returns false to stop the traversal
+     * @return Returns false if the action stopped the traversal, true otherwise
+     */
+    abstract boolean forEachWhile(Predicate<? super T> action);
+
+    /**
+     * {@inheritDoc}
+     * The elements are compared with {@link Object#equals(Object)}, views of a collection ask the collection. A
+     * filtered view asks its upstream view and tests the predicate on the argument, see {@link #filter(Predicate)}.
+     * Worst-Case Time Complexity = O(n), excluding the cost of the stages
+     */
+    @Override
+    public boolean contains(final T t) {
+        return !forEachWhile(element -> !Objects.equals(element, t));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Views which filter or limit their source count their elements by traversing it.
+     * Worst-Case Time Complexity = O(n), excluding the cost of the stages
+     */
+    @Override
+    public int size() {
+        final int[] count = {0};
+        forEach(t -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Check whether this view has no elements, traversing at most to the first element
+     *
+     * @return Returns true if there are no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return forEachWhile(t -> false);
+    }
+
+    /**
+     * @return Returns this view
+     */
+    @Override
+    public View<T> view() {
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        final Buffer<T> buffer = new Buffer<>();
+        forEach(buffer);
+        return Arrays.toString(Arrays.copyOf(buffer.elements, buffer.size));
+    }
+
+    /**
+     * The first stage, the elements of an iterable
+     */
+    private static final class Source<T> extends View<T> {
+
+        private final Iterable<T> source;
+
+        Source(final Iterable<T> source) {
+            this.source = source;
+        }
+
+        @Override
+        public void forEach(final Consumer<? super T> action) {
+            this.source.forEach(action);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean forEachWhile(final Predicate<? super T> action) {
+            if (this.source instanceof Collection) {
+                final Cursor<T> cursor = ((Collection<T>) this.source).cursor();
+                while (cursor.advance()) {
+                    if (!action.test(cursor.get())) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            for (final T t : this.source) {
+                if (!action.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(final T t) {
+            if (this.source instanceof ReadableCollection) {
+                return ((ReadableCollection<T>) this.source).contains(t);
+            }
+            return super.contains(t);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int size() {
+            if (this.source instanceof ReadableCollection) {
+                return ((ReadableCollection<T>) this.source).size();
+            }
+            return super.size();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return this.source.iterator();
+        }
+    }
+
+    private static final class Filter<T> extends View<T> {
+
+        private final View<T> upstream;
+        private final Predicate<? super T> predicate;
+
+        Filter(final View<T> upstream, final Predicate<? super T> predicate) {
+            this.upstream = upstream;
+            this.predicate = predicate;
+        }
+
+        /**
+         * {@inheritDoc}
+         * The predicates are fused into one stage.
+         */
+        @Override
+        public View<T> filter(final Predicate<? super T> next) {
+            final Predicate<? super T> first = this.predicate;
+            return new Filter<>(this.upstream, t -> first.test(t) && next.test(t));
+        }
+
+        @Override
+        public void forEach(final Consumer<? super T> action) {
+            this.upstream.forEach(t -> {
+                if (this.predicate.test(t)) {
+                    action.accept(t);
+                }
+            });
+        }
+
+        @Override
+        boolean forEachWhile(final Predicate<? super T> action) {
+            return this.upstream.forEachWhile(t -> !this.predicate.test(t) || action.test(t));
+        }
+
+        @Override
+        public boolean contains(final T t) {
+            // Asks the upstream view, which is a hash lookup if it is the view of a set
+            return this.upstream.contains(t) && this.predicate.test(t);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new FilterIterator<>(this.upstream.iterator(), this.predicate);
+        }
+    }
+
+    private static final class Mapped<S, T> extends View<T> {
+
+        private final View<S> upstream;
+        private final Function<? super S, ? extends T> mapper;
+
+        Mapped(final View<S> upstream, final Function<? super S, ? extends T> mapper) {
+            this.upstream = upstream;
+            this.mapper = mapper;
+        }
+
+        /**
+         * {@inheritDoc}
+         * The functions are fused into one stage.
+         */
+        @Override
+        public <R> View<R> map(final Function<? super T, ? extends R> next) {
+            final Function<? super S, ? extends T> first = this.mapper;
+            return new Mapped<S, R>(this.upstream, s -> next.apply(first.apply(s)));
+        }
+
+        @Override
+        public void forEach(final Consumer<? super T> action) {
+            this.upstream.forEach(s -> action.accept(this.mapper.apply(s)));
+        }
+
+        @Override
+        boolean forEachWhile(final Predicate<? super T> action) {
+            return this.upstream.forEachWhile(s -> action.test(this.mapper.apply(s)));
+        }
+
+        @Override
+        public int size() {
+            return this.upstream.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return this.upstream.isEmpty();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final Iterator<S> iterator = this.upstream.iterator();
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return Mapped.this.mapper.apply(iterator.next());
+                }
+            };
+        }
+    }
+
+    private static final class Concat<T> extends View<T> {
+
+        private final View<T>[] parts;
+
+        Concat(final View<T> first, final View<T> second) {
+            this(partsOf(first), second);
+        }
+
+        /**
+         * Get the parts of a view, so that concatenating a concatenation appends to its parts instead of nesting it
+         */
+        @SuppressWarnings("unchecked")
+        private static <T> View<T>[] partsOf(final View<T> view) {
+            return view instanceof Concat ? ((Concat<T>) view).parts : (View<T>[]) new View<?>[]{view};
+        }
+
+        private Concat(final View<T>[] parts, final View<T> next) {
+            this.parts = Arrays.copyOf(parts, parts.length + 1);
+            this.parts[parts.length] = next;
+        }
+
+        /**
+         * {@inheritDoc}
+         * The views are fused into one stage.
+         */
+        @Override
+        public View<T> concat(final Iterable<? extends T> other) {
+            return new Concat<>(this.parts, of(other));
+        }
+
+        @Override
+        public void forEach(final Consumer<? super T> action) {
+            for (final View<T> part : this.parts) {
+                part.forEach(action);
+            }
+        }
+
+        @Override
+        boolean forEachWhile(final Predicate<? super T> action) {
+            for (final View<T> part : this.parts) {
+                if (!part.forEachWhile(action)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean contains(final T t) {
+            for (final View<T> part : this.parts) {
+                if (part.contains(t)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            int size = 0;
+            for (final View<T> part : this.parts) {
+                size += part.size();
+            }
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int part;
+                private Iterator<T> iterator = Concat.this.parts[0].iterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!this.iterator.hasNext() && this.part + 1 < Concat.this.parts.length) {
+                        this.iterator = Concat.this.parts[++this.part].iterator();
+                    }
+                    return this.iterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return this.iterator.next();
+                }
+            };
+        }
+    }
+
+    private static final class Limit<T> extends View<T> {
+
+        private final View<T> upstream;
+        private final int maxSize;
+
+        Limit(final View<T> upstream, final int maxSize) {
+            this.upstream = upstream;
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * {@inheritDoc}
+         * The limits are fused into one stage.
+         */
+        @Override
+        public View<T> limit(final int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("Invalid limit: " + maxSize);
+            }
+            return new Limit<>(this.upstream, Math.min(this.maxSize, maxSize));
+        }
+
+        @Override
+        boolean forEachWhile(final Predicate<? super T> action) {
+            if (this.maxSize == 0) {
+                return true;
+            }
+            final LimitSink<T> sink = new LimitSink<>(action, this.maxSize);
+            this.upstream.forEachWhile(sink);
+            return !sink.stopped;
+        }
+
+        @Override
+        public int size() {
+            if (this.maxSize == 0) {
+                return 0;
+            }
+            final LimitSink<T> sink = new LimitSink<>(t -> true, this.maxSize);
+            this.upstream.forEachWhile(sink);
+            return this.maxSize - sink.remaining;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final Iterator<T> iterator = this.upstream.iterator();
+            return new Iterator<T>() {
+                private int remaining = Limit.this.maxSize;
+
+                @Override
+                public boolean hasNext() {
+                    return this.remaining > 0 && iterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    if (this.remaining <= 0) {
+                        throw new NoSuchElementException();
+                    }
+                    this.remaining--;
+                    return iterator.next();
+                }
+            };
+        }
+    }
+
+    /**
+     * Passes elements to an action until it returns false or the limit is reached, in which case the traversal of
+     * the upstream view is stopped as well
+     */
+    private static final class LimitSink<T> implements Predicate<T> {
+
+        private final Predicate<? super T> action;
+        private int remaining;
+        private boolean stopped;
+
+        LimitSink(final Predicate<? super T> action, final int maxSize) {
+            this.action = action;
+            this.remaining = maxSize;
+        }
+
+        @Override
+        public boolean test(final T t) {
+            if (!this.action.test(t)) {
+                this.stopped = true;
+                return false;
+            }
+            return --this.remaining > 0;
+        }
+    }
+
+    private static final class FilterIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> iterator;
+        private final Predicate<? super T> predicate;
+        private T next;
+        private boolean hasNext;
+
+        FilterIterator(final Iterator<T> iterator, final Predicate<? super T> predicate) {
+            this.iterator = iterator;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.hasNext && this.iterator.hasNext()) {
+                final T t = this.iterator.next();
+                if (this.predicate.test(t)) {
+                    this.next = t;
+                    this.hasNext = true;
+                }
+            }
+            return this.hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final T t = this.next;
+            this.next = null;
+            this.hasNext = false;
+            return t;
+        }
+    }
+
+    /**
+     * Collects the elements of a traversal of unknown length
+     */
+    private static final class Buffer<T> implements Consumer<T> {
+
+        private Object[] elements = new Object[16];
+        private int size;
+
+        @Override
+        public void accept(final T t) {
+            if (this.size == this.elements.length) {
+                this.elements = Arrays.copyOf(this.elements, this.size * 2);
+            }
+            this.elements[this.size++] = t;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package me.annoymized.datastructures;
+
+/**
+ * Window TinyLFU eviction. New entries are admitted to a small LRU window (1% of the capacity). Entries
+ * leaving the window enter the probation segment of the main space (a segmented LRU), where they compete
+ * with the probation segment's LRU entry: whichever was accessed less often according to a
+ * {@link FrequencySketch} is evicted. Entries accessed while on probation are promoted to the protected
+ * segment (80% of the main space).
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+class WindowTinyLfuPolicy<K, V> implements EvictionPolicy<K, V> {
+
+    private static final byte WINDOW = 0;
+    private static final byte PROBATION = 1;
+    private static final byte PROTECTED = 2;
+
+    private final LinkedList<BoundedCache.Entry<K, V>> window = new LinkedList<>();
+    private final LinkedList<BoundedCache.Entry<K, V>> probation = new LinkedList<>();
+    private final LinkedList<BoundedCache.Entry<K, V>> protectedSegment = new LinkedList<>();
+    private final FrequencySketch sketch;
+    private final int maxWindow;
+    private final int maxProtected;
+
+    /**
+     * @param capacity The capacity of the cache
+     */
+    WindowTinyLfuPolicy(final int capacity) {
+        this.maxWindow = Math.max(1, capacity / 100);
+        this.maxProtected = Math.max(1, (int) ((capacity - this.maxWindow) * 0.8));
+        this.sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    public void onInsert(final BoundedCache.Entry<K, V> entry) {
+        this.sketch.increment(entry.hash);
+        append(this.window, entry, WINDOW);
+        if (this.window.size() > this.maxWindow) {
+            // The window's LRU entry becomes the admission candidate at the tail of the probation segment
+            final BoundedCache.Entry<K, V> candidate = this.window.firstNode().getValue();
+            this.window.removeNode(candidate.node);
+            append(this.probation, candidate, PROBATION);
+        }
+    }
+
+    @Override
+    public void onAccess(final BoundedCache.Entry<K, V> entry) {
+        this.sketch.increment(entry.hash);
+        switch (entry.segment) {
+            case WINDOW:
+                this.window.moveToTail(entry.node);
+                break;
+            case PROBATION:
+                // Promote, demoting the protected segment's LRU entry if it is full
+                this.probation.removeNode(entry.node);
+                append(this.protectedSegment, entry, PROTECTED);
+                if (this.protectedSegment.size() > this.maxProtected) {
+                    final BoundedCache.Entry<K, V> demoted = this.protectedSegment.firstNode().getValue();
+                    this.protectedSegment.removeNode(demoted.node);
+                    append(this.probation, demoted, PROBATION);
+                }
+                break;
+            default:
+                this.protectedSegment.moveToTail(entry.node);
+                break;
+        }
+    }
+
+    @Override
+    public void onRemove(final BoundedCache.Entry<K, V> entry) {
+        segment(entry.segment).removeNode(entry.node);
+        entry.node = null;
+    }
+
+    @Override
+    public BoundedCache.Entry<K, V> evict() {
+        // The most recent arrival on probation competes against the least recent one
+        final BoundedCache.Entry<K, V> candidate = valueOf(this.probation.lastNode());
+        BoundedCache.Entry<K, V> victim = valueOf(this.probation.firstNode());
+        if (victim == candidate) {
+            victim = valueOf(this.protectedSegment.firstNode());
+        }
+        if (victim == null) {
+            victim = valueOf(this.window.firstNode());
+        }
+        final BoundedCache.Entry<K, V> evicted;
+        if (candidate == null) {
+            evicted = victim;
+        } else if (victim == null) {
+            evicted = candidate;
+        } else {
+            // Ties favour the entry already in the main space
+            evicted = this.sketch.frequency(candidate.hash) > this.sketch.frequency(victim.hash) ? victim : candidate;
+        }
+        onRemove(evicted);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        this.window.clear();
+        this.probation.clear();
+        this.protectedSegment.clear();
+        this.sketch.clear();
+    }
+
+    private void append(final LinkedList<BoundedCache.Entry<K, V>> list, final BoundedCache.Entry<K, V> entry,
+                        final byte segment) {
+        entry.node = list.addNode(entry);
+        entry.segment = segment;
+    }
+
+    private LinkedList<BoundedCache.Entry<K, V>> segment(final byte segment) {
+        switch (segment) {
+            case WINDOW:
+                return this.window;
+            case PROBATION:
+                return this.probation;
+            default:
+                return this.protectedSegment;
+        }
+    }
+
+    private static <E> E valueOf(final LinkedList.Node<E> node) {
+        return node == null ? null : node.getValue();
+    }
+}
@@ -8,6 +8,7 @@ import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.SplittableRandom;
 import java.util.concurrent.TimeUnit;
@@ -115,6 +116,17 @@ public class ArrayBenchmark {
         }
     }
 
+    /**
+     * Test traversing all elements of an array
+     */
+    @Benchmark
+    public void testIterate(final ContainsState state, final Blackhole blackhole) {
+        // Worst-Case Time Complexity = O(n)
+        for (int index = 0; index < state.collection.length; index++) {
+            blackhole.consume(state.collection[index]);
+        }
+    }
+
 
     /**
      * Data values generated for each test
@@ -1,6 +1,7 @@
 package me.annoymized.datastructures.benchmark;
 
 import me.annoymized.datastructures.Collection;
+import me.annoymized.datastructures.Cursor;
 import me.annoymized.datastructures.Main;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.CompilerControl;
@@ -9,6 +10,7 @@ import org.openjdk.jmh.annotations.OutputTimeUnit;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.SplittableRandom;
 import java.util.concurrent.TimeUnit;
@@ -54,6 +56,36 @@ public class BaseBenchmark {
         }
     }
 
+    /**
+     * Test traversing all elements of a collection with an iterator
+     */
+    @Benchmark
+    public void testIterate(final ContainsState state, final Blackhole blackhole) {
+        for (final Integer i : state.collection) {
+            blackhole.consume(i);
+        }
+    }
+
+    /**
+     * Test traversing all elements of a collection with {@link Collection#forEach}
+     */
+    @Benchmark
+    public void testForEach(final ContainsState state, final Blackhole blackhole) {
+        state.collection.forEach(blackhole::consume);
+    }
+
+    /**
+     * Test traversing all elements of a collection with a reused {@link Cursor}
+     */
+    @Benchmark
+    public void testCursor(final ContainsState state, final Blackhole blackhole) {
+        final Cursor<Integer> cursor = state.cursor;
+        cursor.reset();
+        while (cursor.advance()) {
+            blackhole.consume(cursor.get());
+        }
+    }
+
 
     /**
      * Data values generated for each test
@@ -66,10 +98,12 @@ public class BaseBenchmark {
         public Integer[] initialStateReversed;
 
         public Collection<Integer> collection;
+        public Cursor<Integer> cursor;
 
         @Setup(Level.Trial)
         public void init(final Main.BaseValues values) {
             this.collection = values.newCollection();
+            this.cursor = this.collection.cursor();
             // Use a splittable random so we can generate values in a parallel manner.
             final SplittableRandom random = new SplittableRandom();
 
@@ -0,0 +1,86 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.BoundedCache;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link BoundedCache} replaying a Zipfian trace of keys. Each invocation replays the whole
+ * trace against a cache which keeps its content between invocations; misses load the key into the cache.
+ * The "hits" and "misses" counters report the totals of each iteration, hit rate = hits / (hits + misses).
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar CacheBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CacheBenchmark {
+
+    /**
+     * Test replaying the trace, loading every missed key
+     */
+    @Benchmark
+    public void testReplay(final CacheState state, final Counters counters) {
+        final BoundedCache<Integer, Integer> cache = state.cache;
+        final long hits = cache.hitCount();
+        final long misses = cache.missCount();
+        for (final Integer key : state.trace) {
+            if (cache.get(key) == null) {
+                cache.put(key, key);
+            }
+        }
+        counters.hits += cache.hitCount() - hits;
+        counters.misses += cache.missCount() - misses;
+    }
+
+
+    /**
+     * Hit and miss totals of an iteration.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+
+        public long hits;
+        public long misses;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.hits = 0;
+            this.misses = 0;
+        }
+    }
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class CacheState {
+
+        public Integer[] trace;
+        public BoundedCache<Integer, Integer> cache;
+
+        @Setup(Level.Trial)
+        public void init(final Main.CacheValues values) {
+            final ZipfianGenerator generator = new ZipfianGenerator(values.keySpace, values.skew);
+            this.trace = generator.trace(values.traceLength, new SplittableRandom(values.keySpace));
+            this.cache = values.newCache();
+        }
+    }
+
+}
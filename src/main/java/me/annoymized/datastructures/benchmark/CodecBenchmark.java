@@ -0,0 +1,148 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.Collection;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.io.CollectionCodec;
+import me.annoymized.datastructures.io.ElementCodec;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmark for {@link CollectionCodec}. Unlike the other benchmarks the JIT compiler
+ * is enabled as we are interested in the sustained throughput. The "megabytes" counter reports
+ * the throughput in MB/s.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar CodecBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CodecBenchmark {
+
+    /**
+     * Test writing the collection to a channel which discards all bytes
+     */
+    @Benchmark
+    public long testWrite(final CodecState state, final Throughput throughput) throws IOException {
+        final long bytes = state.codec.write(state.collection, state.sink);
+        throughput.megabytes += bytes / 1_000_000D;
+        return bytes;
+    }
+
+    /**
+     * Test reading the collection from an in-memory channel
+     */
+    @Benchmark
+    public int testRead(final CodecState state, final Throughput throughput) throws IOException {
+        state.target.clear();
+        final int read = state.codec.read(Channels.newChannel(new ByteArrayInputStream(state.encoded)), state.target);
+        throughput.megabytes += state.encoded.length / 1_000_000D;
+        return read;
+    }
+
+
+    /**
+     * Counter reported alongside the operations per second, JMH reports it as a rate (MB/s).
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput {
+
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.megabytes = 0;
+        }
+    }
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class CodecState {
+
+        public CollectionCodec<Object> codec;
+        public Collection<Object> collection;
+        public Collection<Object> target;
+        public byte[] encoded;
+        public final WritableByteChannel sink = new NullChannel();
+
+        @Setup(Level.Trial)
+        @SuppressWarnings("unchecked")
+        public void init(final Main.CodecValues values) throws IOException {
+            this.codec = new CollectionCodec<>((ElementCodec<Object>) values.elementCodec(), values.bufferSize);
+            this.collection = values.newCollection();
+            this.target = values.newCollection();
+            final SplittableRandom random = new SplittableRandom();
+            for (int i = 0; i < values.collectionSize; i++) {
+                this.collection.add(randomElement(values.element, random));
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            this.codec.write(this.collection, Channels.newChannel(out));
+            this.encoded = out.toByteArray();
+        }
+
+        private static Object randomElement(final String type, final SplittableRandom random) {
+            switch (type) {
+                case "Integer":
+                    return random.nextInt();
+                case "Long":
+                    return random.nextLong();
+                case "String":
+                    // 8 to 32 characters, mostly ASCII with the occasional two byte character
+                    final char[] chars = new char[random.nextInt(8, 33)];
+                    for (int i = 0; i < chars.length; i++) {
+                        chars[i] = random.nextInt(16) == 0 ? (char) random.nextInt(0x80, 0x800)
+                                                           : (char) random.nextInt('a', 'z' + 1);
+                    }
+                    return new String(chars);
+                default:
+                    throw new IllegalArgumentException("Unknown element type: " + type);
+            }
+        }
+    }
+
+    /**
+     * Channel which discards everything written to it.
+     */
+    private static class NullChannel implements WritableByteChannel {
+
+        @Override
+        public int write(final ByteBuffer src) {
+            final int bytes = src.remaining();
+            src.position(src.limit());
+            return bytes;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}
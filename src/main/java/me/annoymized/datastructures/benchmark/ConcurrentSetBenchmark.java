@@ -0,0 +1,213 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.BPlusTree;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.concurrent.LongSkipListSet;
+import me.annoymized.datastructures.concurrent.SkipListSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded benchmark for ordered sets: the {@link SkipListSet} and the {@link LongSkipListSet} compared to the
+ * {@link ConcurrentSkipListSet} of the JDK and to a {@link BPlusTree} guarded by a lock. {@link #THREADS} threads
+ * share one set holding half of the keys below twice its size. Every operation looks up a key with the probability
+ * {@link Main.ConcurrentSetValues#readRatio}, otherwise it adds or removes it with equal probability, so the size
+ * stays about the same. The JIT compiler is enabled, the results are only meaningful with at least as many cores as
+ * threads.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar ConcurrentSetBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Threads(ConcurrentSetBenchmark.THREADS)
+public class ConcurrentSetBenchmark {
+
+    static final int THREADS = 4;
+    // The number of pre-generated operations every thread cycles through
+    private static final int OPERATIONS = 1 << 16;
+
+    /**
+     * Test a mix of lookups and writes
+     */
+    @Benchmark
+    public boolean testMix(final SetState state, final ThreadState thread) {
+        final int index = thread.next();
+        switch (thread.operations[index]) {
+            case ThreadState.CONTAINS:
+                return state.set.contains(thread.keys[index]);
+            case ThreadState.ADD:
+                return state.set.add(thread.keys[index]);
+            default:
+                return state.set.remove(thread.keys[index]);
+        }
+    }
+
+
+    /**
+     * The set shared by all threads
+     */
+    @State(Scope.Benchmark)
+    public static class SetState {
+
+        public OrderedSet set;
+
+        @Setup(Level.Trial)
+        public void init(final Main.ConcurrentSetValues values) {
+            this.set = OrderedSet.of(values.collection);
+            final SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < values.collectionSize * 2; i++) {
+                if (random.nextBoolean()) {
+                    this.set.add(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Operations and keys of a thread, each thread draws its own sequence
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        static final byte CONTAINS = 0;
+        static final byte ADD = 1;
+        static final byte REMOVE = 2;
+
+        public byte[] operations;
+        public long[] keys;
+        private int cursor;
+
+        @Setup(Level.Trial)
+        public void init(final Main.ConcurrentSetValues values) {
+            final SplittableRandom random = new SplittableRandom(System.identityHashCode(this));
+            this.operations = new byte[OPERATIONS];
+            this.keys = new long[OPERATIONS];
+            for (int i = 0; i < OPERATIONS; i++) {
+                if (random.nextDouble() < values.readRatio) {
+                    this.operations[i] = CONTAINS;
+                } else {
+                    this.operations[i] = random.nextBoolean() ? ADD : REMOVE;
+                }
+                this.keys[i] = random.nextInt(values.collectionSize * 2);
+            }
+        }
+
+        int next() {
+            return this.cursor++ & OPERATIONS - 1;
+        }
+    }
+
+    /**
+     * Common view of the benchmarked sets. Only one implementation is loaded per fork, so the calls are inlined.
+     */
+    public abstract static class OrderedSet {
+
+        static OrderedSet of(final String name) {
+            switch (name) {
+                case "SkipListSet":
+                    return new OrderedSet() {
+                        private final SkipListSet<Long> set = new SkipListSet<>();
+
+                        @Override
+                        boolean contains(final long key) {
+                            return this.set.contains(key);
+                        }
+
+                        @Override
+                        boolean add(final long key) {
+                            return this.set.addIfAbsent(key);
+                        }
+
+                        @Override
+                        boolean remove(final long key) {
+                            return this.set.remove(key);
+                        }
+                    };
+                case "LongSkipListSet":
+                    return new OrderedSet() {
+                        private final LongSkipListSet set = new LongSkipListSet();
+
+                        @Override
+                        boolean contains(final long key) {
+                            return this.set.contains(key);
+                        }
+
+                        @Override
+                        boolean add(final long key) {
+                            return this.set.add(key);
+                        }
+
+                        @Override
+                        boolean remove(final long key) {
+                            return this.set.remove(key);
+                        }
+                    };
+                case "ConcurrentSkipListSet":
+                    return new OrderedSet() {
+                        private final ConcurrentSkipListSet<Long> set = new ConcurrentSkipListSet<>();
+
+                        @Override
+                        boolean contains(final long key) {
+                            return this.set.contains(key);
+                        }
+
+                        @Override
+                        boolean add(final long key) {
+                            return this.set.add(key);
+                        }
+
+                        @Override
+                        boolean remove(final long key) {
+                            return this.set.remove(key);
+                        }
+                    };
+                case "LockedBPlusTree":
+                    return new OrderedSet() {
+                        private final BPlusTree<Long> set = new BPlusTree<>();
+
+                        @Override
+                        synchronized boolean contains(final long key) {
+                            return this.set.contains(key);
+                        }
+
+                        @Override
+                        synchronized boolean add(final long key) {
+                            final int size = this.set.size();
+                            this.set.add(key);
+                            return this.set.size() != size;
+                        }
+
+                        @Override
+                        synchronized boolean remove(final long key) {
+                            return this.set.remove(key);
+                        }
+                    };
+                default:
+                    throw new IllegalArgumentException("Unknown Collection: " + name);
+            }
+        }
+
+        abstract boolean contains(long key);
+
+        abstract boolean add(long key);
+
+        abstract boolean remove(long key);
+    }
+
+}
@@ -0,0 +1,199 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.CollectionEvents;
+import me.annoymized.datastructures.FixedSizeHashSet;
+import me.annoymized.datastructures.LinkedList;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the overhead of the {@link CollectionEvents} on the operations they report: lookups and bulk
+ * operations of a {@link FixedSizeHashSet} and positional access and searches in a {@link LinkedList}. Every
+ * operation is run in a fork with the events disabled (the default), in a fork with the events enabled but no
+ * recording running and in a fork which records them with a flight recording from the start. With chains shorter
+ * than the default threshold of 8 the set's lookups are never reported, with longer chains every lookup is. The bulk
+ * operations have as many elements as the set, they are reported above the default threshold of 10000. The events
+ * are only available on JDK 11+, the multi-release classes must be loaded from the JAR. The JIT compiler is enabled.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar EventBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class EventBenchmark {
+
+    private static final String ENABLED = "-D" + CollectionEvents.ENABLED_PROPERTY + "=true";
+    private static final String RECORDING = "-XX:StartFlightRecording";
+
+    /**
+     * Test searching elements of the set with the events disabled
+     */
+    @Benchmark
+    public boolean testContains(final EventState state) {
+        return state.set.contains(state.nextKey());
+    }
+
+    /**
+     * Test searching elements of the set with the events enabled but not recorded
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = ENABLED)
+    public boolean testContainsEnabled(final EventState state) {
+        return state.set.contains(state.nextKey());
+    }
+
+    /**
+     * Test searching elements of the set while a flight recording records the events
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {ENABLED, RECORDING})
+    public boolean testContainsRecording(final EventState state) {
+        return state.set.contains(state.nextKey());
+    }
+
+    /**
+     * Test positional access to the list with the events disabled
+     */
+    @Benchmark
+    public Integer testGet(final EventState state) {
+        return state.list.get(state.nextIndex());
+    }
+
+    /**
+     * Test positional access to the list with the events enabled but not recorded
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = ENABLED)
+    public Integer testGetEnabled(final EventState state) {
+        return state.list.get(state.nextIndex());
+    }
+
+    /**
+     * Test positional access to the list while a flight recording records the events
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {ENABLED, RECORDING})
+    public Integer testGetRecording(final EventState state) {
+        return state.list.get(state.nextIndex());
+    }
+
+    /**
+     * Test searching elements of the list with the events disabled
+     */
+    @Benchmark
+    public int testIndexOf(final EventState state) {
+        return state.list.indexOf(state.nextKey());
+    }
+
+    /**
+     * Test searching elements of the list with the events enabled but not recorded
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = ENABLED)
+    public int testIndexOfEnabled(final EventState state) {
+        return state.list.indexOf(state.nextKey());
+    }
+
+    /**
+     * Test searching elements of the list while a flight recording records the events
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {ENABLED, RECORDING})
+    public int testIndexOfRecording(final EventState state) {
+        return state.list.indexOf(state.nextKey());
+    }
+
+    /**
+     * Test adding absent elements to the set in bulk and removing them again, with the events disabled
+     */
+    @Benchmark
+    public FixedSizeHashSet<Integer> testBulk(final EventState state) {
+        return state.bulk();
+    }
+
+    /**
+     * Test adding absent elements to the set in bulk and removing them again, with the events enabled but not recorded
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = ENABLED)
+    public FixedSizeHashSet<Integer> testBulkEnabled(final EventState state) {
+        return state.bulk();
+    }
+
+    /**
+     * Test adding absent elements to the set in bulk and removing them again while a flight recording records the
+     * events
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = {ENABLED, RECORDING})
+    public FixedSizeHashSet<Integer> testBulkRecording(final EventState state) {
+        return state.bulk();
+    }
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class EventState {
+
+        public FixedSizeHashSet<Integer> set;
+        public LinkedList<Integer> list;
+
+        // Random elements and indices, cycled through by the tests
+        private Integer[] keys;
+        // Elements which are not in the set, added and removed again by the bulk tests
+        private Integer[] absent;
+        private int[] indices;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void init(final Main.EventValues values) {
+            final Random random = new Random(42);
+            this.set = new FixedSizeHashSet<>(Math.max(1, values.collectionSize / values.chainLength));
+            this.list = new LinkedList<>();
+            for (int i = 0; i < values.collectionSize; i++) {
+                this.set.add(i);
+                this.list.add(i);
+            }
+            this.keys = new Integer[1024];
+            this.indices = new int[this.keys.length];
+            for (int i = 0; i < this.keys.length; i++) {
+                this.indices[i] = random.nextInt(values.collectionSize);
+                this.keys[i] = this.indices[i];
+            }
+            this.absent = new Integer[values.collectionSize];
+            for (int i = 0; i < this.absent.length; i++) {
+                this.absent[i] = values.collectionSize + i;
+            }
+        }
+
+        FixedSizeHashSet<Integer> bulk() {
+            this.set.addAll(this.absent);
+            this.set.removeAll(this.absent);
+            return this.set;
+        }
+
+        Integer nextKey() {
+            return this.keys[this.next++ & (this.keys.length - 1)];
+        }
+
+        int nextIndex() {
+            return this.indices[this.next++ & (this.indices.length - 1)];
+        }
+    }
+
+}
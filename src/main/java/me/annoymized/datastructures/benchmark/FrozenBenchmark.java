@@ -0,0 +1,173 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.FixedSizeHashSet;
+import me.annoymized.datastructures.FrozenHashSet;
+import me.annoymized.datastructures.IncrementalHashSet;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the {@link FrozenHashSet} compared to the mutable {@link FixedSizeHashSet} and
+ * {@link IncrementalHashSet}: building a set of random Integers and looking up a sample of them, half of which are
+ * in the set. The frozen set is built from a {@link FixedSizeHashSet} on the common pool and on a single thread.
+ * The "bytes" counter of the frozen build tests reports the set's own estimate, excluding the Integers, the
+ * footprint of the mutable sets is best compared by running the build tests with the GC profiler ("-prof gc"),
+ * the normalized allocation rate (gc.alloc.rate.norm) is the number of bytes allocated to build one set.
+ * The JIT compiler is enabled.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar FrozenBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class FrozenBenchmark {
+
+    /**
+     * Test freezing the hash set on the common pool, recording the footprint of the frozen set
+     */
+    @Benchmark
+    public FrozenHashSet<Integer> testFrozenBuild(final FrozenState state, final Footprint footprint) {
+        final FrozenHashSet<Integer> set = state.hashSet.freeze();
+        footprint.bytes = set.sizeInBytes();
+        return set;
+    }
+
+    /**
+     * Test freezing the hash set on a single thread, recording the footprint of the frozen set
+     */
+    @Benchmark
+    public FrozenHashSet<Integer> testFrozenBuildSingleThread(final FrozenState state, final Footprint footprint) {
+        final FrozenHashSet<Integer> set = FrozenHashSet.of(state.hashSet, state.singleThread);
+        footprint.bytes = set.sizeInBytes();
+        return set;
+    }
+
+    /**
+     * Test building a hash set by adding the integers one by one
+     */
+    @Benchmark
+    public FixedSizeHashSet<Integer> testHashSetBuild(final FrozenState state) {
+        final FixedSizeHashSet<Integer> set = new FixedSizeHashSet<>(state.values.length);
+        for (final Integer value : state.values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    /**
+     * Test building an incrementally rehashing hash set by adding the integers one by one
+     */
+    @Benchmark
+    public IncrementalHashSet<Integer> testIncrementalBuild(final FrozenState state) {
+        final IncrementalHashSet<Integer> set = new IncrementalHashSet<>();
+        for (final Integer value : state.values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    /**
+     * Test searching integers, half of which are in the frozen set
+     */
+    @Benchmark
+    public void testFrozenContains(final FrozenState state, final Blackhole blackhole) {
+        for (final Integer value : state.samples) {
+            blackhole.consume(state.frozen.contains(value));
+        }
+    }
+
+    /**
+     * Test searching integers, half of which are in the hash set
+     */
+    @Benchmark
+    public void testHashSetContains(final FrozenState state, final Blackhole blackhole) {
+        for (final Integer value : state.samples) {
+            blackhole.consume(state.hashSet.contains(value));
+        }
+    }
+
+    /**
+     * Test searching integers, half of which are in the incrementally rehashing hash set
+     */
+    @Benchmark
+    public void testIncrementalContains(final FrozenState state, final Blackhole blackhole) {
+        for (final Integer value : state.samples) {
+            blackhole.consume(state.incremental.contains(value));
+        }
+    }
+
+
+    /**
+     * Estimated size of the last set built, in bytes.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+
+        public long bytes;
+    }
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class FrozenState {
+
+        public Integer[] values;
+        public Integer[] samples;
+
+        public FrozenHashSet<Integer> frozen;
+        public FixedSizeHashSet<Integer> hashSet;
+        public IncrementalHashSet<Integer> incremental;
+        public ExecutorService singleThread;
+
+        @Setup(Level.Trial)
+        public void init(final Main.FrozenValues values) {
+            final SplittableRandom random = new SplittableRandom(values.collectionSize);
+            this.hashSet = new FixedSizeHashSet<>(values.collectionSize);
+            this.incremental = new IncrementalHashSet<>();
+            while (this.hashSet.size() < values.collectionSize) {
+                final Integer value = random.nextInt();
+                this.hashSet.add(value);
+                this.incremental.add(value);
+            }
+            this.values = this.hashSet.view().toArray(Integer[]::new);
+            this.frozen = this.hashSet.freeze();
+            this.samples = new Integer[values.sampleSize];
+            for (int i = 0; i < values.sampleSize; i++) {
+                // Every other sample is in the set
+                this.samples[i] = i % 2 == 0 ? this.values[random.nextInt(this.values.length)] : random.nextInt();
+            }
+            this.singleThread = Executors.newSingleThreadExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "FrozenBenchmark");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        @TearDown(Level.Trial)
+        public void shutdown() {
+            this.singleThread.shutdownNow();
+        }
+    }
+
+}
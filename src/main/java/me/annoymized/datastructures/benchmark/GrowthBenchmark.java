@@ -0,0 +1,89 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.IncrementalHashSet;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Latency benchmark for adding elements to a growing hash set, {@link IncrementalHashSet} compared to
+ * {@link HashSet} which rehashes all elements at once. The set grows from an initial capacity of 10 up
+ * to {@link Main.GrowthValues#maxSize} elements and is then discarded. The interesting figures are the
+ * p99.9 and the maximum (p1.0) of the sampled latencies. The JIT compiler is enabled, note that garbage
+ * collection pauses show up in the tail latencies of both sets.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar GrowthBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class GrowthBenchmark {
+
+    /**
+     * Test adding the next element
+     */
+    @Benchmark
+    public void testAdd(final GrowthState state) {
+        // Scramble the keys, sequential integers would favour the locality of HashSet's weaker hash function
+        state.add.accept(state.next++ * 0x9E3779B9);
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class GrowthState {
+
+        public Main.GrowthValues values;
+        public Consumer<Integer> add;
+        public int next;
+
+        @Setup(Level.Trial)
+        public void init(final Main.GrowthValues values) {
+            this.values = values;
+            reset();
+        }
+
+        /**
+         * Start over with an empty set once the maximum size is reached
+         */
+        @Setup(Level.Invocation)
+        public void checkSize() {
+            if (this.next >= this.values.maxSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            this.next = 0;
+            switch (this.values.collection) {
+                case "IncrementalHashSet":
+                    final IncrementalHashSet<Integer> incremental = new IncrementalHashSet<>(10);
+                    this.add = incremental::add;
+                    break;
+                case "HashSet":
+                    final HashSet<Integer> hashSet = new HashSet<>(10);
+                    this.add = hashSet::add;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown Collection: " + this.values.collection);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,200 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.ArraySearch;
+import me.annoymized.datastructures.IntArrayList;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the {@link IntArrayList} compared to boxed integers: an Integer array searched with
+ * {@link Object#equals(Object)} as in {@link ArrayBenchmark#testSearch}, and an {@link ArrayList} of Integers.
+ * The JIT compiler is enabled as we are interested in the compiled loops. The searches of the
+ * {@link IntArrayList} are vectorized on JDK 17+ if the forks are started with the jdk.incubator.vector module,
+ * see {@link SearchBenchmark} for both paths of {@link ArraySearch}.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar IntListBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class IntListBenchmark {
+
+    /**
+     * Test appending all values to an empty {@link IntArrayList}
+     */
+    @Benchmark
+    public IntArrayList testAppendIntArrayList(final IntListState state) {
+        final IntArrayList list = new IntArrayList();
+        for (final int value : state.values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * Test appending all values to an empty {@link ArrayList}
+     */
+    @Benchmark
+    public ArrayList<Integer> testAppendArrayList(final IntListState state) {
+        final ArrayList<Integer> list = new ArrayList<>();
+        for (final int value : state.values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * Test searching the sample values, half of them missing, in an {@link IntArrayList}
+     */
+    @Benchmark
+    public void testContainsIntArrayList(final IntListState state, final Blackhole blackhole) {
+        for (final int value : state.randomValues) {
+            blackhole.consume(state.list.contains(value));
+        }
+    }
+
+    /**
+     * Test searching the sample values, half of them missing, in an Integer array
+     */
+    @Benchmark
+    public void testContainsBoxed(final IntListState state, final Blackhole blackhole) {
+        final Integer[] boxed = state.boxed;
+        for (final Integer toTest : state.randomBoxed) {
+            boolean found = false;
+            for (int index = 0; index < boxed.length; index++) {
+                if (toTest.equals(boxed[index])) {
+                    found = true;
+                    break;
+                }
+            }
+            blackhole.consume(found);
+        }
+    }
+
+    /**
+     * Test sorting a copy of the values with {@link IntArrayList#sort()}
+     */
+    @Benchmark
+    public IntArrayList testSortIntArrayList(final IntListState state) {
+        final IntArrayList list = IntArrayList.of(state.values);
+        list.sort();
+        return list;
+    }
+
+    /**
+     * Test sorting a copy of the values as an Integer array
+     */
+    @Benchmark
+    public Integer[] testSortBoxed(final IntListState state) {
+        final Integer[] copy = state.boxed.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * Test searching the sample values, half of them missing, with {@link IntArrayList#binarySearch(int)}
+     */
+    @Benchmark
+    public void testBinarySearchIntArrayList(final IntListState state, final Blackhole blackhole) {
+        for (final int value : state.randomValues) {
+            blackhole.consume(state.sorted.binarySearch(value));
+        }
+    }
+
+    /**
+     * Test searching the sample values, half of them missing, in a sorted Integer array with binary search
+     */
+    @Benchmark
+    public void testBinarySearchBoxed(final IntListState state, final Blackhole blackhole) {
+        for (final Integer value : state.randomBoxed) {
+            blackhole.consume(Arrays.binarySearch(state.sortedBoxed, value));
+        }
+    }
+
+    /**
+     * Test removing the odd values from a copy of the values with {@link IntArrayList#removeIf}
+     */
+    @Benchmark
+    public IntArrayList testRemoveIfIntArrayList(final IntListState state) {
+        final IntArrayList list = IntArrayList.of(state.values);
+        list.removeIf(value -> (value & 1) != 0);
+        return list;
+    }
+
+    /**
+     * Test removing the odd values from a copy of the values with {@link ArrayList#removeIf}
+     */
+    @Benchmark
+    public ArrayList<Integer> testRemoveIfArrayList(final IntListState state) {
+        final ArrayList<Integer> list = new ArrayList<>(Arrays.asList(state.boxed));
+        list.removeIf(value -> (value & 1) != 0);
+        return list;
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class IntListState {
+
+        // Shuffled values 0, 2, 4, ... so odd sample values are missing
+        public int[] values;
+        public Integer[] boxed;
+        public int[] randomValues;
+        public Integer[] randomBoxed;
+
+        public IntArrayList list;
+        public IntArrayList sorted;
+        public Integer[] sortedBoxed;
+
+        @Setup(Level.Trial)
+        public void init(final Main.IntListValues values) {
+            final Random random = new Random(42);
+            this.values = new int[values.collectionSize];
+            for (int i = 0; i < this.values.length; i++) {
+                this.values[i] = i * 2;
+            }
+            for (int i = this.values.length - 1; i > 0; i--) {
+                final int j = random.nextInt(i + 1);
+                final int swap = this.values[i];
+                this.values[i] = this.values[j];
+                this.values[j] = swap;
+            }
+            this.boxed = new Integer[this.values.length];
+            for (int i = 0; i < this.values.length; i++) {
+                this.boxed[i] = this.values[i];
+            }
+            this.randomValues = new int[values.sampleSize];
+            this.randomBoxed = new Integer[values.sampleSize];
+            for (int i = 0; i < values.sampleSize; i++) {
+                this.randomValues[i] = random.nextInt(values.collectionSize * 2);
+                this.randomBoxed[i] = this.randomValues[i];
+            }
+
+            this.list = IntArrayList.of(this.values);
+            this.sorted = IntArrayList.of(this.values);
+            this.sorted.sort();
+            this.sortedBoxed = this.boxed.clone();
+            Arrays.sort(this.sortedBoxed);
+        }
+    }
+
+}
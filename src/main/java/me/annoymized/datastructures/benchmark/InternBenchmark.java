@@ -0,0 +1,128 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.InterningSet;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Deduplication benchmark for the {@link InterningSet} compared to a {@link java.util.WeakHashMap} based interner
+ * and to no interning at all. A batch of records is parsed, every record creates a new string of which only a
+ * fraction is distinct, and the interned string is stored in the record. The "retainedBytes" counter is the heap
+ * held by the records of the last batch, measured after each iteration by running the garbage collector with and
+ * without them, which shows the heap saved by interning. The JIT compiler is enabled.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar InternBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class InternBenchmark {
+
+    private static final String PREFIX = "instrument/exchange/";
+
+    /**
+     * Test parsing a batch of records, interning every string with a new interner
+     */
+    @Benchmark
+    public String[] testDeduplicate(final InternState state, final Footprint footprint) {
+        final UnaryOperator<String> interner = state.values.newInterner();
+        final String[] records = new String[state.ids.length];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = interner.apply(PREFIX + state.ids[i]);
+        }
+        footprint.records = records;
+        return records;
+    }
+
+    /**
+     * Test interning strings which are all equal to a canonical instance
+     */
+    @Benchmark
+    public void testIntern(final InternState state, final Blackhole blackhole) {
+        for (final String sample : state.samples) {
+            blackhole.consume(state.interner.apply(sample));
+        }
+    }
+
+
+    /**
+     * Heap retained by the records of the last batch, in bytes.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+
+        public long retainedBytes;
+        private Object records;
+
+        @TearDown(Level.Iteration)
+        public void measure() {
+            final long retained = usedHeap();
+            this.records = null;
+            this.retainedBytes = Math.max(0, retained - usedHeap());
+        }
+
+        private static long usedHeap() {
+            final Runtime runtime = Runtime.getRuntime();
+            // Run the collector twice, so the weak references cleared by the first run are collected as well
+            for (int i = 0; i < 2; i++) {
+                System.gc();
+            }
+            return runtime.totalMemory() - runtime.freeMemory();
+        }
+    }
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class InternState {
+
+        public Main.InternValues values;
+        // The identifier of the string of every record
+        public int[] ids;
+        // Copies of interned strings, and the interner holding them
+        public String[] samples;
+        public String[] canonical;
+        public UnaryOperator<String> interner;
+
+        @Setup(Level.Trial)
+        public void init(final Main.InternValues values) {
+            this.values = values;
+            final SplittableRandom random = new SplittableRandom(42);
+            final int distinct = Math.max(1, (int) (values.collectionSize * values.distinctRatio));
+            this.ids = new int[values.collectionSize];
+            for (int i = 0; i < this.ids.length; i++) {
+                this.ids[i] = random.nextInt(distinct);
+            }
+            this.interner = values.newInterner();
+            this.canonical = new String[distinct];
+            for (int i = 0; i < distinct; i++) {
+                this.canonical[i] = this.interner.apply(PREFIX + i);
+            }
+            this.samples = new String[values.sampleSize];
+            for (int i = 0; i < this.samples.length; i++) {
+                this.samples[i] = PREFIX + random.nextInt(distinct);
+            }
+        }
+    }
+
+}
@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import me.annoymized.datastructures.Main;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.SplittableRandom;
 import java.util.concurrent.TimeUnit;
@@ -51,6 +52,24 @@ public class JavaBenchmark {
         }
     }
 
+    /**
+     * Test traversing all elements of a collection with an iterator
+     */
+    @Benchmark
+    public void testIterate(final ContainsState state, final Blackhole blackhole) {
+        for (final Integer i : state.collection) {
+            blackhole.consume(i);
+        }
+    }
+
+    /**
+     * Test traversing all elements of a collection with {@link Collection#forEach}
+     */
+    @Benchmark
+    public void testForEach(final ContainsState state, final Blackhole blackhole) {
+        state.collection.forEach(blackhole::consume);
+    }
+
 
     /**
      * Data values generated for each test
@@ -0,0 +1,191 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.FixedSizeHashSet;
+import me.annoymized.datastructures.IntArrayList;
+import me.annoymized.datastructures.LinkedList;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.RoaringIntSet;
+import me.annoymized.datastructures.io.KeyFileLoader;
+import me.annoymized.datastructures.io.KeySink;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Benchmark for loading collections from files of keys with the {@link KeyFileLoader}, compared to reading the
+ * file through a buffered stream and adding the keys one by one. The keys are random integers written to a
+ * temporary file before the trial, as text lines or as 4 byte binary integers, the file is deleted afterwards.
+ * The first load of a file reads it from the disk, the following loads are served by the page cache.
+ * The "rows" counter reports the throughput in keys per second. The JIT compiler is enabled.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar LoaderBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class LoaderBenchmark {
+
+    /**
+     * Test loading the file with the memory-mapped, parallel loader
+     */
+    @Benchmark
+    public Object testLoad(final LoaderState state, final Rows rows) throws IOException {
+        final Target target = Target.of(state.values);
+        final KeyFileLoader.Report report = state.loader.load(state.file, target.sink);
+        rows.rows += report.rows();
+        return target.collection;
+    }
+
+    /**
+     * Test reading the file through a buffered stream, parsing each line to a String and adding key by key
+     */
+    @Benchmark
+    public Object testReadSequential(final LoaderState state, final Rows rows) throws IOException {
+        final Target target = Target.of(state.values);
+        int count = 0;
+        if (state.values.format == KeyFileLoader.Format.TEXT) {
+            try (BufferedReader reader = Files.newBufferedReader(state.file, StandardCharsets.US_ASCII)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    target.add.accept(Integer.parseInt(line));
+                    count++;
+                }
+            }
+        } else {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(state.file), 64 * 1024))) {
+                while (true) {
+                    final int key;
+                    try {
+                        key = in.readInt();
+                    } catch (final EOFException ex) {
+                        break;
+                    }
+                    target.add.accept(key);
+                    count++;
+                }
+            }
+        }
+        rows.rows += count;
+        return target.collection;
+    }
+
+
+    /**
+     * Counter reported alongside the operations per second, JMH reports it as a rate (keys/s).
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Rows {
+
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.rows = 0;
+        }
+    }
+
+    /**
+     * A new collection per load, with the sink used by the loader and the single-key adder used by the
+     * sequential reader.
+     */
+    private static final class Target {
+
+        private final Object collection;
+        private final KeySink sink;
+        private final IntConsumer add;
+
+        private Target(final Object collection, final KeySink sink, final IntConsumer add) {
+            this.collection = collection;
+            this.sink = sink;
+            this.add = add;
+        }
+
+        static Target of(final Main.LoaderValues values) {
+            switch (values.collection) {
+                case "FixedSizeHashSet": {
+                    final FixedSizeHashSet<Integer> set = new FixedSizeHashSet<>(values.rows);
+                    return new Target(set, KeySink.ofInts(set), set::add);
+                }
+                case "LinkedList": {
+                    final LinkedList<Integer> list = new LinkedList<>();
+                    return new Target(list, KeySink.ofInts(list), list::add);
+                }
+                case "RoaringIntSet": {
+                    final RoaringIntSet set = new RoaringIntSet();
+                    return new Target(set, KeySink.of(set), set::add);
+                }
+                case "IntArrayList": {
+                    final IntArrayList list = new IntArrayList();
+                    return new Target(list, KeySink.of(list), list::add);
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown Collection: " + values.collection);
+            }
+        }
+    }
+
+    /**
+     * The generated file and the loader reading it
+     */
+    @State(Scope.Benchmark)
+    public static class LoaderState {
+
+        public Main.LoaderValues values;
+        public Path file;
+        public KeyFileLoader loader;
+
+        @Setup(Level.Trial)
+        public void init(final Main.LoaderValues values) throws IOException {
+            this.values = values;
+            this.loader = new KeyFileLoader(values.format, values.parallelism, KeyFileLoader.DEFAULT_CHUNK_SIZE);
+            this.file = Files.createTempFile("keys", values.format == KeyFileLoader.Format.TEXT ? ".txt" : ".bin");
+            final SplittableRandom random = new SplittableRandom(values.rows);
+            try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(this.file), 64 * 1024);
+                 DataOutputStream out = new DataOutputStream(stream)) {
+                for (int i = 0; i < values.rows; i++) {
+                    final int key = random.nextInt();
+                    if (values.format == KeyFileLoader.Format.TEXT) {
+                        out.writeBytes(Integer.toString(key));
+                        out.write('\n');
+                    } else {
+                        out.writeInt(key);
+                    }
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            Files.deleteIfExists(this.file);
+        }
+    }
+
+}
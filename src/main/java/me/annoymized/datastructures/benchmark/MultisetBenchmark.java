@@ -0,0 +1,163 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.HashMultiset;
+import me.annoymized.datastructures.LinkedList;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for counting the occurrences of the keys of a Zipfian stream with a {@link HashMultiset}, compared to a
+ * {@link HashMap} of boxed counts and to a {@link LinkedList} which keeps every occurrence and counts a key by
+ * scanning. The count tests look up a sample of keys drawn from the same distribution, the top-k tests extract the
+ * most frequent keys. The boxing of the map counts is best seen with the GC profiler ("-prof gc").
+ * The JIT compiler is enabled.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar MultisetBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class MultisetBenchmark {
+
+    /**
+     * Test counting the keys of the stream in a multiset
+     */
+    @Benchmark
+    public HashMultiset<Integer> testAddMultiset(final StreamState state) {
+        final HashMultiset<Integer> multiset = new HashMultiset<>();
+        for (final Integer key : state.stream) {
+            multiset.add(key);
+        }
+        return multiset;
+    }
+
+    /**
+     * Test counting the keys of the stream in a hash map of boxed counts
+     */
+    @Benchmark
+    public Map<Integer, Integer> testAddHashMap(final StreamState state) {
+        final Map<Integer, Integer> counts = new HashMap<>();
+        for (final Integer key : state.stream) {
+            counts.merge(key, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Test appending the keys of the stream to a linked list, which keeps every occurrence
+     */
+    @Benchmark
+    public LinkedList<Integer> testAddLinkedList(final StreamState state) {
+        final LinkedList<Integer> list = new LinkedList<>();
+        for (final Integer key : state.stream) {
+            list.add(key);
+        }
+        return list;
+    }
+
+    /**
+     * Test looking up the count of sampled keys in the multiset
+     */
+    @Benchmark
+    public void testCountMultiset(final StreamState state, final Blackhole blackhole) {
+        for (final Integer key : state.sample) {
+            blackhole.consume(state.multiset.count(key));
+        }
+    }
+
+    /**
+     * Test looking up the count of sampled keys in the hash map
+     */
+    @Benchmark
+    public void testCountHashMap(final StreamState state, final Blackhole blackhole) {
+        for (final Integer key : state.sample) {
+            blackhole.consume(state.map.getOrDefault(key, 0));
+        }
+    }
+
+    /**
+     * Test counting the occurrences of sampled keys in the linked list by traversing it
+     */
+    @Benchmark
+    public void testCountLinkedList(final StreamState state, final Blackhole blackhole) {
+        for (final Integer key : state.sample) {
+            blackhole.consume(state.list.view().filter(key::equals).size());
+        }
+    }
+
+    /**
+     * Test extracting the most frequent keys of the multiset
+     */
+    @Benchmark
+    public Integer[] testTopKMultiset(final StreamState state) {
+        return state.multiset.topK(state.values.k, Integer[]::new);
+    }
+
+    /**
+     * Test extracting the most frequent keys of the map with a bounded priority queue of its entries
+     */
+    @Benchmark
+    public PriorityQueue<Map.Entry<Integer, Integer>> testTopKHashMap(final StreamState state) {
+        final PriorityQueue<Map.Entry<Integer, Integer>> heap = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (final Map.Entry<Integer, Integer> entry : state.map.entrySet()) {
+            if (heap.size() < state.values.k) {
+                heap.add(entry);
+            } else if (entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+        return heap;
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class StreamState {
+
+        public Main.MultisetValues values;
+        public Integer[] stream;
+        public Integer[] sample;
+        public HashMultiset<Integer> multiset;
+        public Map<Integer, Integer> map;
+        public LinkedList<Integer> list;
+
+        @Setup(Level.Trial)
+        public void init(final Main.MultisetValues values) {
+            this.values = values;
+            final ZipfianGenerator generator = new ZipfianGenerator(values.keySpace, values.skew);
+            final SplittableRandom random = new SplittableRandom(values.keySpace);
+            this.stream = generator.trace(values.streamLength, random);
+            this.sample = generator.trace(values.sampleSize, random);
+            this.multiset = new HashMultiset<>();
+            this.map = new HashMap<>();
+            this.list = new LinkedList<>();
+            for (final Integer key : this.stream) {
+                this.multiset.add(key);
+                this.map.merge(key, 1, Integer::sum);
+                this.list.add(key);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,200 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.Collection;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.concurrent.OptimisticCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Multi-threaded benchmark for a read-dominated shared collection guarded by an {@link OptimisticCollection},
+ * compared to the same collection guarded by a monitor and by a {@link ReentrantReadWriteLock}. Every operation of
+ * the {@link #THREADS} threads is a lookup with the probability of the read ratio, otherwise an add or a remove of a
+ * random key. Half of the keys are in the collection at the start. Run it with "-t 1", "-t 2", ... to measure the
+ * scaling of the readers with the number of cores. The JIT compiler is enabled, the results are only meaningful with
+ * at least as many cores as threads.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar OptimisticBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class OptimisticBenchmark {
+
+    static final int THREADS = 4;
+    // The number of pre-generated operations every thread cycles through
+    private static final int OPERATIONS = 1 << 16;
+
+    /**
+     * Test a mix of lookups, additions and removals of random keys from all threads
+     */
+    @Benchmark
+    @Threads(THREADS)
+    public boolean testMixed(final SharedState state, final ThreadState thread) {
+        final int index = thread.cursor++ & OPERATIONS - 1;
+        final Integer key = thread.keys[index];
+        switch (thread.operations[index]) {
+            case READ:
+                return state.guard.contains(key);
+            case ADD:
+                state.guard.add(key);
+                return true;
+            default:
+                return state.guard.remove(key);
+        }
+    }
+
+
+    /**
+     * The guarded collection shared by all threads
+     */
+    @State(Scope.Benchmark)
+    public static class SharedState {
+
+        public Guard guard;
+
+        @Setup(Level.Trial)
+        public void init(final Main.OptimisticValues values) {
+            final Collection<Integer> collection = values.newCollection();
+            for (int i = 0; i < 2 * values.collectionSize; i += 2) {
+                collection.add(i);
+            }
+            this.guard = Guard.of(values.guard, collection);
+        }
+    }
+
+    /**
+     * Operations of a thread, each thread draws its own sequence
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        public Integer[] keys;
+        public Operation[] operations;
+        private int cursor;
+
+        @Setup(Level.Trial)
+        public void init(final Main.OptimisticValues values) {
+            final SplittableRandom random = new SplittableRandom(System.identityHashCode(this));
+            this.keys = new Integer[OPERATIONS];
+            this.operations = new Operation[OPERATIONS];
+            for (int i = 0; i < OPERATIONS; i++) {
+                this.keys[i] = random.nextInt(2 * values.collectionSize);
+                if (random.nextDouble() < values.readRatio) {
+                    this.operations[i] = Operation.READ;
+                } else {
+                    this.operations[i] = random.nextBoolean() ? Operation.ADD : Operation.REMOVE;
+                }
+            }
+        }
+    }
+
+    enum Operation {
+        READ, ADD, REMOVE
+    }
+
+    /**
+     * Common view of the benchmarked guards. Only one implementation is loaded per fork, so the calls are inlined.
+     */
+    public abstract static class Guard {
+
+        static Guard of(final String name, final Collection<Integer> collection) {
+            switch (name) {
+                case "StampedLock":
+                    return new Guard() {
+                        private final OptimisticCollection<Integer> guarded = new OptimisticCollection<>(collection);
+
+                        @Override
+                        boolean contains(final Integer key) {
+                            return this.guarded.contains(key);
+                        }
+
+                        @Override
+                        void add(final Integer key) {
+                            this.guarded.add(key);
+                        }
+
+                        @Override
+                        boolean remove(final Integer key) {
+                            return this.guarded.remove(key);
+                        }
+                    };
+                case "Synchronized":
+                    return new Guard() {
+                        @Override
+                        synchronized boolean contains(final Integer key) {
+                            return collection.contains(key);
+                        }
+
+                        @Override
+                        synchronized void add(final Integer key) {
+                            collection.add(key);
+                        }
+
+                        @Override
+                        synchronized boolean remove(final Integer key) {
+                            return collection.remove(key);
+                        }
+                    };
+                case "ReadWriteLock":
+                    return new Guard() {
+                        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+                        @Override
+                        boolean contains(final Integer key) {
+                            this.lock.readLock().lock();
+                            try {
+                                return collection.contains(key);
+                            } finally {
+                                this.lock.readLock().unlock();
+                            }
+                        }
+
+                        @Override
+                        void add(final Integer key) {
+                            this.lock.writeLock().lock();
+                            try {
+                                collection.add(key);
+                            } finally {
+                                this.lock.writeLock().unlock();
+                            }
+                        }
+
+                        @Override
+                        boolean remove(final Integer key) {
+                            this.lock.writeLock().lock();
+                            try {
+                                return collection.remove(key);
+                            } finally {
+                                this.lock.writeLock().unlock();
+                            }
+                        }
+                    };
+                default:
+                    throw new IllegalArgumentException("Unknown Guard: " + name);
+            }
+        }
+
+        abstract boolean contains(Integer key);
+
+        abstract void add(Integer key);
+
+        abstract boolean remove(Integer key);
+    }
+
+}
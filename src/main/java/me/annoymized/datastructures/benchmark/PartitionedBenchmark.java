@@ -0,0 +1,170 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.FixedSizeHashSet;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.concurrent.PartitionedSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for a {@link PartitionedSet} with a varying number of partitions (one worker thread each) and batch
+ * size. The throughput test pipelines {@link #OPERATIONS} operations through a session and waits for all of their
+ * results, the round trip test samples the latency of sending one batch and waiting for its results. Every 8th
+ * operation adds a random key, every 8th removes one, the others look one up, half of the keys are in the set.
+ * The direct test applies the same operations to a single {@link FixedSizeHashSet} on the calling thread. The JIT
+ * compiler is enabled, the results are only meaningful with at least one core per worker plus one.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar PartitionedBenchmark
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PartitionedBenchmark {
+
+    // The number of operations of the throughput tests
+    private static final int OPERATIONS = 4096;
+
+    /**
+     * Test sending lookups, additions and removals of random keys through the session of every thread
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(OPERATIONS)
+    public void testThroughput(final ClientState client) {
+        final PartitionedSet<Integer>.Session session = client.session;
+        for (int i = 0; i < OPERATIONS; i++) {
+            client.futures[i] = client.submit(i);
+        }
+        session.flush();
+        // The array holds as many futures as a batch, which may be more than the operations
+        for (int i = 0; i < OPERATIONS; i++) {
+            client.futures[i].join();
+        }
+    }
+
+    /**
+     * Test sending a single batch and waiting for its results
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public void testRoundTrip(final ClientState client) {
+        final int batchSize = client.batchSize;
+        for (int i = 0; i < batchSize; i++) {
+            client.futures[i] = client.submit(client.next++);
+        }
+        client.session.flush();
+        for (int i = 0; i < batchSize; i++) {
+            client.futures[i].join();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(OPERATIONS)
+    public int testDirect(final ClientState client) {
+        int found = 0;
+        for (int i = 0; i < OPERATIONS; i++) {
+            final Integer key = client.keys[i];
+            switch (i & 7) {
+                case 0:
+                    client.direct.add(key);
+                    break;
+                case 4:
+                    client.direct.remove(key);
+                    break;
+                default:
+                    found += client.direct.contains(key) ? 1 : 0;
+            }
+        }
+        return found;
+    }
+
+
+    /**
+     * The set shared by all client threads, prefilled with half of the keys
+     */
+    @State(Scope.Benchmark)
+    public static class SetState {
+
+        public PartitionedSet<Integer> set;
+        public FixedSizeHashSet<Integer> direct;
+        public int batchSize;
+
+        @Setup(Level.Trial)
+        public void init(final Main.PartitionedValues values) {
+            this.batchSize = values.batchSize;
+            this.set = new PartitionedSet<>(values.partitions, Math.max(1, values.keySpace / values.partitions),
+                                            values.batchSize);
+            this.direct = new FixedSizeHashSet<>(values.keySpace);
+            try (PartitionedSet<Integer>.Session session = this.set.session()) {
+                for (int key = 0; key < values.keySpace; key += 2) {
+                    session.add(key);
+                    this.direct.add(key);
+                }
+            }
+            this.set.size().join();
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            this.set.close();
+        }
+    }
+
+    /**
+     * Session and keys of a client thread
+     */
+    @State(Scope.Thread)
+    public static class ClientState {
+
+        public PartitionedSet<Integer>.Session session;
+        public FixedSizeHashSet<Integer> direct;
+        public Integer[] keys;
+        public CompletableFuture<Boolean>[] futures;
+        public int batchSize;
+        private int next;
+
+        @Setup(Level.Trial)
+        @SuppressWarnings("unchecked")
+        public void init(final SetState state, final Main.PartitionedValues values) {
+            this.session = state.set.session();
+            this.direct = state.direct;
+            this.batchSize = state.batchSize;
+            final SplittableRandom random = new SplittableRandom(System.identityHashCode(this));
+            this.keys = new Integer[OPERATIONS];
+            for (int i = 0; i < OPERATIONS; i++) {
+                this.keys[i] = random.nextInt(values.keySpace);
+            }
+            this.futures = (CompletableFuture<Boolean>[]) new CompletableFuture<?>[Math.max(OPERATIONS,
+                                                                                           values.batchSize)];
+        }
+
+        CompletableFuture<Boolean> submit(final int index) {
+            final Integer key = this.keys[index & OPERATIONS - 1];
+            switch (index & 7) {
+                case 0:
+                    return this.session.add(key);
+                case 4:
+                    return this.session.remove(key);
+                default:
+                    return this.session.contains(key);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.FixedSizeHashSet;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.PersistentHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for {@link PersistentHashSet} against copying a {@link FixedSizeHashSet} before every
+ * modification, which is required to publish an unchanging snapshot of a mutable set.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar PersistentBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class PersistentBenchmark {
+
+    /**
+     * Test publishing a new version of a {@link FixedSizeHashSet} for each added element: copy then mutate
+     */
+    @Benchmark
+    public void testCopyThenAdd(final PersistentState state, final Blackhole blackhole) {
+        FixedSizeHashSet<Integer> current = state.hashSet;
+        for (final Integer i : state.randomValues) {
+            final FixedSizeHashSet<Integer> copy = new FixedSizeHashSet<>(state.buckets);
+            copy.addAll(current);
+            copy.add(i);
+            current = copy;
+            blackhole.consume(current);
+        }
+    }
+
+    /**
+     * Test publishing a new version of a {@link PersistentHashSet} for each added element
+     */
+    @Benchmark
+    public void testPersistentWith(final PersistentState state, final Blackhole blackhole) {
+        PersistentHashSet<Integer> current = state.persistentSet;
+        for (final Integer i : state.randomValues) {
+            current = current.with(i);
+            blackhole.consume(current);
+        }
+    }
+
+    /**
+     * Test removing elements one version at a time from a {@link PersistentHashSet}
+     */
+    @Benchmark
+    public void testPersistentWithout(final PersistentState state, final Blackhole blackhole) {
+        PersistentHashSet<Integer> current = state.persistentSet;
+        for (final Integer i : state.initialSample) {
+            current = current.without(i);
+            blackhole.consume(current);
+        }
+    }
+
+    /**
+     * Test building the set from scratch through the transient builder
+     */
+    @Benchmark
+    public PersistentHashSet<Integer> testBuildTransient(final PersistentState state) {
+        final PersistentHashSet.Builder<Integer> builder = new PersistentHashSet.Builder<>();
+        for (final Integer i : state.initialState) {
+            builder.add(i);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Test building the set from scratch one persistent version at a time
+     */
+    @Benchmark
+    public PersistentHashSet<Integer> testBuildPersistent(final PersistentState state) {
+        PersistentHashSet<Integer> set = PersistentHashSet.empty();
+        for (final Integer i : state.initialState) {
+            set = set.with(i);
+        }
+        return set;
+    }
+
+    /**
+     * Test building a {@link FixedSizeHashSet} from scratch
+     */
+    @Benchmark
+    public FixedSizeHashSet<Integer> testBuildHashSet(final PersistentState state) {
+        final FixedSizeHashSet<Integer> set = new FixedSizeHashSet<>(state.buckets);
+        set.addAll(state.initialState);
+        return set;
+    }
+
+    /**
+     * Test performing a search (lookup) on a {@link PersistentHashSet}
+     */
+    @Benchmark
+    public void testPersistentSearch(final PersistentState state, final Blackhole blackhole) {
+        for (final Integer i : state.initialSample) {
+            blackhole.consume(state.persistentSet.contains(i));
+        }
+    }
+
+    /**
+     * Test performing a search (lookup) on a {@link FixedSizeHashSet}
+     */
+    @Benchmark
+    public void testHashSetSearch(final PersistentState state, final Blackhole blackhole) {
+        for (final Integer i : state.initialSample) {
+            blackhole.consume(state.hashSet.contains(i));
+        }
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class PersistentState {
+
+        public Integer[] initialState;
+        public Integer[] initialSample;
+        public Integer[] randomValues;
+        public int buckets;
+
+        public FixedSizeHashSet<Integer> hashSet;
+        public PersistentHashSet<Integer> persistentSet;
+
+        @Setup(Level.Trial)
+        public void init(final Main.PersistentValues values) {
+            final SplittableRandom random = new SplittableRandom();
+            this.initialState = random.ints(values.collectionSize, Integer.MIN_VALUE, 0).boxed()
+                                      .toArray(Integer[]::new);
+            this.initialSample = Arrays.copyOf(this.initialState, Math.min(values.sampleSize, values.collectionSize));
+            this.randomValues = random.ints(values.sampleSize, 1, Integer.MAX_VALUE).boxed()
+                                      .toArray(Integer[]::new);
+            // One bucket per element, the same load factor as the other benchmarks
+            this.buckets = values.collectionSize + values.sampleSize;
+            this.hashSet = new FixedSizeHashSet<>(this.buckets);
+            this.hashSet.addAll(this.initialState);
+            this.persistentSet = PersistentHashSet.of(Arrays.asList(this.initialState));
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.LinkedList;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.CompilerControl;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmark for positional (index based) access on the {@link LinkedList}
+ * Methods annotated with {@link Benchmark} test
+ * a specific operation with a specific access pattern.
+ */
+@CompilerControl(CompilerControl.Mode.EXCLUDE)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PositionalBenchmark {
+
+    /**
+     * Test getting elements at random indices
+     */
+    @Benchmark
+    public void testGetRandom(final PositionalState state) {
+        for (final int index : state.randomIndices) {
+            state.list.get(index);
+        }
+    }
+
+    /**
+     * Test getting elements at consecutive indices
+     */
+    @Benchmark
+    public void testGetSequential(final PositionalState state) {
+        for (int index = state.start; index < state.start + state.sampleSize; index++) {
+            state.list.get(index);
+        }
+    }
+
+    /**
+     * Test getting elements close (within 16 positions) to the previously accessed one
+     */
+    @Benchmark
+    public void testGetNearby(final PositionalState state) {
+        for (final int index : state.nearbyIndices) {
+            state.list.get(index);
+        }
+    }
+
+    /**
+     * Test inserting elements at random indices
+     */
+    @Benchmark
+    public void testAddRandom(final PositionalState state) {
+        for (final int index : state.randomIndices) {
+            state.list.add(index, index);
+        }
+    }
+
+    /**
+     * Test removing elements at random indices
+     */
+    @Benchmark
+    public void testRemoveRandom(final PositionalState state) {
+        for (final int index : state.randomIndices) {
+            // Each removal shrinks the list by one
+            state.list.remove(index % state.list.size());
+        }
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class PositionalState {
+
+        public Integer[] initialState;
+        public int[] randomIndices;
+        public int[] nearbyIndices;
+        public int start;
+        public int sampleSize;
+
+        public LinkedList<Integer> list;
+
+        @Setup(Level.Trial)
+        public void init(final Main.PositionalValues values) {
+            this.list = new LinkedList<>();
+            this.sampleSize = Math.min(values.sampleSize, values.collectionSize);
+            // Use a splittable random so we can generate values in a parallel manner.
+            final SplittableRandom random = new SplittableRandom();
+
+            this.initialState = random.ints(values.collectionSize, Integer.MIN_VALUE, 0).parallel().boxed()
+                                      .toArray(Integer[]::new);
+            this.randomIndices = random.ints(this.sampleSize, 0, values.collectionSize).toArray();
+            this.start = random.nextInt(values.collectionSize - this.sampleSize + 1);
+
+            // Random walk with steps of up to 16 positions in either direction
+            this.nearbyIndices = new int[this.sampleSize];
+            int index = random.nextInt(values.collectionSize);
+            for (int i = 0; i < this.nearbyIndices.length; i++) {
+                index = Math.floorMod(index + random.nextInt(-16, 17), values.collectionSize);
+                this.nearbyIndices[i] = index;
+            }
+        }
+
+        /**
+         * Reset the {@link #list} after every test trial/run
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            // Clear the list
+            this.list.clear();
+            // Copy all elements from the initial state over
+            this.list.addAll(this.initialState);
+        }
+    }
+
+}
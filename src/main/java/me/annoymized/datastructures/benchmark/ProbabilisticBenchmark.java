@@ -0,0 +1,198 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.FixedSizeHashSet;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.probabilistic.CountMinSketch;
+import me.annoymized.datastructures.probabilistic.HyperLogLog;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the {@link HyperLogLog} and the {@link CountMinSketch} compared to exact counting, feeding a
+ * Zipfian stream of keys into a new sketch per invocation. Distinct keys are counted exactly by a
+ * {@link FixedSizeHashSet} and frequencies by a {@link HashMap}. The merge tests combine the sketches of four
+ * shards of the stream. The error is measured after each iteration against the exact counts: "errorPercent" is
+ * the relative error of the distinct count of the HyperLogLog, "overestimate" is the mean number of occurrences the
+ * Count-Min sketch adds to the frequency of a key. The "bytes" counter reports the memory of the sketch.
+ * The JIT compiler is enabled.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar ProbabilisticBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ProbabilisticBenchmark {
+
+    private static final int SHARDS = 4;
+
+    /**
+     * Test estimating the number of distinct keys of the stream with a HyperLogLog sketch
+     */
+    @Benchmark
+    public HyperLogLog<Integer> testHyperLogLogAdd(final StreamState state, final Accuracy accuracy) {
+        final HyperLogLog<Integer> sketch = new HyperLogLog<>(state.values.precision);
+        for (final Integer key : state.stream) {
+            sketch.add(key);
+        }
+        accuracy.distinct = sketch;
+        return sketch;
+    }
+
+    /**
+     * Test counting the distinct keys of the stream exactly with a hash set
+     */
+    @Benchmark
+    public FixedSizeHashSet<Integer> testHashSetDistinct(final StreamState state) {
+        final FixedSizeHashSet<Integer> set = new FixedSizeHashSet<>(state.values.keySpace);
+        for (final Integer key : state.stream) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    /**
+     * Test estimating the frequencies of the keys of the stream with a Count-Min sketch
+     */
+    @Benchmark
+    public CountMinSketch<Integer> testCountMinAdd(final StreamState state, final Accuracy accuracy) {
+        final CountMinSketch<Integer> sketch = state.values.newCountMinSketch();
+        for (final Integer key : state.stream) {
+            sketch.add(key);
+        }
+        accuracy.frequency = sketch;
+        return sketch;
+    }
+
+    /**
+     * Test counting the frequencies of the keys of the stream exactly with a hash map
+     */
+    @Benchmark
+    public Map<Integer, Integer> testHashMapFrequency(final StreamState state) {
+        final Map<Integer, Integer> counts = new HashMap<>(state.values.keySpace * 2);
+        for (final Integer key : state.stream) {
+            counts.merge(key, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Test merging the sketches of the shards of the stream into a new sketch
+     */
+    @Benchmark
+    public HyperLogLog<Integer> testHyperLogLogMerge(final StreamState state, final Accuracy accuracy) {
+        final HyperLogLog<Integer> sketch = new HyperLogLog<>(state.values.precision);
+        for (final HyperLogLog<Integer> shard : state.distinctShards) {
+            sketch.merge(shard);
+        }
+        accuracy.distinct = sketch;
+        return sketch;
+    }
+
+    /**
+     * Test merging the Count-Min sketches of the shards of the stream into a new sketch
+     */
+    @Benchmark
+    public CountMinSketch<Integer> testCountMinMerge(final StreamState state, final Accuracy accuracy) {
+        final CountMinSketch<Integer> sketch = state.values.newCountMinSketch();
+        for (final CountMinSketch<Integer> shard : state.frequencyShards) {
+            sketch.merge(shard);
+        }
+        accuracy.frequency = sketch;
+        return sketch;
+    }
+
+
+    /**
+     * Error and memory of the last sketch built.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Accuracy {
+
+        public double errorPercent;
+        public double overestimate;
+        public long bytes;
+        private HyperLogLog<Integer> distinct;
+        private CountMinSketch<Integer> frequency;
+
+        @TearDown(Level.Iteration)
+        public void measure(final StreamState state) {
+            if (this.distinct != null) {
+                final long exact = state.exactCounts.size();
+                this.errorPercent = 100.0 * Math.abs(this.distinct.estimate() - exact) / exact;
+                this.bytes = this.distinct.sizeInBytes();
+            } else if (this.frequency != null) {
+                long overestimate = 0;
+                for (final Map.Entry<Integer, Integer> entry : state.exactCounts.entrySet()) {
+                    overestimate += this.frequency.estimate(entry.getKey()) - entry.getValue();
+                }
+                this.overestimate = (double) overestimate / state.exactCounts.size();
+                this.bytes = this.frequency.sizeInBytes();
+            }
+        }
+    }
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class StreamState {
+
+        public Main.ProbabilisticValues values;
+        public Integer[] stream;
+        public Map<Integer, Integer> exactCounts;
+        public HyperLogLog<Integer>[] distinctShards;
+        public CountMinSketch<Integer>[] frequencyShards;
+
+        @Setup(Level.Trial)
+        public void init(final Main.ProbabilisticValues values) {
+            this.values = values;
+            final ZipfianGenerator generator = new ZipfianGenerator(values.keySpace, values.skew);
+            this.stream = generator.trace(values.streamLength, new SplittableRandom(values.keySpace));
+            this.exactCounts = new HashMap<>(values.keySpace * 2);
+            for (final Integer key : this.stream) {
+                this.exactCounts.merge(key, 1, Integer::sum);
+            }
+            this.distinctShards = newHyperLogLogs(SHARDS);
+            this.frequencyShards = newCountMinSketches(SHARDS);
+            for (int shard = 0; shard < SHARDS; shard++) {
+                this.distinctShards[shard] = new HyperLogLog<>(values.precision);
+                this.frequencyShards[shard] = values.newCountMinSketch();
+            }
+            for (int i = 0; i < this.stream.length; i++) {
+                // Shard the stream by key, as a partitioned system would
+                final int shard = this.stream[i].hashCode() & SHARDS - 1;
+                this.distinctShards[shard].add(this.stream[i]);
+                this.frequencyShards[shard].add(this.stream[i]);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static HyperLogLog<Integer>[] newHyperLogLogs(final int length) {
+            return (HyperLogLog<Integer>[]) new HyperLogLog<?>[length];
+        }
+
+        @SuppressWarnings("unchecked")
+        private static CountMinSketch<Integer>[] newCountMinSketches(final int length) {
+            return (CountMinSketch<Integer>[]) new CountMinSketch<?>[length];
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.CircularDeque;
+import me.annoymized.datastructures.LinkedList;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmark for FIFO queues: {@link CircularDeque} compared to the {@link LinkedList} (used through
+ * {@link LinkedList#add(Object)}, {@link LinkedList#get(int)} and {@link LinkedList#remove(int)}) and
+ * {@link ArrayDeque}. Each invocation passes {@link Main.QueueValues#sampleSize} elements through a queue which
+ * holds {@link Main.QueueValues#queueSize} elements, in batches of {@link Main.QueueValues#batchSize} elements.
+ * The scores are in elements per microsecond. The JIT compiler is enabled as we are interested in the sustained
+ * throughput.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar QueueBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OperationsPerInvocation(QueueBenchmark.SAMPLE_SIZE)
+public class QueueBenchmark {
+
+    // Must match the sample size parameter, the annotation requires a constant
+    static final int SAMPLE_SIZE = 65536;
+
+    /**
+     * Test passing elements through a {@link CircularDeque} with {@link CircularDeque#offerAll(Object[])}
+     * and {@link CircularDeque#drainTo(Object[], int)}
+     */
+    @Benchmark
+    public void testCircularDequeBatch(final QueueState state, final Blackhole blackhole) {
+        final CircularDeque<Integer> queue = state.circularDeque;
+        for (int i = 0; i < state.batches; i++) {
+            queue.offerAll(state.batch);
+            blackhole.consume(queue.drainTo(state.drained, state.batch.length));
+        }
+    }
+
+    /**
+     * Test passing elements through a {@link CircularDeque} one by one
+     */
+    @Benchmark
+    public void testCircularDeque(final QueueState state, final Blackhole blackhole) {
+        final CircularDeque<Integer> queue = state.circularDeque;
+        for (int i = 0; i < state.batches; i++) {
+            for (final Integer e : state.batch) {
+                queue.addLast(e);
+            }
+            for (int j = 0; j < state.batch.length; j++) {
+                blackhole.consume(queue.pollFirst());
+            }
+        }
+    }
+
+    /**
+     * Test passing elements through an {@link ArrayDeque} one by one
+     */
+    @Benchmark
+    public void testArrayDeque(final QueueState state, final Blackhole blackhole) {
+        final ArrayDeque<Integer> queue = state.arrayDeque;
+        for (int i = 0; i < state.batches; i++) {
+            for (final Integer e : state.batch) {
+                queue.addLast(e);
+            }
+            for (int j = 0; j < state.batch.length; j++) {
+                blackhole.consume(queue.pollFirst());
+            }
+        }
+    }
+
+    /**
+     * Test passing elements through a {@link LinkedList} one by one
+     */
+    @Benchmark
+    public void testLinkedList(final QueueState state, final Blackhole blackhole) {
+        final LinkedList<Integer> queue = state.linkedList;
+        for (int i = 0; i < state.batches; i++) {
+            for (final Integer e : state.batch) {
+                queue.add(e);
+            }
+            for (int j = 0; j < state.batch.length; j++) {
+                blackhole.consume(queue.get(0));
+                queue.remove(0);
+            }
+        }
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class QueueState {
+
+        public Integer[] batch;
+        public Integer[] drained;
+        public int batches;
+
+        public CircularDeque<Integer> circularDeque;
+        public ArrayDeque<Integer> arrayDeque;
+        public LinkedList<Integer> linkedList;
+
+        @Setup(Level.Trial)
+        public void init(final Main.QueueValues values) {
+            if (values.sampleSize != SAMPLE_SIZE) {
+                throw new IllegalArgumentException("Sample size must be " + SAMPLE_SIZE);
+            }
+            this.batch = new Integer[values.batchSize];
+            for (int i = 0; i < this.batch.length; i++) {
+                this.batch[i] = i;
+            }
+            this.drained = new Integer[values.batchSize];
+            this.batches = values.sampleSize / values.batchSize;
+            // Fill the queues up front, the queue size stays the same as every test removes what it adds
+            this.circularDeque = new CircularDeque<>();
+            this.arrayDeque = new ArrayDeque<>();
+            this.linkedList = new LinkedList<>();
+            for (int i = 0; i < values.queueSize; i++) {
+                this.circularDeque.addLast(i);
+                this.arrayDeque.addLast(i);
+                this.linkedList.add(i);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,262 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.LinkedList;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.concurrent.RingBuffer;
+import me.annoymized.datastructures.concurrent.WaitStrategy;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded benchmark for the {@link RingBuffer} flavors compared to a bounded {@link LinkedList} guarded by
+ * a lock. Each group runs producer and consumer threads against one queue:
+ * <ul>
+ *     <li>spsc and locked1P1C: one producer, one consumer</li>
+ *     <li>mpsc and locked3P1C: three producers, one consumer</li>
+ *     <li>mpmc and locked2P2C: two producers, two consumers</li>
+ * </ul>
+ * The operations are non-blocking, an invocation on a full (or empty) queue transfers nothing. The throughput
+ * of elements actually transferred is reported by the "offered" and "polled" counters, the sample time mode
+ * reports the latency distribution of a single offer or poll under contention. The JIT compiler is enabled,
+ * the results are only meaningful with at least as many cores as threads.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar RingBufferBenchmark
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class RingBufferBenchmark {
+
+    /**
+     * Test offering batches to a single-producer single-consumer ring buffer
+     */
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public int spscOffer(final RingState state, final Counters counters) {
+        return counters.offered(state.offer(state.spsc));
+    }
+
+    /**
+     * Test draining batches from a single-producer single-consumer ring buffer
+     */
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public int spscPoll(final RingState state, final Counters counters) {
+        return counters.polled(state.poll(state.spsc, counters.drained));
+    }
+
+    /**
+     * Test offering batches to a multi-producer single-consumer ring buffer from three producers
+     */
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(3)
+    public int mpscOffer(final RingState state, final Counters counters) {
+        return counters.offered(state.offer(state.mpsc));
+    }
+
+    /**
+     * Test draining batches from a multi-producer single-consumer ring buffer
+     */
+    @Benchmark
+    @Group("mpsc")
+    @GroupThreads(1)
+    public int mpscPoll(final RingState state, final Counters counters) {
+        return counters.polled(state.poll(state.mpsc, counters.drained));
+    }
+
+    /**
+     * Test offering batches to a multi-producer multi-consumer ring buffer from two producers
+     */
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(2)
+    public int mpmcOffer(final RingState state, final Counters counters) {
+        return counters.offered(state.offer(state.mpmc));
+    }
+
+    /**
+     * Test draining batches from a multi-producer multi-consumer ring buffer with two consumers
+     */
+    @Benchmark
+    @Group("mpmc")
+    @GroupThreads(2)
+    public int mpmcPoll(final RingState state, final Counters counters) {
+        return counters.polled(state.poll(state.mpmc, counters.drained));
+    }
+
+    /**
+     * Test offering batches to a locked linked list with one producer
+     */
+    @Benchmark
+    @Group("locked1P1C")
+    @GroupThreads(1)
+    public int locked1P1COffer(final RingState state, final Counters counters) {
+        return counters.offered(state.offerLocked());
+    }
+
+    /**
+     * Test draining batches from a locked linked list with one consumer
+     */
+    @Benchmark
+    @Group("locked1P1C")
+    @GroupThreads(1)
+    public int locked1P1CPoll(final RingState state, final Counters counters) {
+        return counters.polled(state.pollLocked(counters.drained));
+    }
+
+    /**
+     * Test offering batches to a locked linked list from three producers
+     */
+    @Benchmark
+    @Group("locked3P1C")
+    @GroupThreads(3)
+    public int locked3P1COffer(final RingState state, final Counters counters) {
+        return counters.offered(state.offerLocked());
+    }
+
+    /**
+     * Test draining batches from a locked linked list with one consumer, fed by three producers
+     */
+    @Benchmark
+    @Group("locked3P1C")
+    @GroupThreads(1)
+    public int locked3P1CPoll(final RingState state, final Counters counters) {
+        return counters.polled(state.pollLocked(counters.drained));
+    }
+
+    /**
+     * Test offering batches to a locked linked list from two producers
+     */
+    @Benchmark
+    @Group("locked2P2C")
+    @GroupThreads(2)
+    public int locked2P2COffer(final RingState state, final Counters counters) {
+        return counters.offered(state.offerLocked());
+    }
+
+    /**
+     * Test draining batches from a locked linked list with two consumers
+     */
+    @Benchmark
+    @Group("locked2P2C")
+    @GroupThreads(2)
+    public int locked2P2CPoll(final RingState state, final Counters counters) {
+        return counters.polled(state.pollLocked(counters.drained));
+    }
+
+
+    /**
+     * Counters reported alongside the operations, JMH reports them as a rate (elements/us).
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+
+        public long offered;
+        public long polled;
+        // Destination of drained batches, one per thread
+        Integer[] drained;
+
+        @Setup(Level.Trial)
+        public void init(final Main.RingBufferValues values) {
+            this.drained = new Integer[values.batchSize];
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.offered = 0;
+            this.polled = 0;
+        }
+
+        int offered(final int count) {
+            this.offered += count;
+            return count;
+        }
+
+        int polled(final int count) {
+            this.polled += count;
+            return count;
+        }
+    }
+
+    /**
+     * Queues shared by the threads of a group
+     */
+    @State(Scope.Group)
+    public static class RingState {
+
+        public Integer[] batch;
+        public int capacity;
+        public RingBuffer<Integer> spsc;
+        public RingBuffer<Integer> mpsc;
+        public RingBuffer<Integer> mpmc;
+        public LinkedList<Integer> locked;
+
+        @Setup(Level.Trial)
+        public void init(final Main.RingBufferValues values) {
+            this.batch = new Integer[values.batchSize];
+            for (int i = 0; i < this.batch.length; i++) {
+                this.batch[i] = i;
+            }
+            this.capacity = values.capacity;
+            this.spsc = RingBuffer.spsc(values.capacity, WaitStrategy.spin());
+            this.mpsc = RingBuffer.mpsc(values.capacity, WaitStrategy.spin());
+            this.mpmc = RingBuffer.mpmc(values.capacity, WaitStrategy.spin());
+            this.locked = new LinkedList<>();
+        }
+
+        int offer(final RingBuffer<Integer> ring) {
+            if (this.batch.length == 1) {
+                return ring.offer(this.batch[0]) ? 1 : 0;
+            }
+            return ring.offer(this.batch, 0, this.batch.length);
+        }
+
+        int poll(final RingBuffer<Integer> ring, final Integer[] drained) {
+            if (drained.length == 1) {
+                return ring.poll() == null ? 0 : 1;
+            }
+            return ring.drainTo(drained, drained.length);
+        }
+
+        int offerLocked() {
+            synchronized (this.locked) {
+                final int count = Math.min(this.batch.length, this.capacity - this.locked.size());
+                for (int i = 0; i < count; i++) {
+                    this.locked.add(this.batch[i]);
+                }
+                return count;
+            }
+        }
+
+        int pollLocked(final Integer[] drained) {
+            synchronized (this.locked) {
+                final int count = Math.min(drained.length, this.locked.size());
+                for (int i = 0; i < count; i++) {
+                    drained[i] = this.locked.get(0);
+                    this.locked.remove(0);
+                }
+                return count;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,246 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.FixedSizeHashSet;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.RoaringIntSet;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the {@link RoaringIntSet} compared to a {@link FixedSizeHashSet} of Integers, for dense and sparse
+ * integers. The memory footprint of both is best compared by running the build tests with the GC profiler
+ * ("-prof gc"), the normalized allocation rate (gc.alloc.rate.norm) is the number of bytes allocated to build
+ * one set. The "bytes" counter of the roaring build tests reports the set's own estimate. The JIT compiler is
+ * enabled.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar RoaringBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class RoaringBenchmark {
+
+    /**
+     * Test building a Roaring set by adding the integers one by one, recording its footprint
+     */
+    @Benchmark
+    public RoaringIntSet testRoaringBuild(final RoaringState state, final Footprint footprint) {
+        final RoaringIntSet set = new RoaringIntSet();
+        for (final int value : state.values) {
+            set.add(value);
+        }
+        footprint.bytes = set.sizeInBytes();
+        return set;
+    }
+
+    /**
+     * Test building a Roaring set and converting its containers to runs where smaller
+     */
+    @Benchmark
+    public RoaringIntSet testRoaringBuildOptimized(final RoaringState state, final Footprint footprint) {
+        final RoaringIntSet set = testRoaringBuild(state, footprint);
+        set.runOptimize();
+        footprint.bytes = set.sizeInBytes();
+        return set;
+    }
+
+    /**
+     * Test building a hash set of boxed integers by adding them one by one
+     */
+    @Benchmark
+    public FixedSizeHashSet<Integer> testHashSetBuild(final RoaringState state) {
+        final FixedSizeHashSet<Integer> set = new FixedSizeHashSet<>(state.values.length);
+        for (final int value : state.values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    /**
+     * Test searching integers, half of which are in the set
+     */
+    @Benchmark
+    public void testRoaringContains(final RoaringState state, final Blackhole blackhole) {
+        for (final int value : state.samples) {
+            blackhole.consume(state.roaring.contains(value));
+        }
+    }
+
+    /**
+     * Test searching boxed integers, half of which are in the hash set
+     */
+    @Benchmark
+    public void testHashSetContains(final RoaringState state, final Blackhole blackhole) {
+        for (final int value : state.samples) {
+            blackhole.consume(state.hashSet.contains(value));
+        }
+    }
+
+    /**
+     * Test adding integers and removing them again, so the set is the same after each invocation
+     */
+    @Benchmark
+    public void testRoaringAddRemove(final RoaringState state) {
+        for (final int value : state.absent) {
+            state.roaring.add(value);
+        }
+        for (final int value : state.absent) {
+            state.roaring.remove(value);
+        }
+    }
+
+    /**
+     * Test adding boxed integers to the hash set and removing them again
+     */
+    @Benchmark
+    public void testHashSetAddRemove(final RoaringState state) {
+        for (final int value : state.absent) {
+            state.hashSet.add(value);
+        }
+        for (final int value : state.absent) {
+            state.hashSet.remove(value);
+        }
+    }
+
+    /**
+     * Test counting the integers of a Roaring set
+     */
+    @Benchmark
+    public long testRoaringCardinality(final RoaringState state) {
+        return state.roaring.cardinality();
+    }
+
+    /**
+     * Test the union of two Roaring sets
+     */
+    @Benchmark
+    public RoaringIntSet testRoaringUnion(final RoaringState state) {
+        return state.roaring.union(state.otherRoaring);
+    }
+
+    /**
+     * Test the union of two hash sets
+     */
+    @Benchmark
+    public FixedSizeHashSet<Integer> testHashSetUnion(final RoaringState state) {
+        return state.hashSet.union(state.otherHashSet);
+    }
+
+    /**
+     * Test the intersection of two Roaring sets
+     */
+    @Benchmark
+    public RoaringIntSet testRoaringIntersect(final RoaringState state) {
+        return state.roaring.intersect(state.otherRoaring);
+    }
+
+    /**
+     * Test the intersection of two hash sets
+     */
+    @Benchmark
+    public FixedSizeHashSet<Integer> testHashSetIntersect(final RoaringState state) {
+        return state.hashSet.intersect(state.otherHashSet);
+    }
+
+
+    /**
+     * Estimated size of the last set built, in bytes.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+
+        public long bytes;
+    }
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class RoaringState {
+
+        public int[] values;
+        public int[] samples;
+        public int[] absent;
+
+        public RoaringIntSet roaring;
+        public RoaringIntSet otherRoaring;
+        public FixedSizeHashSet<Integer> hashSet;
+        public FixedSizeHashSet<Integer> otherHashSet;
+
+        @Setup(Level.Trial)
+        public void init(final Main.RoaringValues values) {
+            final SplittableRandom random = new SplittableRandom();
+            this.values = generate(values, random);
+            final int[] other = generate(values, random);
+            this.roaring = new RoaringIntSet();
+            this.otherRoaring = new RoaringIntSet();
+            this.hashSet = new FixedSizeHashSet<>(values.collectionSize);
+            this.otherHashSet = new FixedSizeHashSet<>(values.collectionSize);
+            for (int i = 0; i < values.collectionSize; i++) {
+                this.roaring.add(this.values[i]);
+                this.hashSet.add(this.values[i]);
+                this.otherRoaring.add(other[i]);
+                this.otherHashSet.add(other[i]);
+            }
+            this.samples = new int[values.sampleSize];
+            this.absent = new int[values.sampleSize];
+            int absent = 0;
+            for (int i = 0; i < values.sampleSize; i++) {
+                // Every other sample is in the set
+                this.samples[i] = i % 2 == 0 ? this.values[random.nextInt(this.values.length)] : random.nextInt();
+                int value;
+                do {
+                    value = i % 2 == 0 ? this.values[0] + random.nextInt(values.collectionSize * 2) : random.nextInt();
+                } while (this.roaring.contains(value) || contains(this.absent, absent, value));
+                this.absent[absent++] = value;
+            }
+        }
+
+        private static boolean contains(final int[] array, final int length, final int value) {
+            for (int i = 0; i < length; i++) {
+                if (array[i] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static int[] generate(final Main.RoaringValues values, final SplittableRandom random) {
+            final int[] result = new int[values.collectionSize];
+            switch (values.distribution) {
+                case "dense":
+                    // Consecutive integers from a random start, skipping about 10% of them
+                    int value = random.nextInt(1 << 20);
+                    for (int i = 0; i < result.length; i++) {
+                        value += random.nextInt(10) == 0 ? 2 : 1;
+                        result[i] = value;
+                    }
+                    return result;
+                case "sparse":
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = random.nextInt();
+                    }
+                    return result;
+                default:
+                    throw new IllegalArgumentException("Unknown distribution: " + values.distribution);
+            }
+        }
+    }
+
+}
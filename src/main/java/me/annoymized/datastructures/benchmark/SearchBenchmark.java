@@ -0,0 +1,176 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.ArraySearch;
+import me.annoymized.datastructures.Hashing;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the linear scans of {@link ArraySearch}: the search modelled in {@link ArrayBenchmark#testSearch}
+ * over primitive arrays, and probing an open addressing hash table. Every scan is run twice, in a fork with the
+ * jdk.incubator.vector module (vectorized on JDK 17+, the multi-release classes must be loaded from the JAR) and
+ * in a fork with {@link ArraySearch#VECTORIZE_PROPERTY} set to false (the portable scalar loops). The boxed
+ * search of {@link ArrayBenchmark#testSearch} is included as the baseline. The JIT compiler is enabled as the
+ * vectorized scans depend on its intrinsics.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar SearchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SearchBenchmark {
+
+    private static final String VECTOR_MODULE = "--add-modules=jdk.incubator.vector";
+    private static final String SCALAR = "-D" + ArraySearch.VECTORIZE_PROPERTY + "=false";
+
+    /**
+     * Test searching an int array with vectorized comparisons
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = VECTOR_MODULE)
+    public int testIndexOfInt(final SearchState state) {
+        return ArraySearch.indexOf(state.ints, 0, state.ints.length, state.ints[state.nextPosition()]);
+    }
+
+    /**
+     * Test searching an int array with scalar comparisons
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = SCALAR)
+    public int testIndexOfIntScalar(final SearchState state) {
+        return ArraySearch.indexOf(state.ints, 0, state.ints.length, state.ints[state.nextPosition()]);
+    }
+
+    /**
+     * Test searching a long array with vectorized comparisons
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = VECTOR_MODULE)
+    public int testIndexOfLong(final SearchState state) {
+        return ArraySearch.indexOf(state.longs, 0, state.longs.length, state.longs[state.nextPosition()]);
+    }
+
+    /**
+     * Test searching a long array with scalar comparisons
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = SCALAR)
+    public int testIndexOfLongScalar(final SearchState state) {
+        return ArraySearch.indexOf(state.longs, 0, state.longs.length, state.longs[state.nextPosition()]);
+    }
+
+    /**
+     * Test searching an Integer array element by element, as in {@link ArrayBenchmark#testSearch}
+     */
+    @Benchmark
+    public int testIndexOfBoxed(final SearchState state) {
+        final Integer[] boxed = state.boxed;
+        final Integer toTest = boxed[state.nextPosition()];
+        for (int index = 0; index < boxed.length; index++) {
+            if (toTest.equals(boxed[index])) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Test looking up keys, half of them missing, in a linear probing hash table with vectorized comparisons
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = VECTOR_MODULE)
+    public int testProbe(final SearchState state) {
+        final int key = state.probeKeys[state.nextPosition()];
+        return ArraySearch.probe(state.table, Hashing.mix(key) & (state.table.length - 1), key, SearchState.EMPTY);
+    }
+
+    /**
+     * Test looking up keys, half of them missing, in a linear probing hash table with scalar comparisons
+     */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = SCALAR)
+    public int testProbeScalar(final SearchState state) {
+        final int key = state.probeKeys[state.nextPosition()];
+        return ArraySearch.probe(state.table, Hashing.mix(key) & (state.table.length - 1), key, SearchState.EMPTY);
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class SearchState {
+
+        static final int EMPTY = 0;
+
+        public int[] ints;
+        public long[] longs;
+        public Integer[] boxed;
+        // Hash table filled to the given load factor, the keys are never empty
+        public int[] table;
+        public int[] probeKeys;
+
+        // Random positions of the searched elements, cycled through by the tests
+        private int[] positions;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void init(final Main.SearchValues values) {
+            final Random random = new Random(42);
+            this.ints = new int[values.arraySize];
+            this.longs = new long[values.arraySize];
+            this.boxed = new Integer[values.arraySize];
+            for (int i = 0; i < values.arraySize; i++) {
+                this.ints[i] = i;
+                this.longs[i] = i;
+                this.boxed[i] = i;
+            }
+            this.positions = new int[1024];
+            for (int i = 0; i < this.positions.length; i++) {
+                this.positions[i] = random.nextInt(values.arraySize);
+            }
+
+            this.table = new int[Integer.highestOneBit(values.arraySize - 1) << 1];
+            final int[] keys = new int[(int) (this.table.length * values.loadFactor)];
+            for (int inserted = 0; inserted < keys.length; ) {
+                final int key = random.nextInt();
+                final int slot = key == EMPTY ? -1 : ArraySearch.probe(this.table, slot(key), key, EMPTY);
+                if (slot != -1 && this.table[slot] == EMPTY) {
+                    this.table[slot] = key;
+                    keys[inserted++] = key;
+                }
+            }
+            this.probeKeys = new int[values.arraySize];
+            for (int i = 0; i < this.probeKeys.length; i++) {
+                int key;
+                do {
+                    key = i % 2 == 0 && keys.length != 0 ? keys[random.nextInt(keys.length)] : random.nextInt();
+                } while (key == EMPTY);
+                this.probeKeys[i] = key;
+            }
+        }
+
+        int nextPosition() {
+            return this.positions[this.next++ & (this.positions.length - 1)];
+        }
+
+        private int slot(final int key) {
+            return Hashing.mix(key) & (this.table.length - 1);
+        }
+    }
+
+}
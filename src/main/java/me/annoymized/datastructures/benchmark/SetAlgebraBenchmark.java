@@ -0,0 +1,187 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.Collection;
+import me.annoymized.datastructures.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for the bulk operations ({@link Collection#removeAll(Collection)}, {@link Collection#retainAll(Collection)},
+ * {@link Collection#union(Collection)}, {@link Collection#intersect(Collection)} and {@link Collection#difference(Collection)})
+ * compared to the equivalent element by element loops. Every invocation mutates or builds a collection, therefore
+ * a single invocation is measured. The JIT compiler is enabled, the element by element loops over a {@link
+ * me.annoymized.datastructures.LinkedList} of 100k elements take several seconds even so.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar SetAlgebraBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SetAlgebraBenchmark {
+
+    /**
+     * Test removing all elements of the other collection
+     */
+    @Benchmark
+    public Collection<Integer> testRemoveAll(final SetAlgebraState state) {
+        state.target.removeAll(state.other);
+        return state.target;
+    }
+
+    /**
+     * Test removing all elements of the other collection one by one
+     */
+    @Benchmark
+    public Collection<Integer> testRemoveAllElementwise(final SetAlgebraState state) {
+        for (final Integer e : state.other) {
+            state.target.remove(e);
+        }
+        return state.target;
+    }
+
+    /**
+     * Test retaining the elements which are in the other collection
+     */
+    @Benchmark
+    public Collection<Integer> testRetainAll(final SetAlgebraState state) {
+        state.target.retainAll(state.other);
+        return state.target;
+    }
+
+    /**
+     * Test retaining the elements which are in the other collection by looking them up one by one
+     */
+    @Benchmark
+    public Collection<Integer> testRetainAllElementwise(final SetAlgebraState state) {
+        for (final Integer e : state.elements) {
+            if (!state.other.contains(e)) {
+                state.target.remove(e);
+            }
+        }
+        return state.target;
+    }
+
+    /**
+     * Test building the union of both collections
+     */
+    @Benchmark
+    public Collection<Integer> testUnion(final SetAlgebraState state) {
+        return state.target.union(state.other);
+    }
+
+    /**
+     * Test building the union of both collections by looking up the elements of the other collection one by one
+     */
+    @Benchmark
+    public Collection<Integer> testUnionElementwise(final SetAlgebraState state) {
+        final Collection<Integer> result = state.values.newCollection();
+        result.addAll(state.target);
+        for (final Integer e : state.other) {
+            if (!state.target.contains(e)) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Test building the intersection of both collections
+     */
+    @Benchmark
+    public Collection<Integer> testIntersect(final SetAlgebraState state) {
+        return state.target.intersect(state.other);
+    }
+
+    /**
+     * Test building the intersection of both collections by looking up the elements one by one
+     */
+    @Benchmark
+    public Collection<Integer> testIntersectElementwise(final SetAlgebraState state) {
+        final Collection<Integer> result = state.values.newCollection();
+        for (final Integer e : state.target) {
+            if (state.other.contains(e)) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Test building the difference of both collections
+     */
+    @Benchmark
+    public Collection<Integer> testDifference(final SetAlgebraState state) {
+        return state.target.difference(state.other);
+    }
+
+    /**
+     * Test building the difference of both collections by looking up the elements one by one
+     */
+    @Benchmark
+    public Collection<Integer> testDifferenceElementwise(final SetAlgebraState state) {
+        final Collection<Integer> result = state.values.newCollection();
+        for (final Integer e : state.target) {
+            if (!state.other.contains(e)) {
+                result.add(e);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class SetAlgebraState {
+
+        public Main.SetAlgebraValues values;
+        public Integer[] elements;
+        public Collection<Integer> target;
+        public Collection<Integer> other;
+
+        @Setup(Level.Trial)
+        public void init(final Main.SetAlgebraValues values) {
+            this.values = values;
+            // Use a splittable random so we can generate values in a parallel manner.
+            final SplittableRandom random = new SplittableRandom();
+            // Distinct values, the first collection holds values [0, n) and the other collection values [n - shared, 2n - shared)
+            final int shared = (int) (values.collectionSize * values.overlap);
+            final int[] permutation = random.ints(0, Integer.MAX_VALUE).parallel().distinct()
+                                            .limit(values.collectionSize * 2L - shared).toArray();
+            this.elements = new Integer[values.collectionSize];
+            this.other = values.newCollection();
+            for (int i = 0; i < permutation.length; i++) {
+                if (i < values.collectionSize) {
+                    this.elements[i] = permutation[i];
+                }
+                if (i >= values.collectionSize - shared) {
+                    this.other.add(permutation[i]);
+                }
+            }
+        }
+
+        /**
+         * Reset the {@link #target} before every invocation
+         */
+        @Setup(Level.Invocation)
+        public void reset() {
+            this.target = this.values.newCollection();
+            this.target.addAll(this.elements);
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.IncrementalHashSet;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.concurrent.ShardedSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-threaded benchmark for ingesting keys into a {@link ShardedSet}, compared to a set of lock-striped
+ * {@link IncrementalHashSet}s and to a {@link ConcurrentHashMap} key set. The keys of every thread follow the same
+ * Zipfian distribution, so the popular keys fall into the same stripes. The ingest test adds keys from
+ * {@link #THREADS} threads into a new set per iteration, run it with "-t 1", "-t 2", ... to measure the scaling with
+ * the number of cores. The merge group adds keys from two threads while one thread merges continuously and another
+ * one samples the latency of lookups, the other sets do not merge. The JIT compiler is enabled, the results are
+ * only meaningful with at least as many cores as threads.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar ShardedSetBenchmark
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ShardedSetBenchmark {
+
+    static final int THREADS = 4;
+    // The number of pre-generated keys every thread cycles through
+    private static final int OPERATIONS = 1 << 18;
+
+    /**
+     * Test adding keys from all threads
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(THREADS)
+    public void testIngest(final IngestState state, final ThreadState thread) {
+        state.set.add(thread.next());
+    }
+
+    /**
+     * Sample the latency of additions while the other threads of the group read and merge
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Group("merge")
+    @GroupThreads(2)
+    public void write(final MergeState state, final ThreadState thread) {
+        state.set.add(thread.next());
+    }
+
+    /**
+     * Sample the latency of lookups while the other threads of the group write and merge
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Group("merge")
+    @GroupThreads(1)
+    public boolean read(final MergeState state, final ThreadState thread) {
+        return state.set.contains(thread.next());
+    }
+
+    /**
+     * Sample the latency of merging the shards while the other threads of the group write and read
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Group("merge")
+    @GroupThreads(1)
+    public void merge(final MergeState state) {
+        state.set.merge();
+    }
+
+
+    /**
+     * The set shared by all threads, new for every iteration
+     */
+    @State(Scope.Benchmark)
+    public static class IngestState {
+
+        public IngestSet set;
+        private String collection;
+
+        @Setup(Level.Trial)
+        public void init(final Main.ShardedSetValues values) {
+            this.collection = values.collection;
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.set = IngestSet.of(this.collection);
+        }
+    }
+
+    /**
+     * The set shared by the threads of a group, new for every iteration
+     */
+    @State(Scope.Group)
+    public static class MergeState extends IngestState {
+    }
+
+    /**
+     * Keys of a thread, each thread draws its own sequence
+     */
+    @State(Scope.Thread)
+    public static class ThreadState {
+
+        public Integer[] keys;
+        private int cursor;
+
+        @Setup(Level.Trial)
+        public void init(final Main.ShardedSetValues values) {
+            final ZipfianGenerator generator = new ZipfianGenerator(values.keySpace, values.skew);
+            this.keys = generator.trace(OPERATIONS, new SplittableRandom(System.identityHashCode(this)));
+        }
+
+        Integer next() {
+            return this.keys[this.cursor++ & OPERATIONS - 1];
+        }
+    }
+
+    /**
+     * Common view of the benchmarked sets. Only one implementation is loaded per fork, so the calls are inlined.
+     */
+    public abstract static class IngestSet {
+
+        static IngestSet of(final String name) {
+            switch (name) {
+                case "ShardedSet":
+                    return new IngestSet() {
+                        private final ShardedSet<Integer> set = new ShardedSet<>();
+
+                        @Override
+                        void add(final Integer key) {
+                            this.set.add(key);
+                        }
+
+                        @Override
+                        boolean contains(final Integer key) {
+                            return this.set.contains(key);
+                        }
+
+                        @Override
+                        void merge() {
+                            this.set.merge();
+                        }
+                    };
+                case "StripedHashSet":
+                    return new IngestSet() {
+                        private final Object[] stripes = newStripes();
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        void add(final Integer key) {
+                            final Object stripe = this.stripes[key.hashCode() & this.stripes.length - 1];
+                            synchronized (stripe) {
+                                ((IncrementalHashSet<Integer>) stripe).add(key);
+                            }
+                        }
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        boolean contains(final Integer key) {
+                            final Object stripe = this.stripes[key.hashCode() & this.stripes.length - 1];
+                            synchronized (stripe) {
+                                return ((IncrementalHashSet<Integer>) stripe).contains(key);
+                            }
+                        }
+                    };
+                case "ConcurrentHashSet":
+                    return new IngestSet() {
+                        private final Set<Integer> set = ConcurrentHashMap.newKeySet();
+
+                        @Override
+                        void add(final Integer key) {
+                            this.set.add(key);
+                        }
+
+                        @Override
+                        boolean contains(final Integer key) {
+                            return this.set.contains(key);
+                        }
+                    };
+                default:
+                    throw new IllegalArgumentException("Unknown Collection: " + name);
+            }
+        }
+
+        private static Object[] newStripes() {
+            final Object[] stripes = new Object[64];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new IncrementalHashSet<Integer>();
+            }
+            return stripes;
+        }
+
+        abstract void add(Integer key);
+
+        abstract boolean contains(Integer key);
+
+        /**
+         * Merge pending writes, if the set defers them
+         */
+        void merge() {
+        }
+    }
+
+}
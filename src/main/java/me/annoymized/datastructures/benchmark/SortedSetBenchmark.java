@@ -0,0 +1,129 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.BPlusTree;
+import me.annoymized.datastructures.Collection;
+import me.annoymized.datastructures.FixedSizeHashSet;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.SortedArraySet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for read-mostly sets: the {@link SortedArraySet} and the {@link BPlusTree} compared to the
+ * {@link FixedSizeHashSet}. Each invocation of the mix test performs {@link Main.SortedSetValues#sampleSize}
+ * operations, of which the share {@link Main.SortedSetValues#writeRatio} are writes (alternately adding and removing
+ * a missing element, so the size stays the same) and the rest are lookups of which half miss. The range test collects
+ * the elements of {@link #RANGE_QUERIES} ranges, each spanning 1% of the elements; the hash set has to filter all of
+ * its elements.
+ * The JIT compiler is enabled and the heap is fixed, as the largest sets take a few hundred megabytes.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar SortedSetBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 2, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SortedSetBenchmark {
+
+    static final int RANGE_QUERIES = 16;
+
+    /**
+     * Test a mix of lookups and writes
+     */
+    @Benchmark
+    public void testReadMix(final SortedSetState state, final Blackhole blackhole) {
+        final Collection<Integer> collection = state.collection;
+        final Integer[] keys = state.keys;
+        final boolean[] writes = state.writes;
+        for (int i = 0; i < keys.length; i++) {
+            if (!writes[i]) {
+                blackhole.consume(collection.contains(keys[i]));
+            } else if (!collection.remove(keys[i])) {
+                collection.add(keys[i]);
+            }
+        }
+    }
+
+    /**
+     * Test collecting the elements within ranges
+     */
+    @Benchmark
+    public void testRangeQuery(final SortedSetState state, final Blackhole blackhole) {
+        for (int i = 0; i < RANGE_QUERIES; i++) {
+            final Integer from = state.rangeStarts[i];
+            final Integer to = from + state.rangeLength;
+            if (state.collection instanceof SortedArraySet) {
+                blackhole.consume(((SortedArraySet<Integer>) state.collection).subSet(from, to));
+            } else if (state.collection instanceof BPlusTree) {
+                blackhole.consume(((BPlusTree<Integer>) state.collection).subSet(from, to));
+            } else {
+                final FixedSizeHashSet<Integer> range = new FixedSizeHashSet<>(state.rangeLength);
+                for (final Integer element : state.collection) {
+                    if (element >= from && element < to) {
+                        range.add(element);
+                    }
+                }
+                blackhole.consume(range);
+            }
+        }
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class SortedSetState {
+
+        // The set holds the even integers below twice its size
+        public Collection<Integer> collection;
+        public Integer[] keys;
+        public boolean[] writes;
+        public int[] rangeStarts;
+        public int rangeLength;
+
+        @Setup(Level.Trial)
+        public void init(final Main.SortedSetValues values) {
+            final SplittableRandom random = new SplittableRandom(42);
+            this.collection = values.newCollection();
+            final Integer[] elements = new Integer[values.collectionSize];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = i * 2;
+            }
+            this.collection.addAll(elements);
+
+            this.keys = new Integer[values.sampleSize];
+            this.writes = new boolean[values.sampleSize];
+            // Writes cycle through a few odd integers, so every integer is added by one write and removed by the next
+            final Integer[] written = new Integer[64];
+            for (int i = 0; i < written.length; i++) {
+                written[i] = random.nextInt(values.collectionSize) * 2 + 1;
+            }
+            int write = 0;
+            for (int i = 0; i < values.sampleSize; i++) {
+                this.writes[i] = random.nextDouble() < values.writeRatio;
+                this.keys[i] = this.writes[i] ? written[write++ % written.length] : random.nextInt(values.collectionSize * 2);
+            }
+
+            this.rangeLength = Math.max(2, values.collectionSize / 50);
+            this.rangeStarts = new int[RANGE_QUERIES];
+            for (int i = 0; i < RANGE_QUERIES; i++) {
+                this.rangeStarts[i] = random.nextInt(values.collectionSize * 2 - this.rangeLength);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+package me.annoymized.datastructures.benchmark;
+
+import me.annoymized.datastructures.Collection;
+import me.annoymized.datastructures.LinkedList;
+import me.annoymized.datastructures.Main;
+import me.annoymized.datastructures.View;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for a pipeline of a filter, a mapping and a second filter over a {@link Collection}, evaluated lazily
+ * through a {@link View} compared to copying the result of every stage into a new {@link LinkedList}. The limit
+ * tests only consume the first elements of the pipeline. The garbage of the intermediate copies is best compared
+ * by running with the GC profiler ("-prof gc"), the normalized allocation rate (gc.alloc.rate.norm) is the number
+ * of bytes allocated per pipeline. The JIT compiler is enabled.
+ * Run with: java -jar target/DataStructures-1.0-SNAPSHOT.jar ViewBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ViewBenchmark {
+
+    /**
+     * Test copying the elements of each stage into a new list and consuming the last list
+     */
+    @Benchmark
+    public void testEager(final PipelineState state, final Blackhole blackhole) {
+        eager(state.collection).forEach(blackhole::consume);
+    }
+
+    /**
+     * Test pushing the elements through the stages of a view
+     */
+    @Benchmark
+    public void testViewForEach(final PipelineState state, final Blackhole blackhole) {
+        lazy(state.collection).forEach(blackhole::consume);
+    }
+
+    /**
+     * Test pulling the elements through the stages of a view with an iterator
+     */
+    @Benchmark
+    public void testViewIterator(final PipelineState state, final Blackhole blackhole) {
+        for (final Integer i : lazy(state.collection)) {
+            blackhole.consume(i);
+        }
+    }
+
+    /**
+     * Test copying the result of the view into a single new list
+     */
+    @Benchmark
+    public LinkedList<Integer> testViewInto(final PipelineState state) {
+        return lazy(state.collection).into(new LinkedList<>());
+    }
+
+    /**
+     * Test consuming the first elements of the eagerly copied result
+     */
+    @Benchmark
+    public void testEagerLimit(final PipelineState state, final Blackhole blackhole) {
+        final LinkedList<Integer> result = eager(state.collection);
+        for (int i = 0; i < state.limit && i < result.size(); i++) {
+            blackhole.consume(result.get(i));
+        }
+    }
+
+    /**
+     * Test consuming the first elements of a limited view, which stops traversing the collection at the limit
+     */
+    @Benchmark
+    public void testViewLimit(final PipelineState state, final Blackhole blackhole) {
+        lazy(state.collection).limit(state.limit).forEach(blackhole::consume);
+    }
+
+    private static LinkedList<Integer> eager(final Collection<Integer> collection) {
+        final LinkedList<Integer> even = new LinkedList<>();
+        collection.forEach(i -> {
+            if ((i & 1) == 0) {
+                even.add(i);
+            }
+        });
+        final LinkedList<Integer> halved = new LinkedList<>();
+        even.forEach(i -> halved.add(i >> 1));
+        final LinkedList<Integer> result = new LinkedList<>();
+        halved.forEach(i -> {
+            if (i % 3 != 0) {
+                result.add(i);
+            }
+        });
+        return result;
+    }
+
+    private static View<Integer> lazy(final Collection<Integer> collection) {
+        return collection.view()
+                         .filter(i -> (i & 1) == 0)
+                         .map(i -> i >> 1)
+                         .filter(i -> i % 3 != 0);
+    }
+
+
+    /**
+     * Data values generated for each test
+     */
+    @State(Scope.Benchmark)
+    public static class PipelineState {
+
+        public Collection<Integer> collection;
+        public int limit;
+
+        @Setup(Level.Trial)
+        public void init(final Main.ViewValues values) {
+            this.collection = values.newCollection();
+            this.limit = values.limit;
+            final SplittableRandom random = new SplittableRandom(values.collectionSize);
+            for (int i = 0; i < values.collectionSize; i++) {
+                this.collection.add(random.nextInt());
+            }
+        }
+    }
+
+}
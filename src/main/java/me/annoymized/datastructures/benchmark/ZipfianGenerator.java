@@ -0,0 +1,60 @@
+package me.annoymized.datastructures.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates keys following a Zipfian distribution: the key of rank k (starting at 1) is drawn with a
+ * probability proportional to 1 / k^skew. Ranks are scrambled into keys so that popular keys are not
+ * sequential integers.
+ */
+final class ZipfianGenerator {
+
+    private final double[] cdf;
+
+    /**
+     * @param keySpace The number of distinct keys
+     * @param skew     The skew of the distribution, higher values concentrate more draws on the popular keys
+     */
+    ZipfianGenerator(final int keySpace, final double skew) {
+        this.cdf = new double[keySpace];
+        double sum = 0;
+        for (int rank = 0; rank < keySpace; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            this.cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < keySpace; rank++) {
+            this.cdf[rank] /= sum;
+        }
+    }
+
+    /**
+     * Draw the next key | Worst-Case Time Complexity = O(log n), n = key space
+     *
+     * @param random The source of randomness
+     * @return Returns the key
+     */
+    int next(final SplittableRandom random) {
+        int rank = Arrays.binarySearch(this.cdf, random.nextDouble());
+        if (rank < 0) {
+            rank = -rank - 1;
+        }
+        // Scramble the rank with an odd multiplier, which is a bijection on the integers
+        return Math.min(rank, this.cdf.length - 1) * 0x9E3779B9;
+    }
+
+    /**
+     * Generate a trace of boxed keys, so that replaying it does not allocate.
+     *
+     * @param length The number of keys in the trace
+     * @param random The source of randomness
+     * @return Returns the trace
+     */
+    Integer[] trace(final int length, final SplittableRandom random) {
+        final Integer[] trace = new Integer[length];
+        for (int i = 0; i < length; i++) {
+            trace[i] = next(random);
+        }
+        return trace;
+    }
+}
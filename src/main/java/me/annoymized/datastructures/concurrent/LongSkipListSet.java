@@ -0,0 +1,604 @@
+package me.annoymized.datastructures.concurrent;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Lock-free ordered set of primitive longs for any number of threads. It is the {@link SkipListSet} with the key
+ * stored in the nodes and indices as a long, so keys are neither boxed when they are added or looked up nor
+ * dereferenced when they are compared. The algorithm, the guarantees and the weakly consistent traversals are the
+ * same as those of the {@link SkipListSet}.
+ */
+public final class LongSkipListSet {
+
+    private static final int MAX_LEVEL = SkipListSet.MAX_LEVEL;
+
+    private final Node head = new Node(0, null);
+    // The head index of every index level, the top level is at the highest index and index 0 is unused
+    private final Index[] heads = newHeads(this.head);
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Add a key unless this set contains it | Worst-Case Time Complexity = O(log n) on average
+     *
+     * @param key The key
+     * @return Returns true if the key was added, false if this set already contains it
+     */
+    public boolean add(final long key) {
+        Node node;
+        search:
+        while (true) {
+            Node b = findPredecessor(key, true);
+            Node n = b.next;
+            while (true) {
+                if (n instanceof Marker) {
+                    // The predecessor was removed, search again
+                    continue search;
+                }
+                if (n != null) {
+                    final Node f = n.next;
+                    if (f instanceof Marker) {
+                        if (!b.casNext(n, ((Marker) f).successor)) {
+                            continue search;
+                        }
+                        n = b.next;
+                        continue;
+                    }
+                    if (n.key < key) {
+                        b = n;
+                        n = f;
+                        continue;
+                    }
+                    if (n.key == key) {
+                        return false;
+                    }
+                }
+                node = new Node(key, n);
+                if (b.casNext(n, node)) {
+                    break search;
+                }
+                n = b.next;
+            }
+        }
+        this.size.increment();
+        final int level = SkipListSet.randomLevel();
+        if (level != 0) {
+            link(node, level);
+        }
+        return true;
+    }
+
+    /**
+     * Remove a key | Worst-Case Time Complexity = O(log n) on average
+     *
+     * @param key The key
+     * @return Returns true if this thread removed the key, false if this set does not contain it
+     */
+    public boolean remove(final long key) {
+        search:
+        while (true) {
+            Node b = findPredecessor(key, true);
+            Node n = b.next;
+            while (true) {
+                if (n instanceof Marker) {
+                    continue search;
+                }
+                if (n == null) {
+                    return false;
+                }
+                final Node f = n.next;
+                if (f instanceof Marker) {
+                    if (!b.casNext(n, ((Marker) f).successor)) {
+                        continue search;
+                    }
+                    n = b.next;
+                    continue;
+                }
+                if (n.key < key) {
+                    b = n;
+                    n = f;
+                    continue;
+                }
+                if (n.key > key) {
+                    return false;
+                }
+                if (!n.casNext(f, new Marker(f))) {
+                    // A node was inserted after the node or another thread removed it, look again
+                    continue;
+                }
+                this.size.decrement();
+                b.casNext(n, f);
+                // Unlinks the indices of the node
+                findPredecessor(key, true);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Check whether this set contains a key. The search never writes and never waits.
+     * Worst-Case Time Complexity = O(log n) on average
+     *
+     * @param key The key
+     * @return Returns true if this set contains the key, false otherwise
+     */
+    public boolean contains(final long key) {
+        search:
+        while (true) {
+            Node n = findPredecessor(key, false).next;
+            while (true) {
+                if (n instanceof Marker) {
+                    // The predecessor was removed after the search passed its index
+                    continue search;
+                }
+                if (n == null) {
+                    return false;
+                }
+                final Node f = n.next;
+                if (f instanceof Marker) {
+                    n = ((Marker) f).successor;
+                    continue;
+                }
+                if (n.key >= key) {
+                    return n.key == key;
+                }
+                n = f;
+            }
+        }
+    }
+
+    /**
+     * Remove all keys which match a predicate, every key is removed individually
+     * Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     *
+     * @param filter The predicate
+     * @return Returns true if any key was removed, false otherwise
+     */
+    public boolean removeIf(final LongPredicate filter) {
+        boolean removed = false;
+        for (Node node = successor(this.head); node != null; node = successor(node)) {
+            if (filter.test(node.key) && mark(node)) {
+                removed = true;
+            }
+        }
+        if (removed) {
+            purge();
+        }
+        return removed;
+    }
+
+    /**
+     * Remove all keys, keys added while the set is cleared may remain | Worst-Case Time Complexity = O(n)
+     */
+    public void clear() {
+        removeIf(key -> true);
+    }
+
+    /**
+     * Get the number of keys, it may be out of date by the time it is returned
+     *
+     * @return Returns the number of keys
+     */
+    public int size() {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, this.size.sum()));
+    }
+
+    public boolean isEmpty() {
+        return successor(this.head) == null;
+    }
+
+    /**
+     * Obtain the lowest key, it may have been removed by the time it is returned
+     * Worst-Case Time Complexity = O(1)
+     *
+     * @return Returns the lowest key
+     * @throws NoSuchElementException Thrown if the set is empty
+     */
+    public long first() {
+        final Node node = successor(this.head);
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.key;
+    }
+
+    /**
+     * Obtain the highest key, it may have been removed by the time it is returned
+     * Worst-Case Time Complexity = O(log n) on average
+     *
+     * @return Returns the highest key
+     * @throws NoSuchElementException Thrown if the set is empty
+     */
+    public long last() {
+        Index q = this.heads[MAX_LEVEL - 1];
+        while (true) {
+            for (Index r = q.right; r != null; r = r.right) {
+                if (!isRemoved(r.node)) {
+                    q = r;
+                }
+            }
+            if (q.down == null) {
+                break;
+            }
+            q = q.down;
+        }
+        // Walk the base list from the last indexed node, or from the head if that node was removed meanwhile
+        Node last = null;
+        for (Node node = successor(isRemoved(q.node) ? this.head : q.node); node != null; node = successor(node)) {
+            last = node;
+        }
+        if (last == null) {
+            if (q.node == this.head || isRemoved(q.node)) {
+                throw new NoSuchElementException();
+            }
+            return q.node.key;
+        }
+        return last.key;
+    }
+
+    /**
+     * Call a consumer with every key of this set in ascending order, the traversal is weakly consistent
+     * Worst-Case Time Complexity = O(n)
+     *
+     * @param consumer The consumer
+     */
+    public void forEach(final LongConsumer consumer) {
+        for (Node node = successor(this.head); node != null; node = successor(node)) {
+            consumer.accept(node.key);
+        }
+    }
+
+    /**
+     * Call a consumer with every key within a range in ascending order, the traversal is weakly consistent
+     * Worst-Case Time Complexity = O(log n + k) on average, k = number of keys within the range
+     *
+     * @param from     The lowest key of the range (inclusive)
+     * @param to       The highest key of the range (exclusive)
+     * @param consumer The consumer
+     * @throws IllegalArgumentException Thrown if from is greater than to
+     */
+    public void forEachInRange(final long from, final long to, final LongConsumer consumer) {
+        checkRange(from, to);
+        for (Node node = ceiling(from); node != null && node.key < to; node = successor(node)) {
+            consumer.accept(node.key);
+        }
+    }
+
+    /**
+     * Iterate the keys of this set in ascending order. The iterator is weakly consistent and supports
+     * {@link java.util.Iterator#remove()}.
+     *
+     * @return Returns the iterator
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        return new NodeIterator(successor(this.head), false, 0);
+    }
+
+    /**
+     * Iterate the keys within a range in ascending order. The iterator is weakly consistent and supports
+     * {@link java.util.Iterator#remove()}.
+     *
+     * @param from The lowest key of the range (inclusive)
+     * @param to   The highest key of the range (exclusive)
+     * @return Returns the iterator
+     * @throws IllegalArgumentException Thrown if from is greater than to
+     */
+    public PrimitiveIterator.OfLong iterator(final long from, final long to) {
+        checkRange(from, to);
+        return new NodeIterator(ceiling(from), true, to);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("LongSkipListSet{elements=[");
+        int count = 0;
+        for (Node node = successor(this.head); node != null; node = successor(node)) {
+            if (count++ != 0) {
+                builder.append(", ");
+            }
+            builder.append(node.key);
+        }
+        return builder.append("], size=").append(count).append('}').toString();
+    }
+
+    /**
+     * Find the rightmost index on a level whose key is less than a key, starting from the top level
+     *
+     * @param key   The key
+     * @param level The level, within 1 and {@link SkipListSet#MAX_LEVEL} - 1
+     * @param help  True to unlink the indices of removed nodes on the way, false to step over them
+     * @return Returns the index or the head index of the level
+     */
+    private Index findIndex(final long key, final int level, final boolean help) {
+        retry:
+        while (true) {
+            Index q = this.heads[MAX_LEVEL - 1];
+            int current = MAX_LEVEL - 1;
+            while (true) {
+                Index r = q.right;
+                while (r != null) {
+                    if (isRemoved(r.node)) {
+                        final Index next = r.right;
+                        if (help && !q.casRight(r, next)) {
+                            continue retry;
+                        }
+                        r = next;
+                    } else if (r.key < key) {
+                        q = r;
+                        r = q.right;
+                    } else {
+                        break;
+                    }
+                }
+                if (current == level) {
+                    return q;
+                }
+                q = q.down;
+                current--;
+            }
+        }
+    }
+
+    /**
+     * Find a node of the base list whose key is less than a key, the search ends at the lowest index level
+     */
+    private Node findPredecessor(final long key, final boolean help) {
+        return findIndex(key, 1, help).node;
+    }
+
+    /**
+     * Find the first node of the base list which is not removed and whose key is not less than a key, without
+     * writing
+     */
+    private Node ceiling(final long key) {
+        Node node = successor(findPredecessor(key, false));
+        while (node != null && node.key < key) {
+            node = successor(node);
+        }
+        return node;
+    }
+
+    /**
+     * Link the indices of a node from the bottom up, stopping once the node is removed. The index is only linked
+     * after q if the right neighbour read from q still has a key which is not lower than the node's key, the CAS
+     * then ensures that q still points to that neighbour.
+     *
+     * @param node  The node
+     * @param level The top level of the node
+     */
+    private void link(final Node node, final int level) {
+        Index index = null;
+        for (int l = 1; l <= level; l++) {
+            index = new Index(node, index);
+            while (true) {
+                if (isRemoved(node)) {
+                    return;
+                }
+                final Index q = findIndex(node.key, l, true);
+                final Index r = q.right;
+                if (r != null && r.key < node.key) {
+                    // An index with a lower key was linked after q in the meantime, search the position again
+                    continue;
+                }
+                index.lazySetRight(r);
+                if (q.casRight(r, index)) {
+                    break;
+                }
+            }
+        }
+        if (isRemoved(node)) {
+            // The node was removed while its indices were linked, make sure they do not stay reachable
+            findPredecessor(node.key, true);
+        }
+    }
+
+    /**
+     * Unlink all removed nodes and their indices by walking every level, a level is walked again from its head if
+     * a predecessor was removed in the meantime. Worst-Case Time Complexity = O(n) without contention
+     */
+    private void purge() {
+        for (int level = MAX_LEVEL - 1; level > 0; level--) {
+            Index q = this.heads[level];
+            Index r = q.right;
+            while (r != null) {
+                if (!isRemoved(r.node)) {
+                    q = r;
+                    r = r.right;
+                } else if (q.casRight(r, r.right)) {
+                    r = q.right;
+                } else {
+                    q = this.heads[level];
+                    r = q.right;
+                }
+            }
+        }
+        Node b = this.head;
+        Node n = b.next;
+        while (n != null) {
+            if (n instanceof Marker) {
+                b = this.head;
+                n = b.next;
+                continue;
+            }
+            final Node f = n.next;
+            if (!(f instanceof Marker)) {
+                b = n;
+                n = f;
+            } else if (b.casNext(n, ((Marker) f).successor)) {
+                n = b.next;
+            } else {
+                b = this.head;
+                n = b.next;
+            }
+        }
+    }
+
+    /**
+     * Mark the link of a node
+     *
+     * @param node The node
+     * @return Returns true if this thread marked the node and thereby removed the key
+     */
+    private boolean mark(final Node node) {
+        Node f = node.next;
+        while (!(f instanceof Marker)) {
+            if (node.casNext(f, new Marker(f))) {
+                this.size.decrement();
+                return true;
+            }
+            f = node.next;
+        }
+        return false;
+    }
+
+    private static Index[] newHeads(final Node head) {
+        final Index[] heads = new Index[MAX_LEVEL];
+        for (int level = 1; level < MAX_LEVEL; level++) {
+            heads[level] = new Index(head, heads[level - 1]);
+        }
+        return heads;
+    }
+
+    private static boolean isRemoved(final Node node) {
+        return node.next instanceof Marker;
+    }
+
+    /**
+     * Find the first node after a node in the base list which is not removed
+     *
+     * @param node The node, may be removed itself
+     * @return Returns the successor or null if there is none
+     */
+    private static Node successor(final Node node) {
+        Node curr = node.next;
+        if (curr instanceof Marker) {
+            curr = ((Marker) curr).successor;
+        }
+        while (curr != null) {
+            final Node f = curr.next;
+            if (!(f instanceof Marker)) {
+                return curr;
+            }
+            curr = ((Marker) f).successor;
+        }
+        return null;
+    }
+
+    private static void checkRange(final long from, final long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("Invalid range: from is greater than to");
+        }
+    }
+
+    /**
+     * A node of the base list holds a key and the link to the next node.
+     */
+    private static class Node {
+
+        private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+        final long key;
+        volatile Node next;
+
+        Node(final long key, final Node next) {
+            this.key = key;
+            NEXT.lazySet(this, next);
+        }
+
+        boolean casNext(final Node expected, final Node node) {
+            return NEXT.compareAndSet(this, expected, node);
+        }
+    }
+
+    /**
+     * Replaces the link of a node which is being removed, see {@link SkipListSet}.
+     */
+    private static final class Marker extends Node {
+
+        final Node successor;
+
+        Marker(final Node successor) {
+            super(0, null);
+            this.successor = successor;
+        }
+    }
+
+    /**
+     * An index of a node on one level, see {@link SkipListSet}.
+     */
+    private static final class Index {
+
+        private static final AtomicReferenceFieldUpdater<Index, Index> RIGHT =
+                AtomicReferenceFieldUpdater.newUpdater(Index.class, Index.class, "right");
+
+        final long key;
+        final Node node;
+        final Index down;
+        volatile Index right;
+
+        Index(final Node node, final Index down) {
+            this.key = node.key;
+            this.node = node;
+            this.down = down;
+        }
+
+        boolean casRight(final Index expected, final Index index) {
+            return RIGHT.compareAndSet(this, expected, index);
+        }
+
+        void lazySetRight(final Index index) {
+            RIGHT.lazySet(this, index);
+        }
+    }
+
+    /**
+     * Weakly consistent iterator over the base list, optionally stopping before an upper bound. Removing a key
+     * removes it from the set by its value.
+     */
+    private final class NodeIterator implements PrimitiveIterator.OfLong {
+
+        private final boolean bounded;
+        private final long to;
+        private Node next;
+        private Node last;
+
+        NodeIterator(final Node first, final boolean bounded, final long to) {
+            this.bounded = bounded;
+            this.to = to;
+            this.next = bound(first);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public long nextLong() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next;
+            this.next = bound(successor(this.next));
+            return this.last.key;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException();
+            }
+            LongSkipListSet.this.remove(this.last.key);
+            this.last = null;
+        }
+
+        private Node bound(final Node node) {
+            return node == null || this.bounded && node.key >= this.to ? null : node;
+        }
+    }
+}
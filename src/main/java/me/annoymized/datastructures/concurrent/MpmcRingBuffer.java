@@ -0,0 +1,146 @@
+package me.annoymized.datastructures.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link RingBuffer} for any number of producer and consumer threads, based on Dmitry Vyukov's bounded MPMC queue.
+ * Every slot carries a sequence number which tells which position may use it next: a slot is free for the
+ * producer of position p if its sequence is p and holds the element of position p for a consumer if its
+ * sequence is p + 1. Producers and consumers claim positions with a compare-and-set of the tail or the head
+ * and hand the slot over with an ordered write of its sequence.
+ *
+ * @param <E> A generic type, can be anything.
+ */
+final class MpmcRingBuffer<E> extends RingBuffer<E> {
+
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final Sequence head = new Sequence();
+    private final Sequence tail = new Sequence();
+
+    MpmcRingBuffer(final int capacity, final WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        this.buffer = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            this.sequences.lazySet(i, i);
+        }
+    }
+
+    @Override
+    public boolean offer(final E element) {
+        checkNotNull(element);
+        return offer(element, null, 0, 1) == 1;
+    }
+
+    @Override
+    public int offer(final E[] batch, final int offset, final int length) {
+        checkBatch(batch, offset, length);
+        return length == 0 ? 0 : offer(null, batch, offset, length);
+    }
+
+    /**
+     * Claim up to a given number of consecutive free slots and publish either a single element or a batch
+     */
+    private int offer(final E element, final E[] batch, final int offset, final int length) {
+        long t;
+        int count;
+        while (true) {
+            t = this.tail.get();
+            count = 0;
+            while (count < length && this.sequences.get((int) (t + count) & this.mask) == t + count) {
+                count++;
+            }
+            if (count == 0) {
+                if (this.sequences.get((int) t & this.mask) < t) {
+                    // The slot still holds the element of the previous lap
+                    return 0;
+                }
+                // Another producer claimed the position, retry
+                continue;
+            }
+            // The counted slots stay free until published as only the producer of a position writes its slot
+            if (this.tail.compareAndSet(t, t + count)) {
+                break;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (t + i) & this.mask;
+            this.buffer[index] = batch == null ? element : batch[offset + i];
+            this.sequences.lazySet(index, t + i + 1);
+        }
+        return count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long h;
+        int index;
+        while (true) {
+            h = this.head.get();
+            index = (int) h & this.mask;
+            final long sequence = this.sequences.get(index);
+            if (sequence == h + 1) {
+                if (this.head.compareAndSet(h, h + 1)) {
+                    break;
+                }
+            } else if (sequence < h + 1) {
+                // The element of the position is not published yet
+                return null;
+            }
+        }
+        final E element = (E) this.buffer[index];
+        this.buffer[index] = null;
+        // Free the slot for the producer of the next lap
+        this.sequences.lazySet(index, h + this.capacity);
+        return element;
+    }
+
+    @Override
+    public int drainTo(final E[] array, final int max) {
+        return drain(array, Math.min(max, array.length));
+    }
+
+    /**
+     * Claim up to a given number of consecutive published slots and move their elements into an array
+     */
+    private int drain(final Object[] array, final int wanted) {
+        if (wanted <= 0) {
+            return 0;
+        }
+        long h;
+        int count;
+        while (true) {
+            h = this.head.get();
+            count = 0;
+            while (count < wanted && this.sequences.get((int) (h + count) & this.mask) == h + count + 1) {
+                count++;
+            }
+            if (count == 0) {
+                if (this.sequences.get((int) h & this.mask) < h + 1) {
+                    // The element of the position is not published yet
+                    return 0;
+                }
+                // Another consumer claimed the position, retry
+                continue;
+            }
+            if (this.head.compareAndSet(h, h + count)) {
+                break;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (h + i) & this.mask;
+            array[i] = this.buffer[index];
+            this.buffer[index] = null;
+            // Free the slot for the producer of the next lap
+            this.sequences.lazySet(index, h + i + this.capacity);
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return size(this.head, this.tail);
+    }
+}
@@ -0,0 +1,96 @@
+package me.annoymized.datastructures.concurrent;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link RingBuffer} for any number of producer threads and a single consumer thread. Producers claim slots by
+ * advancing the tail with a compare-and-set and publish every element with an ordered write of its slot, so the
+ * consumer recognizes published elements as non-null slots. The consumer clears the slots before it releases
+ * them with an ordered write of the head.
+ *
+ * @param <E> A generic type, can be anything.
+ */
+final class MpscRingBuffer<E> extends RingBuffer<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final Sequence head = new Sequence();
+    private final Sequence tail = new Sequence();
+
+    MpscRingBuffer(final int capacity, final WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        this.buffer = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public boolean offer(final E element) {
+        checkNotNull(element);
+        long t;
+        do {
+            t = this.tail.get();
+            if (t - this.head.get() >= this.capacity) {
+                return false;
+            }
+        } while (!this.tail.compareAndSet(t, t + 1));
+        this.buffer.lazySet((int) t & this.mask, element);
+        return true;
+    }
+
+    @Override
+    public int offer(final E[] batch, final int offset, final int length) {
+        checkBatch(batch, offset, length);
+        long t;
+        int count;
+        do {
+            t = this.tail.get();
+            count = (int) Math.min(length, this.capacity - (t - this.head.get()));
+            if (count <= 0) {
+                return 0;
+            }
+            // Claim all slots of the batch at once
+        } while (!this.tail.compareAndSet(t, t + count));
+        for (int i = 0; i < count; i++) {
+            this.buffer.lazySet((int) (t + i) & this.mask, batch[offset + i]);
+        }
+        return count;
+    }
+
+    @Override
+    public E poll() {
+        final long h = this.head.value;
+        final int index = (int) h & this.mask;
+        E element = this.buffer.get(index);
+        if (element == null) {
+            if (h == this.tail.get()) {
+                return null;
+            }
+            // The slot is claimed but the producer did not publish the element yet, it is about to
+            while ((element = this.buffer.get(index)) == null) {
+                Thread.yield();
+            }
+        }
+        this.buffer.lazySet(index, null);
+        this.head.lazySet(h + 1);
+        return element;
+    }
+
+    @Override
+    public int drainTo(final E[] array, final int max) {
+        final long h = this.head.value;
+        final int wanted = Math.min(max, array.length);
+        int count = 0;
+        // Stop at the first slot which is not published
+        for (E element; count < wanted && (element = this.buffer.get((int) (h + count) & this.mask)) != null; count++) {
+            array[count] = element;
+            this.buffer.lazySet((int) (h + count) & this.mask, null);
+        }
+        if (count != 0) {
+            this.head.lazySet(h + count);
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return size(this.head, this.tail);
+    }
+}
@@ -0,0 +1,354 @@
+package me.annoymized.datastructures.concurrent;
+
+import me.annoymized.datastructures.Collection;
+import me.annoymized.datastructures.View;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Thread safe wrapper for any {@link Collection} which is read far more often than it is written, guarded by a
+ * {@link StampedLock}. Lookups first run optimistically without acquiring the lock and validate the stamp afterwards,
+ * so concurrent readers never write to shared memory and do not slow each other down. If a write intervened the
+ * result is discarded and the lookup runs again under the read lock. Writes take the write lock, several writes can
+ * be batched under a single write stamp with {@link #writeAll(Consumer)}.
+ * <p>
+ * An optimistic lookup may observe the wrapped collection in the middle of a write. Exceptions thrown by such a
+ * lookup, i.e. a {@link NullPointerException} on a half linked node, are discarded along with its result, a lookup
+ * therefore only throws if it also throws under the read lock. Only lookups without side effects run optimistically:
+ * {@link #contains(Object)}, {@link #size()} and {@link #read(Function)}. {@link #forEach(Consumer)} runs under the
+ * read lock, the iterator traverses a copy of the elements made under the read lock. The lock is not reentrant, the
+ * actions and queries must not write to this collection. The wrapped collection must not be accessed directly.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public class OptimisticCollection<T> implements Collection<T> {
+
+    private final Collection<T> collection;
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * @param collection The collection to guard, it must not be accessed other than through this wrapper
+     * @throws IllegalArgumentException Thrown if the collection is null
+     */
+    public OptimisticCollection(final Collection<T> collection) throws IllegalArgumentException {
+        if (collection == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        this.collection = collection;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Runs optimistically and falls back to the read lock if a write intervened.
+     * Worst-Case Time Complexity = the complexity of the wrapped collection
+     */
+    @Override
+    public boolean contains(final T t) {
+        final long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                final boolean result = this.collection.contains(t);
+                if (this.lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (final RuntimeException ex) {
+                if (this.lock.validate(stamp)) {
+                    throw ex;
+                }
+            }
+        }
+        final long read = this.lock.readLock();
+        try {
+            return this.collection.contains(t);
+        } finally {
+            this.lock.unlockRead(read);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Runs optimistically and falls back to the read lock if a write intervened.
+     */
+    @Override
+    public int size() {
+        final long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            final int size = this.collection.size();
+            if (this.lock.validate(stamp)) {
+                return size;
+            }
+        }
+        final long read = this.lock.readLock();
+        try {
+            return this.collection.size();
+        } finally {
+            this.lock.unlockRead(read);
+        }
+    }
+
+    /**
+     * Run a query against the wrapped collection, i.e. several lookups which must see the same state. The query
+     * runs optimistically first and again under the read lock if a write intervened, so it must not have side
+     * effects and must not retain the collection.
+     *
+     * @param query The query
+     * @param <R>   The type of the result
+     * @return Returns the result of the query
+     */
+    public <R> R read(final Function<? super Collection<T>, ? extends R> query) {
+        final long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                final R result = query.apply(this.collection);
+                if (this.lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (final RuntimeException ex) {
+                if (this.lock.validate(stamp)) {
+                    throw ex;
+                }
+            }
+        }
+        final long read = this.lock.readLock();
+        try {
+            return query.apply(this.collection);
+        } finally {
+            this.lock.unlockRead(read);
+        }
+    }
+
+    /**
+     * Run a batch of writes against the wrapped collection under a single write stamp, readers see either none or
+     * all of them. The batch must not retain the collection.
+     *
+     * @param batch The writes
+     */
+    public void writeAll(final Consumer<? super Collection<T>> batch) {
+        final long stamp = this.lock.writeLock();
+        try {
+            batch.accept(this.collection);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void add(final T t) {
+        final long stamp = this.lock.writeLock();
+        try {
+            this.collection.add(t);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean removeFirst(final T t) {
+        final long stamp = this.lock.writeLock();
+        try {
+            return this.collection.removeFirst(t);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The elements are read before the write lock is taken, the collection may be another guarded collection.
+     */
+    @Override
+    public void addAll(final Collection<T> collection) {
+        addAll(toArray(collection));
+    }
+
+    @Override
+    public void addAll(final T[] array) {
+        final long stamp = this.lock.writeLock();
+        try {
+            this.collection.addAll(array);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(final T t) {
+        final long stamp = this.lock.writeLock();
+        try {
+            return this.collection.remove(t);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The elements are read before the write lock is taken, the collection may be another guarded collection.
+     */
+    @Override
+    public void removeAll(final Collection<T> collection) {
+        removeAll(toArray(collection));
+    }
+
+    @Override
+    public void removeAll(final T[] array) {
+        final long stamp = this.lock.writeLock();
+        try {
+            this.collection.removeAll(array);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The collection is probed under the write lock, it must not be guarded by this collection.
+     */
+    @Override
+    public void retainAll(final Collection<T> collection) {
+        final long stamp = this.lock.writeLock();
+        try {
+            this.collection.retainAll(collection);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Returns a new, unguarded collection of the kind of the wrapped collection.
+     */
+    @Override
+    public Collection<T> union(final Collection<T> collection) {
+        final long stamp = this.lock.readLock();
+        try {
+            return this.collection.union(collection);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Returns a new, unguarded collection of the kind of the wrapped collection.
+     */
+    @Override
+    public Collection<T> intersect(final Collection<T> collection) {
+        final long stamp = this.lock.readLock();
+        try {
+            return this.collection.intersect(collection);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Returns a new, unguarded collection of the kind of the wrapped collection.
+     */
+    @Override
+    public Collection<T> difference(final Collection<T> collection) {
+        final long stamp = this.lock.readLock();
+        try {
+            return this.collection.difference(collection);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The filter is called under the write lock.
+     */
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        final long stamp = this.lock.writeLock();
+        try {
+            return this.collection.removeIf(filter);
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Call an action with every element under the read lock, writers wait until it returns
+     *
+     * @param action The action, it must not write to this collection
+     */
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        final long stamp = this.lock.readLock();
+        try {
+            this.collection.forEach(action);
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void clear() {
+        final long stamp = this.lock.writeLock();
+        try {
+            this.collection.clear();
+        } finally {
+            this.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator traverses a copy of the elements made under the read lock and does not reflect later writes.
+     * Removing through it removes the first occurrence of the returned element from this collection.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        final T[] elements = toArray(this);
+        return new Iterator<T>() {
+            private int index;
+            private boolean removable;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < elements.length;
+            }
+
+            @Override
+            public T next() {
+                if (this.index == elements.length) {
+                    throw new NoSuchElementException();
+                }
+                this.removable = true;
+                return elements[this.index++];
+            }
+
+            @Override
+            public void remove() {
+                if (!this.removable) {
+                    throw new IllegalStateException();
+                }
+                this.removable = false;
+                removeFirst(elements[this.index - 1]);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "OptimisticCollection{elements=" + Arrays.toString(toArray(this)) + '}';
+    }
+
+    /**
+     * Copy the elements of a collection with its {@link Collection#forEach}, which takes the read lock once if the
+     * collection is guarded
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T[] toArray(final Collection<T> collection) {
+        return View.of(collection).toArray(length -> (T[]) new Object[length]);
+    }
+}
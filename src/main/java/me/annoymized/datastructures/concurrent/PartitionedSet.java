@@ -0,0 +1,440 @@
+package me.annoymized.datastructures.concurrent;
+
+import me.annoymized.datastructures.FixedSizeHashSet;
+import me.annoymized.datastructures.Hashing;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Set partitioned across worker threads which communicate by message passing only, as an in-process stand-in for
+ * a distributed deployment. Every partition is a single-threaded {@link FixedSizeHashSet} owned by one worker, so
+ * the elements of a worker stay in the cache of its core and no shard is ever accessed by two threads.
+ * <p>
+ * Elements are routed to their partition through a consistent hash ring with {@link #VIRTUAL_NODES} points per
+ * partition. Operations are sent to the owner of the partition in batches through a bounded {@link RingBuffer}
+ * inbox per worker and return a {@link CompletableFuture} which the worker completes with the result. A
+ * {@link Session} collects the operations of a client thread into one batch per worker and sends a batch once it
+ * is full or flushed, the operations of this class itself are sent as batches of one. Operations of one session
+ * (or one thread) on the same element are applied in the order they were sent.
+ * <p>
+ * Dependent actions of the futures run on the worker thread unless they are registered with the async methods of
+ * {@link CompletableFuture}, they should therefore be short and must not wait for other operations of this set.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public class PartitionedSet<T> implements AutoCloseable {
+
+    /**
+     * Number of points on the hash ring per partition, more points balance the partitions more evenly
+     */
+    public static final int VIRTUAL_NODES = 128;
+
+    private static final byte ADD = 0;
+    private static final byte REMOVE = 1;
+    private static final byte CONTAINS = 2;
+    private static final byte SIZE = 3;
+    // Number of batches a worker drains from its inbox at once
+    private static final int DRAIN = 16;
+    private static final Batch POISON = new Batch(0);
+
+    private final int batchSize;
+    // The hash ring, points sorted ascending, owners[i] is the partition of points[i]
+    private final int[] points;
+    private final int[] owners;
+    private final int partitions;
+    private final RingBuffer<Batch>[] inboxes;
+    private final Thread[] workers;
+    private volatile boolean closed;
+
+    /**
+     * Create a set with a worker per partition
+     *
+     * @param partitions The number of partitions
+     * @param buckets    The number of buckets of each partition
+     * @param batchSize  The number of operations per batch of a {@link Session}
+     * @throws IllegalArgumentException Thrown if any number is less than 1
+     */
+    public PartitionedSet(final int partitions, final int buckets, final int batchSize)
+            throws IllegalArgumentException {
+        this(partitions, partitions, buckets, batchSize, 1024, WaitStrategy.backoff(1000, 100, 10_000));
+    }
+
+    /**
+     * @param partitions   The number of partitions
+     * @param workers      The number of worker threads, the partitions are assigned to them round robin
+     * @param buckets      The number of buckets of each partition
+     * @param batchSize    The number of operations per batch of a {@link Session}
+     * @param capacity     The number of batches each worker's inbox holds, must be a power of two
+     * @param waitStrategy The strategy of idle workers and of senders waiting for space in an inbox
+     * @throws IllegalArgumentException Thrown if any number is less than 1, if there are more workers than
+     *                                  partitions, if the capacity is not a power of two within 2 and 2^30 or if
+     *                                  the wait strategy is null
+     */
+    @SuppressWarnings("unchecked")
+    public PartitionedSet(final int partitions, final int workers, final int buckets, final int batchSize,
+                          final int capacity, final WaitStrategy waitStrategy) throws IllegalArgumentException {
+        if (partitions < 1 || workers < 1 || workers > partitions || buckets < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Invalid partitioning: " + partitions + " partitions, " + workers
+                                               + " workers, " + buckets + " buckets, batches of " + batchSize);
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("Wait strategy cannot be null!");
+        }
+        this.partitions = partitions;
+        this.batchSize = batchSize;
+        // Place the points of every partition on the ring, sorted by their position
+        final long[] ring = new long[partitions * VIRTUAL_NODES];
+        for (int partition = 0; partition < partitions; partition++) {
+            for (int node = 0; node < VIRTUAL_NODES; node++) {
+                final int point = (int) (Hashing.mix64((long) partition << 32 | node) >>> 32);
+                ring[partition * VIRTUAL_NODES + node] = (long) point << 32 | partition;
+            }
+        }
+        Arrays.sort(ring);
+        this.points = new int[ring.length];
+        this.owners = new int[ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            this.points[i] = (int) (ring[i] >> 32);
+            this.owners[i] = (int) ring[i];
+        }
+        this.inboxes = (RingBuffer<Batch>[]) new RingBuffer<?>[workers];
+        this.workers = new Thread[workers];
+        for (int worker = 0; worker < workers; worker++) {
+            // The shards are only ever accessed by their worker, starting the thread publishes them
+            final FixedSizeHashSet<T>[] shards = (FixedSizeHashSet<T>[]) new FixedSizeHashSet<?>[partitions];
+            for (int partition = worker; partition < partitions; partition += workers) {
+                shards[partition] = new FixedSizeHashSet<>(buckets);
+            }
+            final RingBuffer<Batch> inbox = RingBuffer.mpsc(capacity, waitStrategy);
+            this.inboxes[worker] = inbox;
+            this.workers[worker] = new Thread(() -> work(inbox, shards, waitStrategy), "PartitionedSet-" + worker);
+            this.workers[worker].setDaemon(true);
+            this.workers[worker].start();
+        }
+    }
+
+    /**
+     * Get the partition of an element, the point on the hash ring at or after the element's hash
+     * Worst-Case Time Complexity = O(log p), p = number of partitions
+     *
+     * @param t The object instance
+     * @return Returns the partition, within 0 (inclusive) and the number of partitions (exclusive)
+     * @throws IllegalArgumentException Thrown if the object is null
+     */
+    public int partitionOf(final T t) throws IllegalArgumentException {
+        if (t == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        int index = Arrays.binarySearch(this.points, Hashing.hash(t));
+        if (index < 0) {
+            // The insertion point, wrapping around to the first point at the end of the ring
+            index = -index - 1;
+            if (index == this.points.length) {
+                index = 0;
+            }
+        }
+        return this.owners[index];
+    }
+
+    /**
+     * Add an element, sent on its own
+     *
+     * @param t The object instance
+     * @return Returns a future completed with true if the element was added, false if it was already present
+     * @throws IllegalArgumentException Thrown if the object is null
+     * @throws IllegalStateException    Thrown if this set is closed or the thread is interrupted while sending
+     */
+    public CompletableFuture<Boolean> add(final T t) {
+        return submit(ADD, t);
+    }
+
+    /**
+     * Remove an element, sent on its own
+     *
+     * @param t The object instance
+     * @return Returns a future completed with true if the element was removed, false if it was not present
+     * @throws IllegalArgumentException Thrown if the object is null
+     * @throws IllegalStateException    Thrown if this set is closed or the thread is interrupted while sending
+     */
+    public CompletableFuture<Boolean> remove(final T t) {
+        return submit(REMOVE, t);
+    }
+
+    /**
+     * Check whether the set contains an element, sent on its own
+     *
+     * @param t The object instance
+     * @return Returns a future completed with true if the set contains the element, false otherwise
+     * @throws IllegalArgumentException Thrown if the object is null
+     * @throws IllegalStateException    Thrown if this set is closed or the thread is interrupted while sending
+     */
+    public CompletableFuture<Boolean> contains(final T t) {
+        return submit(CONTAINS, t);
+    }
+
+    /**
+     * Get the number of elements, the workers count their partitions one after another, so the size does not
+     * reflect a single point in time while operations are in flight
+     *
+     * @return Returns a future completed with the number of elements
+     * @throws IllegalStateException Thrown if this set is closed or the thread is interrupted while sending
+     */
+    public CompletableFuture<Integer> size() {
+        CompletableFuture<Integer> size = CompletableFuture.completedFuture(0);
+        for (int worker = 0; worker < this.inboxes.length; worker++) {
+            final Batch batch = new Batch(1);
+            final CompletableFuture<Integer> count = batch.add(SIZE, null, -1);
+            send(worker, batch);
+            size = size.thenCombine(count, Integer::sum);
+        }
+        return size;
+    }
+
+    /**
+     * Open a session which sends the operations of the calling thread in batches. Sessions are not thread safe.
+     *
+     * @return Returns a new session
+     */
+    public Session session() {
+        return new Session();
+    }
+
+    /**
+     * Get the number of partitions
+     *
+     * @return Returns the number of partitions
+     */
+    public int partitions() {
+        return this.partitions;
+    }
+
+    /**
+     * Stop the workers once they applied the batches sent so far and wait for them. Operations sent concurrently
+     * with or after this call may never complete, batches of sessions which were not flushed are discarded.
+     * If the thread is interrupted while waiting, this returns early with the interrupt flag set, the workers which
+     * were already sent the stop message still stop on their own.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            for (final RingBuffer<Batch> inbox : this.inboxes) {
+                inbox.put(POISON);
+            }
+            for (final Thread worker : this.workers) {
+                worker.join();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Boolean> submit(final byte operation, final T t) {
+        final int partition = partitionOf(t);
+        final Batch batch = new Batch(1);
+        final CompletableFuture<Boolean> result = batch.add(operation, t, partition);
+        send(partition % this.inboxes.length, batch);
+        return result;
+    }
+
+    /**
+     * Send a batch to a worker, waiting for space in its inbox
+     */
+    private void send(final int worker, final Batch batch) {
+        if (this.closed) {
+            throw new IllegalStateException("Set is closed");
+        }
+        try {
+            this.inboxes[worker].put(batch);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending", ex);
+        }
+    }
+
+    /**
+     * Apply the batches of an inbox until the poison batch is received
+     */
+    private static <T> void work(final RingBuffer<Batch> inbox, final FixedSizeHashSet<T>[] shards,
+                                 final WaitStrategy waitStrategy) {
+        final Batch[] batches = new Batch[DRAIN];
+        for (int attempt = 0; ; ) {
+            final int count = inbox.drainTo(batches, DRAIN);
+            if (count == 0) {
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+            boolean poisoned = false;
+            for (int i = 0; i < count; i++) {
+                if (batches[i] == POISON) {
+                    poisoned = true;
+                } else {
+                    apply(batches[i], shards);
+                }
+                batches[i] = null;
+            }
+            if (poisoned) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Apply the operations of a batch and complete their futures. Anything thrown by an operation, including
+     * errors thrown by the hashCode or equals methods of an element, completes its future exceptionally and keeps
+     * the worker alive, so the other operations on its partitions still complete.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void apply(final Batch batch, final FixedSizeHashSet<T>[] shards) {
+        for (int i = 0; i < batch.count; i++) {
+            final CompletableFuture<Object> future = (CompletableFuture<Object>) batch.futures[i];
+            try {
+                final T t = (T) batch.elements[i];
+                final FixedSizeHashSet<T> shard = batch.partitions[i] == -1 ? null : shards[batch.partitions[i]];
+                switch (batch.operations[i]) {
+                    case ADD:
+                        final int size = shard.size();
+                        shard.add(t);
+                        future.complete(shard.size() != size);
+                        break;
+                    case REMOVE:
+                        future.complete(shard.remove(t));
+                        break;
+                    case CONTAINS:
+                        future.complete(shard.contains(t));
+                        break;
+                    default:
+                        int count = 0;
+                        for (final FixedSizeHashSet<T> owned : shards) {
+                            count += owned == null ? 0 : owned.size();
+                        }
+                        future.complete(count);
+                }
+            } catch (final Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        }
+    }
+
+    /**
+     * Sends the operations of a client thread in batches, one pending batch per worker. The results of the
+     * operations of a pending batch are only completed after the batch was sent, either because it is full or
+     * because the session was flushed. A session must only be used by one thread at a time.
+     */
+    public final class Session implements AutoCloseable {
+
+        private final Batch[] pending = new Batch[PartitionedSet.this.inboxes.length];
+
+        private Session() {
+        }
+
+        /**
+         * Add an element
+         *
+         * @param t The object instance
+         * @return Returns a future completed with true if the element was added, false if it was already present
+         * @throws IllegalArgumentException Thrown if the object is null
+         * @throws IllegalStateException    Thrown if the set is closed or the thread is interrupted while sending
+         */
+        public CompletableFuture<Boolean> add(final T t) {
+            return submit(ADD, t);
+        }
+
+        /**
+         * Remove an element
+         *
+         * @param t The object instance
+         * @return Returns a future completed with true if the element was removed, false if it was not present
+         * @throws IllegalArgumentException Thrown if the object is null
+         * @throws IllegalStateException    Thrown if the set is closed or the thread is interrupted while sending
+         */
+        public CompletableFuture<Boolean> remove(final T t) {
+            return submit(REMOVE, t);
+        }
+
+        /**
+         * Check whether the set contains an element
+         *
+         * @param t The object instance
+         * @return Returns a future completed with true if the set contains the element, false otherwise
+         * @throws IllegalArgumentException Thrown if the object is null
+         * @throws IllegalStateException    Thrown if the set is closed or the thread is interrupted while sending
+         */
+        public CompletableFuture<Boolean> contains(final T t) {
+            return submit(CONTAINS, t);
+        }
+
+        /**
+         * Send the pending batches of all workers
+         *
+         * @throws IllegalStateException Thrown if the set is closed or the thread is interrupted while sending
+         */
+        public void flush() {
+            for (int worker = 0; worker < this.pending.length; worker++) {
+                if (this.pending[worker] != null) {
+                    final Batch batch = this.pending[worker];
+                    this.pending[worker] = null;
+                    send(worker, batch);
+                }
+            }
+        }
+
+        /**
+         * Flush the pending batches, see {@link #flush()}
+         */
+        @Override
+        public void close() {
+            flush();
+        }
+
+        private CompletableFuture<Boolean> submit(final byte operation, final T t) {
+            final int partition = partitionOf(t);
+            final int worker = partition % this.pending.length;
+            Batch batch = this.pending[worker];
+            if (batch == null) {
+                batch = new Batch(PartitionedSet.this.batchSize);
+                this.pending[worker] = batch;
+            }
+            final CompletableFuture<Boolean> result = batch.add(operation, t, partition);
+            if (batch.count == PartitionedSet.this.batchSize) {
+                this.pending[worker] = null;
+                send(worker, batch);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Message holding a batch of operations for one worker. A batch is written by its sender only until it is
+     * sent, the ring buffer publishes it to the worker.
+     */
+    private static final class Batch {
+
+        private final byte[] operations;
+        private final Object[] elements;
+        private final int[] partitions;
+        private final CompletableFuture<?>[] futures;
+        private int count;
+
+        private Batch(final int capacity) {
+            this.operations = new byte[capacity];
+            this.elements = new Object[capacity];
+            this.partitions = new int[capacity];
+            this.futures = new CompletableFuture<?>[capacity];
+        }
+
+        private <R> CompletableFuture<R> add(final byte operation, final Object element, final int partition) {
+            final CompletableFuture<R> future = new CompletableFuture<>();
+            this.operations[this.count] = operation;
+            this.elements[this.count] = element;
+            this.partitions[this.count] = partition;
+            this.futures[this.count++] = future;
+            return future;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package me.annoymized.datastructures.concurrent;
+
+/**
+ * Bounded lock-free queue backed by a circular array, used to hand elements from producer threads to consumer
+ * threads. Positions are tracked with ever increasing 64-bit sequence counters which are padded to their own
+ * cache lines. Batches of elements are claimed and published at once with {@link #offer(Object[], int, int)}
+ * and {@link #drainTo(Object[], int)}.
+ * <p>
+ * Three flavors are available, which differ in the number of threads they allow on either side:
+ * <ul>
+ *     <li>{@link #spsc(int, WaitStrategy)}: one producer and one consumer thread, no atomic read-modify-write
+ *     instructions at all</li>
+ *     <li>{@link #mpsc(int, WaitStrategy)}: any number of producers claim slots with a compare-and-set, one
+ *     consumer</li>
+ *     <li>{@link #mpmc(int, WaitStrategy)}: any number of producers and consumers, every slot carries its own
+ *     sequence number</li>
+ * </ul>
+ * The thread restrictions are not checked, violating them corrupts the queue. Null elements are not supported.
+ *
+ * @param <E> A generic type, can be anything.
+ */
+public abstract class RingBuffer<E> {
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    protected final int capacity;
+    protected final int mask;
+    private final WaitStrategy waitStrategy;
+
+    RingBuffer(final int capacity, final WaitStrategy waitStrategy) throws IllegalArgumentException {
+        if (capacity < 2 || capacity > MAXIMUM_CAPACITY || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two within 2 and 2^30: " + capacity);
+        }
+        if (waitStrategy == null) {
+            throw new IllegalArgumentException("Wait strategy cannot be null!");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Create a ring buffer for a single producer and a single consumer thread.
+     *
+     * @param capacity     The capacity, must be a power of two
+     * @param waitStrategy The strategy used by {@link #put(Object)} and {@link #take()}
+     * @param <E>          A generic type, can be anything.
+     * @return Returns the ring buffer
+     * @throws IllegalArgumentException Thrown if the capacity is not a power of two within 2 and 2^30
+     */
+    public static <E> RingBuffer<E> spsc(final int capacity, final WaitStrategy waitStrategy) {
+        return new SpscRingBuffer<>(capacity, waitStrategy);
+    }
+
+    /**
+     * Create a ring buffer for any number of producer threads and a single consumer thread.
+     *
+     * @param capacity     The capacity, must be a power of two
+     * @param waitStrategy The strategy used by {@link #put(Object)} and {@link #take()}
+     * @param <E>          A generic type, can be anything.
+     * @return Returns the ring buffer
+     * @throws IllegalArgumentException Thrown if the capacity is not a power of two within 2 and 2^30
+     */
+    public static <E> RingBuffer<E> mpsc(final int capacity, final WaitStrategy waitStrategy) {
+        return new MpscRingBuffer<>(capacity, waitStrategy);
+    }
+
+    /**
+     * Create a ring buffer for any number of producer and consumer threads.
+     *
+     * @param capacity     The capacity, must be a power of two
+     * @param waitStrategy The strategy used by {@link #put(Object)} and {@link #take()}
+     * @param <E>          A generic type, can be anything.
+     * @return Returns the ring buffer
+     * @throws IllegalArgumentException Thrown if the capacity is not a power of two within 2 and 2^30
+     */
+    public static <E> RingBuffer<E> mpmc(final int capacity, final WaitStrategy waitStrategy) {
+        return new MpmcRingBuffer<>(capacity, waitStrategy);
+    }
+
+    /**
+     * Add an element if there is space for it. Only called by producer threads.
+     *
+     * @param element The instance to add
+     * @return Returns true if the element was added, false if the ring buffer is full
+     * @throws IllegalArgumentException Thrown if the element is null
+     */
+    public abstract boolean offer(E element);
+
+    /**
+     * Add as many elements of a batch as there is space for, all slots are claimed at once. Only called by
+     * producer threads.
+     *
+     * @param batch  The array holding the elements
+     * @param offset The index of the first element of the batch
+     * @param length The number of elements in the batch
+     * @return Returns the number of elements added, they are taken from the start of the batch
+     * @throws IllegalArgumentException  Thrown if the batch contains null, no element is added in that case
+     * @throws IndexOutOfBoundsException Thrown if the batch is not within the bounds of the array
+     */
+    public abstract int offer(E[] batch, int offset, int length);
+
+    /**
+     * Remove the oldest element. Only called by consumer threads.
+     *
+     * @return Returns the element or null if the ring buffer is empty
+     */
+    public abstract E poll();
+
+    /**
+     * Remove up to a given number of the oldest elements and store them at the start of an array, in order.
+     * Only called by consumer threads.
+     *
+     * @param array The array to store the elements in
+     * @param max   The maximum number of elements, the length of the array also bounds the number of elements
+     * @return Returns the number of elements removed
+     */
+    public abstract int drainTo(E[] array, int max);
+
+    /**
+     * Get an estimate of the number of elements, it may be out of date by the time it is returned.
+     *
+     * @return Returns the number of elements within 0 and {@link #capacity()}
+     */
+    public abstract int size();
+
+    /**
+     * Add an element, waiting for space with the {@link WaitStrategy} if the ring buffer is full.
+     *
+     * @param element The instance to add
+     * @throws InterruptedException     Thrown if the thread is interrupted while waiting
+     * @throws IllegalArgumentException Thrown if the element is null
+     */
+    public void put(final E element) throws InterruptedException {
+        for (int attempt = 0; !offer(element); attempt = next(attempt)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            this.waitStrategy.idle(attempt);
+        }
+    }
+
+    /**
+     * Remove the oldest element, waiting for one with the {@link WaitStrategy} if the ring buffer is empty.
+     *
+     * @return Returns the element
+     * @throws InterruptedException Thrown if the thread is interrupted while waiting
+     */
+    public E take() throws InterruptedException {
+        E element;
+        for (int attempt = 0; (element = poll()) == null; attempt = next(attempt)) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            this.waitStrategy.idle(attempt);
+        }
+        return element;
+    }
+
+    /**
+     * Get the maximum number of elements
+     *
+     * @return Returns the capacity
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Check whether the ring buffer is (likely) empty, see {@link #size()}
+     *
+     * @return Returns true if there are no elements, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Compute the size from a snapshot of the head and tail sequences
+     */
+    int size(final Sequence head, final Sequence tail) {
+        while (true) {
+            final long before = head.get();
+            final long t = tail.get();
+            // Retry if a consumer moved the head in between, the difference would be meaningless
+            if (head.get() == before) {
+                return (int) Math.max(0, Math.min(this.capacity, t - before));
+            }
+        }
+    }
+
+    static void checkBatch(final Object[] batch, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > batch.length - length) {
+            throw new IndexOutOfBoundsException("Batch [" + offset + ", " + offset + " + " + length
+                                                + ") out of bounds for length " + batch.length);
+        }
+        for (int i = offset; i < offset + length; i++) {
+            checkNotNull(batch[i]);
+        }
+    }
+
+    static void checkNotNull(final Object element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+    }
+
+    private static int next(final int attempt) {
+        return attempt == Integer.MAX_VALUE ? attempt : attempt + 1;
+    }
+}
@@ -0,0 +1,60 @@
+package me.annoymized.datastructures.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Padding in front of the value. Fields of a super class are laid out before the fields of its sub class,
+ * the padding fields therefore keep the value of a {@link Sequence} on its own cache line.
+ */
+abstract class LhsPadding {
+    protected long p1, p2, p3, p4, p5, p6, p7;
+}
+
+abstract class Value extends LhsPadding {
+    protected volatile long value;
+    // Plain field for the exclusive use of the thread which owns the sequence, shares the cache line of the value
+    protected long cache;
+}
+
+abstract class RhsPadding extends Value {
+    protected long p9, p10, p11, p12, p13, p14, p15;
+}
+
+/**
+ * A counter padded to a cache line of its own, so counters written by different threads do not invalidate
+ * each other's cache lines (false sharing).
+ */
+final class Sequence extends RhsPadding {
+
+    private static final AtomicLongFieldUpdater<Value> UPDATER = AtomicLongFieldUpdater.newUpdater(Value.class, "value");
+
+    /**
+     * Volatile read of the value
+     *
+     * @return Returns the value
+     */
+    long get() {
+        return this.value;
+    }
+
+    /**
+     * Ordered write of the value, writes before it cannot be reordered after it but, unlike a volatile
+     * write, it does not wait for the store buffer to drain
+     *
+     * @param value The new value
+     */
+    void lazySet(final long value) {
+        UPDATER.lazySet(this, value);
+    }
+
+    /**
+     * Atomically set the value if it equals the expected value
+     *
+     * @param expected The expected value
+     * @param value    The new value
+     * @return Returns true if the value was set, false otherwise
+     */
+    boolean compareAndSet(final long expected, final long value) {
+        return UPDATER.compareAndSet(this, expected, value);
+    }
+}
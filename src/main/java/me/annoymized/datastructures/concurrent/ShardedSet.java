@@ -0,0 +1,585 @@
+package me.annoymized.datastructures.concurrent;
+
+import me.annoymized.datastructures.Hashing;
+import me.annoymized.datastructures.ReadableCollection;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Write-optimized hash set for ingestion from many threads. Every writing thread adds to its own shard, a small open
+ * addressing table which only that thread modifies, so writers never wait for each other or share cache lines no
+ * matter how skewed the keys are. A {@link #merge()} moves the contents of all shards into an immutable snapshot,
+ * which is split into partitions by hash: the shards are split in parallel first, then every partition is rebuilt
+ * in parallel on an {@link ExecutorService}. Partitions which received no elements are shared with the previous
+ * snapshot.
+ * <ul>
+ *     <li>{@link #contains(Object)} looks up the snapshot and every shard, it never waits, not even during a merge.
+ *     </li>
+ *     <li>{@link #snapshot()} returns the snapshot of the last merge, which is immutable and can be read without
+ *     looking at the shards at all.</li>
+ *     <li>{@link #add(Object)} skips elements of the snapshot, otherwise it publishes the element in the shard of
+ *     the calling thread with a single volatile write.</li>
+ * </ul>
+ * A merge seals the shards it merges, their writers switch to new shards on their next write. An element added to
+ * a shard which was sealed at the same time is added to a new shard as well, so no element is lost. Merges are
+ * serialized, merging periodically is set up with {@link #scheduleMerges}.
+ * An element added by several threads may be pending in several shards, {@link #size()} and iteration count it once
+ * but are weakly consistent: they reflect some of the additions made while they run. A thread which stops writing
+ * keeps its last shard reachable until it writes again or terminates. Null elements are not supported.
+ *
+ * @param <T> A generic type, can be anything.
+ */
+public class ShardedSet<T> implements ReadableCollection<T> {
+
+    private static final int SHARD_CAPACITY = 1024;
+    private static final int MAXIMUM_PARTITIONS = 1 << 16;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    private final int partitions;
+    private final ExecutorService executor;
+    private final ThreadLocal<Shard> local = new ThreadLocal<>();
+    // The shards which have not been merged yet, including sealed shards of a merge in progress
+    private final ConcurrentLinkedQueue<Shard> shards = new ConcurrentLinkedQueue<>();
+    private volatile Snapshot<T> snapshot;
+
+    /**
+     * Create a set with four partitions per available processor, merged on the common {@link ForkJoinPool}
+     */
+    public ShardedSet() {
+        this(4 * Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param partitions The number of partitions of the snapshot, which is the parallelism of a merge
+     * @param executor   The executor which runs the tasks of a merge
+     * @throws IllegalArgumentException Thrown if the number of partitions is not within 1 and 2^16 or the executor
+     *                                  is null
+     */
+    public ShardedSet(final int partitions, final ExecutorService executor) throws IllegalArgumentException {
+        if (partitions < 1 || partitions > MAXIMUM_PARTITIONS) {
+            throw new IllegalArgumentException("Invalid partitions: " + partitions);
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        this.partitions = partitions;
+        this.executor = executor;
+        this.snapshot = new Snapshot<>(new Object[partitions][0], new int[partitions]);
+    }
+
+    /**
+     * Add an element to the shard of the calling thread, unless it is in the snapshot
+     * Worst-Case Time Complexity = O(1) on average
+     *
+     * @param t The element
+     * @throws IllegalArgumentException Thrown if the element is null
+     */
+    public void add(final T t) {
+        if (t == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        final int hash = Hashing.hash(t);
+        if (this.snapshot.contains(t, hash)) {
+            return;
+        }
+        Shard shard = this.local.get();
+        if (shard == null || shard.sealed) {
+            shard = newShard();
+        }
+        // The volatile write of the element precedes the read of the seal, a merge which sealed the shard before
+        // has either seen the element or the element is added again
+        while (shard.add(t, hash) && shard.sealed) {
+            shard = newShard();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Looks up the snapshot and all shards. Worst-Case Time Complexity = O(s) on average, s = number of shards
+     */
+    @Override
+    public boolean contains(final T t) {
+        if (t == null) {
+            return false;
+        }
+        final int hash = Hashing.hash(t);
+        // Shards are removed after the snapshot which holds their elements is published, look at them first
+        for (final Shard shard : this.shards) {
+            if (shard.contains(t, hash)) {
+                return true;
+            }
+        }
+        return this.snapshot.contains(t, hash);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Elements pending in several shards are counted once. Weakly consistent.
+     * Worst-Case Time Complexity = O(p * s) on average, p = number of pending elements, s = number of shards
+     */
+    @Override
+    public int size() {
+        final int[] size = {0};
+        forEachPending(t -> size[0]++);
+        return this.snapshot.size() + size[0];
+    }
+
+    /**
+     * Get the number of elements added to the shards since the last merge, an element added by several threads is
+     * counted once per shard. Worst-Case Time Complexity = O(s), s = number of shards
+     *
+     * @return Returns the number of pending elements
+     */
+    public int pendingSize() {
+        long size = 0;
+        for (final Shard shard : this.shards) {
+            size += shard.size.get();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    /**
+     * Obtain the snapshot of the last merge, an immutable set which does not reflect later additions
+     * Worst-Case Time Complexity = O(1)
+     *
+     * @return Returns the snapshot
+     */
+    public ReadableCollection<T> snapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Move the elements of all shards into a new snapshot. The shards are sealed, split by partition in parallel
+     * and every partition which received elements is rebuilt by its own task. Readers and writers are not blocked,
+     * concurrent merges wait for each other. If the merge is interrupted the shards stay pending for the next one.
+     * Worst-Case Time Complexity = O((n + p) / k), n = number of elements in the changed partitions,
+     * p = number of pending elements, k = number of threads of the executor
+     *
+     * @return Returns the new snapshot
+     * @throws IllegalStateException Thrown if the thread is interrupted while waiting for the tasks
+     */
+    public synchronized ReadableCollection<T> merge() {
+        final List<Shard> sealed = new ArrayList<>();
+        for (final Shard shard : this.shards) {
+            shard.sealed = true;
+            sealed.add(shard);
+        }
+        if (sealed.isEmpty()) {
+            return this.snapshot;
+        }
+        final Snapshot<T> previous = this.snapshot;
+        // The pending elements of every shard by partition, without the elements of the previous snapshot
+        final Object[][][] split = new Object[sealed.size()][][];
+        invokeAll(sealed.size(), i -> split[i] = sealed.get(i).split(this.partitions, previous));
+        final Object[][] tables = new Object[this.partitions][];
+        final int[] sizes = new int[this.partitions];
+        invokeAll(this.partitions, p -> {
+            int added = 0;
+            for (final Object[][] parts : split) {
+                added += parts[p].length;
+            }
+            if (added == 0) {
+                tables[p] = previous.tables[p];
+                sizes[p] = previous.sizes[p];
+                return;
+            }
+            tables[p] = Snapshot.rebuild(previous.tables[p], split, p, previous.sizes[p] + added);
+            sizes[p] = previous.sizes[p] + Snapshot.count(tables[p], previous.sizes[p]);
+        });
+        this.snapshot = new Snapshot<>(tables, sizes);
+        for (final Shard shard : sealed) {
+            this.shards.remove(shard);
+        }
+        return this.snapshot;
+    }
+
+    /**
+     * Merge the shards periodically
+     *
+     * @param scheduler The scheduler which runs the merges
+     * @param period    The delay between the end of a merge and the start of the next one
+     * @param unit      The unit of the delay
+     * @return Returns the future of the scheduled merges, cancel it to stop merging
+     */
+    public ScheduledFuture<?> scheduleMerges(final ScheduledExecutorService scheduler, final long period,
+                                             final TimeUnit unit) {
+        return scheduler.scheduleWithFixedDelay(this::merge, period, period, unit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Returns the elements of the snapshot followed by the pending elements, which are collected when the iterator
+     * is created. Weakly consistent.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        final List<T> pending = new ArrayList<>();
+        forEachPending(pending::add);
+        final Iterator<T> snapshot = this.snapshot.iterator();
+        final Iterator<T> rest = pending.iterator();
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return snapshot.hasNext() || rest.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return snapshot.hasNext() ? snapshot.next() : rest.next();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedSet{size=" + size() + ", snapshot=" + this.snapshot.size() + ", shards=" + this.shards.size()
+               + ", partitions=" + this.partitions + '}';
+    }
+
+    /**
+     * Call an action with every pending element which is neither in the snapshot nor in an earlier shard
+     */
+    @SuppressWarnings("unchecked")
+    private void forEachPending(final Consumer<? super T> action) {
+        final Snapshot<T> snapshot = this.snapshot;
+        final List<Shard> shards = new ArrayList<>(this.shards);
+        for (int i = 0; i < shards.size(); i++) {
+            final int shard = i;
+            shards.get(i).forEach(t -> {
+                final int hash = Hashing.hash(t);
+                if (snapshot.contains(t, hash)) {
+                    return;
+                }
+                for (int j = 0; j < shard; j++) {
+                    if (shards.get(j).contains(t, hash)) {
+                        return;
+                    }
+                }
+                action.accept((T) t);
+            });
+        }
+    }
+
+    /**
+     * Create a shard for the calling thread
+     */
+    private Shard newShard() {
+        final Shard shard = new Shard();
+        this.shards.add(shard);
+        this.local.set(shard);
+        return shard;
+    }
+
+    /**
+     * Run a task for every index on the executor and wait for all of them
+     */
+    private void invokeAll(final int count, final IntConsumer task) {
+        final List<Callable<Void>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            tasks.add(() -> {
+                task.accept(index);
+                return null;
+            });
+        }
+        try {
+            for (final Future<Void> future : this.executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while merging", ex);
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Map a hash to a partition by its upper bits, the lower bits index the table of the partition
+     */
+    private static int partition(final int hash, final int partitions) {
+        return (int) ((hash & 0xFFFFFFFFL) * partitions >>> 32);
+    }
+
+    /**
+     * The table of a single writer with linear probing. The owner publishes every element with a volatile write,
+     * so that other threads can look it up, and replaces the table with a larger copy when it is half full.
+     */
+    private static final class Shard {
+
+        private volatile AtomicReferenceArray<Object> keys = new AtomicReferenceArray<>(SHARD_CAPACITY);
+        private volatile boolean sealed;
+        // Written by the owner only
+        private final AtomicInteger size = new AtomicInteger();
+
+        /**
+         * Add an element, only called by the owner
+         *
+         * @return Returns true if the element was added, false if it was present
+         */
+        boolean add(final Object t, final int hash) {
+            AtomicReferenceArray<Object> keys = this.keys;
+            int index = hash & keys.length() - 1;
+            for (Object key; (key = keys.get(index)) != null; index = index + 1 & keys.length() - 1) {
+                if (key.equals(t)) {
+                    return false;
+                }
+            }
+            final int size = this.size.get() + 1;
+            if (size * 2 > keys.length() && keys.length() < MAXIMUM_CAPACITY) {
+                keys = grow(keys);
+                index = hash & keys.length() - 1;
+                while (keys.get(index) != null) {
+                    index = index + 1 & keys.length() - 1;
+                }
+            }
+            keys.set(index, t);
+            this.size.lazySet(size);
+            return true;
+        }
+
+        boolean contains(final Object t, final int hash) {
+            final AtomicReferenceArray<Object> keys = this.keys;
+            final int mask = keys.length() - 1;
+            for (int index = hash & mask; ; index = index + 1 & mask) {
+                final Object key = keys.get(index);
+                if (key == null) {
+                    return false;
+                }
+                if (key.equals(t)) {
+                    return true;
+                }
+            }
+        }
+
+        void forEach(final Consumer<Object> action) {
+            final AtomicReferenceArray<Object> keys = this.keys;
+            for (int index = 0; index < keys.length(); index++) {
+                final Object key = keys.get(index);
+                if (key != null) {
+                    action.accept(key);
+                }
+            }
+        }
+
+        /**
+         * Split the elements which are not in a snapshot by partition
+         */
+        Object[][] split(final int partitions, final Snapshot<?> snapshot) {
+            final AtomicReferenceArray<Object> keys = this.keys;
+            final int[] hashes = new int[keys.length()];
+            final int[] counts = new int[partitions];
+            for (int index = 0; index < keys.length(); index++) {
+                final Object key = keys.get(index);
+                if (key != null) {
+                    final int hash = Hashing.hash(key);
+                    if (!snapshot.contains(key, hash)) {
+                        // Remember the hash of the keys to move, 0 is a valid hash so the partition is stored + 1
+                        hashes[index] = partition(hash, partitions) + 1;
+                        counts[hashes[index] - 1]++;
+                    }
+                }
+            }
+            final Object[][] split = new Object[partitions][];
+            for (int p = 0; p < partitions; p++) {
+                split[p] = new Object[counts[p]];
+                counts[p] = 0;
+            }
+            for (int index = 0; index < hashes.length; index++) {
+                if (hashes[index] != 0) {
+                    final int p = hashes[index] - 1;
+                    split[p][counts[p]++] = keys.get(index);
+                }
+            }
+            return split;
+        }
+
+        /**
+         * Copy the elements to a table of twice the size and publish it
+         */
+        private AtomicReferenceArray<Object> grow(final AtomicReferenceArray<Object> keys) {
+            final AtomicReferenceArray<Object> larger = new AtomicReferenceArray<>(keys.length() << 1);
+            final int mask = larger.length() - 1;
+            for (int i = 0; i < keys.length(); i++) {
+                final Object key = keys.get(i);
+                if (key != null) {
+                    int index = Hashing.hash(key) & mask;
+                    while (larger.get(index) != null) {
+                        index = index + 1 & mask;
+                    }
+                    larger.lazySet(index, key);
+                }
+            }
+            // Publishes the copied elements along with the table
+            this.keys = larger;
+            return larger;
+        }
+    }
+
+    /**
+     * The merged elements, one immutable open addressing table per partition
+     */
+    private static final class Snapshot<T> implements ReadableCollection<T> {
+
+        private final Object[][] tables;
+        private final int[] sizes;
+        private final int size;
+
+        Snapshot(final Object[][] tables, final int[] sizes) {
+            this.tables = tables;
+            this.sizes = sizes;
+            long size = 0;
+            for (final int partitionSize : sizes) {
+                size += partitionSize;
+            }
+            this.size = (int) Math.min(Integer.MAX_VALUE, size);
+        }
+
+        /**
+         * Build the table of a partition from its previous table and the elements of the shards
+         */
+        static Object[] rebuild(final Object[] previous, final Object[][][] split, final int partition,
+                                final int capacity) {
+            final int length = Math.max(2, Integer.highestOneBit(Math.max(1, capacity * 2 - 1)) << 1);
+            final Object[] table = new Object[Math.min(length, MAXIMUM_CAPACITY)];
+            for (final Object key : previous) {
+                if (key != null) {
+                    insert(table, key);
+                }
+            }
+            for (final Object[][] parts : split) {
+                for (final Object key : parts[partition]) {
+                    insert(table, key);
+                }
+            }
+            return table;
+        }
+
+        private static void insert(final Object[] table, final Object key) {
+            final int mask = table.length - 1;
+            Object existing;
+            int index = Hashing.hash(key) & mask;
+            while ((existing = table[index]) != null) {
+                // Shards may hold the same element
+                if (existing.equals(key)) {
+                    return;
+                }
+                index = index + 1 & mask;
+            }
+            table[index] = key;
+        }
+
+        /**
+         * Count the elements of a rebuilt table beyond those of its previous table
+         */
+        static int count(final Object[] table, final int previous) {
+            int size = 0;
+            for (final Object key : table) {
+                if (key != null) {
+                    size++;
+                }
+            }
+            return size - previous;
+        }
+
+        boolean contains(final Object t, final int hash) {
+            final Object[] table = this.tables[partition(hash, this.tables.length)];
+            if (table.length == 0) {
+                return false;
+            }
+            final int mask = table.length - 1;
+            for (int index = hash & mask; ; index = index + 1 & mask) {
+                final Object key = table[index];
+                if (key == null) {
+                    return false;
+                }
+                if (key.equals(t)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         * Worst-Case Time Complexity = O(1) on average
+         */
+        @Override
+        public boolean contains(final T t) {
+            return t != null && contains(t, Hashing.hash(t));
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int partition;
+                private int index = -1;
+
+                {
+                    advance();
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return this.partition < Snapshot.this.tables.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    final T t = (T) Snapshot.this.tables[this.partition][this.index];
+                    advance();
+                    return t;
+                }
+
+                private void advance() {
+                    while (this.partition < Snapshot.this.tables.length) {
+                        final Object[] table = Snapshot.this.tables[this.partition];
+                        while (++this.index < table.length) {
+                            if (table[this.index] != null) {
+                                return;
+                            }
+                        }
+                        this.partition++;
+                        this.index = -1;
+                    }
+                }
+            };
+        }
+
+        @Override
+        public String toString() {
+            return "ShardedSet.Snapshot{size=" + this.size + ", partitions=" + this.tables.length + '}';
+        }
+    }
+}
@@ -0,0 +1,860 @@
+package me.annoymized.datastructures.concurrent;
+
+import me.annoymized.datastructures.Collection;
+import me.annoymized.datastructures.ReadableCollection;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Lock-free ordered set for any number of threads, implemented as a skip list. The elements are held by a sorted
+ * lock-free linked list at the base, above which index levels link about every fourth, sixteenth, ... node, so a
+ * search skips over most nodes and takes O(log n) steps on average. An index carries a copy of the key of its node,
+ * so moving along an index level does not dereference the nodes.
+ * <ul>
+ *     <li>{@link #contains(Object)} never writes and never waits, it steps over removed nodes.</li>
+ *     <li>{@link #add(Object)} links a node into the base list with a single compare-and-set, which is the point the
+ *     element becomes visible, and then links its indices from the bottom up.</li>
+ *     <li>{@link #remove(Object)} marks a node by replacing its link with a marker node pointing to its successor
+ *     (Harris' algorithm), which removes the element. A marked link can no longer be changed, so no node is lost
+ *     when another thread inserts after a node which is being removed. Marked nodes and their indices are unlinked
+ *     by whichever writing thread passes them next.</li>
+ * </ul>
+ * The index levels only speed up searches, the base list alone decides which elements the set holds, so an index
+ * lost to a race is harmless.
+ * Iteration, {@link #size()} and the bulk operations are weakly consistent: they reflect some of the
+ * modifications made while they run and never throw because of them. Bulk operations are not atomic.
+ * Null elements are not supported. Elements are ordered by a {@link Comparator} or their natural ordering, two
+ * elements are considered equal if they compare as equal.
+ *
+ * @param <T> A generic type, can be anything.
+ * @see LongSkipListSet
+ */
+public class SkipListSet<T> implements Collection<T> {
+
+    // The base list and 15 index levels, with a probability of 1/4 per level they index about 4^16 elements
+    static final int MAX_LEVEL = 16;
+
+    private final Comparator<? super T> comparator;
+    private final Node<T> head = new Node<>(null, null);
+    // The head index of every index level, the top level is at the highest index and index 0 is unused
+    private final Index<T>[] heads = newHeads(this.head);
+    private final LongAdder size = new LongAdder();
+
+    /**
+     * Create a set ordered by the natural ordering of its elements, which must implement {@link Comparable}
+     */
+    @SuppressWarnings("unchecked")
+    public SkipListSet() {
+        this((Comparator<? super T>) Comparator.naturalOrder());
+    }
+
+    /**
+     * @param comparator The comparator which orders the elements
+     * @throws IllegalArgumentException Thrown if the comparator is null
+     */
+    public SkipListSet(final Comparator<? super T> comparator) throws IllegalArgumentException {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        this.comparator = comparator;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(log n) on average, see {@link #addIfAbsent(Object)}
+     *
+     * @throws IllegalArgumentException Thrown if the element is null
+     */
+    @Override
+    public void add(final T t) {
+        addIfAbsent(t);
+    }
+
+    /**
+     * Add an element unless this set contains an equal element. The element is visible to other threads once it
+     * is linked into the base list, the indices linked afterwards only speed up searches.
+     * Worst-Case Time Complexity = O(log n) on average
+     *
+     * @param t The element
+     * @return Returns true if the element was added, false if this set already contains it
+     * @throws IllegalArgumentException Thrown if the element is null
+     */
+    public boolean addIfAbsent(final T t) {
+        checkNotNull(t);
+        Node<T> node;
+        search:
+        while (true) {
+            Node<T> b = findPredecessor(t, true);
+            Node<T> n = b.next;
+            while (true) {
+                if (n instanceof Marker) {
+                    // The predecessor was removed, search again
+                    continue search;
+                }
+                if (n != null) {
+                    final Node<T> f = n.next;
+                    if (f instanceof Marker) {
+                        if (!b.casNext(n, ((Marker<T>) f).successor)) {
+                            continue search;
+                        }
+                        n = b.next;
+                        continue;
+                    }
+                    final int comparison = this.comparator.compare(n.key, t);
+                    if (comparison < 0) {
+                        b = n;
+                        n = f;
+                        continue;
+                    }
+                    if (comparison == 0) {
+                        return false;
+                    }
+                }
+                node = new Node<>(t, n);
+                if (b.casNext(n, node)) {
+                    break search;
+                }
+                n = b.next;
+            }
+        }
+        this.size.increment();
+        final int level = randomLevel();
+        if (level != 0) {
+            link(node, level);
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * This is equivalent to {@link #remove(Object)} as the set holds every element at most once.
+     */
+    @Override
+    public boolean removeFirst(final T t) {
+        return remove(t);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The elements are added one by one. Worst-Case Time Complexity = O(m log n) on average, m = size of the
+     * collection
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null, the elements before it are added
+     */
+    @Override
+    public void addAll(final Collection<T> collection) {
+        for (final T t : collection) {
+            addIfAbsent(t);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The elements are added one by one. Worst-Case Time Complexity = O(m log n) on average, m = length of the array
+     *
+     * @throws IllegalArgumentException Thrown if the array contains null, the elements before it are added
+     */
+    @Override
+    public void addAll(final T[] array) {
+        for (final T t : array) {
+            addIfAbsent(t);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Marking the link of the node removes the element, the node and its indices are unlinked afterwards.
+     * Worst-Case Time Complexity = O(log n) on average
+     */
+    @Override
+    public boolean remove(final T t) {
+        if (t == null) {
+            return false;
+        }
+        search:
+        while (true) {
+            Node<T> b = findPredecessor(t, true);
+            Node<T> n = b.next;
+            while (true) {
+                if (n instanceof Marker) {
+                    continue search;
+                }
+                if (n == null) {
+                    return false;
+                }
+                final Node<T> f = n.next;
+                if (f instanceof Marker) {
+                    if (!b.casNext(n, ((Marker<T>) f).successor)) {
+                        continue search;
+                    }
+                    n = b.next;
+                    continue;
+                }
+                final int comparison = this.comparator.compare(n.key, t);
+                if (comparison < 0) {
+                    b = n;
+                    n = f;
+                    continue;
+                }
+                if (comparison > 0) {
+                    return false;
+                }
+                if (!n.casNext(f, new Marker<>(f))) {
+                    // A node was inserted after the node or another thread removed it, look again
+                    continue;
+                }
+                this.size.decrement();
+                b.casNext(n, f);
+                // Unlinks the indices of the node
+                findPredecessor(t, true);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The elements are removed one by one. Worst-Case Time Complexity = O(m log n) on average, m = size of the
+     * collection
+     */
+    @Override
+    public void removeAll(final Collection<T> collection) {
+        for (final T t : collection) {
+            remove(t);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The elements are removed one by one. Worst-Case Time Complexity = O(m log n) on average, m = length of the
+     * array
+     */
+    @Override
+    public void removeAll(final T[] array) {
+        for (final T t : array) {
+            remove(t);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-Case Time Complexity = O(n * c), c = cost of a lookup in the collection
+     */
+    @Override
+    public void retainAll(final Collection<T> collection) {
+        removeIf(t -> !collection.contains(t));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The result is a new skip list set with the same ordering, built from a weakly consistent traversal of this
+     * set. Worst-Case Time Complexity = O(n + m log(n + m)) on average, m = size of the collection
+     *
+     * @throws IllegalArgumentException Thrown if the collection contains null
+     */
+    @Override
+    public SkipListSet<T> union(final Collection<T> collection) {
+        final SkipListSet<T> result = copyWhere(t -> true);
+        result.addAll(collection);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The result is a new skip list set with the same ordering. Worst-Case Time Complexity = O(n * c), c = cost of
+     * a lookup in the collection
+     */
+    @Override
+    public SkipListSet<T> intersect(final Collection<T> collection) {
+        return copyWhere(collection::contains);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The result is a new skip list set with the same ordering. Worst-Case Time Complexity = O(n * c), c = cost of
+     * a lookup in the collection
+     */
+    @Override
+    public SkipListSet<T> difference(final Collection<T> collection) {
+        return copyWhere(t -> !collection.contains(t));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Every node which matches the predicate is marked individually, the marked nodes are unlinked in a single
+     * pass afterwards. Worst-Case Time Complexity = O(n), excluding the cost of the filter
+     */
+    @Override
+    public boolean removeIf(final Predicate<? super T> filter) {
+        boolean removed = false;
+        for (Node<T> node = successor(this.head); node != null; node = successor(node)) {
+            if (filter.test(node.key) && mark(node)) {
+                removed = true;
+            }
+        }
+        if (removed) {
+            purge();
+        }
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Elements added while the set is cleared may remain.
+     */
+    @Override
+    public void clear() {
+        removeIf(t -> true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The search never writes and never waits, it steps over the nodes which are being removed.
+     * Worst-Case Time Complexity = O(log n) on average
+     */
+    @Override
+    public boolean contains(final T t) {
+        if (t == null) {
+            return false;
+        }
+        search:
+        while (true) {
+            Node<T> n = findPredecessor(t, false).next;
+            while (true) {
+                if (n instanceof Marker) {
+                    // The predecessor was removed after the search passed its index
+                    continue search;
+                }
+                if (n == null) {
+                    return false;
+                }
+                final Node<T> f = n.next;
+                if (f instanceof Marker) {
+                    n = ((Marker<T>) f).successor;
+                    continue;
+                }
+                final int comparison = this.comparator.compare(n.key, t);
+                if (comparison >= 0) {
+                    return comparison == 0;
+                }
+                n = f;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The count is maintained by a striped counter, it may be out of date by the time it is returned.
+     */
+    @Override
+    public int size() {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, this.size.sum()));
+    }
+
+    /**
+     * Obtain the lowest element, it may have been removed by the time it is returned
+     * Worst-Case Time Complexity = O(1)
+     *
+     * @return Returns the lowest element
+     * @throws NoSuchElementException Thrown if the set is empty
+     */
+    public T first() {
+        final Node<T> node = successor(this.head);
+        if (node == null) {
+            throw new NoSuchElementException();
+        }
+        return node.key;
+    }
+
+    /**
+     * Obtain the highest element, it may have been removed by the time it is returned
+     * Worst-Case Time Complexity = O(log n) on average
+     *
+     * @return Returns the highest element
+     * @throws NoSuchElementException Thrown if the set is empty
+     */
+    public T last() {
+        Index<T> q = this.heads[MAX_LEVEL - 1];
+        while (true) {
+            for (Index<T> r = q.right; r != null; r = r.right) {
+                if (!isRemoved(r.node)) {
+                    q = r;
+                }
+            }
+            if (q.down == null) {
+                break;
+            }
+            q = q.down;
+        }
+        // Walk the base list from the last indexed node, or from the head if that node was removed meanwhile
+        Node<T> last = null;
+        for (Node<T> node = successor(isRemoved(q.node) ? this.head : q.node); node != null; node = successor(node)) {
+            last = node;
+        }
+        if (last == null) {
+            if (q.node == this.head || isRemoved(q.node)) {
+                throw new NoSuchElementException();
+            }
+            return q.node.key;
+        }
+        return last.key;
+    }
+
+    /**
+     * Obtain a live view of the elements within a range. The view reflects the modifications of this set, its
+     * iterator walks the elements in ascending order starting with a single search for the lowest bound.
+     *
+     * @param from The lowest element of the range (inclusive)
+     * @param to   The highest element of the range (exclusive)
+     * @return Returns the view of the range
+     * @throws IllegalArgumentException Thrown if either bound is null or from is greater than to
+     */
+    public ReadableCollection<T> subSet(final T from, final T to) {
+        checkNotNull(from);
+        checkNotNull(to);
+        if (this.comparator.compare(from, to) > 0) {
+            throw new IllegalArgumentException("Invalid range: from is greater than to");
+        }
+        return new RangeView(from, to);
+    }
+
+    /**
+     * Obtain the comparator which orders the elements
+     *
+     * @return Returns the comparator
+     */
+    public Comparator<? super T> comparator() {
+        return this.comparator;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The elements are returned in ascending order. The iterator is weakly consistent.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new NodeIterator(successor(this.head), null);
+    }
+
+    /**
+     * Call an action with every element of this set in ascending order, without allocating an iterator. The
+     * traversal is weakly consistent. Worst-Case Time Complexity = O(n)
+     *
+     * @param action The action
+     */
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        for (Node<T> node = successor(this.head); node != null; node = successor(node)) {
+            action.accept(node.key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("SkipListSet{elements=[");
+        int count = 0;
+        for (Node<T> node = successor(this.head); node != null; node = successor(node)) {
+            if (count++ != 0) {
+                builder.append(", ");
+            }
+            builder.append(node.key);
+        }
+        return builder.append("], size=").append(count).append('}').toString();
+    }
+
+    /**
+     * Find the rightmost index on a level whose key is less than a key, starting from the top level
+     *
+     * @param key   The key
+     * @param level The level, within 1 and {@link #MAX_LEVEL} - 1
+     * @param help  True to unlink the indices of removed nodes on the way, false to step over them
+     * @return Returns the index or the head index of the level
+     */
+    private Index<T> findIndex(final T key, final int level, final boolean help) {
+        retry:
+        while (true) {
+            Index<T> q = this.heads[MAX_LEVEL - 1];
+            int current = MAX_LEVEL - 1;
+            while (true) {
+                Index<T> r = q.right;
+                while (r != null) {
+                    if (isRemoved(r.node)) {
+                        final Index<T> next = r.right;
+                        if (help && !q.casRight(r, next)) {
+                            continue retry;
+                        }
+                        r = next;
+                    } else if (this.comparator.compare(r.key, key) < 0) {
+                        q = r;
+                        r = q.right;
+                    } else {
+                        break;
+                    }
+                }
+                if (current == level) {
+                    return q;
+                }
+                q = q.down;
+                current--;
+            }
+        }
+    }
+
+    /**
+     * Find a node of the base list whose key is less than a key, the search ends at the lowest index level
+     */
+    private Node<T> findPredecessor(final T key, final boolean help) {
+        return findIndex(key, 1, help).node;
+    }
+
+    /**
+     * Link the indices of a node from the bottom up, stopping once the node is removed. The index is only linked
+     * after q if the right neighbour read from q still has a key which is not lower than the node's key, the CAS
+     * then ensures that q still points to that neighbour.
+     *
+     * @param node  The node
+     * @param level The top level of the node
+     */
+    private void link(final Node<T> node, final int level) {
+        Index<T> index = null;
+        for (int l = 1; l <= level; l++) {
+            index = new Index<>(node, index);
+            while (true) {
+                if (isRemoved(node)) {
+                    return;
+                }
+                final Index<T> q = findIndex(node.key, l, true);
+                final Index<T> r = q.right;
+                if (r != null && this.comparator.compare(r.key, node.key) < 0) {
+                    // An index with a lower key was linked after q in the meantime, search the position again
+                    continue;
+                }
+                index.lazySetRight(r);
+                if (q.casRight(r, index)) {
+                    break;
+                }
+            }
+        }
+        if (isRemoved(node)) {
+            // The node was removed while its indices were linked, make sure they do not stay reachable
+            findPredecessor(node.key, true);
+        }
+    }
+
+    /**
+     * Mark the link of a node
+     *
+     * @param node The node
+     * @return Returns true if this thread marked the node and thereby removed the element
+     */
+    private boolean mark(final Node<T> node) {
+        Node<T> f = node.next;
+        while (!(f instanceof Marker)) {
+            if (node.casNext(f, new Marker<>(f))) {
+                this.size.decrement();
+                return true;
+            }
+            f = node.next;
+        }
+        return false;
+    }
+
+    /**
+     * Unlink all removed nodes and their indices by walking every level, a level is walked again from its head if
+     * a predecessor was removed in the meantime. Worst-Case Time Complexity = O(n) without contention
+     */
+    private void purge() {
+        for (int level = MAX_LEVEL - 1; level > 0; level--) {
+            Index<T> q = this.heads[level];
+            Index<T> r = q.right;
+            while (r != null) {
+                if (!isRemoved(r.node)) {
+                    q = r;
+                    r = r.right;
+                } else if (q.casRight(r, r.right)) {
+                    r = q.right;
+                } else {
+                    q = this.heads[level];
+                    r = q.right;
+                }
+            }
+        }
+        Node<T> b = this.head;
+        Node<T> n = b.next;
+        while (n != null) {
+            if (n instanceof Marker) {
+                b = this.head;
+                n = b.next;
+                continue;
+            }
+            final Node<T> f = n.next;
+            if (!(f instanceof Marker)) {
+                b = n;
+                n = f;
+            } else if (b.casNext(n, ((Marker<T>) f).successor)) {
+                n = b.next;
+            } else {
+                b = this.head;
+                n = b.next;
+            }
+        }
+    }
+
+    private SkipListSet<T> copyWhere(final Predicate<? super T> filter) {
+        final SkipListSet<T> result = new SkipListSet<>(this.comparator);
+        // The elements arrive in ascending order, so each is appended after the previous one on every level
+        final Index<T>[] tails = result.heads.clone();
+        Node<T> tail = result.head;
+        for (Node<T> node = successor(this.head); node != null; node = successor(node)) {
+            if (filter.test(node.key)) {
+                final Node<T> copy = new Node<>(node.key, null);
+                tail.next = copy;
+                tail = copy;
+                Index<T> down = null;
+                for (int level = 1, top = randomLevel(); level <= top; level++) {
+                    down = new Index<>(copy, down);
+                    tails[level].right = down;
+                    tails[level] = down;
+                }
+                result.size.increment();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Draw the top level of a new node, level l is reached with a probability of 1/4^l
+     */
+    static int randomLevel() {
+        final int random = ThreadLocalRandom.current().nextInt();
+        // Every pair of trailing zero bits raises the level by one
+        return Integer.numberOfTrailingZeros(random | 1 << 2 * (MAX_LEVEL - 1)) >>> 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Index<T>[] newHeads(final Node<T> head) {
+        final Index<T>[] heads = (Index<T>[]) new Index<?>[MAX_LEVEL];
+        for (int level = 1; level < MAX_LEVEL; level++) {
+            heads[level] = new Index<>(head, heads[level - 1]);
+        }
+        return heads;
+    }
+
+    private static boolean isRemoved(final Node<?> node) {
+        return node.next instanceof Marker;
+    }
+
+    /**
+     * Find the first node after a node in the base list which is not removed
+     *
+     * @param node The node, may be removed itself
+     * @return Returns the successor or null if there is none
+     */
+    private static <T> Node<T> successor(final Node<T> node) {
+        Node<T> curr = node.next;
+        if (curr instanceof Marker) {
+            curr = ((Marker<T>) curr).successor;
+        }
+        while (curr != null) {
+            final Node<T> f = curr.next;
+            if (!(f instanceof Marker)) {
+                return curr;
+            }
+            curr = ((Marker<T>) f).successor;
+        }
+        return null;
+    }
+
+    private static void checkNotNull(final Object element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+    }
+
+    /**
+     * A node of the base list holds an element and the link to the next node.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static class Node<T> {
+
+        private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+        final T key;
+        volatile Node<T> next;
+
+        Node(final T key, final Node<T> next) {
+            this.key = key;
+            NEXT.lazySet(this, next);
+        }
+
+        boolean casNext(final Node<T> expected, final Node<T> node) {
+            return NEXT.compareAndSet(this, expected, node);
+        }
+    }
+
+    /**
+     * Replaces the link of a node which is being removed. It carries the successor the link pointed to, so a
+     * traversal can continue past the node, and no compare-and-set expecting the successor can succeed anymore.
+     * A marker is never linked itself, therefore its own link is unused.
+     */
+    static final class Marker<T> extends Node<T> {
+
+        final Node<T> successor;
+
+        Marker(final Node<T> successor) {
+            super(null, null);
+            this.successor = successor;
+        }
+    }
+
+    /**
+     * An index of a node on one level, linked to the next index on the same level and to the index of the same
+     * node on the level below, which is null on the lowest index level.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static final class Index<T> {
+
+        private static final AtomicReferenceFieldUpdater<Index, Index> RIGHT =
+                AtomicReferenceFieldUpdater.newUpdater(Index.class, Index.class, "right");
+
+        final T key;
+        final Node<T> node;
+        final Index<T> down;
+        volatile Index<T> right;
+
+        Index(final Node<T> node, final Index<T> down) {
+            this.key = node.key;
+            this.node = node;
+            this.down = down;
+        }
+
+        boolean casRight(final Index<T> expected, final Index<T> index) {
+            return RIGHT.compareAndSet(this, expected, index);
+        }
+
+        void lazySetRight(final Index<T> index) {
+            RIGHT.lazySet(this, index);
+        }
+    }
+
+    /**
+     * Weakly consistent iterator over the base list, optionally stopping before an upper bound. Removing an element
+     * removes it from the set by its key.
+     */
+    private final class NodeIterator implements Iterator<T> {
+
+        private final T to;
+        private Node<T> next;
+        private Node<T> last;
+
+        NodeIterator(final Node<T> first, final T to) {
+            this.to = to;
+            this.next = bounded(first);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public T next() {
+            if (this.next == null) {
+                throw new NoSuchElementException();
+            }
+            this.last = this.next;
+            this.next = bounded(successor(this.next));
+            return this.last.key;
+        }
+
+        @Override
+        public void remove() {
+            if (this.last == null) {
+                throw new IllegalStateException();
+            }
+            SkipListSet.this.remove(this.last.key);
+            this.last = null;
+        }
+
+        private Node<T> bounded(final Node<T> node) {
+            return node == null || this.to != null && SkipListSet.this.comparator.compare(node.key, this.to) >= 0
+                   ? null : node;
+        }
+    }
+
+    /**
+     * Live view of the elements within a range of the set.
+     */
+    private final class RangeView implements ReadableCollection<T> {
+
+        private final T from;
+        private final T to;
+
+        RangeView(final T from, final T to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * {@inheritDoc}
+         * Worst-Case Time Complexity = O(log n) on average
+         */
+        @Override
+        public boolean contains(final T t) {
+            return t != null && inRange(t) && SkipListSet.this.contains(t);
+        }
+
+        /**
+         * {@inheritDoc}
+         * The elements within the range are counted. Worst-Case Time Complexity = O(log n + k) on average,
+         * k = number of elements within the range
+         */
+        @Override
+        public int size() {
+            int count = 0;
+            for (final Iterator<T> iterator = iterator(); iterator.hasNext(); iterator.next()) {
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * {@inheritDoc}
+         * The elements are returned in ascending order. The iterator is weakly consistent.
+         */
+        @Override
+        public Iterator<T> iterator() {
+            Node<T> node = successor(findPredecessor(this.from, false));
+            while (node != null && SkipListSet.this.comparator.compare(node.key, this.from) < 0) {
+                node = successor(node);
+            }
+            return new NodeIterator(node, this.to);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder("SkipListSet.RangeView{elements=[");
+            int count = 0;
+            for (final T t : this) {
+                if (count++ != 0) {
+                    builder.append(", ");
+                }
+                builder.append(t);
+            }
+            return builder.append("], size=").append(count).append('}').toString();
+        }
+
+        private boolean inRange(final T t) {
+            return SkipListSet.this.comparator.compare(t, this.from) >= 0
+                   && SkipListSet.this.comparator.compare(t, this.to) < 0;
+        }
+    }
+}
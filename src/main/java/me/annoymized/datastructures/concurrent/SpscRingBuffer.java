@@ -0,0 +1,116 @@
+package me.annoymized.datastructures.concurrent;
+
+/**
+ * {@link RingBuffer} for a single producer and a single consumer thread. Each side owns one sequence which only
+ * it writes, the elements are published with an ordered write of the tail and released with an ordered write
+ * of the head. Each side caches the last value it read of the other side's sequence and only reads it again
+ * once the cached value suggests the ring buffer is full (or empty).
+ *
+ * @param <E> A generic type, can be anything.
+ */
+final class SpscRingBuffer<E> extends RingBuffer<E> {
+
+    private final Object[] buffer;
+    // Written by the consumer, its cache holds the last tail read by the consumer
+    private final Sequence head = new Sequence();
+    // Written by the producer, its cache holds the last head read by the producer
+    private final Sequence tail = new Sequence();
+
+    SpscRingBuffer(final int capacity, final WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        this.buffer = new Object[capacity];
+    }
+
+    @Override
+    public boolean offer(final E element) {
+        checkNotNull(element);
+        return claim(1) == 1 && publish(element);
+    }
+
+    private boolean publish(final E element) {
+        final long t = this.tail.value;
+        this.buffer[(int) t & this.mask] = element;
+        this.tail.lazySet(t + 1);
+        return true;
+    }
+
+    @Override
+    public int offer(final E[] batch, final int offset, final int length) {
+        checkBatch(batch, offset, length);
+        final int count = claim(length);
+        final long t = this.tail.value;
+        for (int i = 0; i < count; i++) {
+            this.buffer[(int) (t + i) & this.mask] = batch[offset + i];
+        }
+        if (count != 0) {
+            // Publish the whole batch at once
+            this.tail.lazySet(t + count);
+        }
+        return count;
+    }
+
+    /**
+     * Obtain the number of free slots, up to a given number
+     */
+    private int claim(final int wanted) {
+        final long t = this.tail.value;
+        long free = this.capacity - (t - this.tail.cache);
+        if (free < wanted) {
+            this.tail.cache = this.head.get();
+            free = this.capacity - (t - this.tail.cache);
+        }
+        return (int) Math.min(free, wanted);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (available(1) == 0) {
+            return null;
+        }
+        final long h = this.head.value;
+        final int index = (int) h & this.mask;
+        final E element = (E) this.buffer[index];
+        this.buffer[index] = null;
+        this.head.lazySet(h + 1);
+        return element;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drainTo(final E[] array, final int max) {
+        final int count = available(Math.min(max, array.length));
+        final long h = this.head.value;
+        for (int i = 0; i < count; i++) {
+            final int index = (int) (h + i) & this.mask;
+            array[i] = (E) this.buffer[index];
+            this.buffer[index] = null;
+        }
+        if (count != 0) {
+            // Release the whole batch at once
+            this.head.lazySet(h + count);
+        }
+        return count;
+    }
+
+    /**
+     * Obtain the number of published elements, up to a given number
+     */
+    private int available(final int wanted) {
+        if (wanted <= 0) {
+            return 0;
+        }
+        final long h = this.head.value;
+        long available = this.head.cache - h;
+        if (available < wanted) {
+            this.head.cache = this.tail.get();
+            available = this.head.cache - h;
+        }
+        return (int) Math.min(available, wanted);
+    }
+
+    @Override
+    public int size() {
+        return size(this.head, this.tail);
+    }
+}
@@ -0,0 +1,78 @@
+package me.annoymized.datastructures.concurrent;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategy used by the blocking operations of a {@link RingBuffer} while waiting for space or for elements.
+ * Spinning has the lowest latency but keeps a core busy, yielding lets other threads run on the core and
+ * parking releases the core at the cost of a wake up latency in the order of tens of microseconds.
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * Busy spin, only suitable if every waiting thread has a core of its own.
+     *
+     * @return Returns the spinning wait strategy
+     */
+    static WaitStrategy spin() {
+        return attempt -> {
+        };
+    }
+
+    /**
+     * Yield the core to other threads between attempts.
+     *
+     * @return Returns the yielding wait strategy
+     */
+    static WaitStrategy yielding() {
+        return attempt -> Thread.yield();
+    }
+
+    /**
+     * Park the thread between attempts.
+     *
+     * @param nanos The time to park for in nanoseconds
+     * @return Returns the parking wait strategy
+     * @throws IllegalArgumentException Thrown if the time is less than 1
+     */
+    static WaitStrategy parking(final long nanos) throws IllegalArgumentException {
+        if (nanos < 1) {
+            throw new IllegalArgumentException("Invalid park time: " + nanos);
+        }
+        return attempt -> LockSupport.parkNanos(nanos);
+    }
+
+    /**
+     * Spin first, then yield and finally park, so short waits are served with a low latency while long
+     * waits do not keep the core busy.
+     *
+     * @param spins  The number of attempts to spin for
+     * @param yields The number of attempts to yield for once spinning is over
+     * @param nanos  The time to park for in nanoseconds once yielding is over
+     * @return Returns the backoff wait strategy
+     * @throws IllegalArgumentException Thrown if a number of attempts is negative or the time is less than 1
+     */
+    static WaitStrategy backoff(final int spins, final int yields, final long nanos) throws IllegalArgumentException {
+        if (spins < 0 || yields < 0 || nanos < 1) {
+            throw new IllegalArgumentException("Invalid backoff: " + spins + ", " + yields + ", " + nanos);
+        }
+        return attempt -> {
+            if (attempt < spins) {
+                return;
+            }
+            if (attempt - spins < yields) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(nanos);
+            }
+        };
+    }
+
+    /**
+     * Wait before retrying an operation which could not proceed.
+     *
+     * @param attempt The number of consecutive failed attempts of the operation, starting at 0
+     */
+    void idle(int attempt);
+}
@@ -0,0 +1,243 @@
+package me.annoymized.datastructures.io;
+
+import me.annoymized.datastructures.Collection;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Streaming binary codec for {@link Collection}s. Elements are written as a sequence of
+ * length-prefixed chunks through a single bounded buffer, therefore collections far larger
+ * than the buffer can be written or read with constant memory.
+ * <p>
+ * Stream layout (big-endian):
+ * <pre>
+ * header: int magic | byte codec tag | int max chunk length
+ * chunk:  int element count | int byte length | encoded elements
+ * end:    int 0 | int 0
+ * </pre>
+ * Null elements are not supported. This class holds no mutable state and is therefore thread safe,
+ * each call to {@link #write(Iterable, WritableByteChannel)} or {@link #read(ReadableByteChannel, Collection)}
+ * allocates its own buffer.
+ *
+ * @param <T> A generic type, the type of element in the collection.
+ */
+public class CollectionCodec<T> {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    public static final int MIN_BUFFER_SIZE = 64;
+
+    static final int MAGIC = 0x44534331; // "DSC1"
+    private static final int HEADER_BYTES = Integer.BYTES + 1 + Integer.BYTES;
+    private static final int CHUNK_HEADER_BYTES = Integer.BYTES * 2;
+    // Upper bound of the chunk length accepted from a header, guards against allocating huge buffers for corrupt streams
+    private static final int MAX_CHUNK_BYTES = 64 * 1024 * 1024;
+
+    private final ElementCodec<T> codec;
+    private final int bufferSize;
+
+    /**
+     * @param codec The codec used to encode the individual elements
+     */
+    public CollectionCodec(final ElementCodec<T> codec) {
+        this(codec, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param codec      The codec used to encode the individual elements
+     * @param bufferSize The size of the buffer in bytes, this also bounds the size of a single chunk
+     * @throws IllegalArgumentException Thrown if the buffer size is less than {@link #MIN_BUFFER_SIZE}
+     *                                  or greater than 64 MiB.
+     */
+    public CollectionCodec(final ElementCodec<T> codec, final int bufferSize) throws IllegalArgumentException {
+        if (codec == null) {
+            throw new IllegalArgumentException("Codec cannot be null!");
+        }
+        if (bufferSize < MIN_BUFFER_SIZE || bufferSize - CHUNK_HEADER_BYTES > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+        }
+        this.codec = codec;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Write all elements to a channel. The channel is not closed by this method.
+     * Worst-Case Time Complexity = O(n), n = number of elements
+     *
+     * @param elements The elements to write, usually a {@link Collection}
+     * @param channel  The channel to write to
+     * @return Returns the number of bytes written
+     * @throws IOException              Thrown if the channel fails to write
+     * @throws IllegalArgumentException Thrown if an element is null or its encoded length exceeds the buffer size
+     */
+    public long write(final Iterable<T> elements, final WritableByteChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(this.bufferSize);
+        final int maxChunkBytes = this.bufferSize - CHUNK_HEADER_BYTES;
+        buffer.putInt(MAGIC).put(this.codec.tag()).putInt(maxChunkBytes);
+        long written = 0;
+        // Position of the header of the open chunk, -1 if no chunk is open
+        int chunkStart = -1;
+        int count = 0;
+        for (final T element : elements) {
+            if (element == null) {
+                throw new IllegalArgumentException("Does not support null types!");
+            }
+            final int length = this.codec.encodedLength(element);
+            if (length > maxChunkBytes) {
+                throw new IllegalArgumentException("Element of " + length + " bytes exceeds the buffer size");
+            }
+            final int required = chunkStart == -1 ? length + CHUNK_HEADER_BYTES : length;
+            if (buffer.remaining() < required) {
+                if (chunkStart != -1) {
+                    closeChunk(buffer, chunkStart, count);
+                    chunkStart = -1;
+                }
+                written += flush(buffer, channel);
+            }
+            if (chunkStart == -1) {
+                // Open a new chunk, the header is filled in once the chunk is closed
+                chunkStart = buffer.position();
+                buffer.position(chunkStart + CHUNK_HEADER_BYTES);
+                count = 0;
+            }
+            this.codec.encode(element, buffer);
+            count++;
+        }
+        if (chunkStart != -1) {
+            closeChunk(buffer, chunkStart, count);
+        }
+        if (buffer.remaining() < CHUNK_HEADER_BYTES) {
+            written += flush(buffer, channel);
+        }
+        // End of stream marker
+        buffer.putInt(0).putInt(0);
+        return written + flush(buffer, channel);
+    }
+
+    /**
+     * Read all elements from a channel and add them to a collection. Exactly the bytes of one stream
+     * are consumed from the channel provided it does not hold any bytes past the end of the stream.
+     * Worst-Case Time Complexity = O(n), n = number of elements (excluding the cost of {@link Collection#add(Object)})
+     *
+     * @param channel The channel to read from
+     * @param target  The collection to add the decoded elements to
+     * @return Returns the number of elements read
+     * @throws EOFException               Thrown if the channel ends before the end of the stream
+     * @throws StreamCorruptedException   Thrown if the stream is malformed or was written with a different codec
+     * @throws IOException                Thrown if the channel fails to read
+     */
+    public int read(final ReadableByteChannel channel, final Collection<T> target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(this.bufferSize);
+        // Start in "read" mode with nothing buffered
+        buffer.flip();
+        // Every header is followed by at least a chunk header (or the end marker)
+        fill(buffer, channel, HEADER_BYTES + CHUNK_HEADER_BYTES);
+        if (buffer.getInt() != MAGIC) {
+            throw new StreamCorruptedException("Invalid magic number");
+        }
+        final byte tag = buffer.get();
+        if (tag != this.codec.tag()) {
+            throw new StreamCorruptedException("Stream was written with codec " + tag + ", expected " + this.codec.tag());
+        }
+        final int maxChunkBytes = buffer.getInt();
+        if (maxChunkBytes < 0 || maxChunkBytes > MAX_CHUNK_BYTES) {
+            throw new StreamCorruptedException("Invalid chunk length: " + maxChunkBytes);
+        }
+        // Room for a chunk plus the header of the next chunk
+        final int capacity = maxChunkBytes + CHUNK_HEADER_BYTES * 2;
+        if (capacity > buffer.capacity()) {
+            // The writer used a larger buffer, grow ours to fit one of its chunks
+            final ByteBuffer larger = ByteBuffer.allocate(capacity);
+            larger.put(buffer).flip();
+            buffer = larger;
+        }
+        int total = 0;
+        while (true) {
+            fill(buffer, channel, CHUNK_HEADER_BYTES);
+            final int count = buffer.getInt();
+            final int length = buffer.getInt();
+            if (count == 0 && length == 0) {
+                return total;
+            }
+            if (count <= 0 || length <= 0 || length > maxChunkBytes) {
+                throw new StreamCorruptedException("Invalid chunk header: count=" + count + ", length=" + length);
+            }
+            // Every chunk is followed by at least the next chunk header (or the end marker),
+            // read it alongside so each chunk costs a single fill
+            fill(buffer, channel, length + CHUNK_HEADER_BYTES);
+            // Restrict decoding to this chunk so a malformed element cannot read into the next one
+            final int limit = buffer.limit();
+            final int end = buffer.position() + length;
+            buffer.limit(end);
+            try {
+                for (int i = 0; i < count; i++) {
+                    target.add(this.codec.decode(buffer));
+                }
+            } catch (final BufferUnderflowException ex) {
+                throw new StreamCorruptedException("Chunk ended before " + count + " elements were decoded");
+            }
+            if (buffer.position() != end) {
+                throw new StreamCorruptedException("Chunk has " + (end - buffer.position()) + " trailing bytes");
+            }
+            buffer.limit(limit);
+            total += count;
+        }
+    }
+
+    /**
+     * Fill in the header of a chunk.
+     *
+     * @param buffer     The buffer holding the chunk
+     * @param chunkStart The position of the chunk's header
+     * @param count      The number of elements in the chunk
+     */
+    private static void closeChunk(final ByteBuffer buffer, final int chunkStart, final int count) {
+        buffer.putInt(chunkStart, count);
+        buffer.putInt(chunkStart + Integer.BYTES, buffer.position() - chunkStart - CHUNK_HEADER_BYTES);
+    }
+
+    /**
+     * Write the contents of a buffer to a channel and clear the buffer.
+     *
+     * @return Returns the number of bytes written
+     */
+    private static int flush(final ByteBuffer buffer, final WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        final int bytes = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return bytes;
+    }
+
+    /**
+     * Ensure a buffer in "read" mode has at least a given number of bytes remaining. Only the missing bytes
+     * are requested from the channel, so no bytes past the end of the stream are consumed.
+     *
+     * @param buffer   The buffer, its capacity must be at least the required number of bytes
+     * @param channel  The channel to read from
+     * @param required The number of bytes required
+     * @throws EOFException Thrown if the channel ends before enough bytes are read
+     */
+    private static void fill(final ByteBuffer buffer, final ReadableByteChannel channel,
+                             final int required) throws IOException {
+        if (buffer.remaining() >= required) {
+            return;
+        }
+        buffer.compact();
+        // Limit the read to the missing bytes
+        buffer.limit(required);
+        while (buffer.position() < required) {
+            if (channel.read(buffer) == -1) {
+                throw new EOFException("Stream ended after " + buffer.position() + " of " + required + " bytes");
+            }
+        }
+        buffer.flip();
+    }
+}
@@ -0,0 +1,64 @@
+package me.annoymized.datastructures.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes single elements of a collection to and from a {@link ByteBuffer}.
+ * Implementations are used by {@link CollectionCodec} which takes care of framing the
+ * encoded elements into chunks.
+ *
+ * @param <T> A generic type, the type of element this codec handles.
+ * @see CollectionCodec
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * Codec for {@link Integer} elements, 4 bytes per element.
+     */
+    ElementCodec<Integer> INTEGER = new PrimitiveCodecs.IntegerCodec();
+
+    /**
+     * Codec for {@link Long} elements, 8 bytes per element.
+     */
+    ElementCodec<Long> LONG = new PrimitiveCodecs.LongCodec();
+
+    /**
+     * Codec for {@link String} elements, a 4 byte length followed by the UTF-8 bytes of the string.
+     */
+    ElementCodec<String> STRING = new PrimitiveCodecs.StringCodec();
+
+    /**
+     * Get the tag written to the stream header. The tag is used to verify that a stream
+     * is decoded with the same codec it was encoded with.
+     *
+     * @return Returns the unique tag of this codec
+     */
+    byte tag();
+
+    /**
+     * Get the exact number of bytes {@link #encode(Object, ByteBuffer)} will write for a given element.
+     *
+     * @param element The element instance, never null
+     * @return Returns the encoded length of the element in bytes
+     */
+    int encodedLength(T element);
+
+    /**
+     * Write an element to a buffer. The buffer is guaranteed to have at least
+     * {@link #encodedLength(Object)} bytes remaining.
+     *
+     * @param element The element instance, never null
+     * @param buffer  The buffer to write to
+     */
+    void encode(T element, ByteBuffer buffer);
+
+    /**
+     * Read an element from a buffer.
+     *
+     * @param buffer The buffer to read from, positioned at the start of the element
+     * @return Returns the decoded element
+     * @throws java.nio.BufferUnderflowException Thrown if the buffer does not hold a complete element
+     */
+    T decode(ByteBuffer buffer);
+
+}
@@ -0,0 +1,397 @@
+package me.annoymized.datastructures.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk loader for files of integer keys. The file is split into chunks which are memory-mapped and parsed by a
+ * pool of threads straight from the mapped bytes into primitive arrays, without creating intermediate objects. The
+ * calling thread hands the parsed chunks to a {@link KeySink} in the order of the file while the following chunks
+ * are parsed, so the target collection is only ever modified by one thread. At most twice as many chunks as
+ * threads are parsed ahead, which bounds the memory held by parsed keys.
+ * <p>
+ * Supported formats, see {@link Format}:
+ * <pre>
+ * TEXT:  one decimal key per line, optionally signed, lines end with "\n" or "\r\n", empty lines are skipped,
+ *        a line including its line break can be at most 22 bytes long
+ * INT32: 4 byte big-endian integers, as written by DataOutputStream or ByteBuffer
+ * INT64: 8 byte big-endian integers
+ * </pre>
+ * This class holds no mutable state and is therefore thread safe, each call to {@link #load} uses its own threads.
+ */
+public class KeyFileLoader {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    public static final int MIN_CHUNK_SIZE = 4096;
+    // Longest line a key may have: a sign, 19 digits and "\r\n"
+    private static final int MAX_LINE_LENGTH = 22;
+
+    /**
+     * The layout of the keys in a file.
+     */
+    public enum Format {
+        TEXT(0), INT32(Integer.BYTES), INT64(Long.BYTES);
+
+        // The length of a record in bytes, 0 if records are variable length
+        private final int width;
+
+        Format(final int width) {
+            this.width = width;
+        }
+    }
+
+    /**
+     * Receives the progress of a load, called by the loading thread after each chunk was added to the sink.
+     */
+    @FunctionalInterface
+    public interface Progress {
+
+        /**
+         * @param report The progress so far
+         */
+        void update(Report report);
+    }
+
+    private final Format format;
+    private final int parallelism;
+    private final int chunkSize;
+
+    /**
+     * Create a loader using one thread per available processor and chunks of {@link #DEFAULT_CHUNK_SIZE} bytes
+     *
+     * @param format The format of the files
+     */
+    public KeyFileLoader(final Format format) {
+        this(format, Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param format      The format of the files
+     * @param parallelism The number of threads parsing chunks
+     * @param chunkSize   The number of bytes parsed per task, rounded down to a multiple of the record width
+     * @throws IllegalArgumentException Thrown if the format is null, the parallelism is less than 1 or the chunk
+     *                                  size is less than {@link #MIN_CHUNK_SIZE}
+     */
+    public KeyFileLoader(final Format format, final int parallelism, final int chunkSize)
+            throws IllegalArgumentException {
+        if (format == null) {
+            throw new IllegalArgumentException("Format cannot be null!");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        if (chunkSize < MIN_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        }
+        this.format = format;
+        this.parallelism = parallelism;
+        this.chunkSize = format.width == 0 ? chunkSize : chunkSize - chunkSize % format.width;
+    }
+
+    /**
+     * Load all keys of a file into a sink
+     * Worst-Case Time Complexity = O(n / p), n = length of the file, p = parallelism (excluding the cost of the sink)
+     *
+     * @param file The file
+     * @param sink The sink receiving the keys
+     * @return Returns the report of the load
+     * @throws StreamCorruptedException Thrown if the file is malformed, the sink received the keys of the chunks
+     *                                  before the malformed one
+     * @throws IOException              Thrown if the file cannot be read
+     */
+    public Report load(final Path file, final KeySink sink) throws IOException {
+        return load(file, sink, null);
+    }
+
+    /**
+     * Load all keys of a file into a sink, reporting the progress after every chunk
+     * Worst-Case Time Complexity = O(n / p), n = length of the file, p = parallelism (excluding the cost of the sink)
+     *
+     * @param file     The file
+     * @param sink     The sink receiving the keys
+     * @param progress The progress listener, may be null
+     * @return Returns the report of the load
+     * @throws StreamCorruptedException Thrown if the file is malformed, the sink received the keys of the chunks
+     *                                  before the malformed one
+     * @throws IOException              Thrown if the file cannot be read
+     */
+    public Report load(final Path file, final KeySink sink, final Progress progress) throws IOException {
+        final long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long length = channel.size();
+            if (this.format.width != 0 && length % this.format.width != 0) {
+                throw new EOFException("File ends within a record: " + length + " bytes is not a multiple of "
+                                       + this.format.width);
+            }
+            final long chunks = (length + this.chunkSize - 1) / this.chunkSize;
+            final ExecutorService executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+                final Thread thread = new Thread(runnable, "KeyFileLoader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Key arrays handed back by the sink, reused by the following chunks
+            final ConcurrentLinkedQueue<long[]> pool = new ConcurrentLinkedQueue<>();
+            final ArrayDeque<Future<Chunk>> pending = new ArrayDeque<>();
+            long submitted = 0;
+            long bytes = 0;
+            long rows = 0;
+            try {
+                while (submitted < chunks || !pending.isEmpty()) {
+                    while (submitted < chunks && pending.size() < this.parallelism * 2) {
+                        final long offset = submitted++ * this.chunkSize;
+                        final long end = Math.min(length, offset + this.chunkSize);
+                        pending.add(executor.submit(() -> parse(channel, offset, end, length, pool.poll())));
+                    }
+                    final Chunk chunk = await(pending.poll());
+                    sink.accept(chunk.keys, chunk.count);
+                    pool.add(chunk.keys);
+                    bytes += chunk.bytes;
+                    rows += chunk.count;
+                    if (progress != null) {
+                        progress.update(new Report(bytes, length, rows, System.nanoTime() - start));
+                    }
+                }
+            } finally {
+                for (final Future<Chunk> future : pending) {
+                    future.cancel(true);
+                }
+                executor.shutdownNow();
+            }
+            return new Report(bytes, length, rows, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Parse the keys of a chunk, the chunk covers the bytes from offset (inclusive) to end (exclusive)
+     *
+     * @param keys An array to reuse or null
+     */
+    private Chunk parse(final FileChannel channel, final long offset, final long end, final long length,
+                        final long[] keys) throws IOException {
+        if (this.format == Format.TEXT) {
+            return parseText(channel, offset, end, length, keys);
+        }
+        final int width = this.format.width;
+        final int count = (int) ((end - offset) / width);
+        final long[] target = keys != null && keys.length >= count ? keys : new long[count];
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, end - offset);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (width == Integer.BYTES) {
+            for (int i = 0; i < count; i++) {
+                target[i] = buffer.getInt(i << 2);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                target[i] = buffer.getLong(i << 3);
+            }
+        }
+        return new Chunk(target, count, end - offset);
+    }
+
+    /**
+     * Parse the lines which start within a chunk. The mapping starts one byte early, to tell whether the chunk
+     * starts at the beginning of a line, and extends past the end by the longest line, to finish the last line.
+     */
+    private static Chunk parseText(final FileChannel channel, final long offset, final long end, final long length,
+                                   final long[] keys) throws IOException {
+        final long from = Math.max(0, offset - 1);
+        final long to = Math.min(length, end + MAX_LINE_LENGTH);
+        final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        final int limit = (int) (to - from);
+        final int stop = (int) (end - from);
+        int position = (int) (offset - from);
+        if (offset != 0 && buffer.get(0) != '\n') {
+            // The line started in the previous chunk, which parses it
+            while (position < limit && buffer.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+        long[] target = keys != null ? keys : new long[Math.max(16, stop >>> 3)];
+        int count = 0;
+        while (position < stop) {
+            int b = buffer.get(position);
+            if (b == '\n' || b == '\r' && position + 1 < limit && buffer.get(position + 1) == '\n') {
+                // Empty line
+                position += b == '\n' ? 1 : 2;
+                continue;
+            }
+            final boolean negative = b == '-';
+            if (negative || b == '+') {
+                position++;
+            }
+            final int lineStart = position;
+            // Accumulate negatively, so that Long.MIN_VALUE can be parsed
+            long value = 0;
+            while (position < limit && (b = buffer.get(position)) >= '0' && b <= '9') {
+                if (value < -Long.MAX_VALUE / 10 || value * 10 < Long.MIN_VALUE + (b - '0')) {
+                    throw new StreamCorruptedException("Key out of range at byte " + (from + lineStart));
+                }
+                value = value * 10 - (b - '0');
+                position++;
+            }
+            if (position == lineStart) {
+                throw new StreamCorruptedException("Invalid key at byte " + (from + position));
+            }
+            if (position == limit && to != length) {
+                throw new StreamCorruptedException("Line longer than " + MAX_LINE_LENGTH + " bytes at byte "
+                                                   + (from + lineStart));
+            }
+            if (position < limit) {
+                if (b == '\r') {
+                    position++;
+                }
+                if (position >= limit || buffer.get(position) != '\n') {
+                    throw new StreamCorruptedException("Invalid character at byte " + (from + position));
+                }
+                position++;
+            }
+            if (!negative) {
+                if (value == Long.MIN_VALUE) {
+                    throw new StreamCorruptedException("Key out of range at byte " + (from + lineStart));
+                }
+                value = -value;
+            }
+            if (count == target.length) {
+                target = Arrays.copyOf(target, count * 2);
+            }
+            target[count++] = value;
+        }
+        return new Chunk(target, count, end - offset);
+    }
+
+    /**
+     * Wait for a chunk, rethrowing the exception of its parser
+     */
+    private static Chunk await(final Future<Chunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a chunk");
+        } catch (final ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Narrow a key to an int
+     *
+     * @throws IllegalArgumentException Thrown if the key does not fit an int
+     */
+    static int toInt(final long key) {
+        if ((int) key != key) {
+            throw new IllegalArgumentException("Key out of int range: " + key);
+        }
+        return (int) key;
+    }
+
+    /**
+     * The keys parsed from a chunk.
+     */
+    private static final class Chunk {
+
+        private final long[] keys;
+        private final int count;
+        private final long bytes;
+
+        private Chunk(final long[] keys, final int count, final long bytes) {
+            this.keys = keys;
+            this.count = count;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Progress of a load, the final report is returned by {@link #load}.
+     */
+    public static final class Report {
+
+        private final long bytes;
+        private final long totalBytes;
+        private final long rows;
+        private final long nanos;
+
+        Report(final long bytes, final long totalBytes, final long rows, final long nanos) {
+            this.bytes = bytes;
+            this.totalBytes = totalBytes;
+            this.rows = rows;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return Returns the number of bytes of the file whose keys were added to the sink
+         */
+        public long bytes() {
+            return this.bytes;
+        }
+
+        /**
+         * @return Returns the length of the file in bytes
+         */
+        public long totalBytes() {
+            return this.totalBytes;
+        }
+
+        /**
+         * @return Returns the number of keys added to the sink
+         */
+        public long rows() {
+            return this.rows;
+        }
+
+        /**
+         * @param unit The unit of the result
+         * @return Returns the time elapsed since the load started
+         */
+        public long elapsed(final TimeUnit unit) {
+            return unit.convert(this.nanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return Returns the share of the file loaded, between 0 and 1
+         */
+        public double fraction() {
+            return this.totalBytes == 0 ? 1 : (double) this.bytes / this.totalBytes;
+        }
+
+        /**
+         * @return Returns the number of keys added per second
+         */
+        public double rowsPerSecond() {
+            return this.nanos == 0 ? 0 : this.rows * 1e9 / this.nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Report{rows=" + this.rows + ", bytes=" + this.bytes + "/" + this.totalBytes
+                   + ", elapsed=" + TimeUnit.NANOSECONDS.toMillis(this.nanos) + "ms"
+                   + ", rowsPerSecond=" + Math.round(rowsPerSecond()) + '}';
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package me.annoymized.datastructures.io;
+
+import me.annoymized.datastructures.Collection;
+import me.annoymized.datastructures.IntArrayList;
+import me.annoymized.datastructures.RoaringIntSet;
+import me.annoymized.datastructures.concurrent.LongSkipListSet;
+
+/**
+ * Receives the keys parsed by a {@link KeyFileLoader}, one chunk of the file at a time and in the order of the
+ * file. The array is reused by the loader once this method returns, so it must not be retained.
+ */
+@FunctionalInterface
+public interface KeySink {
+
+    /**
+     * Add the keys of a chunk
+     *
+     * @param keys   The keys, only the first length entries are valid
+     * @param length The number of keys
+     */
+    void accept(long[] keys, int length);
+
+    /**
+     * Obtain a sink which adds the keys to a collection of Longs with a single {@link Collection#addAll(Object[])}
+     * per chunk.
+     *
+     * @param collection The collection
+     * @return Returns the sink
+     */
+    static KeySink ofLongs(final Collection<Long> collection) {
+        return (keys, length) -> {
+            final Long[] boxed = new Long[length];
+            for (int i = 0; i < length; i++) {
+                boxed[i] = keys[i];
+            }
+            collection.addAll(boxed);
+        };
+    }
+
+    /**
+     * Obtain a sink which adds the keys to a collection of Integers with a single
+     * {@link Collection#addAll(Object[])} per chunk.
+     *
+     * @param collection The collection
+     * @return Returns the sink
+     * @throws IllegalArgumentException Thrown by the sink if a key does not fit an int
+     */
+    static KeySink ofInts(final Collection<Integer> collection) {
+        return (keys, length) -> {
+            final Integer[] boxed = new Integer[length];
+            for (int i = 0; i < length; i++) {
+                boxed[i] = KeyFileLoader.toInt(keys[i]);
+            }
+            collection.addAll(boxed);
+        };
+    }
+
+    /**
+     * Obtain a sink which appends the keys to a list with a single {@link IntArrayList#addAll(int...)} per chunk.
+     *
+     * @param list The list
+     * @return Returns the sink
+     * @throws IllegalArgumentException Thrown by the sink if a key does not fit an int
+     */
+    static KeySink of(final IntArrayList list) {
+        return (keys, length) -> {
+            final int[] values = new int[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = KeyFileLoader.toInt(keys[i]);
+            }
+            list.addAll(values);
+        };
+    }
+
+    /**
+     * Obtain a sink which adds the keys to a roaring set
+     *
+     * @param set The set
+     * @return Returns the sink
+     * @throws IllegalArgumentException Thrown by the sink if a key does not fit an int
+     */
+    static KeySink of(final RoaringIntSet set) {
+        return (keys, length) -> {
+            for (int i = 0; i < length; i++) {
+                set.add(KeyFileLoader.toInt(keys[i]));
+            }
+        };
+    }
+
+    /**
+     * Obtain a sink which adds the keys to a skip list set
+     *
+     * @param set The set
+     * @return Returns the sink
+     */
+    static KeySink of(final LongSkipListSet set) {
+        return (keys, length) -> {
+            for (int i = 0; i < length; i++) {
+                set.add(keys[i]);
+            }
+        };
+    }
+}
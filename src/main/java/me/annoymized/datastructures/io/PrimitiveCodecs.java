@@ -0,0 +1,146 @@
+package me.annoymized.datastructures.io;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fast path {@link ElementCodec} implementations for boxed primitives and strings.
+ */
+final class PrimitiveCodecs {
+
+    private PrimitiveCodecs() {
+        throw new UnsupportedOperationException();
+    }
+
+    static final class IntegerCodec implements ElementCodec<Integer> {
+
+        @Override
+        public byte tag() {
+            return 1;
+        }
+
+        @Override
+        public int encodedLength(final Integer element) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(final Integer element, final ByteBuffer buffer) {
+            buffer.putInt(element);
+        }
+
+        @Override
+        public Integer decode(final ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+    }
+
+    static final class LongCodec implements ElementCodec<Long> {
+
+        @Override
+        public byte tag() {
+            return 2;
+        }
+
+        @Override
+        public int encodedLength(final Long element) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(final Long element, final ByteBuffer buffer) {
+            buffer.putLong(element);
+        }
+
+        @Override
+        public Long decode(final ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+    }
+
+    /**
+     * Encodes strings as UTF-8 directly into the buffer so no intermediate byte array is
+     * allocated. Unpaired surrogates are replaced with '?', the same as {@link String#getBytes(java.nio.charset.Charset)}.
+     */
+    static final class StringCodec implements ElementCodec<String> {
+
+        @Override
+        public byte tag() {
+            return 3;
+        }
+
+        @Override
+        public int encodedLength(final String element) {
+            final int length = element.length();
+            int bytes = Integer.BYTES;
+            for (int i = 0; i < length; i++) {
+                final char c = element.charAt(i);
+                if (c < 0x80) {
+                    bytes++;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 3;
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                               && Character.isLowSurrogate(element.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else {
+                    bytes++;
+                }
+            }
+            return bytes;
+        }
+
+        @Override
+        public void encode(final String element, final ByteBuffer buffer) {
+            // Reserve the length prefix and fill it in once the bytes are written
+            final int start = buffer.position();
+            buffer.position(start + Integer.BYTES);
+            final int length = element.length();
+            for (int i = 0; i < length; i++) {
+                final char c = element.charAt(i);
+                if (c < 0x80) {
+                    buffer.put((byte) c);
+                } else if (c < 0x800) {
+                    buffer.put((byte) (0xC0 | c >> 6));
+                    buffer.put((byte) (0x80 | c & 0x3F));
+                } else if (!Character.isSurrogate(c)) {
+                    buffer.put((byte) (0xE0 | c >> 12));
+                    buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                    buffer.put((byte) (0x80 | c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                               && Character.isLowSurrogate(element.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, element.charAt(++i));
+                    buffer.put((byte) (0xF0 | codePoint >> 18));
+                    buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                    buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                    buffer.put((byte) (0x80 | codePoint & 0x3F));
+                } else {
+                    buffer.put((byte) '?');
+                }
+            }
+            buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+        }
+
+        @Override
+        public String decode(final ByteBuffer buffer) {
+            final int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            final String string;
+            if (buffer.hasArray()) {
+                string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                                    StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            } else {
+                final byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                string = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return string;
+        }
+    }
+}
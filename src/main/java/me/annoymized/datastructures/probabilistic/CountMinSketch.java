@@ -0,0 +1,215 @@
+package me.annoymized.datastructures.probabilistic;
+
+import me.annoymized.datastructures.Hashing;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the frequency of the elements of a stream in fixed memory (Cormode and Muthukrishnan, Count-Min
+ * sketch). Every element maps to one counter in each of depth rows, adding the element increments those counters
+ * and its frequency is estimated by the minimum of them. An estimate is never less than the true frequency, with
+ * a width of w counters it exceeds it by more than e / w * (total count) with a probability of at most e^-depth.
+ * The row indices are derived from a single 64-bit hash (Kirsch and Mitzenmacher), the width is a power of two.
+ * <p>
+ * Adding an element takes O(depth) time and never allocates. Sketches of the same dimensions can be merged, so
+ * every thread or shard can count its part of a stream and the sketches are combined afterwards. Equal elements
+ * must have equal {@link Object#hashCode()}s, elements with the same hash code are counted together.
+ * This class is not thread safe and by no means performs any concurrent modification checks.
+ *
+ * @param <T> A generic type, can be anything.
+ * @see HyperLogLog
+ */
+public class CountMinSketch<T> {
+
+    private static final int MAXIMUM_WIDTH = 1 << 26;
+    private static final int MAXIMUM_DEPTH = 16;
+
+    // The counters of row r are at the indices r * width to (r + 1) * width - 1
+    private final long[] counters;
+    private final int depth;
+    private final int widthMask;
+    private final int widthShift;
+    private long totalCount;
+
+    /**
+     * @param width The number of counters per row, rounded up to a power of two
+     * @param depth The number of rows
+     * @throws IllegalArgumentException Thrown if the width is not within 1 and 2^26 or the depth is not within 1
+     *                                  and 16
+     */
+    public CountMinSketch(final int width, final int depth) throws IllegalArgumentException {
+        if (width < 1 || width > MAXIMUM_WIDTH) {
+            throw new IllegalArgumentException("Invalid width: " + width);
+        }
+        if (depth < 1 || depth > MAXIMUM_DEPTH) {
+            throw new IllegalArgumentException("Invalid depth: " + depth);
+        }
+        final int rounded = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.counters = new long[rounded * depth];
+        this.depth = depth;
+        this.widthMask = rounded - 1;
+        this.widthShift = Integer.numberOfTrailingZeros(rounded);
+    }
+
+    /**
+     * Create a sketch whose estimates exceed the true frequency by at most epsilon * (total count) with the given
+     * confidence, the width is e / epsilon and the depth ln(1 / (1 - confidence)).
+     *
+     * @param epsilon    The error relative to the total count, between 0 and 1
+     * @param confidence The probability that an estimate is within the error, between 0 and 1
+     * @param <T>        A generic type, can be anything.
+     * @return Returns a new sketch
+     * @throws IllegalArgumentException Thrown if either value is out of range, or the sketch would be too large
+     */
+    public static <T> CountMinSketch<T> withError(final double epsilon, final double confidence)
+            throws IllegalArgumentException {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("Invalid epsilon: " + epsilon);
+        }
+        if (!(confidence > 0 && confidence < 1)) {
+            throw new IllegalArgumentException("Invalid confidence: " + confidence);
+        }
+        final double width = Math.ceil(Math.E / epsilon);
+        final double depth = Math.ceil(Math.log(1 / (1 - confidence)));
+        return new CountMinSketch<>((int) Math.min(width, Integer.MAX_VALUE), (int) Math.min(depth, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Add an element once | Worst-Case Time Complexity = O(d), d = depth
+     *
+     * @param t The element
+     * @throws IllegalArgumentException Thrown if the element is null
+     */
+    public void add(final T t) {
+        add(t, 1);
+    }
+
+    /**
+     * Add an element a number of times | Worst-Case Time Complexity = O(d), d = depth
+     *
+     * @param t     The element
+     * @param count The number of occurrences
+     * @throws IllegalArgumentException Thrown if the element is null or the count is negative
+     */
+    public void add(final T t, final long count) {
+        if (t == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid count: " + count);
+        }
+        addHash(Hashing.mix64(t.hashCode()), count);
+    }
+
+    /**
+     * Add an element by its 64-bit hash, for callers which already hash their elements, i.e. primitive values
+     * mixed by {@link Hashing#mix64(long)}. The bits of the hash must be evenly distributed.
+     * Worst-Case Time Complexity = O(d), d = depth
+     *
+     * @param hash  The hash of the element
+     * @param count The number of occurrences, cannot be negative
+     */
+    public void addHash(final long hash, final long count) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32) | 1;
+        for (int row = 0; row < this.depth; row++) {
+            this.counters[(row << this.widthShift) + (h1 + row * h2 & this.widthMask)] += count;
+        }
+        this.totalCount += count;
+    }
+
+    /**
+     * Add all elements of an iterable once, using its {@link Iterable#forEach} so that the collections of this
+     * project are traversed without an iterator. Worst-Case Time Complexity = O(n * d), n = number of elements,
+     * d = depth
+     *
+     * @param iterable The elements, i.e. a {@link me.annoymized.datastructures.Collection}
+     * @throws IllegalArgumentException Thrown if the iterable contains null, the elements before it are added
+     */
+    public void addAll(final Iterable<? extends T> iterable) {
+        iterable.forEach(this::add);
+    }
+
+    /**
+     * Estimate the frequency of an element, the estimate is never less than its true frequency
+     * Worst-Case Time Complexity = O(d), d = depth
+     *
+     * @param t The element
+     * @return Returns the estimated number of occurrences, 0 if the element is null
+     */
+    public long estimate(final T t) {
+        return t == null ? 0 : estimateHash(Hashing.mix64(t.hashCode()));
+    }
+
+    /**
+     * Estimate the frequency of an element by its 64-bit hash, see {@link #addHash(long, long)}
+     * Worst-Case Time Complexity = O(d), d = depth
+     *
+     * @param hash The hash of the element
+     * @return Returns the estimated number of occurrences
+     */
+    public long estimateHash(final long hash) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32) | 1;
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < this.depth; row++) {
+            estimate = Math.min(estimate, this.counters[(row << this.widthShift) + (h1 + row * h2 & this.widthMask)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Merge another sketch into this sketch, afterwards this sketch estimates the frequencies of the elements added
+     * to either of them. Worst-Case Time Complexity = O(w * d), w = width, d = depth
+     *
+     * @param other The other sketch
+     * @throws IllegalArgumentException Thrown if the other sketch has different dimensions
+     */
+    public void merge(final CountMinSketch<? extends T> other) {
+        if (other.depth != this.depth || other.widthMask != this.widthMask) {
+            throw new IllegalArgumentException("Invalid dimensions: " + other.width() + "x" + other.depth
+                                               + ", expected " + width() + "x" + this.depth);
+        }
+        for (int i = 0; i < this.counters.length; i++) {
+            this.counters[i] += other.counters[i];
+        }
+        this.totalCount += other.totalCount;
+    }
+
+    /**
+     * Reset all counters | Worst-Case Time Complexity = O(w * d), w = width, d = depth
+     */
+    public void clear() {
+        Arrays.fill(this.counters, 0);
+        this.totalCount = 0;
+    }
+
+    /**
+     * @return Returns the sum of all counts added
+     */
+    public long totalCount() {
+        return this.totalCount;
+    }
+
+    public int width() {
+        return this.widthMask + 1;
+    }
+
+    public int depth() {
+        return this.depth;
+    }
+
+    /**
+     * Estimate the memory used by this sketch, assuming compressed references
+     *
+     * @return Returns the estimated number of bytes
+     */
+    public long sizeInBytes() {
+        return 40 + 16 + this.counters.length * 8L;
+    }
+
+    @Override
+    public String toString() {
+        return "CountMinSketch{width=" + width() + ", depth=" + this.depth + ", totalCount=" + this.totalCount + '}';
+    }
+}
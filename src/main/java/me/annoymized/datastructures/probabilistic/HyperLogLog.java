@@ -0,0 +1,206 @@
+package me.annoymized.datastructures.probabilistic;
+
+import me.annoymized.datastructures.Hashing;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the number of distinct elements of a stream in fixed memory (Flajolet et al., HyperLogLog). The 64-bit
+ * hash of an element selects one of 2^precision registers by its highest bits, the register keeps the highest
+ * position of the first one bit seen among the remaining bits. The estimate is computed from the histogram of the
+ * register values with the improved estimator of Ertl ("New cardinality estimation algorithms for HyperLogLog
+ * sketches", 2017), which corrects for empty and saturated registers analytically. Unlike the original switch to
+ * linear counting it has no biased transition range, so no empirical tables as in HyperLogLog++ are needed. The
+ * relative standard error is 1.04 / sqrt(2^precision) over the whole range, i.e. 0.81% at the default precision
+ * of 14, using one byte per register.
+ * <p>
+ * Adding an element takes constant time and never allocates. Sketches of the same precision can be merged, so
+ * every thread or shard can count its part of a stream and the sketches are combined afterwards. Equal elements
+ * must have equal {@link Object#hashCode()}s, elements with the same hash code count as one.
+ * This class is not thread safe and by no means performs any concurrent modification checks.
+ *
+ * @param <T> A generic type, can be anything.
+ * @see CountMinSketch
+ */
+public class HyperLogLog<T> {
+
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+    private static final int DEFAULT_PRECISION = 14;
+
+    // The limit of the bias correction constant for many registers, 1 / (2 ln 2)
+    private static final double ALPHA_INF = 0.5 / Math.log(2);
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision The number of bits selecting a register, the sketch has 2^precision registers
+     * @throws IllegalArgumentException Thrown if the precision is not within {@link #MIN_PRECISION} and
+     *                                  {@link #MAX_PRECISION}
+     */
+    public HyperLogLog(final int precision) throws IllegalArgumentException {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Invalid precision: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Add an element | Worst-Case Time Complexity = O(1)
+     *
+     * @param t The element
+     * @throws IllegalArgumentException Thrown if the element is null
+     */
+    public void add(final T t) {
+        if (t == null) {
+            throw new IllegalArgumentException("Does not support null types!");
+        }
+        addHash(Hashing.mix64(t.hashCode()));
+    }
+
+    /**
+     * Add an element by its 64-bit hash, for callers which already hash their elements, i.e. primitive values
+     * mixed by {@link Hashing#mix64(long)}. The bits of the hash must be evenly distributed.
+     * Worst-Case Time Complexity = O(1)
+     *
+     * @param hash The hash of the element
+     */
+    public void addHash(final long hash) {
+        final int index = (int) (hash >>> 64 - this.precision);
+        // The guard bit limits the rank, so that it fits the remaining bits of the hash
+        final int rank = Long.numberOfLeadingZeros(hash << this.precision | 1L << this.precision - 1) + 1;
+        if (rank > this.registers[index]) {
+            this.registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Add all elements of an iterable, using its {@link Iterable#forEach} so that the collections of this project
+     * are traversed without an iterator. Worst-Case Time Complexity = O(n), n = number of elements
+     *
+     * @param iterable The elements, i.e. a {@link me.annoymized.datastructures.Collection}
+     * @throws IllegalArgumentException Thrown if the iterable contains null, the elements before it are added
+     */
+    public void addAll(final Iterable<? extends T> iterable) {
+        iterable.forEach(this::add);
+    }
+
+    /**
+     * Estimate the number of distinct elements added | Worst-Case Time Complexity = O(m), m = number of registers
+     *
+     * @return Returns the estimated number of distinct elements
+     */
+    public long estimate() {
+        final int m = this.registers.length;
+        final int q = 64 - this.precision;
+        // Histogram of the register values, which range from 0 (empty) to q + 1
+        final int[] counts = new int[q + 2];
+        for (final byte register : this.registers) {
+            counts[register]++;
+        }
+        if (counts[0] == m) {
+            return 0;
+        }
+        double z = m * tau(1 - (double) counts[q + 1] / m);
+        for (int k = q; k >= 1; k--) {
+            z = 0.5 * (z + counts[k]);
+        }
+        z += m * sigma((double) counts[0] / m);
+        return Math.round(ALPHA_INF * m * m / z);
+    }
+
+    /**
+     * Merge another sketch into this sketch, afterwards this sketch estimates the number of distinct elements added
+     * to either of them. Worst-Case Time Complexity = O(m), m = number of registers
+     *
+     * @param other The other sketch
+     * @throws IllegalArgumentException Thrown if the other sketch has a different precision
+     */
+    public void merge(final HyperLogLog<? extends T> other) {
+        if (other.precision != this.precision) {
+            throw new IllegalArgumentException("Invalid precision: " + other.precision
+                                               + ", expected " + this.precision);
+        }
+        for (int i = 0; i < this.registers.length; i++) {
+            if (other.registers[i] > this.registers[i]) {
+                this.registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Reset all registers | Worst-Case Time Complexity = O(m), m = number of registers
+     */
+    public void clear() {
+        Arrays.fill(this.registers, (byte) 0);
+    }
+
+    public int precision() {
+        return this.precision;
+    }
+
+    /**
+     * @return Returns the relative standard error of the estimate, 1.04 / sqrt(number of registers)
+     */
+    public double standardError() {
+        return 1.04 / Math.sqrt(this.registers.length);
+    }
+
+    /**
+     * Estimate the memory used by this sketch, assuming compressed references
+     *
+     * @return Returns the estimated number of bytes
+     */
+    public long sizeInBytes() {
+        return 16 + 16 + this.registers.length;
+    }
+
+    @Override
+    public String toString() {
+        return "HyperLogLog{precision=" + this.precision + ", estimate=" + estimate() + '}';
+    }
+
+    /**
+     * The sum x + x^2 + 2 x^4 + 4 x^8 + ..., which accounts for the empty registers, x being their fraction
+     */
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    /**
+     * The correction for the registers which reached the maximum value, x being the fraction of the others
+     */
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= (1 - x) * (1 - x) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+}
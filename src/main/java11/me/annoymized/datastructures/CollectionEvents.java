@@ -0,0 +1,193 @@
+package me.annoymized.datastructures;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Reports slow collection operations as Java Flight Recorder events: long walks of a hash set's bucket chain,
+ * deep traversals of a linked list and large bulk operations. The events carry the stack trace of the operation,
+ * so the callers of a slow collection can be found in a recording instead of anonymous CPU samples.
+ * <p>
+ * This is the JDK 11 version of the class in the multi-release JAR. The events are committed to running recordings
+ * if the system property {@link #ENABLED_PROPERTY} is "true" and the jdk.jfr module is present, an operation is
+ * reported if it reaches the threshold read from {@link #CHAIN_PROPERTY}, {@link #TRAVERSAL_PROPERTY} or
+ * {@link #BULK_PROPERTY}. The checks are constant, the JIT compiler removes them entirely while disabled and the
+ * event classes are not even loaded. While enabled, an operation below the thresholds costs a comparison.
+ */
+public final class CollectionEvents {
+
+    /**
+     * System property which enables the events if set to "true"
+     */
+    public static final String ENABLED_PROPERTY = "me.annoymized.datastructures.events";
+    /**
+     * System property for the minimum number of elements compared in a bucket's chain to report the walk,
+     * 8 by default
+     */
+    public static final String CHAIN_PROPERTY = ENABLED_PROPERTY + ".chain";
+    /**
+     * System property for the minimum number of nodes passed in a linked list to report the traversal,
+     * 1024 by default
+     */
+    public static final String TRAVERSAL_PROPERTY = ENABLED_PROPERTY + ".traversal";
+    /**
+     * System property for the minimum number of elements of a bulk operation to report it, 10000 by default
+     */
+    public static final String BULK_PROPERTY = ENABLED_PROPERTY + ".bulk";
+
+    // The event classes are only loaded if this is true, so the module is not required otherwise
+    private static final boolean ENABLED = "true".equals(System.getProperty(ENABLED_PROPERTY))
+                                           && ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+    private static final int CHAIN = Integer.getInteger(CHAIN_PROPERTY, 8);
+    private static final int TRAVERSAL = Integer.getInteger(TRAVERSAL_PROPERTY, 1024);
+    private static final int BULK = Integer.getInteger(BULK_PROPERTY, 10000);
+
+    private CollectionEvents() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Check whether the events are committed to running recordings
+     *
+     * @return Returns true if the events are enabled, false otherwise
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Report the walk of a bucket's chain if it compared at least the chain threshold of elements
+     *
+     * @param collection The class of the hash set
+     * @param length     The number of elements compared
+     * @param buckets    The number of buckets of the hash set
+     * @param found      Whether the element was found
+     */
+    static void chainWalk(final Class<?> collection, final int length, final int buckets, final boolean found) {
+        if (ENABLED && length >= CHAIN) {
+            final ChainWalkEvent event = new ChainWalkEvent();
+            if (event.shouldCommit()) {
+                event.collection = collection;
+                event.length = length;
+                event.buckets = buckets;
+                event.found = found;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Report a traversal of a linked list if it passed at least the traversal threshold of nodes
+     *
+     * @param operation The name of the operation
+     * @param steps     The number of nodes passed
+     * @param size      The size of the list
+     */
+    static void traversal(final String operation, final int steps, final int size) {
+        if (ENABLED && steps >= TRAVERSAL) {
+            final TraversalEvent event = new TraversalEvent();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.steps = steps;
+                event.size = size;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Start timing a bulk operation, the event's own duration covers the operation
+     *
+     * @param elements The number of elements of the operation
+     * @return Returns the event to pass to {@link #bulk(Class, String, int, Object)}, null if it is not reported
+     */
+    static Object bulkStart(final int elements) {
+        if (ENABLED && elements >= BULK) {
+            final BulkEvent event = new BulkEvent();
+            event.begin();
+            return event;
+        }
+        return null;
+    }
+
+    /**
+     * Report a bulk operation if it has at least the bulk threshold of elements
+     *
+     * @param collection The class of the collection
+     * @param operation  The name of the operation
+     * @param elements   The number of elements of the operation
+     * @param event      The event returned by {@link #bulkStart(int)}
+     */
+    static void bulk(final Class<?> collection, final String operation, final int elements, final Object event) {
+        if (ENABLED && event != null) {
+            final BulkEvent bulk = (BulkEvent) event;
+            bulk.end();
+            if (bulk.shouldCommit()) {
+                bulk.collection = collection;
+                bulk.operation = operation;
+                bulk.elements = elements;
+                bulk.commit();
+            }
+        }
+    }
+
+    @Name("me.annoymized.datastructures.ChainWalk")
+    @Label("Long Chain Walk")
+    @Category("Data Structures")
+    @Description("A lookup in a hash set compared many elements of a bucket's chain")
+    @StackTrace
+    static final class ChainWalkEvent extends Event {
+
+        @Label("Collection")
+        Class<?> collection;
+
+        @Label("Chain Length")
+        @Description("The number of elements compared")
+        int length;
+
+        @Label("Buckets")
+        int buckets;
+
+        @Label("Found")
+        boolean found;
+    }
+
+    @Name("me.annoymized.datastructures.Traversal")
+    @Label("Deep Traversal")
+    @Category("Data Structures")
+    @Description("An operation on a linked list passed many nodes")
+    @StackTrace
+    static final class TraversalEvent extends Event {
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Steps")
+        @Description("The number of nodes passed")
+        int steps;
+
+        @Label("Size")
+        int size;
+    }
+
+    @Name("me.annoymized.datastructures.Bulk")
+    @Label("Large Bulk Operation")
+    @Category("Data Structures")
+    @Description("A bulk operation on a collection with many elements")
+    @StackTrace
+    static final class BulkEvent extends Event {
+
+        @Label("Collection")
+        Class<?> collection;
+
+        @Label("Operation")
+        String operation;
+
+        @Label("Elements")
+        int elements;
+    }
+}
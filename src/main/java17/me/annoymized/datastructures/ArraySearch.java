@@ -0,0 +1,95 @@
+package me.annoymized.datastructures;
+
+/**
+ * Linear scans over primitive arrays, used for array searches and for probing open addressing hash tables.
+ * <p>
+ * This is the JDK 17 version of the class in the multi-release JAR. The scans compare as many elements per
+ * instruction as the CPU's vector registers hold, using the incubating Vector API, if the module is present at
+ * runtime ({@code --add-modules jdk.incubator.vector}) and the system property {@link #VECTORIZE_PROPERTY} is
+ * not "false". Otherwise the portable scalar loops are used.
+ */
+public final class ArraySearch {
+
+    /**
+     * System property which disables the vectorized scans if set to "false"
+     */
+    public static final String VECTORIZE_PROPERTY = "me.annoymized.datastructures.vectorize";
+
+    // VectorizedSearch is only loaded if this is true, so the module is not required otherwise
+    private static final boolean VECTORIZED = !"false".equals(System.getProperty(VECTORIZE_PROPERTY))
+                                              && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private ArraySearch() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Check whether the scans are vectorized
+     *
+     * @return Returns true if the Vector API is used, false otherwise
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Find the first index of a value within a range of an array
+     * Worst-Case Time Complexity = O(n), n = length of the range
+     *
+     * @param array The array
+     * @param from  The first index of the range (inclusive)
+     * @param to    The last index of the range (exclusive)
+     * @param key   The value
+     * @return Returns the index or -1 if the range does not contain the value
+     * @throws IndexOutOfBoundsException Thrown if the range is not within the bounds of the array
+     */
+    public static int indexOf(final int[] array, final int from, final int to, final int key) {
+        checkRange(array.length, from, to);
+        return VECTORIZED ? VectorizedSearch.indexOf(array, from, to, key) : ScalarSearch.indexOf(array, from, to, key);
+    }
+
+    /**
+     * Find the first index of a value within a range of an array
+     * Worst-Case Time Complexity = O(n), n = length of the range
+     *
+     * @param array The array
+     * @param from  The first index of the range (inclusive)
+     * @param to    The last index of the range (exclusive)
+     * @param key   The value
+     * @return Returns the index or -1 if the range does not contain the value
+     * @throws IndexOutOfBoundsException Thrown if the range is not within the bounds of the array
+     */
+    public static int indexOf(final long[] array, final int from, final int to, final long key) {
+        checkRange(array.length, from, to);
+        return VECTORIZED ? VectorizedSearch.indexOf(array, from, to, key) : ScalarSearch.indexOf(array, from, to, key);
+    }
+
+    /**
+     * Probe an open addressing hash table with linear probing: find the slot holding a key or the first empty
+     * slot, starting at a given slot and wrapping around at the end of the table.
+     * Worst-Case Time Complexity = O(n), n = length of the table
+     *
+     * @param table The table
+     * @param start The slot to start at
+     * @param key   The key
+     * @param empty The value of empty slots
+     * @return Returns the index of the slot holding the key or of the first empty slot, whichever comes first,
+     * or -1 if the table is full and does not contain the key
+     * @throws IndexOutOfBoundsException Thrown if the start is not within the bounds of the table
+     */
+    public static int probe(final int[] table, final int start, final int key, final int empty) {
+        checkRange(table.length, start, start + 1);
+        if (VECTORIZED) {
+            final int index = VectorizedSearch.indexOfEither(table, start, table.length, key, empty);
+            return index != -1 ? index : VectorizedSearch.indexOfEither(table, 0, start, key, empty);
+        }
+        final int index = ScalarSearch.indexOfEither(table, start, table.length, key, empty);
+        return index != -1 ? index : ScalarSearch.indexOfEither(table, 0, start, key, empty);
+    }
+
+    static void checkRange(final int length, final int from, final int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + length);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package me.annoymized.datastructures;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vectorized implementations of the {@link ArraySearch} scans. Each iteration loads a vector of the preferred
+ * (widest) shape of the CPU and compares all of its lanes at once, the remaining elements are compared one by one.
+ * Only loaded if the jdk.incubator.vector module is present.
+ */
+final class VectorizedSearch {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    private VectorizedSearch() {
+        throw new UnsupportedOperationException();
+    }
+
+    static int indexOf(final int[] array, final int from, final int to, final int key) {
+        int i = from;
+        for (final int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            final VectorMask<Integer> mask = IntVector.fromArray(INTS, array, i).compare(VectorOperators.EQ, key);
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+        return ScalarSearch.indexOf(array, i, to, key);
+    }
+
+    static int indexOf(final long[] array, final int from, final int to, final long key) {
+        int i = from;
+        for (final int bound = from + LONGS.loopBound(to - from); i < bound; i += LONGS.length()) {
+            final VectorMask<Long> mask = LongVector.fromArray(LONGS, array, i).compare(VectorOperators.EQ, key);
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+        return ScalarSearch.indexOf(array, i, to, key);
+    }
+
+    static int indexOfEither(final int[] array, final int from, final int to, final int first, final int second) {
+        int i = from;
+        for (final int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            final IntVector vector = IntVector.fromArray(INTS, array, i);
+            final VectorMask<Integer> mask = vector.compare(VectorOperators.EQ, first)
+                                                   .or(vector.compare(VectorOperators.EQ, second));
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+        return ScalarSearch.indexOfEither(array, i, to, first, second);
+    }
+}
@@ -0,0 +1,54 @@
+package me.annoymized.datastructures.concurrent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A counter padded to a cache line of its own, so counters written by different threads do not invalidate
+ * each other's cache lines (false sharing).
+ * <p>
+ * This is the JDK 17 version of the class in the multi-release JAR, it accesses the value through a
+ * {@link VarHandle} which, unlike a field updater, performs no receiver type checks.
+ */
+final class Sequence extends RhsPadding {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+        } catch (final ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    /**
+     * Volatile read of the value
+     *
+     * @return Returns the value
+     */
+    long get() {
+        return this.value;
+    }
+
+    /**
+     * Release write of the value, writes before it cannot be reordered after it but, unlike a volatile
+     * write, it does not wait for the store buffer to drain
+     *
+     * @param value The new value
+     */
+    void lazySet(final long value) {
+        VALUE.setRelease(this, value);
+    }
+
+    /**
+     * Atomically set the value if it equals the expected value
+     *
+     * @param expected The expected value
+     * @param value    The new value
+     * @return Returns true if the value was set, false otherwise
+     */
+    boolean compareAndSet(final long expected, final long value) {
+        return VALUE.compareAndSet(this, expected, value);
+    }
+}